@@ -1,21 +1,21 @@
 package thebetweenlands.api.aspect;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Set;
 
 import javax.annotation.Nonnull;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.nbt.NBTTagList;
 import net.minecraftforge.common.util.Constants;
 import thebetweenlands.common.registries.AspectRegistry;
+import thebetweenlands.util.TickProfiler;
 
 /**
  * The aspect container contains dynamic and static aspects.
@@ -25,134 +25,130 @@ import thebetweenlands.common.registries.AspectRegistry;
  * longer treated as a static aspect.
  */
 public class AspectContainer {
-	protected static final class Storage {
-		private final IAspectType type;
-		private final AspectContainer container;
-		private int dynamicAmount;
-		private int storedStaticAmount;
-		private boolean hasStoredStaticAmount;
-
-		private Storage(IAspectType type, AspectContainer container) {
-			this.type = type;
-			this.dynamicAmount = 0;
-			this.storedStaticAmount = 0;
-			this.hasStoredStaticAmount = false;
-			this.container = container;
-		}
-
-		/**
-		 * Writes the storage data to the specified NBT
-		 * @param nbt
-		 * @return
-		 */
-		public NBTTagCompound writeToNBT(NBTTagCompound nbt) {
-			nbt.setInteger("dynamic", this.dynamicAmount);
-			nbt.setInteger("storedStatic", this.storedStaticAmount);
-			nbt.setBoolean("hasStoredStatic", this.hasStoredStaticAmount);
-			return nbt;
-		}
-
-		/**
-		 * Reads the storage data from the specified NBT
-		 * @param nbt
-		 * @return
-		 */
-		public Storage readFromNBT(NBTTagCompound nbt) {
-			this.dynamicAmount = nbt.getInteger("dynamic");
-			this.storedStaticAmount = nbt.getInteger("storedStatic");
-			this.hasStoredStaticAmount = nbt.getBoolean("hasStoredStatic");
-			return this;
-		}
-
-		/**
-		 * Returns the amount
-		 * @param dynamic
-		 * @param staticAspects
-		 * @return
-		 */
-		public int getAmount(boolean dynamic) {
-			if(dynamic) {
-				return this.dynamicAmount;
-			} else {
-				if(this.hasStoredStaticAmount) {
-					//Return stored static amount if it has been changed previously
-					return this.storedStaticAmount;
-				} else {
-					List<Aspect> staticAspects = this.container.getStaticAspects();
-					if(staticAspects != null) {
-						int amount = 0;
-						for(Aspect aspect : staticAspects) {
-							if(aspect.type == this.type) {
-								amount += aspect.amount;
-							}
-						}
-						return amount;
-					} else {
-						return 0;
-					}
-				}
-			}
-		}
+	/**
+	 * Assigns a dense index to every aspect type. Replaced as a whole when an
+	 * unregistered aspect type is used for the first time
+	 */
+	private static final class TypeIndex {
+		private final ImmutableList<IAspectType> types;
+		private final ImmutableSet<IAspectType> typeSet;
+		private final Reference2IntMap<IAspectType> indices = new Reference2IntOpenHashMap<IAspectType>();
 
-		/**
-		 * Sets the amount
-		 * @param dynamic
-		 * @param amount
-		 * @return
-		 */
-		public Storage setAmount(boolean dynamic, int amount) {
-			if(dynamic) {
-				this.dynamicAmount = amount;
-			} else {
-				this.storedStaticAmount = amount;
-				this.hasStoredStaticAmount = true;
+		private TypeIndex(List<IAspectType> types) {
+			this.types = ImmutableList.copyOf(types);
+			this.typeSet = ImmutableSet.copyOf(types);
+			this.indices.defaultReturnValue(-1);
+			for(int i = 0; i < this.types.size(); i++) {
+				this.indices.put(this.types.get(i), i);
 			}
-			return this;
-		}
-
-		/**
-		 * Resets the static amount to the default
-		 * @return
-		 */
-		public Storage resetStaticAmount() {
-			this.storedStaticAmount = 0;
-			this.hasStoredStaticAmount = false;
-			return this;
 		}
 	}
 
-	private final Map<IAspectType, Storage> storage = new HashMap<IAspectType, Storage>();
+	private static volatile TypeIndex typeIndex = new TypeIndex(AspectRegistry.ASPECT_TYPES);
 
 	/**
-	 * Returns the storage for the specified aspect
+	 * Returns the index of the specified aspect type or -1 if it has no index yet
 	 * @param type
 	 * @return
 	 */
-	protected final Storage getStorage(IAspectType type) {
-		Storage storage = this.storage.get(type);
-		if(storage == null) {
-			this.storage.put(type, storage = new Storage(type, this));
-		}
-		return storage;
+	private static int getIndex(IAspectType type) {
+		return typeIndex.indices.getInt(type);
 	}
 
-	public AspectContainer() {
-		for(IAspectType type : AspectRegistry.ASPECT_TYPES) {
-			this.storage.put(type, new Storage(type, this));
+	/**
+	 * Returns the index of the specified aspect type and assigns a new index if necessary
+	 * @param type
+	 * @return
+	 */
+	private static int getOrCreateIndex(IAspectType type) {
+		int index = getIndex(type);
+		if(index < 0) {
+			synchronized(TypeIndex.class) {
+				TypeIndex current = typeIndex;
+				index = current.indices.getInt(type);
+				if(index < 0) {
+					List<IAspectType> types = new ArrayList<IAspectType>(current.types);
+					types.add(type);
+					typeIndex = new TypeIndex(types);
+					index = types.size() - 1;
+				}
+			}
 		}
+		return index;
 	}
 
+	//Amounts indexed by aspect type index. Only allocated once something is stored
+	private int[] dynamicAmounts;
+	private int[] storedStaticAmounts;
+	private boolean[] hasStoredStaticAmounts;
+
+	public AspectContainer() { }
+
 	/**
 	 * Called when the data was changed
 	 */
 	protected void onChanged() { }
 
+	/**
+	 * Called before the stored amounts are accessed. Allows subclasses to load their data lazily
+	 */
+	protected void ensureLoaded() { }
+
 	/**
 	 * Returns the set of all stored aspect types
 	 * @return
 	 */
 	protected final ImmutableSet<IAspectType> getStoredAspectTypes() {
-		return ImmutableSet.copyOf(this.storage.keySet());
+		return typeIndex.typeSet;
+	}
+
+	private void ensureCapacity(int index) {
+		int size = Math.max(index + 1, typeIndex.types.size());
+		if(this.dynamicAmounts == null) {
+			this.dynamicAmounts = new int[size];
+			this.storedStaticAmounts = new int[size];
+			this.hasStoredStaticAmounts = new boolean[size];
+		} else if(this.dynamicAmounts.length < size) {
+			this.dynamicAmounts = Arrays.copyOf(this.dynamicAmounts, size);
+			this.storedStaticAmounts = Arrays.copyOf(this.storedStaticAmounts, size);
+			this.hasStoredStaticAmounts = Arrays.copyOf(this.hasStoredStaticAmounts, size);
+		}
+	}
+
+	private int getDynamicAmount(int index) {
+		return this.dynamicAmounts != null && index >= 0 && index < this.dynamicAmounts.length ? this.dynamicAmounts[index] : 0;
+	}
+
+	private boolean hasStoredStaticAmount(int index) {
+		return this.hasStoredStaticAmounts != null && index >= 0 && index < this.hasStoredStaticAmounts.length && this.hasStoredStaticAmounts[index];
+	}
+
+	private int getStaticAmount(IAspectType type, int index) {
+		if(this.hasStoredStaticAmount(index)) {
+			//Return stored static amount if it has been changed previously
+			return this.storedStaticAmounts[index];
+		}
+		List<Aspect> staticAspects = this.getStaticAspects();
+		int amount = 0;
+		if(staticAspects != null) {
+			for(Aspect aspect : staticAspects) {
+				if(aspect.type == type) {
+					amount += aspect.amount;
+				}
+			}
+		}
+		return amount;
+	}
+
+	private void setDynamicAmount(int index, int amount) {
+		this.ensureCapacity(index);
+		this.dynamicAmounts[index] = amount;
+	}
+
+	private void setStoredStaticAmount(int index, int amount) {
+		this.ensureCapacity(index);
+		this.storedStaticAmounts[index] = amount;
+		this.hasStoredStaticAmounts[index] = true;
 	}
 
 	/**
@@ -161,7 +157,9 @@ public class AspectContainer {
 	 * @return
 	 */
 	protected final int get(IAspectType type, boolean dynamic) {
-		return this.getStorage(type).getAmount(dynamic);
+		this.ensureLoaded();
+		int index = getIndex(type);
+		return dynamic ? this.getDynamicAmount(index) : this.getStaticAmount(type, index);
 	}
 	
 	/**
@@ -170,8 +168,9 @@ public class AspectContainer {
 	 * @return
 	 */
 	public final int get(IAspectType type) {
-		Storage storage = this.getStorage(type);
-		return storage.getAmount(true) + storage.getAmount(false);
+		this.ensureLoaded();
+		int index = getIndex(type);
+		return this.getDynamicAmount(index) + this.getStaticAmount(type, index);
 	}
 
 	/**
@@ -191,21 +190,23 @@ public class AspectContainer {
 	 */
 	public final AspectContainer set(IAspectType type, int amount) {
 		if(amount >= 0) {
-			Storage storage = this.getStorage(type);
-			int diff = this.get(type) - amount;
+			this.ensureLoaded();
+			int index = getOrCreateIndex(type);
+			int dynamicAmount = this.getDynamicAmount(index);
+			int staticAmount = this.getStaticAmount(type, index);
+			int diff = dynamicAmount + staticAmount - amount;
 			if(diff > 0) {
 				//Remove
-				int dynAmounts = storage.getAmount(true);
-				storage.setAmount(true, Math.max(dynAmounts - diff, 0));
-				diff = Math.max(diff - dynAmounts, 0);
+				this.setDynamicAmount(index, Math.max(dynamicAmount - diff, 0));
+				diff = Math.max(diff - dynamicAmount, 0);
 				if(diff > 0) {
 					//Drain static aspect last and only if necessary
-					storage.setAmount(false, storage.getAmount(false) - diff);
+					this.setStoredStaticAmount(index, staticAmount - diff);
 				}
 				this.onChanged();
 			} else if(diff < 0) {
 				//Add
-				storage.setAmount(true, amount - storage.getAmount(false));
+				this.setDynamicAmount(index, amount - staticAmount);
 				this.onChanged();
 			}
 		}
@@ -219,11 +220,10 @@ public class AspectContainer {
 	 * @return
 	 */
 	public final AspectContainer add(IAspectType type, int amount) {
-		Storage storage = this.getStorage(type);
-
-		storage.dynamicAmount += amount;
-
 		if(amount != 0) {
+			this.ensureLoaded();
+			int index = getOrCreateIndex(type);
+			this.setDynamicAmount(index, this.getDynamicAmount(index) + amount);
 			this.onChanged();
 		}
 
@@ -251,8 +251,10 @@ public class AspectContainer {
 	 * @return
 	 */
 	public final boolean isEmpty() {
-		for(Storage storage : this.storage.values()) {
-			if(storage.getAmount(true) + storage.getAmount(false) > 0)
+		this.ensureLoaded();
+		List<IAspectType> types = typeIndex.types;
+		for(int i = 0; i < types.size(); i++) {
+			if(this.getDynamicAmount(i) + this.getStaticAmount(types.get(i), i) > 0)
 				return false;
 		}
 		return true;
@@ -264,21 +266,27 @@ public class AspectContainer {
 	 * @return
 	 */
 	public NBTTagCompound save(NBTTagCompound nbt) {
+		this.ensureLoaded();
 		NBTTagList typesList = new NBTTagList();
-		for(Entry<IAspectType, Storage> entry : this.storage.entrySet()) {
-			IAspectType type = entry.getKey();
-			Storage storage = entry.getValue();
-			
-			if(storage.dynamicAmount == 0 && !storage.hasStoredStaticAmount) {
-				//Doesn't have to be saved
-				continue;
-			}
-			
-			NBTTagCompound storageNbt = new NBTTagCompound();
-			storageNbt.setTag("aspect", type.writeToNBT(new NBTTagCompound()));
-			storageNbt.setTag("storage", storage.writeToNBT(new NBTTagCompound()));
+		if(this.dynamicAmounts != null) {
+			List<IAspectType> types = typeIndex.types;
+			for(int i = 0; i < this.dynamicAmounts.length; i++) {
+				if(this.dynamicAmounts[i] == 0 && !this.hasStoredStaticAmounts[i]) {
+					//Doesn't have to be saved
+					continue;
+				}
 
-			typesList.appendTag(storageNbt);
+				NBTTagCompound storageNbt = new NBTTagCompound();
+				storageNbt.setInteger("dynamic", this.dynamicAmounts[i]);
+				storageNbt.setInteger("storedStatic", this.storedStaticAmounts[i]);
+				storageNbt.setBoolean("hasStoredStatic", this.hasStoredStaticAmounts[i]);
+
+				NBTTagCompound entryNbt = new NBTTagCompound();
+				entryNbt.setTag("aspect", types.get(i).writeToNBT(new NBTTagCompound()));
+				entryNbt.setTag("storage", storageNbt);
+
+				typesList.appendTag(entryNbt);
+			}
 		}
 		nbt.setTag("container", typesList);
 		return nbt;
@@ -293,12 +301,16 @@ public class AspectContainer {
 	public AspectContainer read(NBTTagCompound nbt) {
 		NBTTagList typesList = nbt.getTagList("container", Constants.NBT.TAG_COMPOUND);
 		for(int i = 0; i < typesList.tagCount(); i++) {
-			NBTTagCompound storageNbt = typesList.getCompoundTagAt(i);
-			IAspectType type = IAspectType.readFromNBT(storageNbt.getCompoundTag("aspect"));
+			NBTTagCompound entryNbt = typesList.getCompoundTagAt(i);
+			IAspectType type = IAspectType.readFromNBT(entryNbt.getCompoundTag("aspect"));
 			if(type == null)
 				continue;
-			Storage storage = this.getStorage(type);
-			storage.readFromNBT(storageNbt.getCompoundTag("storage"));
+			NBTTagCompound storageNbt = entryNbt.getCompoundTag("storage");
+			int index = getOrCreateIndex(type);
+			this.ensureCapacity(index);
+			this.dynamicAmounts[index] = storageNbt.getInteger("dynamic");
+			this.storedStaticAmounts[index] = storageNbt.getInteger("storedStatic");
+			this.hasStoredStaticAmounts[index] = storageNbt.getBoolean("hasStoredStatic");
 		}
 		return this;
 	}
@@ -318,10 +330,21 @@ public class AspectContainer {
 	 */
 	@Nonnull
 	public List<Aspect> getAspects() {
+		TickProfiler.ASPECT_CONTAINERS.start();
+		try {
+			return this.collectAspects();
+		} finally {
+			TickProfiler.ASPECT_CONTAINERS.stop();
+		}
+	}
+
+	private List<Aspect> collectAspects() {
+		this.ensureLoaded();
 		List<Aspect> aspects = new ArrayList<Aspect>();
-		Set<IAspectType> types = this.getStoredAspectTypes();
-		for(IAspectType type : types) {
-			int amount = this.get(type);
+		List<IAspectType> types = typeIndex.types;
+		for(int i = 0; i < types.size(); i++) {
+			IAspectType type = types.get(i);
+			int amount = this.getDynamicAmount(i) + this.getStaticAmount(type, i);
 			if(amount > 0)
 				aspects.add(new Aspect(type, amount));
 		}
@@ -6,7 +6,12 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.MapMaker;
+
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.InventoryPlayer;
 import net.minecraft.item.ItemStack;
@@ -16,12 +21,56 @@ import net.minecraftforge.common.util.Constants;
 import thebetweenlands.api.aspect.DiscoveryContainer.AspectDiscovery.EnumDiscoveryResult;
 import thebetweenlands.api.item.IDiscoveryProvider;
 import thebetweenlands.common.herblore.aspect.AspectManager;
+import thebetweenlands.util.TickProfiler;
 
 public class DiscoveryContainer<T> {
 	private final Map<AspectItem, List<IAspectType>> discoveredStaticAspects = new HashMap<AspectItem, List<IAspectType>>();
 	private final IDiscoveryProvider<T> provider;
 	private final T providerObj;
 
+	//Cached discovered static aspects, only valid for the cached manager and its version
+	private final Map<AspectItem, List<Aspect>> discoveredAspectsCache = new Reference2ObjectOpenHashMap<AspectItem, List<Aspect>>();
+	private AspectManager cachedManager;
+	private int cachedManagerVersion;
+
+	//Changes whenever any discovery container is saved, used to invalidate the merged containers
+	private static final AtomicInteger REVISION = new AtomicInteger();
+
+	//Merged discovery containers per player. Weak keys are compared by identity, Entity#equals only compares the
+	//entity ID and the client and server player of singleplayer share the same ID
+	private static final Map<EntityPlayer, MergedContainer> MERGED_CONTAINERS = new MapMaker().weakKeys().makeMap();
+
+	private static class MergedContainer {
+		private final DiscoveryContainer<?> container;
+		private final List<ItemStack> stacks;
+		private final List<NBTTagCompound> nbts = new ArrayList<NBTTagCompound>();
+		private final int revision;
+
+		private MergedContainer(DiscoveryContainer<?> container, List<ItemStack> stacks, int revision) {
+			this.container = container;
+			this.stacks = stacks;
+			for(ItemStack stack : stacks)
+				this.nbts.add(stack.getTagCompound());
+			this.revision = revision;
+		}
+
+		/**
+		 * Returns whether the merged container was built from the specified stacks and none of them has changed since
+		 * @param stacks
+		 * @return
+		 */
+		private boolean isValid(List<ItemStack> stacks) {
+			if(this.revision != REVISION.get() || this.stacks.size() != stacks.size())
+				return false;
+			for(int i = 0; i < stacks.size(); i++) {
+				ItemStack stack = stacks.get(i);
+				if(stack != this.stacks.get(i) || stack.getTagCompound() != this.nbts.get(i))
+					return false;
+			}
+			return true;
+		}
+	}
+
 	public DiscoveryContainer(IDiscoveryProvider<T> provider, T providerObj) {
 		this.provider = provider;
 		this.providerObj = providerObj;
@@ -63,6 +112,8 @@ public class DiscoveryContainer<T> {
 	}
 
 	private DiscoveryContainer<T> saveContainer() {
+		this.discoveredAspectsCache.clear();
+		REVISION.incrementAndGet();
 		if(this.provider != null && this.providerObj != null)
 			this.provider.saveContainer(this.providerObj, this);
 		return this;
@@ -182,6 +233,7 @@ public class DiscoveryContainer<T> {
 	 */
 	public DiscoveryContainer<T> updateFromNBT(NBTTagCompound nbt, boolean save) {
 		this.discoveredStaticAspects.clear();
+		this.discoveredAspectsCache.clear();
 		NBTTagList discoveryList = nbt.getTagList("discoveries", Constants.NBT.TAG_COMPOUND);
 		int discoveryEntries = discoveryList.tagCount();
 		for (int i = 0; i < discoveryEntries; i++) {
@@ -229,20 +281,29 @@ public class DiscoveryContainer<T> {
 	}
 
 	/**
-	 * Returns the list of all the discovered aspects of the specified item.
+	 * Returns an immutable list of all the discovered aspects of the specified item.
 	 * @param manager
 	 * @param item
 	 * @return
 	 */
 	public List<Aspect> getDiscoveredStaticAspects(AspectManager manager, AspectItem item) {
-		List<Aspect> discoveredStaticAspects = new ArrayList<Aspect>();
-		if(this.discoveredStaticAspects.containsKey(item)) {
-			List<IAspectType> discoveredAspects = this.discoveredStaticAspects.get(item);
-			List<Aspect> staticAspects = manager.getStaticAspects(item);
-			for(Aspect a : staticAspects) {
+		List<IAspectType> discoveredAspects = this.discoveredStaticAspects.get(item);
+		if(discoveredAspects == null) {
+			return ImmutableList.of();
+		}
+		if(this.cachedManager != manager || this.cachedManagerVersion != manager.getVersion()) {
+			this.discoveredAspectsCache.clear();
+			this.cachedManager = manager;
+			this.cachedManagerVersion = manager.getVersion();
+		}
+		List<Aspect> discoveredStaticAspects = this.discoveredAspectsCache.get(item);
+		if(discoveredStaticAspects == null) {
+			ImmutableList.Builder<Aspect> builder = ImmutableList.builder();
+			for(Aspect a : manager.getStaticAspects(item)) {
 				if(discoveredAspects.contains(a.type))
-					discoveredStaticAspects.add(a);
+					builder.add(a);
 			}
+			this.discoveredAspectsCache.put(item, discoveredStaticAspects = builder.build());
 		}
 		return discoveredStaticAspects;
 	}
@@ -279,39 +340,72 @@ public class DiscoveryContainer<T> {
 	}
 
 	/**
-	 * Returns a list of all writable discovery containers in the inventory of a player
+	 * Returns a list of all stacks in the inventory of a player that provide a discovery container
 	 * @param player
 	 * @return
 	 */
-	public static List<DiscoveryContainer<?>> getWritableDiscoveryContainers(EntityPlayer player) {
-		List<DiscoveryContainer<?>> containerList = new ArrayList<DiscoveryContainer<?>>();
+	private static List<ItemStack> getDiscoveryProviderStacks(EntityPlayer player) {
+		List<ItemStack> stackList = new ArrayList<ItemStack>();
 		InventoryPlayer inventory = player.inventory;
 		for(int i = 0; i < inventory.getSizeInventory(); i++) {
 			ItemStack stack = inventory.getStackInSlot(i);
-			if(!stack.isEmpty() && stack.getItem() instanceof IDiscoveryProvider) {
-				@SuppressWarnings("unchecked")
-				IDiscoveryProvider<ItemStack> provider = (IDiscoveryProvider<ItemStack>) stack.getItem();
-				DiscoveryContainer<?> container = provider.getContainer(stack);
-				if(container != null)
-					containerList.add(container);
-			}
+			if(!stack.isEmpty() && stack.getItem() instanceof IDiscoveryProvider)
+				stackList.add(stack);
+		}
+		return stackList;
+	}
+
+	private static List<DiscoveryContainer<?>> getDiscoveryContainers(List<ItemStack> stacks) {
+		List<DiscoveryContainer<?>> containerList = new ArrayList<DiscoveryContainer<?>>();
+		for(ItemStack stack : stacks) {
+			@SuppressWarnings("unchecked")
+			IDiscoveryProvider<ItemStack> provider = (IDiscoveryProvider<ItemStack>) stack.getItem();
+			DiscoveryContainer<?> container = provider.getContainer(stack);
+			if(container != null)
+				containerList.add(container);
 		}
 		return containerList;
 	}
 
+	/**
+	 * Returns a list of all writable discovery containers in the inventory of a player
+	 * @param player
+	 * @return
+	 */
+	public static List<DiscoveryContainer<?>> getWritableDiscoveryContainers(EntityPlayer player) {
+		return getDiscoveryContainers(getDiscoveryProviderStacks(player));
+	}
+
 	/**
 	 * Merges all discovery containers in the inventory of a player into one discovery container.
 	 * Mostly used to get the combined knowledge of the player.
+	 * The merged container is cached until the discovery providers in the inventory change or
+	 * any discovery container is saved, so it must not be modified without also saving the changes
+	 * to the player's discovery containers
 	 * @param player
 	 * @return
 	 */
 	public static DiscoveryContainer<?> getMergedDiscoveryContainer(EntityPlayer player) {
-		List<DiscoveryContainer<?>> containerList = getWritableDiscoveryContainers(player);
+		TickProfiler.ASPECT_LOOKUPS.start();
+		try {
+			return findMergedDiscoveryContainer(player);
+		} finally {
+			TickProfiler.ASPECT_LOOKUPS.stop();
+		}
+	}
+
+	private static DiscoveryContainer<?> findMergedDiscoveryContainer(EntityPlayer player) {
+		List<ItemStack> stacks = getDiscoveryProviderStacks(player);
+		MergedContainer cached = MERGED_CONTAINERS.get(player);
+		if(cached != null && cached.isValid(stacks)) {
+			return cached.container;
+		}
 		DiscoveryContainer<?> merged = DiscoveryContainer.empty();
-		for(DiscoveryContainer<?> container : containerList) {
-			if(container != null)
-				merged.mergeDiscoveries(container);
+		for(DiscoveryContainer<?> container : getDiscoveryContainers(stacks)) {
+			merged.mergeDiscoveries(container);
 		}
+		//Revision is read after merging because merging saves the merged container
+		MERGED_CONTAINERS.put(player, new MergedContainer(merged, stacks, REVISION.get()));
 		return merged;
 	}
 
@@ -11,7 +11,9 @@ import com.google.common.collect.ImmutableList;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
+import net.minecraftforge.common.util.Constants;
 import thebetweenlands.common.herblore.aspect.AspectManager;
+import thebetweenlands.util.TickProfiler;
 
 public final class ItemAspectContainer extends AspectContainer {
 	public static final String ASPECTS_NBT_TAG = "blHerbloreAspects";
@@ -27,6 +29,9 @@ public final class ItemAspectContainer extends AspectContainer {
 	@Nullable
 	public final AspectManager manager;
 
+	//Aspect NBT of the item stack, only read once the aspects are accessed
+	private NBTTagCompound unloadedNbt;
+
 	private ItemAspectContainer(AspectManager manager, ItemStack stack) {
 		this.itemStack = stack;
 		this.manager = manager;
@@ -41,9 +46,8 @@ public final class ItemAspectContainer extends AspectContainer {
 	 */
 	public static ItemAspectContainer fromItem(ItemStack stack, @Nullable AspectManager manager) {
 		ItemAspectContainer container = new ItemAspectContainer(manager, stack);
-		NBTTagCompound aspectNbt = stack.getTagCompound() != null ? stack.getTagCompound().getCompoundTag(ASPECTS_NBT_TAG) : null;
-		if(aspectNbt != null)
-			container.read(aspectNbt);
+		if(stack.getTagCompound() != null && stack.getTagCompound().hasKey(ASPECTS_NBT_TAG, Constants.NBT.TAG_COMPOUND))
+			container.unloadedNbt = stack.getTagCompound().getCompoundTag(ASPECTS_NBT_TAG);
 		return container;
 	}
 
@@ -54,11 +58,23 @@ public final class ItemAspectContainer extends AspectContainer {
 	 * @return
 	 */
 	public static ItemAspectContainer fromItem(ItemStack stack) {
-		ItemAspectContainer container = new ItemAspectContainer(null, stack);
-		NBTTagCompound aspectNbt = stack.getTagCompound() != null ? stack.getTagCompound().getCompoundTag(ASPECTS_NBT_TAG) : null;
-		if(aspectNbt != null)
-			container.read(aspectNbt);
-		return container;
+		return fromItem(stack, null);
+	}
+
+	@Override
+	protected void ensureLoaded() {
+		if(this.unloadedNbt != null) {
+			NBTTagCompound nbt = this.unloadedNbt;
+			this.unloadedNbt = null;
+			super.read(nbt);
+		}
+	}
+
+	@Override
+	public AspectContainer read(NBTTagCompound nbt) {
+		//Stack NBT is read first so that the specified NBT is applied on top
+		this.ensureLoaded();
+		return super.read(nbt);
 	}
 
 	@Override
@@ -76,6 +92,15 @@ public final class ItemAspectContainer extends AspectContainer {
 	 * @return
 	 */
 	public List<Aspect> getAspects(DiscoveryContainer<?> discoveries) {
+		TickProfiler.ASPECT_CONTAINERS.start();
+		try {
+			return this.collectAspects(discoveries);
+		} finally {
+			TickProfiler.ASPECT_CONTAINERS.stop();
+		}
+	}
+
+	private List<Aspect> collectAspects(DiscoveryContainer<?> discoveries) {
 		List<Aspect> discoveredAspects = null;
 		if(discoveries != null && this.manager != null)
 			discoveredAspects = discoveries.getDiscoveredStaticAspects(this.manager, AspectManager.getAspectItem(this.itemStack));
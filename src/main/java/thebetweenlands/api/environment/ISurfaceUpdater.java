@@ -0,0 +1,29 @@
+package thebetweenlands.api.environment;
+
+import java.util.Random;
+
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.chunk.Chunk;
+
+/**
+ * Environment events implementing this interface are given loaded chunks to update
+ * the surface of, e.g. to place snow or puddles. The chunks are handed out a few at a
+ * time in rotation, so an update may cover several ticks worth of changes
+ */
+public interface ISurfaceUpdater {
+	/**
+	 * Returns whether chunk surfaces should currently be updated
+	 * @param world
+	 * @return
+	 */
+	public boolean shouldUpdateSurface(WorldServer world);
+
+	/**
+	 * Updates the surface of the specified chunk
+	 * @param world
+	 * @param chunk
+	 * @param ticks Number of ticks that have passed since the chunk was last updated
+	 * @param rand
+	 */
+	public void updateSurface(WorldServer world, Chunk chunk, int ticks, Random rand);
+}
@@ -3,15 +3,67 @@ package thebetweenlands.api.storage;
 import java.io.File;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 
+import net.minecraft.nbt.NBTTagCompound;
+import thebetweenlands.common.world.storage.LocalStorageIO;
+
+/**
+ * Caches the data of local storage regions. Regions without any references are kept in the cache
+ * until the cache exceeds its region count or size limit, at which point the least recently used
+ * unreferenced regions are saved (if dirty) and evicted.
+ */
 public class LocalRegionCache {
-	private final Map<LocalRegion, LocalRegionData> regionData = new HashMap<LocalRegion, LocalRegionData>();
+	//Number of ticks after which unused read-ahead results are discarded
+	private static final int PREFETCH_TIMEOUT = 600;
+
+	//Iterates from least to most recently used
+	private final Map<LocalRegion, LocalRegionData> regionData = new LinkedHashMap<LocalRegion, LocalRegionData>(16, 0.75F, true);
+	private final Map<LocalRegion, Prefetch> prefetchedRegions = new HashMap<LocalRegion, Prefetch>();
+
+	private int ticks = 0;
+
+	private static class Prefetch {
+		private final AtomicLong size = new AtomicLong();
+		private final Future<NBTTagCompound> nbt;
+		private final int tick;
+
+		private Prefetch(File file, int tick) {
+			this.nbt = LocalStorageIO.INSTANCE.readAsync(file, this.size::set);
+			this.tick = tick;
+		}
+	}
 
 	private final File dir;
+	private final int maxRegions;
+	private final long maxSize;
+
+	private long estimatedSize = 0;
+	private long hits = 0, misses = 0, evictions = 0;
 
+	/**
+	 * Creates an unbounded region cache
+	 * @param dir
+	 */
 	public LocalRegionCache(File dir) {
+		this(dir, Integer.MAX_VALUE, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Creates a region cache that evicts unreferenced regions once it holds more than the specified
+	 * number of regions or more than the specified estimated NBT size
+	 * @param dir
+	 * @param maxRegions
+	 * @param maxSize Maximum estimated uncompressed NBT size in bytes
+	 */
+	public LocalRegionCache(File dir, int maxRegions, long maxSize) {
 		this.dir = dir;
+		this.maxRegions = maxRegions;
+		this.maxSize = maxSize;
 	}
 
 	/**
@@ -30,12 +82,77 @@ public class LocalRegionCache {
 	 */
 	public LocalRegionData getOrCreateRegion(LocalRegion region) {
 		LocalRegionData data = this.regionData.get(region);
-		if(data == null) {
-			this.regionData.put(region, data = LocalRegionData.getOrCreateRegion(this.dir, region));
+		if(data != null) {
+			this.hits++;
+		} else {
+			this.misses++;
+			Prefetch prefetch = this.prefetchedRegions.remove(region);
+			if(prefetch != null) {
+				try {
+					data = LocalRegionData.createRegion(region, prefetch.nbt.get(), prefetch.size);
+				} catch(Exception ex) {
+					throw new RuntimeException(ex);
+				}
+			} else {
+				data = LocalRegionData.getOrCreateRegion(this.dir, region);
+			}
+			this.regionData.put(region, data);
 		}
 		return data;
 	}
 
+	/**
+	 * Starts reading the region file in the background if the region isn't cached yet,
+	 * so that {@link #getOrCreateRegion(LocalRegion)} doesn't have to block on the file read
+	 * @param region
+	 */
+	public void prefetchRegion(LocalRegion region) {
+		if(!this.regionData.containsKey(region) && !this.prefetchedRegions.containsKey(region)) {
+			this.prefetchedRegions.put(region, new Prefetch(LocalRegionData.getRegionFile(this.dir, region), this.ticks));
+		}
+	}
+
+	/**
+	 * Discards read-ahead results that weren't used in time and evicts
+	 * least recently used regions if the cache is over its limits
+	 */
+	public void tick() {
+		this.ticks++;
+		if(!this.prefetchedRegions.isEmpty()) {
+			Iterator<Prefetch> it = this.prefetchedRegions.values().iterator();
+			while(it.hasNext()) {
+				Prefetch prefetch = it.next();
+				if(this.ticks - prefetch.tick > PREFETCH_TIMEOUT && prefetch.nbt.isDone()) {
+					it.remove();
+				}
+			}
+		}
+
+		this.estimatedSize = 0;
+		for(LocalRegionData data : this.regionData.values()) {
+			this.estimatedSize += data.getEstimatedSize();
+		}
+
+		if(this.regionData.size() > this.maxRegions || this.estimatedSize > this.maxSize) {
+			this.evictRegions();
+		}
+	}
+
+	private void evictRegions() {
+		Iterator<LocalRegionData> it = this.regionData.values().iterator();
+		while(it.hasNext() && (this.regionData.size() > this.maxRegions || this.estimatedSize > this.maxSize)) {
+			LocalRegionData data = it.next();
+			if(!data.hasReferences()) {
+				if(data.isDirty()) {
+					data.saveRegion(this.dir);
+				}
+				this.estimatedSize -= data.getEstimatedSize();
+				it.remove();
+				this.evictions++;
+			}
+		}
+	}
+
 	/**
 	 * Removes a region without saving anything
 	 * @param region
@@ -60,6 +177,7 @@ public class LocalRegionCache {
 	 */
 	public void clearCache() {
 		this.regionData.clear();
+		this.prefetchedRegions.clear();
 	}
 
 	/**
@@ -69,4 +187,36 @@ public class LocalRegionCache {
 	public Map<LocalRegion, LocalRegionData> getRegions() {
 		return Collections.unmodifiableMap(this.regionData);
 	}
+
+	/**
+	 * Returns the estimated NBT size of all cached regions in bytes as of the last tick
+	 * @return
+	 */
+	public long getEstimatedSize() {
+		return this.estimatedSize;
+	}
+
+	/**
+	 * Returns how many region lookups were served from the cache
+	 * @return
+	 */
+	public long getHits() {
+		return this.hits;
+	}
+
+	/**
+	 * Returns how many region lookups had to read or create the region
+	 * @return
+	 */
+	public long getMisses() {
+		return this.misses;
+	}
+
+	/**
+	 * Returns how many regions were evicted from the cache
+	 * @return
+	 */
+	public long getEvictions() {
+		return this.evictions;
+	}
 }
@@ -1,24 +1,46 @@
 package thebetweenlands.api.storage;
 
 import java.io.File;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.annotation.Nullable;
 
-import net.minecraft.nbt.CompressedStreamTools;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraftforge.common.util.Constants;
+import thebetweenlands.common.world.storage.LocalStorageIO;
 
 public class LocalRegionData {
 	private String id;
 	private NBTTagCompound nbt;
 	private int refCounter;
 	private boolean dirty;
+	//Uncompressed NBT size, updated by the I/O thread when the region is read or written
+	private final AtomicLong estimatedSize;
 
 	public LocalRegionData(String id, NBTTagCompound nbt) {
+		this(id, nbt, new AtomicLong());
+	}
+
+	/**
+	 * @param id
+	 * @param nbt
+	 * @param size Uncompressed size of the NBT in bytes. May still be updated by the I/O thread, see {@link LocalStorageIO#read(File, java.util.function.LongConsumer)}
+	 */
+	public LocalRegionData(String id, NBTTagCompound nbt, AtomicLong size) {
 		this.id = id;
 		this.nbt = nbt;
 		this.refCounter = 0;
 		this.dirty = false;
+		this.estimatedSize = size;
+	}
+
+	/**
+	 * Returns the approximate uncompressed size of the region NBT in bytes as of when
+	 * it was last read or written. Storages added since then are not included
+	 * @return
+	 */
+	public long getEstimatedSize() {
+		return this.estimatedSize.get();
 	}
 
 	/**
@@ -100,35 +122,56 @@ public class LocalRegionData {
 	 */
 	public static LocalRegionData getOrCreateRegion(File dir, LocalRegion region) {
 		NBTTagCompound regionNbt = null;
+		AtomicLong size = new AtomicLong();
 		try {
-			File file = new File(dir, region.getFileName() + ".dat");
-			if(file.exists()) {
-				regionNbt = CompressedStreamTools.read(file);
-			}
+			regionNbt = LocalStorageIO.INSTANCE.read(getRegionFile(dir, region), size::set);
 		} catch(Exception ex) {
 			throw new RuntimeException(ex);
 		}
+		return createRegion(region, regionNbt, size);
+	}
+
+	/**
+	 * Creates the region data from the specified NBT, or a new region if the NBT is null
+	 * @param region
+	 * @param regionNbt
+	 * @param size Uncompressed size of the NBT in bytes, as reported by {@link LocalStorageIO}
+	 * @return
+	 */
+	public static LocalRegionData createRegion(LocalRegion region, @Nullable NBTTagCompound regionNbt, AtomicLong size) {
 		if(regionNbt == null) {
-			regionNbt = new NBTTagCompound();
+			return new LocalRegionData(region.getFileName(), new NBTTagCompound());
 		}
-		return new LocalRegionData(region.getFileName(), regionNbt);
+		return new LocalRegionData(region.getFileName(), regionNbt, size);
 	}
 
 	/**
-	 * Saves the region to a file
+	 * Returns the file of the specified region
+	 * @param dir
+	 * @param region
+	 * @return
+	 */
+	public static File getRegionFile(File dir, LocalRegion region) {
+		return new File(dir, region.getFileName() + ".dat");
+	}
+
+	/**
+	 * Saves the region to a file. The file is written asynchronously,
+	 * see {@link LocalStorageIO}
 	 * @param dir
 	 */
 	public void saveRegion(File dir) {
 		if(this.nbt.getSize() > 0) {
-			File file = new File(dir, this.getID() + ".dat");
-			try {
-				dir.mkdirs();
-				CompressedStreamTools.safeWrite(this.nbt, file);
-			} catch(Exception ex) {
-				throw new RuntimeException(ex);
+			//Shallow copy so that the region can still be modified while the file is being written.
+			//The local storage compounds are only ever replaced, never modified, so they can be shared
+			NBTTagCompound copy = new NBTTagCompound();
+			for(String key : this.nbt.getKeySet()) {
+				copy.setTag(key, this.nbt.getTag(key));
 			}
+			LocalStorageIO.INSTANCE.write(new File(dir, this.getID() + ".dat"), copy, this.estimatedSize::set);
 		} else {
 			this.deleteRegionFile(dir);
+			this.estimatedSize.set(0);
 		}
 		this.dirty = false;
 	}
@@ -138,9 +181,6 @@ public class LocalRegionData {
 	 * @param dir
 	 */
 	public void deleteRegionFile(File dir) {
-		File file = new File(dir, this.getID() + ".dat");
-		if(file.exists()) {
-			file.delete();
-		}
+		LocalStorageIO.INSTANCE.delete(new File(dir, this.getID() + ".dat"));
 	}
 }
@@ -47,7 +47,9 @@ public class ThemHandler {
 							double sz = viewer.posZ + zOff;
 							double sy = worldHeight.getY() + world.rand.nextFloat() * 0.75f;
 							Particle particle = BLParticles.THEM.spawn(world, sx, sy, sz);
-							activeParticles.add(particle);
+							if(particle != null) {
+								activeParticles.add(particle);
+							}
 						}
 					}
 				}
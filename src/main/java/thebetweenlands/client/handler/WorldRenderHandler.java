@@ -22,6 +22,7 @@ import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
 import net.minecraft.client.shader.Framebuffer;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec3d;
+import net.minecraftforge.client.event.RenderGameOverlayEvent;
 import net.minecraftforge.client.event.RenderWorldLastEvent;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
@@ -62,6 +63,14 @@ public class WorldRenderHandler {
 		return partialTicks;
 	}
 
+	@SubscribeEvent
+	public static void onDebugText(RenderGameOverlayEvent.Text event) {
+		if(MC.gameSettings.showDebugInfo && ShaderHelper.INSTANCE.isWorldShaderActive()) {
+			WorldShader shader = ShaderHelper.INSTANCE.getWorldShader();
+			event.getLeft().add(String.format("BL lights: %d visible, %d culled, %.1f \u00B5s", shader.getVisibleLightSourcesAmount(), shader.getCulledLightSourcesAmount(), shader.getLightCullingNanos() / 1000.0D));
+		}
+	}
+
 	@SubscribeEvent
 	public static void renderWorld(RenderWorldLastEvent event) {
 		double renderViewX = MC.getRenderManager().viewerPosX;
@@ -2,7 +2,6 @@ package thebetweenlands.client.proxy;
 
 import java.net.Proxy;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -111,8 +110,9 @@ import thebetweenlands.client.render.entity.RenderWeedwoodRowboat;
 import thebetweenlands.client.render.entity.RenderWight;
 import thebetweenlands.client.render.model.loader.CustomModelManager;
 import thebetweenlands.client.render.particle.BLParticles;
+import thebetweenlands.client.render.particle.ParticleBudget;
 import thebetweenlands.client.render.particle.ParticleTextureStitcher;
-import thebetweenlands.client.render.particle.entity.ParticleWisp;
+import thebetweenlands.client.render.particle.WispParticleSystem;
 import thebetweenlands.client.render.shader.ShaderHelper;
 import thebetweenlands.client.render.tile.RenderAlembic;
 import thebetweenlands.client.render.tile.RenderAnimator;
@@ -587,6 +587,7 @@ public class ClientProxy extends CommonProxy {
 		MinecraftForge.EVENT_BUS.register(InputHandler.class);
 		MinecraftForge.EVENT_BUS.register(ItemLurkerSkinPouch.class);
 		MinecraftForge.EVENT_BUS.register(BrightnessHandler.class);
+		MinecraftForge.EVENT_BUS.register(ParticleBudget.class);
 		MinecraftForge.EVENT_BUS.register(DebugHandlerClient.class);
 		MinecraftForge.EVENT_BUS.register(ItemTooltipHandler.class);
 		MinecraftForge.EVENT_BUS.register(GuiBLMainMenu.class);
@@ -602,14 +603,8 @@ public class ClientProxy extends CommonProxy {
 
 	@Override
 	public void updateWispParticles(TileEntityWisp te) {
-		Iterator<Object> it = te.particleList.iterator();
-		while (it.hasNext()) {
-			ParticleWisp wisp = (ParticleWisp) it.next();
-			if (!wisp.isAlive()) {
-				it.remove();
-			} else {
-				wisp.onUpdate();
-			}
+		if(te.particleSystem != null) {
+			((WispParticleSystem) te.particleSystem).update();
 		}
 	}
 
@@ -137,7 +137,7 @@ public enum BLParticles {
 	}
 
 	/**
-	 * Spawns this particle
+	 * Spawns this particle. Returns null if the particle wasn't spawned due to the {@link ParticleBudget}
 	 * @param world
 	 * @param x
 	 * @param y
@@ -145,6 +145,7 @@ public enum BLParticles {
 	 * @param args
 	 * @return
 	 */
+	@Nullable
 	public Particle spawn(World world, double x, double y, double z, @Nullable ParticleArgs<?> args) {
 		return this.getFactory().spawn(world, x, y, z, args);
 	}
@@ -162,13 +163,14 @@ public enum BLParticles {
 	}
 
 	/**
-	 * Spawns this particle
+	 * Spawns this particle. Returns null if the particle wasn't spawned due to the {@link ParticleBudget}
 	 * @param world
 	 * @param x
 	 * @param y
 	 * @param z
 	 * @return
 	 */
+	@Nullable
 	public Particle spawn(World world, double x, double y, double z) {
 		return this.getFactory().spawn(world, x, y, z, null);
 	}
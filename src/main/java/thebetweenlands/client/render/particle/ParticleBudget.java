@@ -0,0 +1,205 @@
+package thebetweenlands.client.render.particle;
+
+import java.util.Random;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.particle.Particle;
+import net.minecraft.world.World;
+import net.minecraftforge.client.event.RenderGameOverlayEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
+import thebetweenlands.util.config.ConfigHandler;
+
+/**
+ * Keeps track of the live Betweenlands particles and decides whether new
+ * particles may be spawned, based on a global budget and the distance to the viewer.
+ * While the debug screen is shown it also measures how expensive creating particles is
+ */
+public class ParticleBudget {
+	public static final ParticleBudget INSTANCE = new ParticleBudget();
+
+	//Particles evicted by the particle manager's per layer limit are never set dead, so they stop counting after this many ticks
+	private static final int MAX_TRACKED_TICKS = 1200;
+
+	private final Random rand = new Random();
+
+	private Particle[] particles = new Particle[256];
+	private int[] trackedTicks = new int[256];
+	private int size = 0;
+
+	private int ticks = 0;
+
+	//The particle manager removes all particles without setting them dead when the world changes
+	private World world;
+
+	private int rejected = 0;
+	private int rejectedLastSecond = 0;
+
+	//Cost of creating particles, only measured while the debug screen is shown
+	private int created = 0;
+	private long createdNanos = 0;
+	private long createdAllocated = 0;
+	private int createdLastSecond = 0;
+	private long createdNanosLastSecond = 0;
+	private long createdAllocatedLastSecond = 0;
+
+	/**
+	 * Returns whether a new particle should be spawned.
+	 * Within the LOD distance particles are always spawned as long as the budget
+	 * isn't exceeded, beyond it the spawn chance falls off with the squared distance.
+	 * The spawn chance is also lowered once more than half of the budget is used up
+	 * @param distanceSq Squared distance between the particle and the viewer
+	 * @param budget Maximum number of live particles
+	 * @param lodDistance Distance after which particles are thinned out
+	 * @return
+	 */
+	public boolean shouldSpawn(double distanceSq, int budget, double lodDistance) {
+		if(this.size >= budget) {
+			this.rejected++;
+			return false;
+		}
+
+		double chance = 1.0D;
+
+		double lodDistanceSq = lodDistance * lodDistance;
+		if(distanceSq > lodDistanceSq) {
+			chance = lodDistanceSq / distanceSq;
+		}
+
+		double fill = this.size / (double) budget;
+		if(fill > 0.5D) {
+			chance *= (1.0D - fill) * 2.0D;
+		}
+
+		if(chance < 1.0D && this.rand.nextDouble() >= chance) {
+			this.rejected++;
+			return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Adds a spawned particle to the budget
+	 * @param particle
+	 */
+	public void track(Particle particle) {
+		if(this.size == this.particles.length) {
+			Particle[] newParticles = new Particle[this.particles.length * 2];
+			System.arraycopy(this.particles, 0, newParticles, 0, this.size);
+			this.particles = newParticles;
+			int[] newTrackedTicks = new int[this.trackedTicks.length * 2];
+			System.arraycopy(this.trackedTicks, 0, newTrackedTicks, 0, this.size);
+			this.trackedTicks = newTrackedTicks;
+		}
+		this.trackedTicks[this.size] = this.ticks;
+		this.particles[this.size++] = particle;
+	}
+
+	/**
+	 * Returns whether the cost of creating particles should be measured
+	 * @return
+	 */
+	public static boolean isMeasuringCreation() {
+		return Minecraft.getMinecraft().gameSettings.showDebugInfo;
+	}
+
+	/**
+	 * Adds a created particle to the creation statistics
+	 * @param nanos Time it took to create the particle
+	 * @param allocated Bytes allocated while creating the particle, or -1 if unknown
+	 */
+	public void recordCreation(long nanos, long allocated) {
+		this.created++;
+		this.createdNanos += nanos;
+		this.createdAllocated += allocated;
+	}
+
+	/**
+	 * Removes all dead particles from the budget. Clears the budget if the world has changed
+	 * @param world The current world
+	 */
+	public void update(World world) {
+		if(world != this.world) {
+			this.world = world;
+			this.clear();
+			return;
+		}
+
+		this.ticks++;
+
+		if(this.ticks % 20 == 0) {
+			this.rejectedLastSecond = this.rejected;
+			this.rejected = 0;
+			this.createdLastSecond = this.created;
+			this.createdNanosLastSecond = this.createdNanos;
+			this.createdAllocatedLastSecond = this.createdAllocated;
+			this.created = 0;
+			this.createdNanos = 0;
+			this.createdAllocated = 0;
+		}
+
+		int i = 0;
+		while(i < this.size) {
+			if(!this.particles[i].isAlive() || this.ticks - this.trackedTicks[i] > MAX_TRACKED_TICKS) {
+				//Swap with last particle, order doesn't matter
+				this.particles[i] = this.particles[--this.size];
+				this.trackedTicks[i] = this.trackedTicks[this.size];
+				this.particles[this.size] = null;
+			} else {
+				i++;
+			}
+		}
+	}
+
+	/**
+	 * Removes all particles from the budget
+	 */
+	public void clear() {
+		for(int i = 0; i < this.size; i++) {
+			this.particles[i] = null;
+		}
+		this.size = 0;
+		this.rejected = 0;
+		this.rejectedLastSecond = 0;
+		this.created = 0;
+		this.createdNanos = 0;
+		this.createdAllocated = 0;
+		this.createdLastSecond = 0;
+		this.createdNanosLastSecond = 0;
+		this.createdAllocatedLastSecond = 0;
+	}
+
+	@SubscribeEvent
+	public static void onClientTick(TickEvent.ClientTickEvent event) {
+		if(event.phase == Phase.END) {
+			INSTANCE.update(Minecraft.getMinecraft().world);
+		}
+	}
+
+	@SubscribeEvent
+	public static void onDebugText(RenderGameOverlayEvent.Text event) {
+		if(Minecraft.getMinecraft().gameSettings.showDebugInfo) {
+			if(isEnabled()) {
+				event.getLeft().add(String.format("BL particles: %d/%d, rejected: %d/s", INSTANCE.size, ConfigHandler.particleBudget, INSTANCE.rejectedLastSecond));
+			}
+			if(INSTANCE.createdLastSecond > 0) {
+				int count = INSTANCE.createdLastSecond;
+				if(INSTANCE.createdAllocatedLastSecond >= 0) {
+					event.getLeft().add(String.format("BL particles created: %d/s, %.2f \u00B5s and %d bytes each", count, INSTANCE.createdNanosLastSecond / 1000.0D / count, INSTANCE.createdAllocatedLastSecond / count));
+				} else {
+					event.getLeft().add(String.format("BL particles created: %d/s, %.2f \u00B5s each", count, INSTANCE.createdNanosLastSecond / 1000.0D / count));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns whether the particle budget is enabled
+	 * @return
+	 */
+	public static boolean isEnabled() {
+		return ConfigHandler.particleBudget > 0;
+	}
+}
@@ -1,5 +1,6 @@
 package thebetweenlands.client.render.particle;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
@@ -10,28 +11,84 @@ import javax.annotation.Nullable;
 
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.particle.Particle;
+import net.minecraft.entity.Entity;
 import net.minecraft.world.World;
 import thebetweenlands.client.render.particle.ParticleTextureStitcher.IParticleSpriteReceiver;
+import thebetweenlands.util.TickProfiler;
+import thebetweenlands.util.config.ConfigHandler;
 
 public abstract class ParticleFactory<F extends ParticleFactory<?, T>, T extends Particle> {
 	/**
 	 * Data helper for additional data of Particles
 	 */
 	public static final class DataHelper {
-		private final Object[] data;
+		private Object[] data;
+
+		//Copy of the data, the data array of the args may be reused by a particle spawned while this one is being created
+		private Object[] dataBuffer;
+
+		//Typed slots, take precedence over the data at the same index
+		private final float[] floatData = new float[ParticleArgs.TYPED_SLOTS];
+		private final int[] intData = new int[ParticleArgs.TYPED_SLOTS];
+		private int floatsSet = 0;
+		private int intsSet = 0;
 
 		private DataHelper(Object[] data) {
 			this.data = data;
 		}
 
+		private DataHelper(ParticleArgs<?> args) {
+			this.set(args);
+		}
+
+		private void set(ParticleArgs<?> args) {
+			Object[] data = args.data;
+			if(data.length == 0) {
+				this.data = ParticleArgs.NO_DATA;
+			} else {
+				if(this.dataBuffer == null || this.dataBuffer.length != data.length) {
+					this.dataBuffer = new Object[data.length];
+				}
+				System.arraycopy(data, 0, this.dataBuffer, 0, data.length);
+				this.data = this.dataBuffer;
+			}
+			this.floatsSet = args.floatsSet;
+			this.intsSet = args.intsSet;
+			if(this.floatsSet != 0)
+				System.arraycopy(args.floatData, 0, this.floatData, 0, ParticleArgs.TYPED_SLOTS);
+			if(this.intsSet != 0)
+				System.arraycopy(args.intData, 0, this.intData, 0, ParticleArgs.TYPED_SLOTS);
+		}
+
+		private void clear() {
+			if(this.dataBuffer != null) {
+				Arrays.fill(this.dataBuffer, null);
+			}
+			this.data = ParticleArgs.NO_DATA;
+			this.floatsSet = 0;
+			this.intsSet = 0;
+		}
+
+		private boolean isFloatSet(int index) {
+			return index < ParticleArgs.TYPED_SLOTS && (this.floatsSet & (1 << index)) != 0;
+		}
+
+		private boolean isIntSet(int index) {
+			return index < ParticleArgs.TYPED_SLOTS && (this.intsSet & (1 << index)) != 0;
+		}
+
 		/**
-		 * Returns all data in a copy of the array
+		 * Returns all data in a copy of the array. Typed slots are boxed
 		 * @return
 		 */
 		public Object[] getAll() {
-			Object[] arr = new Object[this.data.length];
+			int length = this.data.length;
+			int typedSet = this.floatsSet | this.intsSet;
+			if(typedSet != 0)
+				length = Math.max(length, 32 - Integer.numberOfLeadingZeros(typedSet));
+			Object[] arr = new Object[length];
 			for(int i = 0; i < arr.length; i++)
-				arr[i] = this.data[i];
+				arr[i] = this.getObject(i);
 			return arr;
 		}
 
@@ -45,6 +102,10 @@ public abstract class ParticleFactory<F extends ParticleFactory<?, T>, T extends
 		 */
 		@SuppressWarnings("unchecked")
 		public <T> T getObject(Class<T> type, int index) {
+			if(this.isFloatSet(index))
+				return (T)Float.valueOf(this.floatData[index]);
+			if(this.isIntSet(index))
+				return (T)Integer.valueOf(this.intData[index]);
 			return (T)this.data[index];
 		}
 
@@ -85,6 +146,8 @@ public abstract class ParticleFactory<F extends ParticleFactory<?, T>, T extends
 		 * @return
 		 */
 		public byte getByte(int index) {
+			if(this.isFloatSet(index) || this.isIntSet(index))
+				return (byte)this.getInt(index);
 			return this.getObject(Number.class, index).byteValue();
 		}
 
@@ -94,6 +157,8 @@ public abstract class ParticleFactory<F extends ParticleFactory<?, T>, T extends
 		 * @return
 		 */
 		public short getShort(int index) {
+			if(this.isFloatSet(index) || this.isIntSet(index))
+				return (short)this.getInt(index);
 			return this.getObject(Number.class, index).shortValue();
 		}
 
@@ -103,6 +168,10 @@ public abstract class ParticleFactory<F extends ParticleFactory<?, T>, T extends
 		 * @return
 		 */
 		public int getInt(int index) {
+			if(this.isIntSet(index))
+				return this.intData[index];
+			if(this.isFloatSet(index))
+				return (int)this.floatData[index];
 			return this.getObject(Number.class, index).intValue();
 		}
 
@@ -112,6 +181,10 @@ public abstract class ParticleFactory<F extends ParticleFactory<?, T>, T extends
 		 * @return
 		 */
 		public long getLong(int index) {
+			if(this.isIntSet(index))
+				return this.intData[index];
+			if(this.isFloatSet(index))
+				return (long)this.floatData[index];
 			return this.getObject(Number.class, index).longValue();
 		}
 
@@ -121,6 +194,10 @@ public abstract class ParticleFactory<F extends ParticleFactory<?, T>, T extends
 		 * @return
 		 */
 		public float getFloat(int index) {
+			if(this.isFloatSet(index))
+				return this.floatData[index];
+			if(this.isIntSet(index))
+				return this.intData[index];
 			return this.getObject(Number.class, index).floatValue();
 		}
 
@@ -130,6 +207,10 @@ public abstract class ParticleFactory<F extends ParticleFactory<?, T>, T extends
 		 * @return
 		 */
 		public double getDouble(int index) {
+			if(this.isFloatSet(index))
+				return this.floatData[index];
+			if(this.isIntSet(index))
+				return this.intData[index];
 			return this.getObject(Number.class, index).doubleValue();
 		}
 
@@ -225,16 +306,27 @@ public abstract class ParticleFactory<F extends ParticleFactory<?, T>, T extends
 	}
 
 	/**
-	 * Immutable particle arguments
+	 * The combined particle arguments passed to {@link ParticleFactory#createParticle(ImmutableParticleArgs)}.
+	 * Despite the name the instance is pooled per factory: it is reused for the next particle, so the
+	 * fields must only be read and the instance must not be kept
 	 */
 	public static class ImmutableParticleArgs {
-		public final World world;
-		public final double x, y, z, motionX, motionY, motionZ;
-		public final float scale;
-		public final float r, g, b, a;
+		public World world;
+		public double x, y, z, motionX, motionY, motionZ;
+		public float scale;
+		public float r, g, b, a;
 		public final DataHelper data;
 
+		private ImmutableParticleArgs() {
+			this.data = new DataHelper(ParticleArgs.NO_DATA);
+		}
+
 		public ImmutableParticleArgs(World world, double x, double y, double z, ParticleArgs<?> builder) {
+			this.data = new DataHelper(builder);
+			this.set(world, x, y, z, builder);
+		}
+
+		private ImmutableParticleArgs set(World world, double x, double y, double z, ParticleArgs<?> builder) {
 			this.world = world;
 			this.x = x;
 			this.y = y;
@@ -247,7 +339,8 @@ public abstract class ParticleFactory<F extends ParticleFactory<?, T>, T extends
 			this.g = builder.g;
 			this.b = builder.b;
 			this.a = builder.a;
-			this.data = new DataHelper(builder.data);
+			this.data.set(builder);
+			return this;
 		}
 	}
 
@@ -316,6 +409,11 @@ public abstract class ParticleFactory<F extends ParticleFactory<?, T>, T extends
 
 		private static final Object[] NO_DATA = new Object[0];
 
+		/**
+		 * Number of typed slots, see {@link #withFloat(int, float)} and {@link #withInt(int, int)}
+		 */
+		public static final int TYPED_SLOTS = 8;
+
 		private boolean motionSet = false;
 		private double motionX, motionY, motionZ;
 		private boolean scaleSet = false;
@@ -325,6 +423,15 @@ public abstract class ParticleFactory<F extends ParticleFactory<?, T>, T extends
 		private Object[] data;
 		private boolean dataSet = false;
 
+		//Typed slots that don't box their values, bit i of the masks is set if slot i is set
+		private final float[] floatData = new float[TYPED_SLOTS];
+		private final int[] intData = new int[TYPED_SLOTS];
+		private int floatsSet = 0;
+		private int intsSet = 0;
+
+		//Reused by combineArgs so that combining additional data doesn't allocate
+		private Object[] dataBuffer;
+
 		private ParticleArgs<?> container;
 
 		private ParticleArgs() {
@@ -361,6 +468,7 @@ public abstract class ParticleFactory<F extends ParticleFactory<?, T>, T extends
 					this.data[i] = args.data[i];
 			}
 			this.dataSet = args.dataSet;
+			this.copyTypedData(args);
 		}
 
 		/**
@@ -385,6 +493,8 @@ public abstract class ParticleFactory<F extends ParticleFactory<?, T>, T extends
 			this.motionSet = false;
 			this.scaleSet = false;
 			this.colorSet = false;
+			this.floatsSet = 0;
+			this.intsSet = 0;
 			this.resetContainer();
 		}
 
@@ -406,9 +516,19 @@ public abstract class ParticleFactory<F extends ParticleFactory<?, T>, T extends
 				this.container.motionSet = this.motionSet;
 				this.container.scaleSet = this.scaleSet;
 				this.container.colorSet = this.colorSet;
+				this.container.copyTypedData(this);
 			}
 		}
 
+		private void copyTypedData(ParticleArgs<?> args) {
+			this.floatsSet = args.floatsSet;
+			this.intsSet = args.intsSet;
+			if(this.floatsSet != 0)
+				System.arraycopy(args.floatData, 0, this.floatData, 0, TYPED_SLOTS);
+			if(this.intsSet != 0)
+				System.arraycopy(args.intData, 0, this.intData, 0, TYPED_SLOTS);
+		}
+
 		/**
 		 * Runs a {@link Consumer} over this {@link ParticleArgs}
 		 * @param consumer
@@ -499,6 +619,65 @@ public abstract class ParticleFactory<F extends ParticleFactory<?, T>, T extends
 			return (T) this;
 		}
 
+		/**
+		 * Sets the additional data at the specified index to a float without boxing it.
+		 * Takes precedence over the data set by {@link #withData(Object...)} at the same index.
+		 * Can be read with the number getters of {@link DataHelper}
+		 * @param index Must be smaller than {@link #TYPED_SLOTS}
+		 * @param value
+		 * @return
+		 */
+		@SuppressWarnings("unchecked")
+		public final T withFloat(int index, float value) {
+			if(index < 0 || index >= TYPED_SLOTS)
+				throw new IllegalArgumentException("Typed slot index must be between 0 and " + (TYPED_SLOTS - 1) + ", got " + index);
+			this.floatData[index] = value;
+			this.floatsSet |= 1 << index;
+			this.intsSet &= ~(1 << index);
+			return (T) this;
+		}
+
+		/**
+		 * Sets the additional data at the specified index to an int without boxing it.
+		 * Takes precedence over the data set by {@link #withData(Object...)} at the same index.
+		 * Can be read with the number getters of {@link DataHelper}
+		 * @param index Must be smaller than {@link #TYPED_SLOTS}
+		 * @param value
+		 * @return
+		 */
+		@SuppressWarnings("unchecked")
+		public final T withInt(int index, int value) {
+			if(index < 0 || index >= TYPED_SLOTS)
+				throw new IllegalArgumentException("Typed slot index must be between 0 and " + (TYPED_SLOTS - 1) + ", got " + index);
+			this.intData[index] = value;
+			this.intsSet |= 1 << index;
+			this.floatsSet &= ~(1 << index);
+			return (T) this;
+		}
+
+		/**
+		 * Returns whether any typed slot was set
+		 * @return
+		 */
+		public final boolean isTypedDataSet() {
+			return (this.floatsSet | this.intsSet) != 0;
+		}
+
+		/**
+		 * Returns a bit mask of the indices that have a value, either in a typed slot
+		 * or in the additional data
+		 * @return
+		 */
+		private int getDefinedDataMask() {
+			int mask = this.floatsSet | this.intsSet;
+			int length = Math.min(this.data.length, TYPED_SLOTS);
+			for(int i = 0; i < length; i++) {
+				if(this.data[i] != EMPTY_ARG)
+					mask |= 1 << i;
+			}
+			return mask;
+		}
+
 		/**
 		 * Returns an arguments builder
 		 * @param size
@@ -578,7 +757,7 @@ public abstract class ParticleFactory<F extends ParticleFactory<?, T>, T extends
 		 * @return
 		 */
 		public final DataHelper getData() {
-			return new DataHelper(this.data);
+			return new DataHelper(this);
 		}
 
 		/**
@@ -612,7 +791,7 @@ public abstract class ParticleFactory<F extends ParticleFactory<?, T>, T extends
 				container.withMotion(this.getMotionX(), this.getMotionY(), this.getMotionZ());
 			}
 			if(!container.isColorSet()) {
-				container.withColor(this.getColor());
+				container.withColor(this.r, this.g, this.b, this.a);
 			}
 			if(!container.isScaleSet()) {
 				container.withScale(this.getScale());
@@ -620,9 +799,10 @@ public abstract class ParticleFactory<F extends ParticleFactory<?, T>, T extends
 			if(this.isDataSet()) {
 				Object[] initialAdditionalArgs = container.data;
 				Object[] defaultArgs = this.data;
-				Object[] additionalArgs = container.data;
-				if(defaultArgs.length > initialAdditionalArgs.length) {
-					container.withData(additionalArgs = new Object[defaultArgs.length]);
+				int length = Math.max(initialAdditionalArgs.length, defaultArgs.length);
+				Object[] additionalArgs = container.dataBuffer;
+				if(additionalArgs == null || additionalArgs.length != length) {
+					container.dataBuffer = additionalArgs = new Object[length];
 				}
 				for(int i = 0; i < additionalArgs.length; i++) {
 					if(i < initialAdditionalArgs.length) {
@@ -637,6 +817,21 @@ public abstract class ParticleFactory<F extends ParticleFactory<?, T>, T extends
 						additionalArgs[i] = defaultArgs[i];
 					}
 				}
+				container.withData(additionalArgs);
+			}
+			if(this.isTypedDataSet()) {
+				//Only fill the indices that weren't set by the container in any way
+				int defined = container.getDefinedDataMask();
+				int floats = this.floatsSet & ~defined;
+				int ints = this.intsSet & ~defined;
+				for(int i = 0; i < TYPED_SLOTS; i++) {
+					if((floats & (1 << i)) != 0)
+						container.floatData[i] = this.floatData[i];
+					if((ints & (1 << i)) != 0)
+						container.intData[i] = this.intData[i];
+				}
+				container.floatsSet |= floats;
+				container.intsSet |= ints;
 			}
 			return container;
 		}
@@ -656,6 +851,9 @@ public abstract class ParticleFactory<F extends ParticleFactory<?, T>, T extends
 	private final ParticleArgs<?> baseArgs;
 	private final ParticleArgs<?> defaultArgs;
 
+	private final ImmutableParticleArgs immutableArgs = new ImmutableParticleArgs();
+	private boolean immutableArgsInUse = false;
+
 	/**
 	 * Creates a new particle factory for the specified particle type
 	 * @param type
@@ -743,6 +941,15 @@ public abstract class ParticleFactory<F extends ParticleFactory<?, T>, T extends
 	 */
 	protected void setDefaultArguments(World world, double x, double y, double z, ParticleArgs<?> args) { }
 
+	/**
+	 * Returns whether particles of this factory count towards the {@link ParticleBudget} and can be rejected by it.
+	 * Should return false for particles that give gameplay feedback
+	 * @return
+	 */
+	protected boolean isBudgeted() {
+		return true;
+	}
+
 	public static final class BaseArgsBuilder<F extends ParticleFactory<?, ?>, B extends ParticleArgs<?>, C extends Particle> extends ParticleArgs<B> {
 		private final ParticleFactory<?, ?> factory;
 
@@ -775,6 +982,9 @@ public abstract class ParticleFactory<F extends ParticleFactory<?, T>, T extends
 			if(container.isDataSet()) {
 				this.factory.baseArgs.withData(container.data);
 			}
+			if(container.isTypedDataSet()) {
+				this.factory.baseArgs.copyTypedData(container);
+			}
 			return (F) this.factory;
 		}
 	}
@@ -809,30 +1019,68 @@ public abstract class ParticleFactory<F extends ParticleFactory<?, T>, T extends
 		this.setDefaultArguments(world, x, y, z, this.defaultArgs);
 		args.resetContainer();
 		this.defaultArgs.resetContainer();
-		boolean hasActualDefaults = this.defaultArgs.isColorSet() || this.defaultArgs.isMotionSet() || this.defaultArgs.isScaleSet() || this.defaultArgs.isDataSet();
+		boolean hasActualDefaults = this.defaultArgs.isColorSet() || this.defaultArgs.isMotionSet() || this.defaultArgs.isScaleSet() || this.defaultArgs.isDataSet() || this.defaultArgs.isTypedDataSet();
 		if(hasActualDefaults) {
 			args = this.baseArgs.combineArgs(this.defaultArgs).combineArgs(args);
 		} else {
 			args = this.baseArgs.combineArgs(args);
 		}
-		return this.getParticle(new ImmutableParticleArgs(world, x, y, z, args));
+		if(this.immutableArgsInUse) {
+			//Particle is created while another particle of this factory is being created
+			return this.getParticle(new ImmutableParticleArgs(world, x, y, z, args));
+		}
+		this.immutableArgsInUse = true;
+		try {
+			return this.getParticle(this.immutableArgs.set(world, x, y, z, args));
+		} finally {
+			this.immutableArgsInUse = false;
+			//Don't keep the world or the data alive
+			this.immutableArgs.world = null;
+			this.immutableArgs.data.clear();
+		}
 	}
 
 	/**
 	 * Spawns a particle.
-	 * The specified {@link ParticleArgs} overrides the default arguments set by {@link ParticleFactory#setDefaultArguments(World, ParticleArgs)}
+	 * The specified {@link ParticleArgs} overrides the default arguments set by {@link ParticleFactory#setDefaultArguments(World, ParticleArgs)}.
+	 * If the {@link ParticleBudget} is exceeded or the particle is thinned out due to its distance
+	 * to the viewer no particle is created and null is returned
 	 * @param type
 	 * @param world
 	 * @param x
 	 * @param y
 	 * @param z
 	 * @param args
-	 * @return
+	 * @return The spawned particle or null if it wasn't spawned
 	 */
+	@Nullable
 	public final T spawn(World world, double x, double y, double z, @Nullable ParticleArgs<?> args) {
+		boolean budgeted = ParticleBudget.isEnabled() && this.isBudgeted();
+		if(budgeted) {
+			Entity viewer = Minecraft.getMinecraft().getRenderViewEntity();
+			double distanceSq = viewer != null ? viewer.getDistanceSq(x, y, z) : 0.0D;
+			if(!ParticleBudget.INSTANCE.shouldSpawn(distanceSq, ConfigHandler.particleBudget, ConfigHandler.particleLodDistance)) {
+				return null;
+			}
+		}
+		boolean measured = ParticleBudget.isMeasuringCreation();
+		long startAllocated = 0;
+		long startNanos = 0;
+		if(measured) {
+			startAllocated = TickProfiler.getAllocatedBytes();
+			startNanos = System.nanoTime();
+		}
 		T particle = this.create(world, x, y, z, args);
-		if(particle != null)
+		if(measured) {
+			long nanos = System.nanoTime() - startNanos;
+			ParticleBudget.INSTANCE.recordCreation(nanos, startAllocated >= 0 ? TickProfiler.getAllocatedBytes() - startAllocated : -1);
+		}
+		if(particle != null) {
 			Minecraft.getMinecraft().effectRenderer.addEffect(particle);
+			if(budgeted) {
+				ParticleBudget.INSTANCE.track(particle);
+			}
+		}
 		return particle;
 	}
 }
@@ -0,0 +1,240 @@
+package thebetweenlands.client.render.particle;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import net.minecraft.client.renderer.BufferBuilder;
+import net.minecraft.client.renderer.texture.TextureAtlasSprite;
+import net.minecraft.util.math.MathHelper;
+import thebetweenlands.util.MathUtils;
+
+/**
+ * Simulates and renders the wisp particles of a single wisp block.
+ * The particle state is kept in flat arrays instead of one particle object per particle,
+ * dead particles are swap-removed and their slots reused by new particles.
+ * The simulation only depends on plain numbers and can be run without a world, only
+ * {@link #render(BufferBuilder, TextureAtlasSprite, float, double, double, double, boolean, float, float, float, float, float)}
+ * requires the client
+ */
+public class WispParticleSystem {
+	/**
+	 * Maximum number of particles per system
+	 */
+	public static final int MAX_PARTICLES = 1000;
+
+	//Same as the brightness of the previous wisp particles
+	private static final int LIGHTMAP_SKY = 0;
+	private static final int LIGHTMAP_BLOCK = 255;
+
+	private final Random rand;
+
+	private int size = 0;
+
+	private double[] posX, posY, posZ;
+	private double[] prevPosX, prevPosY, prevPosZ;
+	private double[] motionX, motionY, motionZ;
+	private float[] scale, prevScale;
+	private float[] red, green, blue;
+	private int[] age, maxAge;
+
+	public WispParticleSystem(Random rand) {
+		this.rand = rand;
+		this.allocate(64);
+	}
+
+	private void allocate(int capacity) {
+		this.posX = Arrays.copyOf(this.posX == null ? new double[0] : this.posX, capacity);
+		this.posY = Arrays.copyOf(this.posY == null ? new double[0] : this.posY, capacity);
+		this.posZ = Arrays.copyOf(this.posZ == null ? new double[0] : this.posZ, capacity);
+		this.prevPosX = Arrays.copyOf(this.prevPosX == null ? new double[0] : this.prevPosX, capacity);
+		this.prevPosY = Arrays.copyOf(this.prevPosY == null ? new double[0] : this.prevPosY, capacity);
+		this.prevPosZ = Arrays.copyOf(this.prevPosZ == null ? new double[0] : this.prevPosZ, capacity);
+		this.motionX = Arrays.copyOf(this.motionX == null ? new double[0] : this.motionX, capacity);
+		this.motionY = Arrays.copyOf(this.motionY == null ? new double[0] : this.motionY, capacity);
+		this.motionZ = Arrays.copyOf(this.motionZ == null ? new double[0] : this.motionZ, capacity);
+		this.scale = Arrays.copyOf(this.scale == null ? new float[0] : this.scale, capacity);
+		this.prevScale = Arrays.copyOf(this.prevScale == null ? new float[0] : this.prevScale, capacity);
+		this.red = Arrays.copyOf(this.red == null ? new float[0] : this.red, capacity);
+		this.green = Arrays.copyOf(this.green == null ? new float[0] : this.green, capacity);
+		this.blue = Arrays.copyOf(this.blue == null ? new float[0] : this.blue, capacity);
+		this.age = Arrays.copyOf(this.age == null ? new int[0] : this.age, capacity);
+		this.maxAge = Arrays.copyOf(this.maxAge == null ? new int[0] : this.maxAge, capacity);
+	}
+
+	/**
+	 * Returns the number of live particles
+	 * @return
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Spawns a new particle. Returns false if the system is full
+	 * @param x
+	 * @param y
+	 * @param z
+	 * @param r
+	 * @param g
+	 * @param b
+	 * @param scale
+	 * @return
+	 */
+	public boolean spawn(double x, double y, double z, float r, float g, float b, float scale) {
+		if(this.size >= MAX_PARTICLES) {
+			return false;
+		}
+		if(this.size == this.posX.length) {
+			this.allocate(Math.min(this.posX.length * 2, MAX_PARTICLES));
+		}
+
+		int i = this.size++;
+
+		//Same random initial motion as a vanilla particle
+		double mx = (this.rand.nextDouble() * 2.0D - 1.0D) * 0.4D;
+		double my = (this.rand.nextDouble() * 2.0D - 1.0D) * 0.4D;
+		double mz = (this.rand.nextDouble() * 2.0D - 1.0D) * 0.4D;
+		double speed = (this.rand.nextDouble() + this.rand.nextDouble() + 1.0D) * 0.15D;
+		double len = Math.sqrt(mx * mx + my * my + mz * mz);
+		this.motionX[i] = mx / len * speed * 0.4D * 0.01D;
+		this.motionY[i] = (my / len * speed * 0.4D + 0.1D) * 0.01D;
+		this.motionZ[i] = mz / len * speed * 0.4D * 0.01D;
+
+		x += (this.rand.nextFloat() - this.rand.nextFloat()) * 0.05F;
+		y += (this.rand.nextFloat() - this.rand.nextFloat()) * 0.05F;
+		z += (this.rand.nextFloat() - this.rand.nextFloat()) * 0.05F;
+		this.posX[i] = this.prevPosX[i] = x;
+		this.posY[i] = this.prevPosY[i] = y;
+		this.posZ[i] = this.prevPosZ[i] = z;
+
+		this.scale[i] = this.prevScale[i] = scale;
+		this.red[i] = r;
+		this.green[i] = g;
+		this.blue[i] = b;
+		this.age[i] = 0;
+		this.maxAge[i] = (int) (8 / (this.rand.nextDouble() * 0.8D + 0.2D)) + 1000;
+
+		return true;
+	}
+
+	/**
+	 * Updates all particles and removes the dead ones
+	 */
+	public void update() {
+		int i = 0;
+		while(i < this.size) {
+			this.prevPosX[i] = this.posX[i];
+			this.prevPosY[i] = this.posY[i];
+			this.prevPosZ[i] = this.posZ[i];
+			this.prevScale[i] = this.scale[i];
+
+			this.posX[i] += this.motionX[i];
+			this.posY[i] += this.motionY[i];
+			this.posZ[i] += this.motionZ[i];
+
+			this.motionX[i] *= 0.96D;
+			this.motionZ[i] *= 0.96D;
+
+			if(this.age[i]++ >= this.maxAge[i] || this.scale[i] <= 0) {
+				this.remove(i);
+				continue;
+			}
+
+			if(this.scale[i] > 0) {
+				this.scale[i] -= 0.025F;
+			}
+			this.motionY[i] += 0.00008D;
+
+			this.posX[i] += this.motionX[i];
+			this.posY[i] += this.motionY[i];
+			this.posZ[i] += this.motionZ[i];
+
+			i++;
+		}
+	}
+
+	private void remove(int i) {
+		//Swap with last particle, order doesn't matter
+		int last = --this.size;
+		if(i != last) {
+			this.posX[i] = this.posX[last];
+			this.posY[i] = this.posY[last];
+			this.posZ[i] = this.posZ[last];
+			this.prevPosX[i] = this.prevPosX[last];
+			this.prevPosY[i] = this.prevPosY[last];
+			this.prevPosZ[i] = this.prevPosZ[last];
+			this.motionX[i] = this.motionX[last];
+			this.motionY[i] = this.motionY[last];
+			this.motionZ[i] = this.motionZ[last];
+			this.scale[i] = this.scale[last];
+			this.prevScale[i] = this.prevScale[last];
+			this.red[i] = this.red[last];
+			this.green[i] = this.green[last];
+			this.blue[i] = this.blue[last];
+			this.age[i] = this.age[last];
+			this.maxAge[i] = this.maxAge[last];
+		}
+	}
+
+	/**
+	 * Removes all particles
+	 */
+	public void clear() {
+		this.size = 0;
+	}
+
+	/**
+	 * Adds the quads of all particles to the buffer. The buffer must use the particle vertex format
+	 * @param buffer
+	 * @param sprite
+	 * @param partialTicks
+	 * @param cameraX
+	 * @param cameraY
+	 * @param cameraZ
+	 * @param visible Whether the wisp is always visible. If false the particles fade out between 10 and 20 blocks from the camera
+	 * @param rotationX
+	 * @param rotationZ
+	 * @param rotationYZ
+	 * @param rotationXY
+	 * @param rotationXZ
+	 */
+	public void render(BufferBuilder buffer, TextureAtlasSprite sprite, float partialTicks, double cameraX, double cameraY, double cameraZ, boolean visible,
+			float rotationX, float rotationZ, float rotationYZ, float rotationXY, float rotationXZ) {
+		float minU = sprite.getMinU();
+		float maxU = sprite.getMaxU();
+		float minV = sprite.getMinV();
+		float maxV = sprite.getMaxV();
+
+		//remove 1px border to avoid artifacts from smooth filtering
+		float borderU = (maxU - minU) / sprite.getIconWidth();
+		float borderV = (maxV - minV) / sprite.getIconHeight();
+
+		minU += borderU;
+		maxU -= borderU;
+		minV += borderV;
+		maxV -= borderV;
+
+		for(int i = 0; i < this.size; i++) {
+			float x = (float) (this.prevPosX[i] + (this.posX[i] - this.prevPosX[i]) * partialTicks - cameraX);
+			float y = (float) (this.prevPosY[i] + (this.posY[i] - this.prevPosY[i]) * partialTicks - cameraY);
+			float z = (float) (this.prevPosZ[i] + (this.posZ[i] - this.prevPosZ[i]) * partialTicks - cameraZ);
+
+			float alpha = 1.0F;
+			if(!visible) {
+				float distance = MathHelper.clamp(MathHelper.sqrt(x * x + y * y + z * z), 10, 20);
+				alpha = 1.0F - MathHelper.sin(MathUtils.PI / 20 * distance);
+			}
+
+			float scale = 0.1F * (this.prevScale[i] + (this.scale[i] - this.prevScale[i]) * partialTicks);
+
+			float r = this.red[i];
+			float g = this.green[i];
+			float b = this.blue[i];
+
+			buffer.pos(x - rotationX * scale - rotationXY * scale, y - rotationZ * scale, z - rotationYZ * scale - rotationXZ * scale).tex(maxU, maxV).color(r, g, b, alpha).lightmap(LIGHTMAP_SKY, LIGHTMAP_BLOCK).endVertex();
+			buffer.pos(x - rotationX * scale + rotationXY * scale, y + rotationZ * scale, z - rotationYZ * scale + rotationXZ * scale).tex(maxU, minV).color(r, g, b, alpha).lightmap(LIGHTMAP_SKY, LIGHTMAP_BLOCK).endVertex();
+			buffer.pos(x + rotationX * scale + rotationXY * scale, y + rotationZ * scale, z + rotationYZ * scale + rotationXZ * scale).tex(minU, minV).color(r, g, b, alpha).lightmap(LIGHTMAP_SKY, LIGHTMAP_BLOCK).endVertex();
+			buffer.pos(x + rotationX * scale - rotationXY * scale, y - rotationZ * scale, z + rotationYZ * scale - rotationXZ * scale).tex(minU, maxV).color(r, g, b, alpha).lightmap(LIGHTMAP_SKY, LIGHTMAP_BLOCK).endVertex();
+		}
+	}
+}
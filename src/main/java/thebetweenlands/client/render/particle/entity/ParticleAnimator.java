@@ -46,6 +46,12 @@ public class ParticleAnimator extends PathParticle {
 			super(ParticleAnimator.class);
 		}
 
+		@Override
+		protected boolean isBudgeted() {
+			//Gameplay feedback, must always be shown
+			return false;
+		}
+
 		@Override
 		protected void setDefaultArguments(World world, double x, double y, double z, ParticleArgs<?> args) { 
 			args.withData(new ArrayList<Vec3d>());
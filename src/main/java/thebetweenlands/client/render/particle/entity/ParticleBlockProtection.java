@@ -98,6 +98,12 @@ public class ParticleBlockProtection extends ParticleAnimated implements IPartic
 			return new ParticleBlockProtection(args.world, args.x, args.y, args.z, args.motionX, args.motionY, args.motionZ, args.data.getObject(EnumFacing.class, 0), args.scale, args.data.getInt(1));
 		}
 
+		@Override
+		protected boolean isBudgeted() {
+			//Gameplay feedback, must always be shown
+			return false;
+		}
+
 		@Override
 		protected void setBaseArguments(ParticleArgs<?> args) {
 			args.withData(EnumFacing.UP, 5);
@@ -102,7 +102,7 @@ public class ParticleGasCloud extends Particle implements ParticleTextureStitche
 
 		@Override
 		protected void setDefaultArguments(World world, double x, double y, double z, ParticleArgs<?> args) { 
-			args.withData((world.rand.nextFloat() * 2.0F * (float)Math.PI) * 2.0F - 2.0F * (float)Math.PI).withScale((world.rand.nextFloat() * 0.75F + 0.6F) * 10.0F);
+			args.withFloat(0, (world.rand.nextFloat() * 2.0F * (float)Math.PI) * 2.0F - 2.0F * (float)Math.PI).withScale((world.rand.nextFloat() * 0.75F + 0.6F) * 10.0F);
 		}
 
 		@Override
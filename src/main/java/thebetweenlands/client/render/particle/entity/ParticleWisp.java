@@ -156,7 +156,7 @@ public class ParticleWisp extends Particle implements IParticleSpriteReceiver {
 
 		@Override
 		protected void setBaseArguments(ParticleArgs<?> args) {
-			args.withData(255);
+			args.withInt(0, 255);
 		}
 	}
 }
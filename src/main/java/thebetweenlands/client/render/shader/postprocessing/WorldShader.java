@@ -2,13 +2,13 @@ package thebetweenlands.client.render.shader.postprocessing;
 
 import java.nio.FloatBuffer;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 
 import org.lwjgl.opengl.GL11;
 import org.lwjgl.util.vector.Matrix4f;
 
+import it.unimi.dsi.fastutil.ints.AbstractIntComparator;
+import it.unimi.dsi.fastutil.ints.IntArrays;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.ScaledResolution;
 import net.minecraft.client.renderer.ActiveRenderInfo;
@@ -54,6 +54,17 @@ public class WorldShader extends PostProcessingEffect<WorldShader> {
 	public static final int MAX_LIGHT_SOURCES_PER_PASS = 32;
 	private List<LightSource> lightSources = new ArrayList<LightSource>();
 
+	//Light sources that may be visible this frame, sorted by distance
+	private List<LightSource> visibleLightSources = new ArrayList<LightSource>();
+	private double[] lightSourceDistances = new double[64];
+	private int[] lightSourceOrder = new int[64];
+	private float[] frustumPlanes = new float[24];
+
+	//Light culling statistics of the last frame
+	private int culledLightSources;
+	private int lastVisibleLightSources;
+	private long lightCullingNanos;
+
 	//Uniforms
 	private int depthUniformID = -1;
 	private int repellerDiffuseUniformID = -1;
@@ -184,25 +195,88 @@ public class WorldShader extends PostProcessingEffect<WorldShader> {
 		return true;
 	}
 
-	private static final Comparator<LightSource> LIGHT_SOURCE_SORTER = new Comparator<LightSource>() {
-		@Override
-		public int compare(LightSource o1, LightSource o2) {
-			double dx1 = o1.x - Minecraft.getMinecraft().getRenderManager().viewerPosX;
-			double dy1 = o1.y - Minecraft.getMinecraft().getRenderManager().viewerPosY;
-			double dz1 = o1.z - Minecraft.getMinecraft().getRenderManager().viewerPosZ;
-			double dx2 = o2.x - Minecraft.getMinecraft().getRenderManager().viewerPosX;
-			double dy2 = o2.y - Minecraft.getMinecraft().getRenderManager().viewerPosY;
-			double dz2 = o2.z - Minecraft.getMinecraft().getRenderManager().viewerPosZ;
-			double d1 = Math.sqrt(dx1 * dx1 + dy1 * dy1 + dz1 * dz1);
-			double d2 = Math.sqrt(dx2 * dx2 + dy2 * dy2 + dz2 * dz2);
-			if (d1 > d2) {
-				return 1;
-			} else if (d1 < d2) {
-				return -1;
+	/**
+	 * Culls the light sources against the view frustum and render distance and sorts
+	 * the remaining light sources by distance
+	 */
+	private void updateVisibleLightSources() {
+		this.visibleLightSources.clear();
+
+		int count = this.lightSources.size();
+		if(count == 0 || this.modelviewProjectionMatrix == null) {
+			return;
+		}
+
+		if(this.lightSourceDistances.length < count) {
+			this.lightSourceDistances = new double[count * 2];
+			this.lightSourceOrder = new int[count * 2];
+		}
+
+		this.updateFrustumPlanes(this.modelviewProjectionMatrix);
+
+		final double renderPosX = Minecraft.getMinecraft().getRenderManager().viewerPosX;
+		final double renderPosY = Minecraft.getMinecraft().getRenderManager().viewerPosY;
+		final double renderPosZ = Minecraft.getMinecraft().getRenderManager().viewerPosZ;
+		final double maxDistance = Minecraft.getMinecraft().gameSettings.renderDistanceChunks * 16.0D;
+
+		int visible = 0;
+		for(int i = 0; i < count; i++) {
+			LightSource lightSource = this.lightSources.get(i);
+			float x = (float) (lightSource.x - renderPosX);
+			float y = (float) (lightSource.y - renderPosY);
+			float z = (float) (lightSource.z - renderPosZ);
+			double distance = Math.sqrt(x * x + y * y + z * z);
+			if(distance - lightSource.radius <= maxDistance && this.isSphereInFrustum(x, y, z, lightSource.radius)) {
+				this.lightSourceDistances[i] = distance;
+				this.lightSourceOrder[visible++] = i;
+			}
+		}
+
+		final double[] distances = this.lightSourceDistances;
+		IntArrays.quickSort(this.lightSourceOrder, 0, visible, new AbstractIntComparator() {
+			@Override
+			public int compare(int a, int b) {
+				return Double.compare(distances[a], distances[b]);
+			}
+		});
+
+		for(int i = 0; i < visible; i++) {
+			this.visibleLightSources.add(this.lightSources.get(this.lightSourceOrder[i]));
+		}
+	}
+
+	private void updateFrustumPlanes(Matrix4f mvp) {
+		//Planes are extracted from the rows of the MVP matrix: left, right, bottom, top, near, far
+		this.setFrustumPlane(0, mvp.m03 + mvp.m00, mvp.m13 + mvp.m10, mvp.m23 + mvp.m20, mvp.m33 + mvp.m30);
+		this.setFrustumPlane(1, mvp.m03 - mvp.m00, mvp.m13 - mvp.m10, mvp.m23 - mvp.m20, mvp.m33 - mvp.m30);
+		this.setFrustumPlane(2, mvp.m03 + mvp.m01, mvp.m13 + mvp.m11, mvp.m23 + mvp.m21, mvp.m33 + mvp.m31);
+		this.setFrustumPlane(3, mvp.m03 - mvp.m01, mvp.m13 - mvp.m11, mvp.m23 - mvp.m21, mvp.m33 - mvp.m31);
+		this.setFrustumPlane(4, mvp.m03 + mvp.m02, mvp.m13 + mvp.m12, mvp.m23 + mvp.m22, mvp.m33 + mvp.m32);
+		this.setFrustumPlane(5, mvp.m03 - mvp.m02, mvp.m13 - mvp.m12, mvp.m23 - mvp.m22, mvp.m33 - mvp.m32);
+	}
+
+	private void setFrustumPlane(int plane, float a, float b, float c, float d) {
+		float length = (float) Math.sqrt(a * a + b * b + c * c);
+		if(length > 0.0F) {
+			a /= length;
+			b /= length;
+			c /= length;
+			d /= length;
+		}
+		this.frustumPlanes[plane * 4] = a;
+		this.frustumPlanes[plane * 4 + 1] = b;
+		this.frustumPlanes[plane * 4 + 2] = c;
+		this.frustumPlanes[plane * 4 + 3] = d;
+	}
+
+	private boolean isSphereInFrustum(float x, float y, float z, float radius) {
+		for(int i = 0; i < 24; i += 4) {
+			if(this.frustumPlanes[i] * x + this.frustumPlanes[i + 1] * y + this.frustumPlanes[i + 2] * z + this.frustumPlanes[i + 3] < -radius) {
+				return false;
 			}
-			return 0;
 		}
-	};
+		return true;
+	}
 
 	@Override
 	protected void uploadUniforms(float partialTicks) {
@@ -215,17 +289,23 @@ public class WorldShader extends PostProcessingEffect<WorldShader> {
 		this.uploadMatrix4f(this.invMVPUniformID, this.invertedModelviewProjectionMatrix);
 		this.uploadInt(this.fogModeUniformID, FogHandler.getCurrentFogMode());
 
-		//Sort lights by distance
-		Collections.sort(this.lightSources, LIGHT_SOURCE_SORTER);
+		//Cull and sort lights only once per frame
+		if(this.currentRenderPass == 0) {
+			long start = System.nanoTime();
+			this.updateVisibleLightSources();
+			this.lightCullingNanos = System.nanoTime() - start;
+			this.lastVisibleLightSources = this.visibleLightSources.size();
+			this.culledLightSources = this.lightSources.size() - this.lastVisibleLightSources;
+		}
 
-		final int renderedLightSources = Math.min(MAX_LIGHT_SOURCES_PER_PASS, this.lightSources.size() - this.currentRenderPass * MAX_LIGHT_SOURCES_PER_PASS);
+		final int renderedLightSources = Math.max(0, Math.min(MAX_LIGHT_SOURCES_PER_PASS, this.visibleLightSources.size() - this.currentRenderPass * MAX_LIGHT_SOURCES_PER_PASS));
 
 		final double renderPosX = Minecraft.getMinecraft().getRenderManager().viewerPosX;
 		final double renderPosY = Minecraft.getMinecraft().getRenderManager().viewerPosY;
 		final double renderPosZ = Minecraft.getMinecraft().getRenderManager().viewerPosZ;
 
 		for (int i = 0; i < renderedLightSources; i++) {
-			LightSource lightSource = this.lightSources.get(this.currentRenderPass * MAX_LIGHT_SOURCES_PER_PASS + i);
+			LightSource lightSource = this.visibleLightSources.get(this.currentRenderPass * MAX_LIGHT_SOURCES_PER_PASS + i);
 			this.uploadFloat(this.lightSourcePositionUniformIDs[i], (float) (lightSource.x - renderPosX), (float) (lightSource.y - renderPosY), (float) (lightSource.z - renderPosZ));
 			this.uploadFloat(this.lightSourceColorUniformIDs[i], lightSource.r, lightSource.g, lightSource.b);
 			this.uploadFloat(this.lightSourceRadiusUniformIDs[i], lightSource.radius);
@@ -367,6 +447,7 @@ public class WorldShader extends PostProcessingEffect<WorldShader> {
 	 */
 	public void clearLights() {
 		this.lightSources.clear();
+		this.visibleLightSources.clear();
 	}
 
 	/**
@@ -378,6 +459,33 @@ public class WorldShader extends PostProcessingEffect<WorldShader> {
 		return this.lightSources.size();
 	}
 
+	/**
+	 * Returns the amount of light sources that were not culled in the last frame
+	 *
+	 * @return
+	 */
+	public int getVisibleLightSourcesAmount() {
+		return this.lastVisibleLightSources;
+	}
+
+	/**
+	 * Returns the amount of light sources that were culled in the last frame
+	 *
+	 * @return
+	 */
+	public int getCulledLightSourcesAmount() {
+		return this.culledLightSources;
+	}
+
+	/**
+	 * Returns how long culling and sorting the light sources took in the last frame, in nanoseconds
+	 *
+	 * @return
+	 */
+	public long getLightCullingNanos() {
+		return this.lightCullingNanos;
+	}
+
 	/**
 	 * Sets the current render pass
 	 *
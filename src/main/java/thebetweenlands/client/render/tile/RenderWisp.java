@@ -1,20 +1,18 @@
 package thebetweenlands.client.render.tile;
 
-import java.util.List;
-
 import net.minecraft.client.renderer.BufferBuilder;
 import org.apache.commons.lang3.tuple.Pair;
 
 import net.minecraft.client.Minecraft;
-import net.minecraft.client.particle.Particle;
 import net.minecraft.client.renderer.ActiveRenderInfo;
+import net.minecraft.client.renderer.texture.TextureAtlasSprite;
 import net.minecraft.client.renderer.tileentity.TileEntitySpecialRenderer;
 import net.minecraft.entity.Entity;
 import net.minecraft.util.math.Vec3d;
+import thebetweenlands.client.handler.TextureStitchHandler.Frame;
 import thebetweenlands.client.handler.WorldRenderHandler;
 import thebetweenlands.client.render.particle.BLParticles;
-import thebetweenlands.client.render.particle.ParticleFactory.ParticleArgs;
-import thebetweenlands.client.render.particle.entity.ParticleWisp;
+import thebetweenlands.client.render.particle.WispParticleSystem;
 import thebetweenlands.common.block.terrain.BlockWisp;
 import thebetweenlands.common.tile.TileEntityWisp;
 import thebetweenlands.util.TileEntityHelper;
@@ -26,8 +24,6 @@ public class RenderWisp extends TileEntitySpecialRenderer<TileEntityWisp> {
 
 		WorldRenderHandler.WISP_TILE_LIST.add(Pair.of(Pair.of(this, tileEntity), new Vec3d(x, y, z)));
 
-		List<Object> particleList = tileEntity.particleList;
-
 		double renderViewX = Minecraft.getMinecraft().getRenderManager().viewerPosX;
 		double renderViewY = Minecraft.getMinecraft().getRenderManager().viewerPosY;
 		double renderViewZ = Minecraft.getMinecraft().getRenderManager().viewerPosZ;
@@ -41,7 +37,12 @@ public class RenderWisp extends TileEntitySpecialRenderer<TileEntityWisp> {
 			}
 		}
 
-		if(particleList.size() < 1000 && !Minecraft.getMinecraft().isGamePaused()) {
+		if(tileEntity.particleSystem == null) {
+			tileEntity.particleSystem = new WispParticleSystem(tileEntity.getWorld().rand);
+		}
+		WispParticleSystem particleSystem = (WispParticleSystem) tileEntity.particleSystem;
+
+		if(particleSystem.size() < WispParticleSystem.MAX_PARTICLES && !Minecraft.getMinecraft().isGamePaused()) {
 			if(System.nanoTime() - ((TileEntityWisp)tileEntity).lastSpawn >= (500f - 500.0f * ConfigHandler.wispQuality / 150.0f) * 1000000L) {
 				((TileEntityWisp)tileEntity).lastSpawn = System.nanoTime();
 
@@ -52,22 +53,14 @@ public class RenderWisp extends TileEntitySpecialRenderer<TileEntityWisp> {
 				float g = (color >> 8 & 0xFF) / 255F;
 				float b = (color & 0xFF) / 255F;
 
-				particleList.add(BLParticles.WISP.create(tileEntity.getWorld(), 
-						x + 0.5 + renderViewX, 
-						y + 0.5 + renderViewY, 
-						z + 0.5 + renderViewZ, 
-						ParticleArgs.get().withColor(r, g, b, 1.0F).withScale(3.0F)));
+				particleSystem.spawn(x + 0.5 + renderViewX, y + 0.5 + renderViewY, z + 0.5 + renderViewZ, r, g, b, 3.0F);
 
 				color = BlockWisp.COLORS[colorIndex * 2 + 1];
 				r = (color >> 16 & 0xFF) / 255F;
 				g = (color >> 8 & 0xFF) / 255F;
 				b = (color & 0xFF) / 255F;
 
-				particleList.add(BLParticles.WISP.create(tileEntity.getWorld(), 
-						x + 0.5 + renderViewX, 
-						y + 0.5 + renderViewY, 
-						z + 0.5 + renderViewZ, 
-						ParticleArgs.get().withColor(r, g, b, 1.0F).withScale(2.0F)));
+				particleSystem.spawn(x + 0.5 + renderViewX, y + 0.5 + renderViewY, z + 0.5 + renderViewZ, r, g, b, 2.0F);
 			}
 		}
 	}
@@ -81,25 +74,28 @@ public class RenderWisp extends TileEntitySpecialRenderer<TileEntityWisp> {
 	 * @param partialTicks
 	 */
 	public void renderWispParticles(BufferBuilder vertexBuffer, TileEntityWisp tileEntity, double x, double y, double z, float partialTicks) {
-		List<Object> particleList = tileEntity.particleList;
+		WispParticleSystem particleSystem = (WispParticleSystem) tileEntity.particleSystem;
 
 		Entity viewer = Minecraft.getMinecraft().getRenderViewEntity();
 
-		if(viewer != null) {
-			Particle.interpPosX = viewer.lastTickPosX + (viewer.posX - viewer.lastTickPosX) * (double)partialTicks;
-			Particle.interpPosY = viewer.lastTickPosY + (viewer.posY - viewer.lastTickPosY) * (double)partialTicks;
-			Particle.interpPosZ = viewer.lastTickPosZ + (viewer.posZ - viewer.lastTickPosZ) * (double)partialTicks;
-			Particle.cameraViewDir = viewer.getLook(partialTicks);
-
-			for(Object particle : particleList){
-				ParticleWisp wisp = (ParticleWisp) particle;
-				wisp.renderParticle(vertexBuffer, viewer, partialTicks, 
-						ActiveRenderInfo.getRotationX(),
-						ActiveRenderInfo.getRotationXZ(),
-						ActiveRenderInfo.getRotationZ(),
-						ActiveRenderInfo.getRotationYZ(),
-						ActiveRenderInfo.getRotationXY());
-			}
+		Frame[][] sprites = BLParticles.WISP.getFactory().getStitcher().getSprites();
+
+		if(viewer != null && particleSystem != null && particleSystem.size() > 0 && sprites != null) {
+			TextureAtlasSprite sprite = sprites[0][0].getSprite();
+
+			double cameraX = viewer.lastTickPosX + (viewer.posX - viewer.lastTickPosX) * (double)partialTicks;
+			double cameraY = viewer.lastTickPosY + (viewer.posY - viewer.lastTickPosY) * (double)partialTicks;
+			double cameraZ = viewer.lastTickPosZ + (viewer.posZ - viewer.lastTickPosZ) * (double)partialTicks;
+
+			//Visibility is checked once for the wisp instead of once per particle
+			boolean visible = BlockWisp.canSee(tileEntity.getWorld(), tileEntity.getPos());
+
+			particleSystem.render(vertexBuffer, sprite, partialTicks, cameraX, cameraY, cameraZ, visible,
+					ActiveRenderInfo.getRotationX(),
+					ActiveRenderInfo.getRotationXZ(),
+					ActiveRenderInfo.getRotationZ(),
+					ActiveRenderInfo.getRotationYZ(),
+					ActiveRenderInfo.getRotationXY());
 		}
 	}
 }
@@ -22,12 +22,17 @@ import net.minecraftforge.fml.common.network.simpleimpl.SimpleNetworkWrapper;
 import net.minecraftforge.fml.common.registry.GameRegistry;
 import thebetweenlands.common.block.farming.BlockGenericDugSoil;
 import thebetweenlands.common.block.plant.BlockWeedwoodBush;
+import thebetweenlands.common.block.plant.PlantSpreadTracker;
+import thebetweenlands.common.block.terrain.LeafDecaySolver;
 import thebetweenlands.common.capability.base.EntityCapabilityHandler;
 import thebetweenlands.common.capability.base.ItemCapabilityHandler;
 import thebetweenlands.common.command.CommandAspectDiscovery;
 import thebetweenlands.common.command.CommandBLEvent;
+import thebetweenlands.common.command.CommandPregen;
+import thebetweenlands.common.command.CommandProfile;
 import thebetweenlands.common.command.CommandReloadRecipes;
 import thebetweenlands.common.command.CommandResetAspects;
+import thebetweenlands.common.command.CommandSpawning;
 import thebetweenlands.common.handler.AnvilEventHandler;
 import thebetweenlands.common.handler.ArmorHandler;
 import thebetweenlands.common.handler.AspectSyncHandler;
@@ -44,6 +49,7 @@ import thebetweenlands.common.handler.OverworldItemHandler;
 import thebetweenlands.common.handler.PlayerDecayHandler;
 import thebetweenlands.common.handler.PlayerPortalHandler;
 import thebetweenlands.common.handler.PuppetHandler;
+import thebetweenlands.common.handler.TileEntitySyncHandler;
 import thebetweenlands.common.handler.WorldEventHandler;
 import thebetweenlands.common.herblore.elixir.ElixirEffectRegistry;
 import thebetweenlands.common.item.equipment.ItemRingOfFlight;
@@ -65,6 +71,7 @@ import thebetweenlands.common.world.gen.feature.structure.WorldGenDruidCircle;
 import thebetweenlands.common.world.storage.BetweenlandsChunkStorage;
 import thebetweenlands.common.world.storage.WorldStorageImpl;
 import thebetweenlands.core.TheBetweenlandsPreconditions;
+import thebetweenlands.util.TickProfiler;
 import thebetweenlands.util.config.ConfigHandler;
 
 @Mod(modid = ModInfo.ID, name = ModInfo.NAME, version = ModInfo.VERSION, guiFactory = ModInfo.CONFIG_GUI, acceptedMinecraftVersions = ModInfo.MC_VERSIONS, certificateFingerprint = "${fingerprint}")
@@ -170,6 +177,9 @@ public class TheBetweenlands {
 		}*/
 		GameruleRegistry.INSTANCE.onServerStarting(event);
 		event.registerServerCommand(new CommandReloadRecipes());
+		event.registerServerCommand(new CommandSpawning());
+		event.registerServerCommand(new CommandPregen());
+		event.registerServerCommand(new CommandProfile());
 	}
 
 	/**
@@ -205,7 +215,11 @@ public class TheBetweenlands {
 		MinecraftForge.EVENT_BUS.register(BlockGenericDugSoil.class);
 		MinecraftForge.EVENT_BUS.register(ElixirCommonHandler.INSTANCE);
 		MinecraftForge.EVENT_BUS.register(BlockWeedwoodBush.class);
+		MinecraftForge.EVENT_BUS.register(LeafDecaySolver.class);
+		MinecraftForge.EVENT_BUS.register(PlantSpreadTracker.class);
 		MinecraftForge.EVENT_BUS.register(ItemDentrothystShield.class);
 		MinecraftForge.EVENT_BUS.register(EnvironmentEventOverridesHandler.class);
+		MinecraftForge.EVENT_BUS.register(TileEntitySyncHandler.class);
+		MinecraftForge.EVENT_BUS.register(TickProfiler.class);
 	}
 }
@@ -15,7 +15,6 @@ import net.minecraft.item.ItemStack;
 import net.minecraft.util.*;
 import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.util.math.BlockPos.MutableBlockPos;
 import net.minecraft.world.ColorizerFoliage;
 import net.minecraft.world.IBlockAccess;
 import net.minecraft.world.World;
@@ -168,9 +167,16 @@ public class BlockMoss extends BlockDirectional implements IShearable, ISickleHa
 
     @Override
     public void onBlockAdded(World worldIn, BlockPos pos, IBlockState state) {
+        PlantSpreadTracker.onBlockAdded(worldIn, pos, this);
         this.checkForDrop(worldIn, pos, state);
     }
 
+    @Override
+    public void breakBlock(World worldIn, BlockPos pos, IBlockState state) {
+        PlantSpreadTracker.onBlockRemoved(worldIn, pos, this);
+        super.breakBlock(worldIn, pos, state);
+    }
+
     protected boolean checkForDrop(World worldIn, BlockPos pos, IBlockState state) {
         if (state.getBlock() == this && this.canPlaceAt(worldIn, pos, (EnumFacing) state.getValue(FACING))) {
             return true;
@@ -242,28 +248,24 @@ public class BlockMoss extends BlockDirectional implements IShearable, ISickleHa
 
     @Override
     public void updateTick(World world, BlockPos pos, IBlockState state, Random rand) {
+        long start = PlantSpreadTracker.startRandomTick();
+        this.spread(world, pos, rand);
+        PlantSpreadTracker.finishRandomTick(this, start);
+    }
+
+    protected void spread(World world, BlockPos pos, Random rand) {
         int attempt = 0;
         if (rand.nextInt(80) == 0) {
             if (rand.nextInt(6) == 0) {
-                MutableBlockPos checkPos = new MutableBlockPos();
                 byte radius = 2;
                 int maxNearbyMossBlocks = 6;
                 int xx;
                 int yy;
                 int zz;
-                for (xx = pos.getX() - radius; xx <= pos.getX() + radius; ++xx) {
-                    for (zz = pos.getZ() - radius; zz <= pos.getZ() + radius; ++zz) {
-                        for (yy = pos.getY() - radius; yy <= pos.getY() + radius; ++yy) {
-                            if (!world.isBlockLoaded(checkPos.setPos(xx, yy, zz)))
-                                return;
-                            if (world.getBlockState(checkPos.setPos(xx, yy, zz)).getBlock() == this) {
-                                --maxNearbyMossBlocks;
-                                if (maxNearbyMossBlocks <= 0)
-                                    return;
-                            }
-                        }
-                    }
-                }
+                if (!world.isAreaLoaded(pos, radius) || PlantSpreadTracker.getNearbyCount(world, this, pos, radius) >= maxNearbyMossBlocks)
+                    return;
+                if (!PlantSpreadTracker.trySpread(world))
+                    return;
                 for (attempt = 0; attempt < 128; attempt++) {
                     xx = pos.getX() + rand.nextInt(3) - 1;
                     yy = pos.getY() + rand.nextInt(3) - 1;
@@ -1,6 +1,7 @@
 package thebetweenlands.common.block.plant;
 
 import java.util.List;
+import java.util.Random;
 
 import com.google.common.collect.ImmutableList;
 
@@ -12,6 +13,7 @@ import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.IBlockAccess;
+import net.minecraft.world.World;
 import net.minecraftforge.common.IShearable;
 import thebetweenlands.api.block.ISickleHarvestable;
 import thebetweenlands.client.tab.BLCreativeTabs;
@@ -24,6 +26,18 @@ public class BlockVineBL extends BlockVine implements ISickleHarvestable, IShear
 		this.setCreativeTab(BLCreativeTabs.PLANTS);
 	}
 
+	@Override
+	public void updateTick(World worldIn, BlockPos pos, IBlockState state, Random rand) {
+		if(!worldIn.isRemote) {
+			long start = PlantSpreadTracker.startRandomTick();
+			//The vanilla vine growth can't be split up, so the whole growth counts as one spread
+			if(PlantSpreadTracker.trySpread(worldIn)) {
+				super.updateTick(worldIn, pos, state, rand);
+			}
+			PlantSpreadTracker.finishRandomTick(this, start);
+		}
+	}
+
 	@Override
 	public boolean isLadder(IBlockState state, IBlockAccess world, BlockPos pos, EntityLivingBase entity) {
 		return false;
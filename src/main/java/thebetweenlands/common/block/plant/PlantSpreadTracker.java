@@ -0,0 +1,287 @@
+package thebetweenlands.common.block.plant;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.minecraft.block.Block;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+import net.minecraftforge.event.world.ChunkEvent;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
+import net.minecraftforge.fml.common.gameevent.TickEvent.WorldTickEvent;
+import thebetweenlands.util.TickProfiler;
+import thebetweenlands.util.config.ConfigHandler;
+
+/**
+ * Keeps track of where the blocks of a spreading block type are in the loaded chunk sections,
+ * so that spreading blocks don't have to look up every block state of their neighbourhood.
+ * A chunk section is scanned once when it is first needed and then kept up to date by the tracked
+ * blocks through {@link #onBlockAdded(World, BlockPos, Block)} and {@link #onBlockRemoved(World, BlockPos, Block)}.
+ * Also limits how many blocks can spread per world tick and measures the random tick time per block type
+ * while the {@link TickProfiler} is enabled
+ */
+public class PlantSpreadTracker {
+	private static final Map<World, PlantSpreadTracker> TRACKERS = new HashMap<>();
+
+	private static final Object2LongMap<Block> TICK_TIMES = new Object2LongOpenHashMap<>();
+	private static final Object2LongMap<Block> TICK_COUNTS = new Object2LongOpenHashMap<>();
+
+	private static final long NOT_MEASURED = Long.MIN_VALUE;
+
+	private final World world;
+
+	//One bit per block per block type and chunk section, null sections haven't been scanned yet.
+	//Each long holds four rows of 16 blocks along the x axis
+	private final Long2ObjectMap<Map<Block, long[][]>> chunks = new Long2ObjectOpenHashMap<>();
+
+	private int spreads = 0;
+
+	private PlantSpreadTracker(World world) {
+		this.world = world;
+	}
+
+	private static PlantSpreadTracker get(World world) {
+		PlantSpreadTracker tracker = TRACKERS.get(world);
+		if(tracker == null) {
+			TRACKERS.put(world, tracker = new PlantSpreadTracker(world));
+		}
+		return tracker;
+	}
+
+	/**
+	 * Returns whether a block may spread in this tick and if so uses up one
+	 * spread of the per tick budget
+	 * @param world
+	 * @return
+	 */
+	public static boolean trySpread(World world) {
+		if(world.isRemote || ConfigHandler.plantSpreadBudget <= 0) {
+			return true;
+		}
+		PlantSpreadTracker tracker = get(world);
+		if(tracker.spreads >= ConfigHandler.plantSpreadBudget) {
+			return false;
+		}
+		tracker.spreads++;
+		return true;
+	}
+
+	/**
+	 * Returns how many blocks of the specified type there are in the box with the
+	 * specified radius around the position. Only for the server side and the area must be loaded
+	 * @param world
+	 * @param block
+	 * @param pos
+	 * @param radius
+	 * @return
+	 */
+	public static int getNearbyCount(World world, Block block, BlockPos pos, int radius) {
+		PlantSpreadTracker tracker = get(world);
+
+		int minX = pos.getX() - radius;
+		int maxX = pos.getX() + radius;
+		int minY = Math.max(pos.getY() - radius, 0);
+		int maxY = Math.min(pos.getY() + radius, 255);
+		int minZ = pos.getZ() - radius;
+		int maxZ = pos.getZ() + radius;
+
+		int count = 0;
+		for(int y = minY; y <= maxY; y++) {
+			for(int z = minZ; z <= maxZ; z++) {
+				int x = minX;
+				while(x <= maxX) {
+					//Count the part of the row that lies in this chunk
+					int chunkX = x >> 4;
+					int endX = Math.min(maxX, (chunkX << 4) + 15);
+					long[] section = tracker.getSection(block, chunkX, y >> 4, z >> 4, true);
+					int row = (int) (section[getWordIndex(y, z)] >>> getRowShift(z)) & 0xFFFF;
+					int mask = ((1 << (endX - x + 1)) - 1) << (x & 15);
+					count += Integer.bitCount(row & mask);
+					x = endX + 1;
+				}
+			}
+		}
+
+		return count;
+	}
+
+	/**
+	 * Must be called by tracked blocks when they are added to the world
+	 * @param world
+	 * @param pos
+	 * @param block
+	 */
+	public static void onBlockAdded(World world, BlockPos pos, Block block) {
+		update(world, pos, block, true);
+	}
+
+	/**
+	 * Must be called by tracked blocks when they are removed from the world
+	 * @param world
+	 * @param pos
+	 * @param block
+	 */
+	public static void onBlockRemoved(World world, BlockPos pos, Block block) {
+		update(world, pos, block, false);
+	}
+
+	private static void update(World world, BlockPos pos, Block block, boolean present) {
+		if(world.isRemote || pos.getY() < 0 || pos.getY() > 255) {
+			return;
+		}
+		PlantSpreadTracker tracker = TRACKERS.get(world);
+		if(tracker != null) {
+			//Sections that haven't been scanned yet will include the change once they are scanned
+			long[] section = tracker.getSection(block, pos.getX() >> 4, pos.getY() >> 4, pos.getZ() >> 4, false);
+			if(section != null) {
+				long bit = 1L << (getRowShift(pos.getZ()) + (pos.getX() & 15));
+				int index = getWordIndex(pos.getY(), pos.getZ());
+				if(present) {
+					section[index] |= bit;
+				} else {
+					section[index] &= ~bit;
+				}
+			}
+		}
+	}
+
+	private static int getWordIndex(int y, int z) {
+		return ((y & 15) << 2) | ((z & 15) >> 2);
+	}
+
+	private static int getRowShift(int z) {
+		return (z & 3) << 4;
+	}
+
+	private long[] getSection(Block block, int chunkX, int sectionY, int chunkZ, boolean scan) {
+		long key = ChunkPos.asLong(chunkX, chunkZ);
+		Map<Block, long[][]> blocks = this.chunks.get(key);
+		if(blocks == null) {
+			if(!scan) {
+				return null;
+			}
+			this.chunks.put(key, blocks = new Reference2ObjectOpenHashMap<>());
+		}
+		long[][] sections = blocks.get(block);
+		if(sections == null) {
+			if(!scan) {
+				return null;
+			}
+			blocks.put(block, sections = new long[16][]);
+		}
+		long[] section = sections[sectionY];
+		if(section == null && scan) {
+			sections[sectionY] = section = this.scanSection(block, this.world.getChunkFromChunkCoords(chunkX, chunkZ), sectionY);
+		}
+		return section;
+	}
+
+	private long[] scanSection(Block block, Chunk chunk, int sectionY) {
+		long[] bits = new long[64];
+		ExtendedBlockStorage storage = chunk.getBlockStorageArray()[sectionY];
+		if(storage != Chunk.NULL_BLOCK_STORAGE && !storage.isEmpty()) {
+			for(int y = 0; y < 16; y++) {
+				for(int z = 0; z < 16; z++) {
+					for(int x = 0; x < 16; x++) {
+						if(storage.get(x, y, z).getBlock() == block) {
+							bits[getWordIndex(y, z)] |= 1L << (getRowShift(z) + x);
+						}
+					}
+				}
+			}
+		}
+		return bits;
+	}
+
+	/**
+	 * Returns the start time of a random tick, only measured while the {@link TickProfiler} is enabled.
+	 * Must be passed to {@link #finishRandomTick(Block, long)} at the end of the random tick
+	 * @return
+	 */
+	public static long startRandomTick() {
+		return TickProfiler.isEnabled() ? System.nanoTime() : NOT_MEASURED;
+	}
+
+	/**
+	 * Adds the time a random tick of the specified block took to the metrics
+	 * @param block
+	 * @param start Start time returned by {@link #startRandomTick()}
+	 */
+	public static void finishRandomTick(Block block, long start) {
+		if(start != NOT_MEASURED) {
+			TICK_TIMES.put(block, TICK_TIMES.getLong(block) + System.nanoTime() - start);
+			TICK_COUNTS.put(block, TICK_COUNTS.getLong(block) + 1);
+		}
+	}
+
+	/**
+	 * Returns the total random tick time of the specified block in nanoseconds
+	 * @param block
+	 * @return
+	 */
+	public static long getRandomTickTime(Block block) {
+		return TICK_TIMES.getLong(block);
+	}
+
+	/**
+	 * Returns how many random ticks of the specified block have been measured
+	 * @param block
+	 * @return
+	 */
+	public static long getRandomTickCount(Block block) {
+		return TICK_COUNTS.getLong(block);
+	}
+
+	/**
+	 * Returns all block types whose random ticks have been measured
+	 * @return
+	 */
+	public static Set<Block> getMeasuredBlocks() {
+		return TICK_TIMES.keySet();
+	}
+
+	/**
+	 * Clears the random tick metrics
+	 */
+	public static void resetRandomTicks() {
+		TICK_TIMES.clear();
+		TICK_COUNTS.clear();
+	}
+
+	@SubscribeEvent
+	public static void onWorldTick(WorldTickEvent event) {
+		if(event.phase == Phase.START && !event.world.isRemote) {
+			PlantSpreadTracker tracker = TRACKERS.get(event.world);
+			if(tracker != null) {
+				tracker.spreads = 0;
+			}
+		}
+	}
+
+	@SubscribeEvent
+	public static void onChunkUnload(ChunkEvent.Unload event) {
+		if(event.getWorld().isRemote) {
+			return;
+		}
+		PlantSpreadTracker tracker = TRACKERS.get(event.getWorld());
+		if(tracker != null) {
+			tracker.chunks.remove(ChunkPos.asLong(event.getChunk().x, event.getChunk().z));
+		}
+	}
+
+	@SubscribeEvent
+	public static void onWorldUnload(WorldEvent.Unload event) {
+		TRACKERS.remove(event.getWorld());
+	}
+}
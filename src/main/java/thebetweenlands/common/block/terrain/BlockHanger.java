@@ -36,6 +36,7 @@ import net.minecraftforge.fml.relauncher.SideOnly;
 import thebetweenlands.api.block.ISickleHarvestable;
 import thebetweenlands.client.tab.BLCreativeTabs;
 import thebetweenlands.common.block.ITintedBlock;
+import thebetweenlands.common.block.plant.PlantSpreadTracker;
 import thebetweenlands.common.item.herblore.ItemPlantDrop.EnumItemPlantDrop;
 import thebetweenlands.common.registries.BlockRegistry.ICustomItemBlock;
 import thebetweenlands.common.registries.BlockRegistry.IStateMappedBlock;
@@ -105,9 +106,11 @@ public class BlockHanger extends Block implements IShearable, ISickleHarvestable
 
 	@Override
 	public void updateTick(World worldIn, BlockPos pos, IBlockState state, Random rand) {
-		if(rand.nextInt(16) == 0 && worldIn.isAirBlock(pos.down())) {
+		long start = PlantSpreadTracker.startRandomTick();
+		if(rand.nextInt(16) == 0 && worldIn.isAirBlock(pos.down()) && PlantSpreadTracker.trySpread(worldIn)) {
 			worldIn.setBlockState(pos.down(), this.getDefaultState());
 		}
+		PlantSpreadTracker.finishRandomTick(this, start);
 	}
 
 	@Override
@@ -17,6 +17,7 @@ import net.minecraft.world.IBlockAccess;
 import net.minecraft.world.World;
 import thebetweenlands.client.tab.BLCreativeTabs;
 import thebetweenlands.common.block.ITintedBlock;
+import thebetweenlands.common.block.plant.PlantSpreadTracker;
 import thebetweenlands.common.block.farming.BlockGenericCrop;
 import thebetweenlands.common.registries.BlockRegistry;
 import thebetweenlands.common.registries.BlockRegistry.IStateMappedBlock;
@@ -63,6 +64,7 @@ public class BlockPuddle extends Block implements ITintedBlock, IStateMappedBloc
     @Override
     public void updateTick(World world, BlockPos pos, IBlockState state, Random rand) {
         if(!world.isRemote) {
+            long start = PlantSpreadTracker.startRandomTick();
             int amount = state.getValue(AMOUNT);
             if(world.provider instanceof WorldProviderBetweenlands) {
                 WorldProviderBetweenlands provider = (WorldProviderBetweenlands)world.provider;
@@ -78,7 +80,7 @@ public class BlockPuddle extends Block implements ITintedBlock, IStateMappedBloc
                 world.setBlockToAir(pos);
                 amount = 0;
             }
-            if(amount > 2) {
+            if(amount > 2 && PlantSpreadTracker.trySpread(world)) {
                 amount = Math.max(0, amount - 3);
                 world.setBlockState(pos, state.withProperty(AMOUNT, amount), 2);
                 for(int xo = -1; xo <= 1; xo++) {
@@ -93,6 +95,7 @@ public class BlockPuddle extends Block implements ITintedBlock, IStateMappedBloc
                     }
                 }
             }
+            PlantSpreadTracker.finishRandomTick(this, start);
         }
     }
 
@@ -22,6 +22,7 @@ import net.minecraftforge.fml.relauncher.SideOnly;
 import thebetweenlands.client.tab.BLCreativeTabs;
 import thebetweenlands.common.block.BasicBlock;
 import thebetweenlands.common.block.ITintedBlock;
+import thebetweenlands.common.block.plant.PlantSpreadTracker;
 import thebetweenlands.common.block.farming.BlockGenericDugSoil;
 import thebetweenlands.common.registries.BlockRegistry;
 import thebetweenlands.common.tile.TileEntityDugSoil;
@@ -41,7 +42,9 @@ public class BlockSwampGrass extends BasicBlock implements IGrowable, ITintedBlo
 	@Override
 	public void updateTick(World worldIn, BlockPos pos, IBlockState state, Random rand) {
 		if (!worldIn.isRemote) {
+			long start = PlantSpreadTracker.startRandomTick();
 			updateGrass(worldIn, pos, rand);
+			PlantSpreadTracker.finishRandomTick(this, start);
 		}
 	}
 
@@ -50,6 +53,7 @@ public class BlockSwampGrass extends BasicBlock implements IGrowable, ITintedBlo
 			revertToDirt(world, pos);
 			return true;
 		} else {
+			//Not limited by the plant spread budget, grass spreading is cheap and would use up the budget of the other plants
 			for (int i = 0; i < 4; ++i) {
 				BlockPos blockPos = pos.add(rand.nextInt(3) - 1, rand.nextInt(5) - 3, rand.nextInt(3) - 1);
 
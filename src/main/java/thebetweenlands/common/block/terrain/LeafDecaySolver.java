@@ -0,0 +1,209 @@
+package thebetweenlands.common.block.terrain;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import it.unimi.dsi.fastutil.longs.Long2ByteMap;
+import it.unimi.dsi.fastutil.longs.Long2ByteOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockLeaves;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
+import net.minecraftforge.fml.common.gameevent.TickEvent.WorldTickEvent;
+import thebetweenlands.util.TickProfiler;
+
+/**
+ * Collects the leaves that need to check for decay during a world tick and solves
+ * them all at once at the end of the tick. Leaves of the same canopy share one
+ * breadth first search instead of each scanning their whole neighbourhood
+ */
+public class LeafDecaySolver {
+	//How far leaves can be away from a block that sustains them
+	public static final int LOG_REACH = 5;
+
+	private static final byte TYPE_SUSTAIN = 0;
+	private static final byte TYPE_BLOCKED = 1;
+	private static final byte TYPE_LEAVES = 2;
+
+	private static final Map<World, LeafDecaySolver> SOLVERS = new HashMap<>();
+
+	private final World world;
+
+	private LongSet pending = new LongOpenHashSet();
+
+	//Block types are only read once per solve
+	private final Long2ByteMap blockTypes = new Long2ByteOpenHashMap();
+
+	private LeafDecaySolver(World world) {
+		this.world = world;
+		this.blockTypes.defaultReturnValue((byte) -1);
+	}
+
+	/**
+	 * Schedules the leaves at the specified position to be checked for decay at the end of the current world tick
+	 * @param world
+	 * @param pos
+	 */
+	public static void scheduleDecayCheck(World world, BlockPos pos) {
+		LeafDecaySolver solver = SOLVERS.get(world);
+		if(solver == null) {
+			SOLVERS.put(world, solver = new LeafDecaySolver(world));
+		}
+		solver.pending.add(pos.toLong());
+	}
+
+	@SubscribeEvent
+	public static void onWorldTick(WorldTickEvent event) {
+		if(event.phase == Phase.END && !event.world.isRemote) {
+			LeafDecaySolver solver = SOLVERS.get(event.world);
+			if(solver != null && !solver.pending.isEmpty()) {
+				TickProfiler.LEAF_DECAY.start();
+				try {
+					solver.solve();
+				} finally {
+					TickProfiler.LEAF_DECAY.stop();
+				}
+			}
+		}
+	}
+
+	@SubscribeEvent
+	public static void onWorldUnload(WorldEvent.Unload event) {
+		SOLVERS.remove(event.getWorld());
+	}
+
+	/**
+	 * Checks all pending leaves for decay and then removes the leaves that aren't connected to a log
+	 */
+	private void solve() {
+		LongSet sources = this.pending;
+		this.pending = new LongOpenHashSet();
+
+		int checkRadius = LOG_REACH + 1;
+
+		//Remove leaves that have changed in the meantime or whose surroundings aren't loaded
+		LongIterator it = sources.iterator();
+		while(it.hasNext()) {
+			BlockPos pos = BlockPos.fromLong(it.nextLong());
+			IBlockState state = this.world.getBlockState(pos);
+			if(!(state.getBlock() instanceof BlockLeavesBetweenlands) || !state.getValue(BlockLeaves.CHECK_DECAY) || !state.getValue(BlockLeaves.DECAYABLE)
+					|| !this.world.isAreaLoaded(pos.add(-checkRadius, -checkRadius, -checkRadius), pos.add(checkRadius, checkRadius, checkRadius))) {
+				it.remove();
+			}
+		}
+
+		if(sources.isEmpty()) {
+			return;
+		}
+
+		try {
+			//Expand from the pending leaves through the canopy and collect all reachable blocks that sustain leaves
+			Long2ByteMap depths = new Long2ByteOpenHashMap();
+			LongArrayFIFOQueue queue = new LongArrayFIFOQueue();
+			LongSet sustainers = new LongOpenHashSet();
+
+			it = sources.iterator();
+			while(it.hasNext()) {
+				long pos = it.nextLong();
+				depths.put(pos, (byte) 0);
+				queue.enqueue(pos);
+			}
+
+			while(!queue.isEmpty()) {
+				long pos = queue.dequeueLong();
+				int depth = depths.get(pos);
+				if(depth >= LOG_REACH) {
+					continue;
+				}
+				BlockPos blockPos = BlockPos.fromLong(pos);
+				for(EnumFacing facing : EnumFacing.VALUES) {
+					long offset = blockPos.offset(facing).toLong();
+					byte type = this.getBlockType(offset);
+					if(type == TYPE_SUSTAIN) {
+						sustainers.add(offset);
+					} else if(type == TYPE_LEAVES && !depths.containsKey(offset)) {
+						depths.put(offset, (byte) (depth + 1));
+						queue.enqueue(offset);
+					}
+				}
+			}
+
+			//Propagate the distance to the sustaining blocks back through the visited leaves
+			Long2ByteMap distances = new Long2ByteOpenHashMap();
+
+			it = sustainers.iterator();
+			while(it.hasNext()) {
+				long pos = it.nextLong();
+				distances.put(pos, (byte) 0);
+				queue.enqueue(pos);
+			}
+
+			while(!queue.isEmpty()) {
+				long pos = queue.dequeueLong();
+				int distance = distances.get(pos);
+				if(distance >= LOG_REACH) {
+					continue;
+				}
+				BlockPos blockPos = BlockPos.fromLong(pos);
+				for(EnumFacing facing : EnumFacing.VALUES) {
+					long offset = blockPos.offset(facing).toLong();
+					if(depths.containsKey(offset) && !distances.containsKey(offset)) {
+						distances.put(offset, (byte) (distance + 1));
+						queue.enqueue(offset);
+					}
+				}
+			}
+
+			//Apply results. Removing unconnected leaves can't disconnect any other leaves
+			it = sources.iterator();
+			while(it.hasNext()) {
+				long pos = it.nextLong();
+				BlockPos blockPos = BlockPos.fromLong(pos);
+				IBlockState state = this.world.getBlockState(blockPos);
+				//Removing leaves notifies neighbours, so the block may have changed since it was queued
+				if(!(state.getBlock() instanceof BlockLeavesBetweenlands) || !state.getPropertyKeys().contains(BlockLeaves.CHECK_DECAY)) {
+					continue;
+				}
+				if(distances.containsKey(pos)) {
+					this.world.setBlockState(blockPos, state.withProperty(BlockLeaves.CHECK_DECAY, false), 4);
+				} else {
+					((BlockLeavesBetweenlands) state.getBlock()).removeLeaves(this.world, blockPos);
+				}
+			}
+		} finally {
+			this.blockTypes.clear();
+		}
+	}
+
+	/**
+	 * Returns whether the block at the specified position sustains leaves, is leaves or neither
+	 * @param pos
+	 * @return
+	 */
+	private byte getBlockType(long pos) {
+		byte type = this.blockTypes.get(pos);
+		if(type < 0) {
+			BlockPos blockPos = BlockPos.fromLong(pos);
+			IBlockState state = this.world.getBlockState(blockPos);
+			Block block = state.getBlock();
+			if(block.canSustainLeaves(state, this.world, blockPos)) {
+				type = TYPE_SUSTAIN;
+			} else if(block.isLeaves(state, this.world, blockPos)) {
+				type = TYPE_LEAVES;
+			} else {
+				type = TYPE_BLOCKED;
+			}
+			this.blockTypes.put(pos, type);
+		}
+		return type;
+	}
+}
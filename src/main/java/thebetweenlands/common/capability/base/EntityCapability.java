@@ -7,12 +7,9 @@ import com.google.common.base.Preconditions;
 
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.EntityPlayer;
-import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraftforge.common.capabilities.Capability;
 import thebetweenlands.api.capability.ISerializableCapability;
-import thebetweenlands.common.TheBetweenlands;
-import thebetweenlands.common.network.clientbound.MessageSyncEntityCapabilities;
 
 /**
  * Internal representation and wrapper of entity capabilities.
@@ -150,12 +147,4 @@ public abstract class EntityCapability<F extends EntityCapability<F, T, E>, T, E
 			newCapability.readFromNBT(nbt);
 		}
 	}
-
-	/**
-	 * Sends a packet with all the tracking sensitive data
-	 */
-	public void sendPacket(EntityPlayerMP player) {
-		MessageSyncEntityCapabilities message = new MessageSyncEntityCapabilities(this);
-		TheBetweenlands.networkWrapper.sendTo(message, player);
-	}
 }
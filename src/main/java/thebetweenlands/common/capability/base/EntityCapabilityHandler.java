@@ -1,8 +1,11 @@
 package thebetweenlands.common.capability.base;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -11,6 +14,10 @@ import java.util.concurrent.Callable;
 
 import com.google.common.base.Preconditions;
 
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
@@ -31,19 +38,36 @@ import net.minecraftforge.fml.common.Loader;
 import net.minecraftforge.fml.common.LoaderState;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.common.gameevent.PlayerEvent.PlayerChangedDimensionEvent;
+import net.minecraftforge.fml.common.gameevent.PlayerEvent.PlayerLoggedOutEvent;
 import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
 import net.minecraftforge.fml.common.gameevent.TickEvent.PlayerTickEvent;
 import net.minecraftforge.fml.common.gameevent.TickEvent.ServerTickEvent;
 import net.minecraftforge.fml.relauncher.Side;
 import thebetweenlands.api.capability.ISerializableCapability;
+import thebetweenlands.common.TheBetweenlands;
+import thebetweenlands.common.network.clientbound.MessageSyncEntityCapabilities;
+import thebetweenlands.util.TickProfiler;
 
 public class EntityCapabilityHandler {
 	private static final List<EntityCapability<?, ?, ? extends Entity>> REGISTERED_CAPABILITIES = new ArrayList<EntityCapability<?, ?, ? extends Entity>>();
 	private static final Map<ResourceLocation, EntityCapability<?, ?, ? extends Entity>> ID_CAPABILITY_MAP = new HashMap<ResourceLocation, EntityCapability<?, ?, ? extends Entity>>();
 
-	private static final Map<EntityPlayerMP, List<EntityCapabilityTracker>> TRACKER_MAP = new HashMap<EntityPlayerMP, List<EntityCapabilityTracker>>();
+	//Watcher -> tracked entity ID -> trackers
+	private static final Map<EntityPlayerMP, Int2ObjectMap<List<EntityCapabilityTracker>>> TRACKER_MAP = new HashMap<EntityPlayerMP, Int2ObjectMap<List<EntityCapabilityTracker>>>();
 
-	private static int updateTimer = 0;
+	//Trackers that are checked against the vanilla entity tracker in round robin order
+	private static final Deque<EntityCapabilityTracker> RECONCILE_QUEUE = new ArrayDeque<EntityCapabilityTracker>();
+
+	//Minimum number of trackers that are checked per tick. At least 1/20th of all trackers is checked per tick
+	private static final int MIN_RECONCILED_TRACKERS = 16;
+
+	//Trackers whose data is sent at the end of the tick
+	private static final Set<EntityCapabilityTracker> PENDING_SYNCS = new LinkedHashSet<EntityCapabilityTracker>();
+
+	private static final Object2LongMap<ResourceLocation> SYNCED_BYTES = new Object2LongOpenHashMap<ResourceLocation>();
+	//Number of sent packets that contained the capability
+	private static final Object2LongMap<ResourceLocation> SYNCED_CAPABILITY_PACKETS = new Object2LongOpenHashMap<ResourceLocation>();
+	private static long syncedPackets = 0;
 
 	/**
 	 * Registers an entity capability
@@ -171,10 +195,10 @@ public class EntityCapabilityHandler {
 	public static void onEntityChangeDimension(PlayerChangedDimensionEvent event) {
 		if(!event.player.getEntityWorld().isRemote && event.player instanceof EntityPlayerMP)  {
 			EntityPlayerMP player = (EntityPlayerMP) event.player;
-			List<EntityCapabilityTracker> trackers = TRACKER_MAP.get(player);
+			Int2ObjectMap<List<EntityCapabilityTracker>> trackers = TRACKER_MAP.get(player);
 			if(trackers != null) {
-				for(EntityCapabilityTracker tracker : trackers) {
-					tracker.getEntityCapability().sendPacket(tracker.getWatcher());
+				for(List<EntityCapabilityTracker> entityTrackers : trackers.values()) {
+					PENDING_SYNCS.addAll(entityTrackers);
 				}
 			}
 		}
@@ -194,29 +218,32 @@ public class EntityCapabilityHandler {
 		}
 	}
 
+	@SubscribeEvent
+	public static void onPlayerLoggedOut(PlayerLoggedOutEvent event) {
+		if(event.player instanceof EntityPlayerMP) {
+			removeWatcher((EntityPlayerMP) event.player);
+		}
+	}
+
 	@SubscribeEvent
 	public static void onEntityUpdate(PlayerTickEvent event) {
 		if(!event.player.getEntityWorld().isRemote && event.side == Side.SERVER)  {
-			EntityPlayerMP player = (EntityPlayerMP) event.player;
-			List<EntityCapabilityTracker> trackers = TRACKER_MAP.get(player);
-			if(trackers != null) {
-				Iterator<EntityCapabilityTracker> trackerIT = trackers.iterator();
-				while(trackerIT.hasNext()) {
-					EntityCapabilityTracker tracker = trackerIT.next();
-
-					//Don't remove own tracker
-					if(tracker.getEntityCapability().getEntity() != player) {
-						Set<? extends EntityPlayer> vanillaTrackingPlayers = player.getServerWorld().getEntityTracker().getTrackingPlayers(tracker.getEntityCapability().getEntity());
-
-						if(vanillaTrackingPlayers == null || vanillaTrackingPlayers.isEmpty() || !vanillaTrackingPlayers.contains(player)) {
-							//Welp, seems like StopTracking isn't called sometimes...
-							trackerIT.remove();
-							tracker.remove();
+			TickProfiler.ENTITY_CAPABILITIES.start();
+			try {
+				EntityPlayerMP player = (EntityPlayerMP) event.player;
+				Int2ObjectMap<List<EntityCapabilityTracker>> trackers = TRACKER_MAP.get(player);
+				if(trackers != null) {
+					for(List<EntityCapabilityTracker> entityTrackers : trackers.values()) {
+						for(int i = 0; i < entityTrackers.size(); i++) {
+							EntityCapabilityTracker tracker = entityTrackers.get(i);
+							if(tracker.update()) {
+								PENDING_SYNCS.add(tracker);
+							}
 						}
 					}
-
-					tracker.update();
 				}
+			} finally {
+				TickProfiler.ENTITY_CAPABILITIES.stop();
 			}
 		}
 	}
@@ -224,27 +251,145 @@ public class EntityCapabilityHandler {
 	@SubscribeEvent
 	public static void onServerTickEvent(ServerTickEvent event) {
 		if(event.phase == Phase.END) {
-			updateTimer++;
-			if(updateTimer > 20) {
-				updateTimer = 0;
-				Iterator<Entry<EntityPlayerMP, List<EntityCapabilityTracker>>> it = TRACKER_MAP.entrySet().iterator();
-				while(it.hasNext()) {
-					Entry<EntityPlayerMP, List<EntityCapabilityTracker>> entry = it.next();
-					EntityPlayerMP player = entry.getKey();
-
-					//System.out.println(entry.getValue().size() + " " + player.getServerWorld().loadedEntityList.size());
-
-					if(player.getServerWorld().getMinecraftServer() != null && !player.getServerWorld().getMinecraftServer().getPlayerList().getPlayers().contains(player)) {
-						it.remove();
-						for(EntityCapabilityTracker tracker : entry.getValue()) {
-							tracker.remove();
-						}
-					}
+			TickProfiler.ENTITY_CAPABILITIES.start();
+			try {
+				reconcileTrackers();
+				sendPendingSyncs();
+			} finally {
+				TickProfiler.ENTITY_CAPABILITIES.stop();
+			}
+		}
+	}
+
+	/**
+	 * Removes trackers of watchers that are no longer online and trackers whose entity is no longer
+	 * tracked by the watcher, in case StopTracking wasn't called. Only a part of all trackers is checked per tick
+	 */
+	private static void reconcileTrackers() {
+		int checks = Math.min(RECONCILE_QUEUE.size(), Math.max(MIN_RECONCILED_TRACKERS, RECONCILE_QUEUE.size() / 20));
+		for(int i = 0; i < checks; i++) {
+			EntityCapabilityTracker tracker = RECONCILE_QUEUE.poll();
+			if(tracker.isRemoved()) {
+				continue;
+			}
+
+			EntityPlayerMP watcher = tracker.getWatcher();
+			if(watcher.getServerWorld().getMinecraftServer() != null && watcher.getServerWorld().getMinecraftServer().getPlayerList().getPlayerByUUID(watcher.getUniqueID()) != watcher) {
+				removeWatcher(watcher);
+				continue;
+			}
+
+			Entity entity = tracker.getEntityCapability().getEntity();
+
+			//Don't remove own tracker
+			if(entity != watcher) {
+				Set<? extends EntityPlayer> vanillaTrackingPlayers = watcher.getServerWorld().getEntityTracker().getTrackingPlayers(entity);
+
+				if(vanillaTrackingPlayers == null || !vanillaTrackingPlayers.contains(watcher)) {
+					//Welp, seems like StopTracking isn't called sometimes...
+					removeTrackers(watcher, entity);
+					continue;
 				}
 			}
+
+			RECONCILE_QUEUE.add(tracker);
+		}
+	}
+
+	/**
+	 * Sends the data of all pending trackers. The tracking data of each capability is only serialized once
+	 * and all capabilities of an entity are sent to a watcher in a single message
+	 */
+	private static void sendPendingSyncs() {
+		if(PENDING_SYNCS.isEmpty()) {
+			return;
+		}
+
+		Map<EntityCapability<?, ?, ?>, byte[]> encodedData = new IdentityHashMap<EntityCapability<?, ?, ?>, byte[]>();
+		Map<EntityPlayerMP, Map<Entity, MessageSyncEntityCapabilities>> messages = new IdentityHashMap<EntityPlayerMP, Map<Entity, MessageSyncEntityCapabilities>>();
+
+		for(EntityCapabilityTracker tracker : PENDING_SYNCS) {
+			if(tracker.isRemoved()) {
+				continue;
+			}
+
+			EntityCapability<?, ?, ?> capability = tracker.getEntityCapability();
+
+			byte[] data = encodedData.get(capability);
+			if(data == null) {
+				encodedData.put(capability, data = MessageSyncEntityCapabilities.encodeTrackingData(capability));
+			}
+
+			Map<Entity, MessageSyncEntityCapabilities> watcherMessages = messages.get(tracker.getWatcher());
+			if(watcherMessages == null) {
+				messages.put(tracker.getWatcher(), watcherMessages = new IdentityHashMap<Entity, MessageSyncEntityCapabilities>());
+			}
+
+			MessageSyncEntityCapabilities message = watcherMessages.get(capability.getEntity());
+			if(message == null) {
+				watcherMessages.put(capability.getEntity(), message = new MessageSyncEntityCapabilities(capability.getEntity()));
+			}
+			message.addCapability(capability.getID(), data);
+
+			//Every message is sent below and a capability is only added once per message
+			SYNCED_BYTES.put(capability.getID(), SYNCED_BYTES.getLong(capability.getID()) + data.length);
+			SYNCED_CAPABILITY_PACKETS.put(capability.getID(), SYNCED_CAPABILITY_PACKETS.getLong(capability.getID()) + 1);
+		}
+
+		PENDING_SYNCS.clear();
+
+		for(Entry<EntityPlayerMP, Map<Entity, MessageSyncEntityCapabilities>> entry : messages.entrySet()) {
+			for(MessageSyncEntityCapabilities message : entry.getValue().values()) {
+				TheBetweenlands.networkWrapper.sendTo(message, entry.getKey());
+				syncedPackets++;
+			}
 		}
 	}
 
+	/**
+	 * Returns how many bytes of tracking data of the specified capability have been sent
+	 * @param id
+	 * @return
+	 */
+	public static long getSyncedBytes(ResourceLocation id) {
+		return SYNCED_BYTES.getLong(id);
+	}
+
+	/**
+	 * Returns how many sync packets containing the tracking data of the specified capability have been sent
+	 * @param id
+	 * @return
+	 */
+	public static long getSyncedPackets(ResourceLocation id) {
+		return SYNCED_CAPABILITY_PACKETS.getLong(id);
+	}
+
+	/**
+	 * Returns how many capability sync packets have been sent. A packet can contain
+	 * the tracking data of multiple capabilities
+	 * @return
+	 */
+	public static long getSyncedPackets() {
+		return syncedPackets;
+	}
+
+	/**
+	 * Returns the IDs of all capabilities whose tracking data has been sent
+	 * @return
+	 */
+	public static Set<ResourceLocation> getSyncedCapabilities() {
+		return SYNCED_BYTES.keySet();
+	}
+
+	/**
+	 * Clears the synced bytes and packets
+	 */
+	public static void resetSyncStatistics() {
+		SYNCED_BYTES.clear();
+		SYNCED_CAPABILITY_PACKETS.clear();
+		syncedPackets = 0;
+	}
+
 	@SubscribeEvent
 	public static void onPlayerClone(PlayerEvent.Clone event) {
 		//Clone persistent capability properties
@@ -291,42 +436,39 @@ public class EntityCapabilityHandler {
 
 		for(EntityCapability<?, ?, Entity> capability : entityCapabilities) {
 			if(capability.getTrackingTime() >= 0) {
-				List<EntityCapabilityTracker> trackers = TRACKER_MAP.get(watcher);
+				Int2ObjectMap<List<EntityCapabilityTracker>> trackers = TRACKER_MAP.get(watcher);
 				if(trackers == null) {
-					TRACKER_MAP.put(watcher, trackers = new ArrayList<EntityCapabilityTracker>());
+					TRACKER_MAP.put(watcher, trackers = new Int2ObjectOpenHashMap<List<EntityCapabilityTracker>>());
+				}
+				List<EntityCapabilityTracker> entityTrackers = trackers.get(target.getEntityId());
+				if(entityTrackers == null) {
+					trackers.put(target.getEntityId(), entityTrackers = new ArrayList<EntityCapabilityTracker>(2));
 				}
 				EntityCapabilityTracker tracker = new EntityCapabilityTracker(capability, watcher);
-				trackers.add(tracker);
+				entityTrackers.add(tracker);
 				tracker.add();
+				RECONCILE_QUEUE.add(tracker);
 
 				//Send initial packet
-				capability.sendPacket(watcher);
+				PENDING_SYNCS.add(tracker);
 			}
 		}
 	}
 
 	/**
-	 * Removes all necessary trackers for an entity
+	 * Removes all trackers for an entity
 	 * @param watcher
 	 * @param target
 	 */
 	private static void removeTrackers(EntityPlayerMP watcher, Entity target) {
-		List<EntityCapabilityTracker> trackers = TRACKER_MAP.get(watcher);
+		Int2ObjectMap<List<EntityCapabilityTracker>> trackers = TRACKER_MAP.get(watcher);
 
 		if(trackers != null) {
-			List<EntityCapability<?, ?, Entity>> entityCapabilities = getEntityCapabilities(target);
-
-			for(EntityCapability<?, ?, Entity> capability : entityCapabilities) {
-				if(capability.getTrackingTime() >= 0) {
-					Iterator<EntityCapabilityTracker> it = trackers.iterator();
-					while(it.hasNext()) {
-						EntityCapabilityTracker tracker = it.next();
+			List<EntityCapabilityTracker> entityTrackers = trackers.remove(target.getEntityId());
 
-						if(tracker.getEntityCapability() == capability) {
-							it.remove();
-							tracker.remove();
-						}
-					}
+			if(entityTrackers != null) {
+				for(EntityCapabilityTracker tracker : entityTrackers) {
+					tracker.remove();
 				}
 			}
 
@@ -335,4 +477,20 @@ public class EntityCapabilityHandler {
 			}
 		}
 	}
+
+	/**
+	 * Removes all trackers of a watcher
+	 * @param watcher
+	 */
+	private static void removeWatcher(EntityPlayerMP watcher) {
+		Int2ObjectMap<List<EntityCapabilityTracker>> trackers = TRACKER_MAP.remove(watcher);
+
+		if(trackers != null) {
+			for(List<EntityCapabilityTracker> entityTrackers : trackers.values()) {
+				for(EntityCapabilityTracker tracker : entityTrackers) {
+					tracker.remove();
+				}
+			}
+		}
+	}
 }
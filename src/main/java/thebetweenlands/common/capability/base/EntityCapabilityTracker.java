@@ -9,6 +9,7 @@ public class EntityCapabilityTracker {
 	private boolean trackerReady = false;
 	private int lastUpdate = 0;
 	private boolean dirty = false;
+	private boolean removed = false;
 
 	public EntityCapabilityTracker(EntityCapability<?, ?, ?> entityCapability, EntityPlayerMP watcher) {
 		this.entityCapability = entityCapability;
@@ -27,6 +28,15 @@ public class EntityCapabilityTracker {
 	 */
 	public void remove() {
 		this.entityCapability.removeTracker(this);
+		this.removed = true;
+	}
+
+	/**
+	 * Returns whether the tracker was removed
+	 * @return
+	 */
+	public boolean isRemoved() {
+		return this.removed;
 	}
 
 	/**
@@ -54,8 +64,9 @@ public class EntityCapabilityTracker {
 
 	/**
 	 * Updates the tracker
+	 * @return True if the data should be synced to the watcher
 	 */
-	public void update() {
+	public boolean update() {
 		if(this.lastUpdate < this.entityCapability.getTrackingTime()) {
 			this.lastUpdate++;
 		} else {
@@ -65,8 +76,10 @@ public class EntityCapabilityTracker {
 		if(this.trackerReady && this.dirty) {
 			this.lastUpdate = 0;
 			this.trackerReady = false;
-			this.entityCapability.sendPacket(this.watcher);
 			this.dirty = false;
+			return true;
 		}
+
+		return false;
 	}
 }
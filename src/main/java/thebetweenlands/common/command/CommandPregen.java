@@ -0,0 +1,130 @@
+package thebetweenlands.common.command;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import net.minecraft.command.CommandBase;
+import net.minecraft.command.CommandException;
+import net.minecraft.command.ICommandSender;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.text.TextComponentTranslation;
+import net.minecraft.world.WorldServer;
+import net.minecraftforge.common.DimensionManager;
+import thebetweenlands.common.world.gen.WorldPregenerator;
+import thebetweenlands.common.world.storage.BetweenlandsWorldStorage;
+import thebetweenlands.util.config.ConfigHandler;
+
+public class CommandPregen extends CommandBase {
+	//Largest allowed radius in chunks
+	private static final int MAX_RADIUS = 1000;
+
+	private List<String> childCommands = Arrays.asList("start", "stop", "status");
+
+	@Override
+	public String getName() {
+		return "blpregen";
+	}
+
+	@Override
+	public int getRequiredPermissionLevel() {
+		return 2;
+	}
+
+	@Override
+	public String getUsage(ICommandSender sender) {
+		return "command.blpregen.usage";
+	}
+
+	private BetweenlandsWorldStorage getWorldStorage() throws CommandException {
+		WorldServer world = DimensionManager.getWorld(ConfigHandler.dimensionId);
+		if(world == null && DimensionManager.isDimensionRegistered(ConfigHandler.dimensionId)) {
+			//Dimension isn't kept loaded without players, load it so that it can be pregenerated offline
+			DimensionManager.initDimension(ConfigHandler.dimensionId);
+			world = DimensionManager.getWorld(ConfigHandler.dimensionId);
+		}
+		BetweenlandsWorldStorage storage = world != null ? BetweenlandsWorldStorage.forWorld(world) : null;
+		if(storage == null || WorldPregenerator.getGenerator(world) == null) {
+			throw new CommandException("command.blpregen.failure.dimension");
+		}
+		return storage;
+	}
+
+	private void processStart(ICommandSender sender, String[] args) throws CommandException {
+		if(args.length != 2 && args.length != 4) {
+			throw new CommandException("command.blpregen.usage");
+		}
+		BetweenlandsWorldStorage storage = this.getWorldStorage();
+		if(storage.getPregenerator() != null) {
+			throw new CommandException("command.blpregen.failure.running");
+		}
+		int radius = parseInt(args[1], 0, MAX_RADIUS);
+		BlockPos pos = sender.getPosition();
+		int x = pos.getX();
+		int z = pos.getZ();
+		if(args.length == 4) {
+			x = parseInt(args[2]);
+			z = parseInt(args[3]);
+		}
+		WorldPregenerator pregenerator = new WorldPregenerator((WorldServer) storage.getWorld(), x >> 4, z >> 4, radius);
+		storage.setPregenerator(pregenerator);
+		notifyCommandListener(sender, this, "command.blpregen.start", pregenerator.getTotalChunks(), x, z);
+	}
+
+	private void processStop(ICommandSender sender) throws CommandException {
+		BetweenlandsWorldStorage storage = this.getWorldStorage();
+		WorldPregenerator pregenerator = storage.getPregenerator();
+		if(pregenerator == null) {
+			throw new CommandException("command.blpregen.failure.notrunning");
+		}
+		pregenerator.finish();
+		storage.setPregenerator(null);
+		notifyCommandListener(sender, this, "command.blpregen.stop", pregenerator.getProcessedChunks(), pregenerator.getTotalChunks());
+	}
+
+	private void processStatus(ICommandSender sender) throws CommandException {
+		WorldPregenerator pregenerator = this.getWorldStorage().getPregenerator();
+		if(pregenerator == null) {
+			throw new CommandException("command.blpregen.failure.notrunning");
+		}
+		sender.sendMessage(new TextComponentTranslation("command.blpregen.status.progress",
+				pregenerator.getProcessedChunks(), pregenerator.getTotalChunks(),
+				String.format("%.1f", pregenerator.getProcessedChunks() * 100.0D / pregenerator.getTotalChunks())));
+		sender.sendMessage(new TextComponentTranslation("command.blpregen.status.throughput",
+				String.format("%.1f", pregenerator.getChunksPerSecond()),
+				String.format("%.2f", pregenerator.getAverageGenerateMillis()),
+				String.format("%.2f", pregenerator.getAveragePopulateMillis())));
+		sender.sendMessage(new TextComponentTranslation("command.blpregen.status.cascading", pregenerator.getCascadingGenerations()));
+	}
+
+	@Override
+	public List<String> getTabCompletions(MinecraftServer server, ICommandSender sender, String[] args, @Nullable BlockPos targetPos) {
+		if(args.length == 1) {
+			return getListOfStringsMatchingLastWord(args, childCommands);
+		}
+		return Collections.<String>emptyList();
+	}
+
+	@Override
+	public void execute(MinecraftServer server, ICommandSender sender, String[] args) throws CommandException {
+		if (args.length < 1) {
+			throw new CommandException("command.blpregen.usage");
+		}
+		switch (args[0]) {
+		case "start":
+			processStart(sender, args);
+			break;
+		case "stop":
+			processStop(sender);
+			break;
+		case "status":
+			processStatus(sender);
+			break;
+		default:
+			throw new CommandException("command.blpregen.usage");
+		}
+	}
+}
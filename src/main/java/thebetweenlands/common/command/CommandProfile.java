@@ -0,0 +1,165 @@
+package thebetweenlands.common.command;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import net.minecraft.block.Block;
+import net.minecraft.command.CommandBase;
+import net.minecraft.command.CommandException;
+import net.minecraft.command.ICommandSender;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.text.TextComponentTranslation;
+import thebetweenlands.common.block.plant.PlantSpreadTracker;
+import thebetweenlands.common.capability.base.EntityCapabilityHandler;
+import thebetweenlands.common.handler.TileEntitySyncHandler;
+import thebetweenlands.common.world.storage.location.LocationGuarded;
+import thebetweenlands.util.TickProfiler;
+import thebetweenlands.util.TickProfiler.Section;
+
+public class CommandProfile extends CommandBase {
+	private List<String> childCommands = Arrays.asList("start", "stop", "reset", "show", "dump", "sync");
+
+	@Override
+	public String getName() {
+		return "blprofile";
+	}
+
+	@Override
+	public int getRequiredPermissionLevel() {
+		return 2;
+	}
+
+	@Override
+	public String getUsage(ICommandSender sender) {
+		return "command.blprofile.usage";
+	}
+
+	private void processStart(ICommandSender sender, String[] args) {
+		boolean allocations = args.length > 1 && "allocations".equals(args[1]);
+		TickProfiler.enable(allocations);
+		PlantSpreadTracker.resetRandomTicks();
+		if(allocations && !TickProfiler.isTrackingAllocations()) {
+			notifyCommandListener(sender, this, "command.blprofile.start.noallocations", TickProfiler.WINDOW);
+		} else {
+			notifyCommandListener(sender, this, "command.blprofile.start.success", TickProfiler.WINDOW);
+		}
+	}
+
+	private void processShow(ICommandSender sender) throws CommandException {
+		if(TickProfiler.getRecordedTicks() == 0) {
+			throw new CommandException("command.blprofile.failure.empty");
+		}
+		sender.sendMessage(new TextComponentTranslation("command.blprofile.show.header", TickProfiler.getRecordedTicks()));
+		double total = 0;
+		for(Section section : TickProfiler.getSections()) {
+			if(!section.isDetail()) {
+				total += section.getAverageNanos();
+			}
+			sender.sendMessage(new TextComponentTranslation(section.isDetail() ? "command.blprofile.show.detail" : "command.blprofile.show.section", section.getName(),
+					String.format("%.1f", section.getAverageNanos() / 1000.0D),
+					String.format("%.1f", section.getPercentileNanos(0.5D) / 1000.0D),
+					String.format("%.1f", section.getPercentileNanos(0.95D) / 1000.0D),
+					String.format("%.1f", section.getPercentileNanos(0.99D) / 1000.0D),
+					String.format("%.1f", section.getPercentileNanos(1.0D) / 1000.0D),
+					String.format("%.1f", section.getAverageCalls())));
+			if(TickProfiler.isTrackingAllocations()) {
+				sender.sendMessage(new TextComponentTranslation("command.blprofile.show.allocations", String.format("%.1f", section.getAverageAllocatedBytes() / 1024.0D)));
+			}
+		}
+		sender.sendMessage(new TextComponentTranslation("command.blprofile.show.total", String.format("%.1f", total / 1000.0D)));
+		if(!PlantSpreadTracker.getMeasuredBlocks().isEmpty()) {
+			sender.sendMessage(new TextComponentTranslation("command.blprofile.show.randomticks"));
+			for(Block block : PlantSpreadTracker.getMeasuredBlocks()) {
+				long count = PlantSpreadTracker.getRandomTickCount(block);
+				sender.sendMessage(new TextComponentTranslation("command.blprofile.show.randomtick", block.getRegistryName().toString(),
+						String.format("%.2f", PlantSpreadTracker.getRandomTickTime(block) / (double) count / 1000.0D), count));
+			}
+		}
+	}
+
+	private void processDump(MinecraftServer server, ICommandSender sender) throws CommandException {
+		if(TickProfiler.getRecordedTicks() == 0) {
+			throw new CommandException("command.blprofile.failure.empty");
+		}
+		File file = server.getFile("betweenlands_profile_" + System.currentTimeMillis() + ".csv");
+		try {
+			Files.write(file.toPath(), TickProfiler.toCsv(), StandardCharsets.UTF_8);
+		} catch(IOException ex) {
+			throw new CommandException("command.blprofile.failure.dump", ex.getMessage());
+		}
+		notifyCommandListener(sender, this, "command.blprofile.dump.success", file.getName());
+	}
+
+	private void processSync(ICommandSender sender) {
+		sender.sendMessage(new TextComponentTranslation("command.blprofile.sync.tiles"));
+		for(Class<? extends TileEntity> type : TileEntitySyncHandler.getSyncedTypes()) {
+			sender.sendMessage(new TextComponentTranslation("command.blprofile.sync.tile", type.getSimpleName(),
+					String.format("%.1f", TileEntitySyncHandler.getSyncedBytes(type) / 1024.0D),
+					TileEntitySyncHandler.getSyncedPackets(type)));
+		}
+		sender.sendMessage(new TextComponentTranslation("command.blprofile.sync.capabilities", EntityCapabilityHandler.getSyncedPackets()));
+		for(ResourceLocation id : EntityCapabilityHandler.getSyncedCapabilities()) {
+			sender.sendMessage(new TextComponentTranslation("command.blprofile.sync.capability", id.toString(),
+					String.format("%.1f", EntityCapabilityHandler.getSyncedBytes(id) / 1024.0D),
+					EntityCapabilityHandler.getSyncedPackets(id)));
+		}
+		sender.sendMessage(new TextComponentTranslation("command.blprofile.sync.guards",
+				String.format("%.1f", LocationGuarded.getSyncedGuardBytes() / 1024.0D),
+				LocationGuarded.getSyncedGuardPackets()));
+	}
+
+	@Override
+	public List<String> getTabCompletions(MinecraftServer server, ICommandSender sender, String[] args, @Nullable BlockPos targetPos) {
+		if(args.length == 1) {
+			return getListOfStringsMatchingLastWord(args, childCommands);
+		} else if(args.length == 2 && "start".equals(args[0])) {
+			return getListOfStringsMatchingLastWord(args, "allocations");
+		}
+		return Collections.<String>emptyList();
+	}
+
+	@Override
+	public void execute(MinecraftServer server, ICommandSender sender, String[] args) throws CommandException {
+		if (args.length < 1) {
+			throw new CommandException("command.blprofile.usage");
+		}
+		switch (args[0]) {
+		case "start":
+			processStart(sender, args);
+			break;
+		case "stop":
+			TickProfiler.disable();
+			notifyCommandListener(sender, this, "command.blprofile.stop.success");
+			break;
+		case "reset":
+			TickProfiler.reset();
+			PlantSpreadTracker.resetRandomTicks();
+			TileEntitySyncHandler.resetSyncStatistics();
+			EntityCapabilityHandler.resetSyncStatistics();
+			LocationGuarded.resetSyncStatistics();
+			notifyCommandListener(sender, this, "command.blprofile.reset.success");
+			break;
+		case "show":
+			processShow(sender);
+			break;
+		case "dump":
+			processDump(server, sender);
+			break;
+		case "sync":
+			processSync(sender);
+			break;
+		default:
+			throw new CommandException("command.blprofile.usage");
+		}
+	}
+}
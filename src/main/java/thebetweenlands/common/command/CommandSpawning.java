@@ -0,0 +1,118 @@
+package thebetweenlands.common.command;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import net.minecraft.command.CommandBase;
+import net.minecraft.command.CommandException;
+import net.minecraft.command.ICommandSender;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.text.TextComponentString;
+import net.minecraft.util.text.TextComponentTranslation;
+import thebetweenlands.common.world.biome.spawning.EntityCensus;
+import thebetweenlands.common.world.biome.spawning.MobSpawnHandler;
+import thebetweenlands.common.world.biome.spawning.SpawningScheduler;
+
+public class CommandSpawning extends CommandBase {
+	//Maximum number of census differences that are listed in chat
+	private static final int MAX_LISTED_MISMATCHES = 8;
+
+	private List<String> childCommands = Arrays.asList("verify", "rebuild", "stats");
+
+	@Override
+	public String getName() {
+		return "blspawning";
+	}
+
+	@Override
+	public int getRequiredPermissionLevel() {
+		return 2;
+	}
+
+	@Override
+	public String getUsage(ICommandSender sender) {
+		return "command.blspawning.usage";
+	}
+
+	private EntityCensus getCensus(ICommandSender sender) throws CommandException {
+		EntityCensus census = MobSpawnHandler.INSTANCE.getCensus(sender.getEntityWorld());
+		if(census == null) {
+			throw new CommandException("command.blspawning.failure.wrongdimension");
+		}
+		return census;
+	}
+
+	private void processVerify(ICommandSender sender) throws CommandException {
+		EntityCensus census = this.getCensus(sender);
+		List<String> mismatches = new ArrayList<>();
+		int found = census.verify(mismatches);
+		if(found == 0) {
+			notifyCommandListener(sender, this, "command.blspawning.verify.success", census.getTotalCount());
+		} else {
+			sender.sendMessage(new TextComponentTranslation("command.blspawning.verify.mismatch", found));
+			for(int i = 0; i < mismatches.size() && i < MAX_LISTED_MISMATCHES; i++) {
+				sender.sendMessage(new TextComponentString(mismatches.get(i)));
+			}
+		}
+	}
+
+	private void processRebuild(ICommandSender sender) throws CommandException {
+		EntityCensus census = this.getCensus(sender);
+		census.rebuild();
+		notifyCommandListener(sender, this, "command.blspawning.rebuild.success", census.getTotalCount());
+	}
+
+	private void processStats(ICommandSender sender, String[] args) throws CommandException {
+		EntityCensus census = this.getCensus(sender);
+		SpawningScheduler scheduler = MobSpawnHandler.INSTANCE.getSpawningScheduler(census.getWorld());
+		if(args.length == 2 && "reset".equals(args[1])) {
+			scheduler.resetStats();
+			notifyCommandListener(sender, this, "command.blspawning.stats.reset");
+			return;
+		} else if(args.length != 1) {
+			throw new CommandException("command.blspawning.usage");
+		}
+		sender.sendMessage(new TextComponentTranslation("command.blspawning.stats.tick",
+				String.format("%.1f", scheduler.getLastTickNanos() / 1000.0D),
+				String.format("%.1f", scheduler.getAverageTickNanos() / 1000.0D),
+				String.format("%.1f", scheduler.getMaxTickNanos() / 1000.0D)));
+		sender.sendMessage(new TextComponentTranslation("command.blspawning.stats.backlog",
+				scheduler.getLastTickChunks(), scheduler.getBacklog(), scheduler.getLastPassTicks(), scheduler.getCompletedPasses(), scheduler.getCancelledPasses()));
+		sender.sendMessage(new TextComponentTranslation("command.blspawning.stats.census", census.getTotalCount()));
+	}
+
+	@Override
+	public List<String> getTabCompletions(MinecraftServer server, ICommandSender sender, String[] args, @Nullable BlockPos targetPos) {
+		if(args.length == 1) {
+			return getListOfStringsMatchingLastWord(args, childCommands);
+		} else if(args.length == 2 && "stats".equals(args[0])) {
+			return getListOfStringsMatchingLastWord(args, "reset");
+		}
+		return Collections.<String>emptyList();
+	}
+
+	@Override
+	public void execute(MinecraftServer server, ICommandSender sender, String[] args) throws CommandException {
+		if (args.length < 1) {
+			throw new CommandException("command.blspawning.usage");
+		}
+		switch (args[0]) {
+		case "verify":
+			processVerify(sender);
+			break;
+		case "rebuild":
+			processRebuild(sender);
+			break;
+		case "stats":
+			processStats(sender, args);
+			break;
+		default:
+			throw new CommandException("command.blspawning.usage");
+		}
+	}
+}
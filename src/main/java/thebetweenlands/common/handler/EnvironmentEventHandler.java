@@ -3,6 +3,7 @@ package thebetweenlands.common.handler;
 import net.minecraft.client.Minecraft;
 import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.world.World;
+import net.minecraft.world.WorldServer;
 import net.minecraftforge.event.entity.EntityJoinWorldEvent;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.common.gameevent.TickEvent;
@@ -12,10 +13,13 @@ import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import thebetweenlands.api.environment.IEnvironmentEvent;
 import thebetweenlands.common.TheBetweenlands;
+import thebetweenlands.common.network.clientbound.MessageEnvironmentEventHeartbeat;
 import thebetweenlands.common.network.clientbound.MessageSyncEnvironmentEvent;
 import thebetweenlands.common.registries.AdvancementCriterionRegistry;
 import thebetweenlands.common.world.event.BLEnvironmentEventRegistry;
+import thebetweenlands.common.world.event.BLEnvironmentEventRegistry.SyncedState;
 import thebetweenlands.common.world.storage.BetweenlandsWorldStorage;
+import thebetweenlands.util.TickProfiler;
 
 public class EnvironmentEventHandler {
 	private EnvironmentEventHandler() { }
@@ -24,34 +28,68 @@ public class EnvironmentEventHandler {
 	@SubscribeEvent
 	public static void onWorldTick(WorldTickEvent event) {
 		if(event.phase == Phase.END && !event.world.isRemote) {
-			BetweenlandsWorldStorage storage = BetweenlandsWorldStorage.forWorld(event.world);
+			TickProfiler.ENVIRONMENT_EVENTS.start();
+			try {
+				BetweenlandsWorldStorage storage = BetweenlandsWorldStorage.forWorld(event.world);
 
-			if(storage != null) {
-				BLEnvironmentEventRegistry reg = storage.getEnvironmentEventRegistry();
+				if(storage != null) {
+					BLEnvironmentEventRegistry reg = storage.getEnvironmentEventRegistry();
 
-				for(IEnvironmentEvent eevent : reg.getEvents().values()) {
-					if(!eevent.isLoaded()) continue;
-					if (reg.isDisabled()) {
-						eevent.setActive(false, eevent.isActive());
-						eevent.setDefaults();
-					} else {
-						eevent.update(event.world);
+					for(IEnvironmentEvent eevent : reg.getEvents().values()) {
+						if(!eevent.isLoaded()) continue;
+						if (reg.isDisabled()) {
+							eevent.setActive(false, eevent.isActive());
+							eevent.setDefaults();
+						} else {
+							eevent.update(event.world);
+						}
+					}
+
+					sendChangedEvents(event.world, reg);
+
+					if(!reg.isDisabled() && event.world instanceof WorldServer) {
+						reg.getSurfaceUpdateScheduler().update((WorldServer) event.world);
 					}
-					if(eevent.isDirty()) {
-						eevent.setDirty(false);
-						TheBetweenlands.networkWrapper.sendToDimension(new MessageSyncEnvironmentEvent(eevent), event.world.provider.getDimension());
+
+					//Clients verify their states and request a full sync if they've missed changes
+					storage.setEnvironmentEventSyncTicks(storage.getEnvironmentEventSyncTicks() + 1);
+					if(storage.getEnvironmentEventSyncTicks() >= 80) {
+						storage.setEnvironmentEventSyncTicks(0);
+						TheBetweenlands.networkWrapper.sendToDimension(new MessageEnvironmentEventHeartbeat(reg), event.world.provider.getDimension());
 					}
 				}
+			} finally {
+				TickProfiler.ENVIRONMENT_EVENTS.stop();
+			}
+		}
+	}
+
+	/**
+	 * Sends the states of all dirty or not yet synced events whose state has
+	 * changed since the last sync to all players in the dimension, in one message
+	 * @param world
+	 * @param reg
+	 */
+	private static void sendChangedEvents(World world, BLEnvironmentEventRegistry reg) {
+		MessageSyncEnvironmentEvent message = null;
 
-				storage.setEnvironmentEventSyncTicks(storage.getEnvironmentEventSyncTicks() + 1);
-				if(storage.getEnvironmentEventSyncTicks() >= 80) {
-					storage.setEnvironmentEventSyncTicks(0);
-					for(IEnvironmentEvent eevent : storage.getEnvironmentEventRegistry().getEvents().values()) {
-						TheBetweenlands.networkWrapper.sendToDimension(new MessageSyncEnvironmentEvent(eevent), event.world.provider.getDimension());
+		for(IEnvironmentEvent eevent : reg.getEvents().values()) {
+			if(eevent.isDirty() || reg.getSyncedState(eevent.getEventName()) == null) {
+				eevent.setDirty(false);
+				SyncedState state = MessageSyncEnvironmentEvent.encodeState(eevent);
+				if(reg.setSyncedState(eevent.getEventName(), state)) {
+					if(message == null) {
+						message = new MessageSyncEnvironmentEvent(reg.getSyncVersion() + 1, false);
 					}
+					message.addEvent(eevent.getEventName(), state);
 				}
 			}
 		}
+
+		if(message != null) {
+			reg.setSyncVersion(reg.getSyncVersion() + 1);
+			TheBetweenlands.networkWrapper.sendToDimension(message, world.provider.getDimension());
+		}
 	}
 
 	//Update events on the client side
@@ -80,8 +118,11 @@ public class EnvironmentEventHandler {
 		if (!event.getWorld().isRemote && event.getEntity() instanceof EntityPlayerMP) {
 			BetweenlandsWorldStorage storage = BetweenlandsWorldStorage.forWorld(event.getWorld());
 			if(storage != null) {
-				for(IEnvironmentEvent eevent : storage.getEnvironmentEventRegistry().getEvents().values()) {
-					TheBetweenlands.networkWrapper.sendTo(new MessageSyncEnvironmentEvent(eevent), (EntityPlayerMP)event.getEntity());
+				BLEnvironmentEventRegistry reg = storage.getEnvironmentEventRegistry();
+				//Make sure that the other players have the same states as the new player
+				sendChangedEvents(event.getWorld(), reg);
+				TheBetweenlands.networkWrapper.sendTo(MessageSyncEnvironmentEvent.createFullSync(reg), (EntityPlayerMP)event.getEntity());
+				for(IEnvironmentEvent eevent : reg.getEvents().values()) {
 					if (eevent.isActive())
 						AdvancementCriterionRegistry.EVENT.trigger((EntityPlayerMP) event.getEntity(), eevent.getEventName());
 				}
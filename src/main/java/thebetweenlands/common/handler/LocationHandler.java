@@ -38,6 +38,7 @@ import thebetweenlands.common.registries.SoundRegistry;
 import thebetweenlands.common.world.storage.BetweenlandsWorldStorage;
 import thebetweenlands.common.world.storage.location.LocationCragrockTower;
 import thebetweenlands.common.world.storage.location.LocationStorage;
+import thebetweenlands.util.TickProfiler;
 
 import javax.xml.stream.Location;
 
@@ -54,41 +55,46 @@ public class LocationHandler {
 			EntityPlayer player = event.player;
 
 			if(player != null && !player.world.isRemote) {
-				List<LocationStorage> locations = getLocations(player);
-				for(LocationStorage loc : locations) {
-					if (player instanceof EntityPlayerMP) {
-						AdvancementCriterionRegistry.LOCATION.trigger((EntityPlayerMP) player, loc.getName().replaceAll("translate:", ""));
-					}
-					if (loc instanceof LocationCragrockTower && !player.isCreative()) {
-						LocationCragrockTower location = (LocationCragrockTower) loc;
-						BlockPos structurePos = location.getStructurePos();
-
-						if (!location.wasEntered()) {
-							location.setEntered(true);
+				TickProfiler.LOCATIONS.start();
+				try {
+					List<LocationStorage> locations = getLocations(player);
+					for(LocationStorage loc : locations) {
+						if (player instanceof EntityPlayerMP) {
+							AdvancementCriterionRegistry.LOCATION.trigger((EntityPlayerMP) player, loc.getName().replaceAll("translate:", ""));
 						}
+						if (loc instanceof LocationCragrockTower && !player.isCreative()) {
+							LocationCragrockTower location = (LocationCragrockTower) loc;
+							BlockPos structurePos = location.getStructurePos();
 
-						if (location.getInnerBoundingBox().contains(player.getPositionVector()) && player.posY - structurePos.getY() >= 45) {
-							if (!location.isTopReached()) {
-								location.setTopReached(true);
+							if (!location.wasEntered()) {
+								location.setEntered(true);
 							}
-						} else if (!location.isTopReached() && !location.getInnerBoundingBox().grow(0.5D, 0.5D, 0.5D).contains(player.getPositionVector()) && player.posY - structurePos.getY() > 12) {
-							//Player trying to bypass tower, teleport to entrance
-
-							player.dismountRidingEntity();
-							if (player instanceof EntityPlayerMP) {
-								EntityPlayerMP playerMP = (EntityPlayerMP) player;
-								playerMP.connection.setPlayerLocation(structurePos.getX() + 0.5D, structurePos.getY(), structurePos.getZ() + 0.5D, player.rotationYaw, player.rotationPitch);
-							} else {
-								player.setLocationAndAngles(structurePos.getX() + 0.5D, structurePos.getY(), structurePos.getZ() + 0.5D, player.rotationYaw, player.rotationPitch);
+
+							if (location.getInnerBoundingBox().contains(player.getPositionVector()) && player.posY - structurePos.getY() >= 45) {
+								if (!location.isTopReached()) {
+									location.setTopReached(true);
+								}
+							} else if (!location.isTopReached() && !location.getInnerBoundingBox().grow(0.5D, 0.5D, 0.5D).contains(player.getPositionVector()) && player.posY - structurePos.getY() > 12) {
+								//Player trying to bypass tower, teleport to entrance
+
+								player.dismountRidingEntity();
+								if (player instanceof EntityPlayerMP) {
+									EntityPlayerMP playerMP = (EntityPlayerMP) player;
+									playerMP.connection.setPlayerLocation(structurePos.getX() + 0.5D, structurePos.getY(), structurePos.getZ() + 0.5D, player.rotationYaw, player.rotationPitch);
+								} else {
+									player.setLocationAndAngles(structurePos.getX() + 0.5D, structurePos.getY(), structurePos.getZ() + 0.5D, player.rotationYaw, player.rotationPitch);
+								}
+								player.fallDistance = 0.0F;
+								player.addPotionEffect(new PotionEffect(MobEffects.BLINDNESS, 60, 2));
+								player.world.playSound(null, player.posX, player.posY, player.posZ, SoundRegistry.FORTRESS_BOSS_TELEPORT, SoundCategory.AMBIENT, 1, 1);
+							} else if (location.isTopReached() && player.posY - structurePos.getY() <= 42 && !location.isCrumbling() && location.getCrumblingTicks() == 0) {
+								location.setCrumbling(true);
+								location.restoreBlockade(4);
 							}
-							player.fallDistance = 0.0F;
-							player.addPotionEffect(new PotionEffect(MobEffects.BLINDNESS, 60, 2));
-							player.world.playSound(null, player.posX, player.posY, player.posZ, SoundRegistry.FORTRESS_BOSS_TELEPORT, SoundCategory.AMBIENT, 1, 1);
-						} else if (location.isTopReached() && player.posY - structurePos.getY() <= 42 && !location.isCrumbling() && location.getCrumblingTicks() == 0) {
-							location.setCrumbling(true);
-							location.restoreBlockade(4);
 						}
 					}
+				} finally {
+					TickProfiler.LOCATIONS.stop();
 				}
 			}
 		}
@@ -49,6 +49,7 @@ import thebetweenlands.common.entity.ai.puppet.EntityAIStay;
 import thebetweenlands.common.item.equipment.ItemRingOfRecruitment;
 import thebetweenlands.common.registries.CapabilityRegistry;
 import thebetweenlands.util.RenderHelper;
+import thebetweenlands.util.TickProfiler;
 
 public class PuppetHandler {
 	private PuppetHandler() { }
@@ -57,72 +58,77 @@ public class PuppetHandler {
 	public static void onUpdateLiving(LivingUpdateEvent event) {
 		EntityLivingBase entity = event.getEntityLiving();
 
-		if(entity instanceof EntityCreature && entity.hasCapability(CapabilityRegistry.CAPABILITY_PUPPET, null)) {
-			IPuppetCapability cap = entity.getCapability(CapabilityRegistry.CAPABILITY_PUPPET, null);
-			EntityCreature creature = (EntityCreature) entity;
+		TickProfiler.PUPPETS.start();
+		try {
+			if(entity instanceof EntityCreature && entity.hasCapability(CapabilityRegistry.CAPABILITY_PUPPET, null)) {
+				IPuppetCapability cap = entity.getCapability(CapabilityRegistry.CAPABILITY_PUPPET, null);
+				EntityCreature creature = (EntityCreature) entity;
 
-			if(cap.hasPuppeteer()) {
-				if(!entity.world.isRemote) {
-					cap.setRemainingTicks(cap.getRemainingTicks() - 1);
-
-					if(cap.getRemainingTicks() <= 0 || (cap.getPuppeteer() != null && !ItemRingOfRecruitment.isRingActive(cap.getPuppeteer()))) {
-						cap.setPuppeteer(null);
-						cap.setRemainingTicks(0);
-						creature.setAttackTarget(null);
-						creature.setRevengeTarget(null);
-						EntityAIPuppet.removePuppetAI(creature.targetTasks);
-					} else {
-						if(EntityAIPuppet.getPuppetAI(creature.targetTasks) == null) {
-							EntityAIStay aiStay = new EntityAIStay(creature);
-							aiStay.setMutexBits(3); //11
-
-							EntityAIGoTo aiGoTo = new EntityAIGoTo(creature, 1.2D);
-							aiGoTo.setMutexBits(3);
-
-							/*EntityAINearestAttackableTarget<EntityLiving> aiTarget = new EntityAINearestAttackableTarget<EntityLiving>(creature, EntityLiving.class, 0, true, true, living -> {
-								if(living.hasCapability(CapabilityRegistry.CAPABILITY_PUPPET, null)) {
-									IPuppetCapability targetCap = living.getCapability(CapabilityRegistry.CAPABILITY_PUPPET, null);
-									if(targetCap.getPuppeteer() == cap.getPuppeteer()) {
-										//Don't attack puppets from same owner
-										return false;
+				if(cap.hasPuppeteer()) {
+					if(!entity.world.isRemote) {
+						cap.setRemainingTicks(cap.getRemainingTicks() - 1);
+
+						if(cap.getRemainingTicks() <= 0 || (cap.getPuppeteer() != null && !ItemRingOfRecruitment.isRingActive(cap.getPuppeteer()))) {
+							cap.setPuppeteer(null);
+							cap.setRemainingTicks(0);
+							creature.setAttackTarget(null);
+							creature.setRevengeTarget(null);
+							EntityAIPuppet.removePuppetAI(creature.targetTasks);
+						} else {
+							if(EntityAIPuppet.getPuppetAI(creature.targetTasks) == null) {
+								EntityAIStay aiStay = new EntityAIStay(creature);
+								aiStay.setMutexBits(3); //11
+
+								EntityAIGoTo aiGoTo = new EntityAIGoTo(creature, 1.2D);
+								aiGoTo.setMutexBits(3);
+
+								/*EntityAINearestAttackableTarget<EntityLiving> aiTarget = new EntityAINearestAttackableTarget<EntityLiving>(creature, EntityLiving.class, 0, true, true, living -> {
+									if(living.hasCapability(CapabilityRegistry.CAPABILITY_PUPPET, null)) {
+										IPuppetCapability targetCap = living.getCapability(CapabilityRegistry.CAPABILITY_PUPPET, null);
+										if(targetCap.getPuppeteer() == cap.getPuppeteer()) {
+											//Don't attack puppets from same owner
+											return false;
+										}
 									}
+									return living instanceof EntityMob || living instanceof IMob;
+								});
+								aiTarget.setMutexBits(1); //01*/
+
+								EntityAIAttackMelee aiMelee = new EntityAIAttackMelee(creature, 1.2D, true);
+								aiMelee.setMutexBits(2); //10
+
+								if(creature.getNavigator() instanceof PathNavigateGround) {
+									EntityAIFollowTarget aiFollow = new EntityAIFollowTarget(creature, () -> {
+										Entity puppeteer = cap.getPuppeteer();
+										if(puppeteer instanceof EntityLivingBase) {
+											return (EntityLivingBase) puppeteer;
+										}
+										return null;
+									}, 1.2D, 10.0F, 2.0F);
+									aiFollow.setMutexBits(1);
+
+									EntityAIPuppet.addPuppetAI(() -> cap.getPuppeteer(), creature, creature.targetTasks,
+											ImmutableList.of(aiStay, aiFollow, aiGoTo/*, aiTarget*/, aiMelee));
+								} else {
+									EntityAIPuppet.addPuppetAI(() -> cap.getPuppeteer(), creature, creature.targetTasks,
+											ImmutableList.of(aiStay, aiGoTo/*, aiTarget*/, aiMelee));
 								}
-								return living instanceof EntityMob || living instanceof IMob;
-							});
-							aiTarget.setMutexBits(1); //01*/
-
-							EntityAIAttackMelee aiMelee = new EntityAIAttackMelee(creature, 1.2D, true);
-							aiMelee.setMutexBits(2); //10
-
-							if(creature.getNavigator() instanceof PathNavigateGround) {
-								EntityAIFollowTarget aiFollow = new EntityAIFollowTarget(creature, () -> {
-									Entity puppeteer = cap.getPuppeteer();
-									if(puppeteer instanceof EntityLivingBase) {
-										return (EntityLivingBase) puppeteer;
-									}
-									return null;
-								}, 1.2D, 10.0F, 2.0F);
-								aiFollow.setMutexBits(1);
-
-								EntityAIPuppet.addPuppetAI(() -> cap.getPuppeteer(), creature, creature.targetTasks,
-										ImmutableList.of(aiStay, aiFollow, aiGoTo/*, aiTarget*/, aiMelee));
-							} else {
-								EntityAIPuppet.addPuppetAI(() -> cap.getPuppeteer(), creature, creature.targetTasks,
-										ImmutableList.of(aiStay, aiGoTo/*, aiTarget*/, aiMelee));
 							}
 						}
-					}
-				} else {
-					if(entity.world.rand.nextInt(5) == 0) {
-						BLParticles.SPAWNER.spawn(creature.world, creature.posX + creature.motionX * 2, creature.posY + creature.height / 2.0D, creature.posZ + creature.motionZ * 2,
-								ParticleArgs.get().withMotion(
-										creature.motionX + (creature.world.rand.nextFloat() - 0.5F) / 8.0F * entity.width, 
-										(creature.world.rand.nextFloat() - 0.5F) / 8.0F * entity.height, 
-										creature.motionZ + (creature.world.rand.nextFloat() - 0.5F) / 8.0F * entity.width
-										).withData(40).withColor(0.2F, 0.8F, 0.4F, 1));
+					} else {
+						if(entity.world.rand.nextInt(5) == 0) {
+							BLParticles.SPAWNER.spawn(creature.world, creature.posX + creature.motionX * 2, creature.posY + creature.height / 2.0D, creature.posZ + creature.motionZ * 2,
+									ParticleArgs.get().withMotion(
+											creature.motionX + (creature.world.rand.nextFloat() - 0.5F) / 8.0F * entity.width, 
+											(creature.world.rand.nextFloat() - 0.5F) / 8.0F * entity.height, 
+											creature.motionZ + (creature.world.rand.nextFloat() - 0.5F) / 8.0F * entity.width
+											).withData(40).withColor(0.2F, 0.8F, 0.4F, 1));
+						}
 					}
 				}
 			}
+		} finally {
+			TickProfiler.PUPPETS.stop();
 		}
 	}
 
@@ -204,48 +210,53 @@ public class PuppetHandler {
 	@SubscribeEvent
 	public static void onPlayerUpdate(PlayerTickEvent event) {
 		if(event.phase == Phase.END && event.player.hasCapability(CapabilityRegistry.CAPABILITY_PUPPETEER, null)) {
-			IPuppeteerCapability cap = event.player.getCapability(CapabilityRegistry.CAPABILITY_PUPPETEER, null);
-			Entity activatingEntity = cap.getActivatingEntity();
+			TickProfiler.PUPPETS.start();
+			try {
+				IPuppeteerCapability cap = event.player.getCapability(CapabilityRegistry.CAPABILITY_PUPPETEER, null);
+				Entity activatingEntity = cap.getActivatingEntity();
 
-			if(activatingEntity instanceof EntityCreature) {
-				EntityCreature creature = (EntityCreature) activatingEntity;
+				if(activatingEntity instanceof EntityCreature) {
+					EntityCreature creature = (EntityCreature) activatingEntity;
 
-				if(!event.player.world.isRemote) {
-					if(creature.getDistance(event.player) > 5.0D) {
-						cap.setActivatingEntity(null);
-						cap.setActivatingTicks(0);
-					} else {
-						cap.setActivatingTicks(cap.getActivatingTicks() + 1);
+					if(!event.player.world.isRemote) {
+						if(creature.getDistance(event.player) > 5.0D) {
+							cap.setActivatingEntity(null);
+							cap.setActivatingTicks(0);
+						} else {
+							cap.setActivatingTicks(cap.getActivatingTicks() + 1);
 
-						if(cap.getActivatingTicks() > creature.getMaxHealth()) {
-							if(ItemRingOfRecruitment.isRingActive(event.player) && creature.hasCapability(CapabilityRegistry.CAPABILITY_PUPPET, null)) {
-								IPuppetCapability puppetCap = creature.getCapability(CapabilityRegistry.CAPABILITY_PUPPET, null);
+							if(cap.getActivatingTicks() > creature.getMaxHealth()) {
+								if(ItemRingOfRecruitment.isRingActive(event.player) && creature.hasCapability(CapabilityRegistry.CAPABILITY_PUPPET, null)) {
+									IPuppetCapability puppetCap = creature.getCapability(CapabilityRegistry.CAPABILITY_PUPPET, null);
 
-								if(puppetCap.getPuppeteer() == null) {
-									puppetCap.setPuppeteer(event.player);
-									puppetCap.setRemainingTicks(12000);
+									if(puppetCap.getPuppeteer() == null) {
+										puppetCap.setPuppeteer(event.player);
+										puppetCap.setRemainingTicks(12000);
+									}
 								}
-							}
 
-							cap.setActivatingEntity(null);
-							cap.setActivatingTicks(0);
+								cap.setActivatingEntity(null);
+								cap.setActivatingTicks(0);
+							}
 						}
+					} else {
+						Vec3d vec = new Vec3d(creature.posX - event.player.posX, (creature.posY + creature.getEyeHeight() * 0.8F) - (event.player.posY + event.player.getEyeHeight() * 0.8F), creature.posZ - event.player.posZ);
+						vec = vec.normalize();
+						vec = vec.addVector((event.player.world.rand.nextFloat() - 0.5F) / 3.0F, 
+								(event.player.world.rand.nextFloat() - 0.5F) / 3.0F, 
+								(event.player.world.rand.nextFloat() - 0.5F) / 3.0F);
+						vec = vec.normalize();
+						double dist = event.player.getDistance(creature);
+						vec = vec.scale(dist / 15.0F);
+						BLParticles.SPAWNER.spawn(event.player.world, event.player.posX, event.player.posY + event.player.getEyeHeight() * 0.8F, event.player.posZ, 
+								ParticleArgs.get().withData(40).withColor(0.2F, 0.8F, 0.4F, 1).withMotion(vec.x, vec.y, vec.z));
 					}
-				} else {
-					Vec3d vec = new Vec3d(creature.posX - event.player.posX, (creature.posY + creature.getEyeHeight() * 0.8F) - (event.player.posY + event.player.getEyeHeight() * 0.8F), creature.posZ - event.player.posZ);
-					vec = vec.normalize();
-					vec = vec.addVector((event.player.world.rand.nextFloat() - 0.5F) / 3.0F, 
-							(event.player.world.rand.nextFloat() - 0.5F) / 3.0F, 
-							(event.player.world.rand.nextFloat() - 0.5F) / 3.0F);
-					vec = vec.normalize();
-					double dist = event.player.getDistance(creature);
-					vec = vec.scale(dist / 15.0F);
-					BLParticles.SPAWNER.spawn(event.player.world, event.player.posX, event.player.posY + event.player.getEyeHeight() * 0.8F, event.player.posZ, 
-							ParticleArgs.get().withData(40).withColor(0.2F, 0.8F, 0.4F, 1).withMotion(vec.x, vec.y, vec.z));
-				}
 
-				event.player.motionX *= 0.05D;
-				event.player.motionZ *= 0.05D;
+					event.player.motionX *= 0.05D;
+					event.player.motionZ *= 0.05D;
+				}
+			} finally {
+				TickProfiler.PUPPETS.stop();
 			}
 		}
 	}
@@ -0,0 +1,174 @@
+package thebetweenlands.common.handler;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceLinkedOpenHashSet;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.nbt.NBTBase;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.server.management.PlayerChunkMapEntry;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.world.World;
+import net.minecraft.world.WorldServer;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
+import net.minecraftforge.fml.common.gameevent.TickEvent.ServerTickEvent;
+import thebetweenlands.common.TheBetweenlands;
+import thebetweenlands.common.network.clientbound.MessageTileEntitySync;
+import thebetweenlands.util.config.ConfigHandler;
+
+/**
+ * Syncs tile entities to the players watching them. Syncs of a tile are coalesced to
+ * at most one per {@link ConfigHandler#tileSyncInterval} ticks and only the entries of
+ * the update tag that have changed since the last sync are sent
+ */
+public final class TileEntitySyncHandler {
+	private TileEntitySyncHandler() { }
+
+	private static class SyncState {
+		private NBTTagCompound lastSent;
+		private long lastSyncTime = Long.MIN_VALUE;
+	}
+
+	//Weak keys so that unloaded tiles can be collected
+	private static final Map<TileEntity, SyncState> SYNC_STATES = new WeakHashMap<>();
+	private static final Set<TileEntity> PENDING_SYNCS = new ReferenceLinkedOpenHashSet<>();
+
+	private static final Object2LongMap<Class<? extends TileEntity>> SYNCED_BYTES = new Object2LongOpenHashMap<>();
+	private static final Object2LongMap<Class<? extends TileEntity>> SYNCED_PACKETS = new Object2LongOpenHashMap<>();
+
+	/**
+	 * Schedules the tile entity to be synced to the players watching it.
+	 * Replaces {@link World#notifyBlockUpdate(net.minecraft.util.math.BlockPos, IBlockState, IBlockState, int)}.
+	 * On the client side the block is only marked for a render update
+	 * @param tile
+	 */
+	public static void scheduleSync(TileEntity tile) {
+		World world = tile.getWorld();
+		if(world == null) {
+			return;
+		}
+		if(world.isRemote) {
+			IBlockState state = world.getBlockState(tile.getPos());
+			world.notifyBlockUpdate(tile.getPos(), state, state, 3);
+		} else {
+			PENDING_SYNCS.add(tile);
+		}
+	}
+
+	@SubscribeEvent
+	public static void onServerTick(ServerTickEvent event) {
+		if(event.phase == Phase.END && !PENDING_SYNCS.isEmpty()) {
+			Iterator<TileEntity> it = PENDING_SYNCS.iterator();
+			while(it.hasNext()) {
+				TileEntity tile = it.next();
+				World world = tile.getWorld();
+
+				if(tile.isInvalid() || !(world instanceof WorldServer) || !world.isBlockLoaded(tile.getPos())) {
+					it.remove();
+					SYNC_STATES.remove(tile);
+					continue;
+				}
+
+				SyncState state = SYNC_STATES.get(tile);
+				if(state == null) {
+					SYNC_STATES.put(tile, state = new SyncState());
+				}
+
+				long time = world.getTotalWorldTime();
+				if(state.lastSyncTime != Long.MIN_VALUE && time - state.lastSyncTime < ConfigHandler.tileSyncInterval) {
+					//Synced too recently, stays pending
+					continue;
+				}
+
+				it.remove();
+				state.lastSyncTime = time;
+
+				sync((WorldServer) world, tile, state);
+			}
+		}
+	}
+
+	private static void sync(WorldServer world, TileEntity tile, SyncState state) {
+		NBTTagCompound nbt = tile.getUpdateTag();
+		NBTTagCompound lastSent = state.lastSent;
+		state.lastSent = nbt;
+
+		PlayerChunkMapEntry entry = world.getPlayerChunkMap().getEntry(tile.getPos().getX() >> 4, tile.getPos().getZ() >> 4);
+		if(entry == null || !entry.isSentToPlayers()) {
+			//Nobody is watching, next sync has to send the full tag
+			state.lastSent = null;
+			return;
+		}
+
+		MessageTileEntitySync message;
+		if(lastSent == null) {
+			message = new MessageTileEntitySync(tile.getPos(), true, nbt, new ArrayList<>());
+		} else {
+			NBTTagCompound changed = new NBTTagCompound();
+			for(String key : nbt.getKeySet()) {
+				NBTBase tag = nbt.getTag(key);
+				if(!tag.equals(lastSent.getTag(key))) {
+					changed.setTag(key, tag);
+				}
+			}
+			List<String> removed = new ArrayList<>();
+			for(String key : lastSent.getKeySet()) {
+				if(!nbt.hasKey(key)) {
+					removed.add(key);
+				}
+			}
+			if(changed.hasNoTags() && removed.isEmpty()) {
+				return;
+			}
+			message = new MessageTileEntitySync(tile.getPos(), false, changed, removed);
+		}
+
+		entry.sendPacket(TheBetweenlands.networkWrapper.getPacketFrom(message));
+
+		Class<? extends TileEntity> type = tile.getClass();
+		SYNCED_BYTES.put(type, SYNCED_BYTES.getLong(type) + message.getSize());
+		SYNCED_PACKETS.put(type, SYNCED_PACKETS.getLong(type) + 1);
+	}
+
+	/**
+	 * Returns how many bytes have been synced for the specified tile entity type
+	 * @param type
+	 * @return
+	 */
+	public static long getSyncedBytes(Class<? extends TileEntity> type) {
+		return SYNCED_BYTES.getLong(type);
+	}
+
+	/**
+	 * Returns how many sync packets have been sent for the specified tile entity type
+	 * @param type
+	 * @return
+	 */
+	public static long getSyncedPackets(Class<? extends TileEntity> type) {
+		return SYNCED_PACKETS.getLong(type);
+	}
+
+	/**
+	 * Returns all tile entity types that have been synced
+	 * @return
+	 */
+	public static Set<Class<? extends TileEntity>> getSyncedTypes() {
+		return SYNCED_BYTES.keySet();
+	}
+
+	/**
+	 * Clears the synced bytes and packets of all tile entity types
+	 */
+	public static void resetSyncStatistics() {
+		SYNCED_BYTES.clear();
+		SYNCED_PACKETS.clear();
+	}
+}
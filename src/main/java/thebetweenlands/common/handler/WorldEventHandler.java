@@ -26,6 +26,7 @@ import net.minecraftforge.fml.relauncher.SideOnly;
 import thebetweenlands.api.storage.ILocalStorage;
 import thebetweenlands.api.storage.IWorldStorage;
 import thebetweenlands.common.lib.ModInfo;
+import thebetweenlands.common.world.storage.LocalStorageIO;
 import thebetweenlands.common.world.storage.WorldStorageImpl;
 
 public final class WorldEventHandler {
@@ -115,6 +116,14 @@ public final class WorldEventHandler {
 		worldStorage.getLocalStorageHandler().getLocalRegionCache().saveAllRegions();
 	}
 
+	@SubscribeEvent
+	public static void onWorldUnload(WorldEvent.Unload event) {
+		if(!event.getWorld().isRemote) {
+			//Files are written asynchronously, make sure everything is on disk before the world is gone
+			LocalStorageIO.INSTANCE.flush();
+		}
+	}
+
 	@SubscribeEvent
 	public static void onServerTick(ServerTickEvent event) {
 		if(event.phase == Phase.END) {
@@ -13,6 +13,11 @@ import java.util.Random;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import com.google.common.collect.ImmutableList;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
@@ -24,6 +29,7 @@ import thebetweenlands.api.aspect.AspectItem;
 import thebetweenlands.api.aspect.DiscoveryContainer;
 import thebetweenlands.api.aspect.IAspectType;
 import thebetweenlands.common.world.storage.BetweenlandsWorldStorage;
+import thebetweenlands.util.TickProfiler;
 
 public class AspectManager {
 	public static enum AspectTier {
@@ -100,8 +106,22 @@ public class AspectManager {
 	private static final Map<AspectItem, List<AspectItemEntry>> REGISTERED_ITEMS = new LinkedHashMap<AspectItem, List<AspectItemEntry>>();
 	private static final Map<Item, List<AspectItem>> ITEM_TO_ASPECT_ITEMS = new HashMap<Item, List<AspectItem>>();
 
+	//Resolved aspect items by item and damage, null values are cached misses. Accessed by client and server thread
+	private static final Map<Item, Int2ObjectMap<AspectItem>> ASPECT_ITEM_CACHE = new Reference2ObjectOpenHashMap<Item, Int2ObjectMap<AspectItem>>();
+
 	private final Map<AspectItem, List<Aspect>> matchedAspects = new LinkedHashMap<AspectItem, List<Aspect>>();
 
+	private int version = 0;
+
+	/**
+	 * Returns the version of the static aspects. Changes whenever the static aspects
+	 * are loaded or generated
+	 * @return
+	 */
+	public int getVersion() {
+		return this.version;
+	}
+
 	/**
 	 * Returns a list of all generated and matched aspects
 	 * @return
@@ -215,6 +235,10 @@ public class AspectManager {
 		if(aspectItems == null)
 			ITEM_TO_ASPECT_ITEMS.put(entry.item.getOriginal().getItem(), aspectItems = new ArrayList<AspectItem>());
 		aspectItems.add(entry.item);
+
+		synchronized(ASPECT_ITEM_CACHE) {
+			ASPECT_ITEM_CACHE.clear();
+		}
 	}
 
 	/**
@@ -263,7 +287,7 @@ public class AspectManager {
 
 	private void updateMatchedAspects(AspectItem item, List<Aspect> aspects) {
 		Collections.sort(aspects);
-		this.matchedAspects.put(item, aspects);
+		this.matchedAspects.put(item, ImmutableList.copyOf(aspects));
 	}
 
 	/**
@@ -272,6 +296,7 @@ public class AspectManager {
 	 */
 	public void loadStaticAspects(NBTTagCompound nbt) {
 		this.matchedAspects.clear();
+		this.version++;
 		NBTTagList entryList = (NBTTagList) nbt.getTag("entries");
 		entryIT:
 			for(int i = 0; i < entryList.tagCount(); i++) {
@@ -357,6 +382,8 @@ public class AspectManager {
 	}
 
 	private void updateAspects(long seed) {
+		this.version++;
+
 		Random rnd = new Random();
 		rnd.setSeed(seed);
 
@@ -447,7 +474,7 @@ public class AspectManager {
 	}
 
 	/**
-	 * Returns a list of all static aspects on an item
+	 * Returns an immutable list of all static aspects on an item
 	 * @return
 	 */
 	@Nonnull
@@ -455,11 +482,11 @@ public class AspectManager {
 		AspectItem item = getAspectItem(stack);
 		if(item != null)
 			return this.getStaticAspects(item);
-		return new ArrayList<Aspect>();
+		return ImmutableList.of();
 	}
 
 	/**
-	 * Returns a list of all static aspects on the specified item
+	 * Returns an immutable list of all static aspects on the specified item
 	 * @param item
 	 * @return
 	 */
@@ -467,17 +494,49 @@ public class AspectManager {
 	public List<Aspect> getStaticAspects(AspectItem item) {
 		List<Aspect> aspects = this.matchedAspects.get(item);
 		if(aspects == null)
-			aspects = new ArrayList<Aspect>();
+			aspects = ImmutableList.of();
 		return aspects;
 	}
 
 	/**
-	 * Returns the matching aspect item for the specified stack
+	 * Returns the matching aspect item for the specified stack.
+	 * Results are cached by item and damage for stacks without NBT
 	 * @param stack
 	 * @return
 	 */
 	@Nullable
 	public static AspectItem getAspectItem(ItemStack stack) {
+		TickProfiler.ASPECT_LOOKUPS.start();
+		try {
+			return getCachedAspectItem(stack);
+		} finally {
+			TickProfiler.ASPECT_LOOKUPS.stop();
+		}
+	}
+
+	@Nullable
+	private static AspectItem getCachedAspectItem(ItemStack stack) {
+		if(stack.hasTagCompound()) {
+			//Matchers may depend on NBT
+			return findAspectItem(stack);
+		}
+		Item item = stack.getItem();
+		int damage = stack.getItemDamage();
+		synchronized(ASPECT_ITEM_CACHE) {
+			Int2ObjectMap<AspectItem> cache = ASPECT_ITEM_CACHE.get(item);
+			if(cache == null) {
+				ASPECT_ITEM_CACHE.put(item, cache = new Int2ObjectOpenHashMap<AspectItem>());
+			}
+			AspectItem aspectItem = cache.get(damage);
+			if(aspectItem == null && !cache.containsKey(damage)) {
+				cache.put(damage, aspectItem = findAspectItem(stack));
+			}
+			return aspectItem;
+		}
+	}
+
+	@Nullable
+	private static AspectItem findAspectItem(ItemStack stack) {
 		List<AspectItem> potentialMatches = ITEM_TO_ASPECT_ITEMS.get(stack.getItem());
 		if(potentialMatches != null) {
 			for(AspectItem aspectItem : potentialMatches) {
@@ -489,34 +548,31 @@ public class AspectManager {
 	}
 
 	/**
-	 * Returns a list of all discovered aspects on an item. If you specify a player
+	 * Returns an immutable list of all discovered aspects on an item. If you specify a player
 	 * this will only return the aspects that the player has discovered.
 	 * If the player is null this will return all aspects on an item.
 	 * @param item
 	 * @return
 	 */
 	public List<Aspect> getDiscoveredAspects(AspectItem item, DiscoveryContainer<?> discoveryContainer) {
-		List<Aspect> aspects = new ArrayList<Aspect>();
 		if(discoveryContainer == null) {
-			aspects.addAll(this.getStaticAspects(item));
-		} else {
-			aspects.addAll(discoveryContainer.getDiscoveredStaticAspects(this, item));
+			return this.getStaticAspects(item);
 		}
-		return aspects;
+		return discoveryContainer.getDiscoveredStaticAspects(this, item);
 	}
 
 	/**
-	 * Returns a list of all discovered aspect types on an item. If you specify a player
+	 * Returns an immutable list of all discovered aspect types on an item. If you specify a player
 	 * this will only return the aspect types that the player has discovered.
 	 * If the player is null this will return all aspect types on an item.
 	 * @param item
 	 * @return
 	 */
 	public List<IAspectType> getDiscoveredAspectTypes(AspectItem item, DiscoveryContainer<?> discoveryContainer) {
-		List<IAspectType> aspects = new ArrayList<IAspectType>();
+		ImmutableList.Builder<IAspectType> aspects = ImmutableList.builder();
 		for(Aspect aspect : this.getDiscoveredAspects(item, discoveryContainer)) {
 			aspects.add(aspect.type);
 		}
-		return aspects;
+		return aspects.build();
 	}
 }
@@ -1,9 +1,7 @@
 package thebetweenlands.common.network.clientbound;
 
-import java.io.IOException;
-
+import io.netty.buffer.Unpooled;
 import net.minecraft.client.Minecraft;
-import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.network.PacketBuffer;
 import net.minecraft.world.World;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
@@ -15,33 +13,39 @@ import thebetweenlands.api.storage.StorageID;
 import thebetweenlands.common.network.MessageBase;
 import thebetweenlands.common.world.storage.BetweenlandsWorldStorage;
 import thebetweenlands.common.world.storage.location.LocationGuarded;
-import thebetweenlands.common.world.storage.location.LocationStorage;
 
 public class MessageBlockGuardData extends MessageBase {
 	private String id;
-	private NBTTagCompound data;
+	private byte[] data;
 
 	public MessageBlockGuardData() {}
 
-	public MessageBlockGuardData(LocationStorage location) {
+	public MessageBlockGuardData(LocationGuarded location) {
 		this.id = location.getID().getStringID();
-		this.data = location.writeGuardNBT(new NBTTagCompound());
+		PacketBuffer buf = new PacketBuffer(Unpooled.buffer());
+		location.getGuard().writeToBuffer(buf);
+		this.data = new byte[buf.readableBytes()];
+		buf.readBytes(this.data);
+	}
+
+	/**
+	 * Returns the approximate size of this message in bytes
+	 * @return
+	 */
+	public int getSize() {
+		return this.id.length() + 1 + this.data.length;
 	}
 
 	@Override
 	public void deserialize(PacketBuffer buf) {
 		this.id = buf.readString(256);
-		try {
-			this.data = buf.readCompoundTag();
-		} catch (IOException e) {
-			throw new RuntimeException(e);
-		}
+		this.data = buf.readByteArray();
 	}
 
 	@Override
 	public void serialize(PacketBuffer buf) {
 		buf.writeString(this.id);
-		buf.writeCompoundTag(this.data);
+		buf.writeByteArray(this.data);
 	}
 
 	@Override
@@ -59,7 +63,7 @@ public class MessageBlockGuardData extends MessageBase {
 		ILocalStorage storage = worldStorage.getLocalStorageHandler().getLocalStorage(StorageID.fromString(this.id));
 		if(storage != null && storage instanceof LocationGuarded) {
 			LocationGuarded location = (LocationGuarded) storage;
-			location.readGuardNBT(this.data);
+			location.getGuard().readFromBuffer(new PacketBuffer(Unpooled.wrappedBuffer(this.data)));
 		}
 	}
 }
\ No newline at end of file
@@ -1,6 +1,6 @@
 package thebetweenlands.common.network.clientbound;
 
-import javax.annotation.Nullable;
+import java.util.Collection;
 
 import net.minecraft.client.Minecraft;
 import net.minecraft.network.PacketBuffer;
@@ -13,50 +13,68 @@ import net.minecraftforge.fml.relauncher.SideOnly;
 import thebetweenlands.api.storage.ILocalStorage;
 import thebetweenlands.api.storage.StorageID;
 import thebetweenlands.common.network.MessageBase;
-import thebetweenlands.common.world.storage.BetweenlandsLocalStorage;
 import thebetweenlands.common.world.storage.BetweenlandsWorldStorage;
 import thebetweenlands.common.world.storage.location.LocationGuarded;
 import thebetweenlands.common.world.storage.location.guard.BlockLocationGuard.GuardChunkSection;
 
 public class MessageBlockGuardSectionChange extends MessageBase {
+	//Upper limit of sections per message
+	private static final int MAX_SECTIONS = 65536;
+
 	private String id;
-	private BlockPos pos;
-	private byte[] data;
+	private BlockPos[] positions;
+	private byte[][] data;
 
 	public MessageBlockGuardSectionChange() {}
 
-	public MessageBlockGuardSectionChange(BetweenlandsLocalStorage storage, BlockPos pos, @Nullable GuardChunkSection section) {
+	/**
+	 * @param storage
+	 * @param positions World positions of the changed sections
+	 */
+	public MessageBlockGuardSectionChange(LocationGuarded storage, Collection<BlockPos> positions) {
 		this.id = storage.getID().getStringID();
-		this.pos = pos;
-		if(section != null && section.getBlockRefCount() > 0) {
-			this.data = new byte[512];
-			section.writeData(this.data);
-		} else {
-			this.data = null;
+		this.positions = positions.toArray(new BlockPos[positions.size()]);
+		this.data = new byte[this.positions.length][];
+		for(int i = 0; i < this.positions.length; i++) {
+			GuardChunkSection section = storage.getGuard().getSection(this.positions[i]);
+			this.data[i] = section != null ? section.writePacked() : new byte[0];
+		}
+	}
+
+	/**
+	 * Returns the approximate size of this message in bytes
+	 * @return
+	 */
+	public int getSize() {
+		int size = this.id.length() + 1;
+		for(int i = 0; i < this.positions.length; i++) {
+			size += 8 + 1 + this.data[i].length;
 		}
+		return size;
 	}
 
 	@Override
 	public void deserialize(PacketBuffer buf) {
 		this.id = buf.readString(256);
-		this.pos = BlockPos.fromLong(buf.readLong());
-		if(!buf.readBoolean()) {
-			this.data = buf.readByteArray(512);
-			if(this.data.length != 512) {
-				throw new RuntimeException("Invalid block guard data");
-			}
-		} else {
-			this.data = null;
+		int count = buf.readVarInt();
+		if(count < 0 || count > MAX_SECTIONS) {
+			throw new RuntimeException("Invalid block guard data");
+		}
+		this.positions = new BlockPos[count];
+		this.data = new byte[count][];
+		for(int i = 0; i < count; i++) {
+			this.positions[i] = BlockPos.fromLong(buf.readLong());
+			this.data[i] = buf.readByteArray(513);
 		}
 	}
 
 	@Override
 	public void serialize(PacketBuffer buf) {
 		buf.writeString(this.id);
-		buf.writeLong(this.pos.toLong());
-		buf.writeBoolean(this.data == null);
-		if(this.data != null) {
-			buf.writeByteArray(this.data);
+		buf.writeVarInt(this.positions.length);
+		for(int i = 0; i < this.positions.length; i++) {
+			buf.writeLong(this.positions[i].toLong());
+			buf.writeByteArray(this.data[i]);
 		}
 	}
 
@@ -76,18 +94,11 @@ public class MessageBlockGuardSectionChange extends MessageBase {
 		if(storage != null && storage instanceof LocationGuarded) {
 			LocationGuarded location = (LocationGuarded) storage;
 			if(location.getGuard() != null) {
-				GuardChunkSection section = location.getGuard().getSection(this.pos);
-				if(this.data != null) {
-					//Make sure chunk and section are loaded and not null
-					location.getGuard().setGuarded(world, this.pos, true);
-					section = location.getGuard().getSection(this.pos);
-					if(section != null) {
-						section.loadData(this.data);
-					}
-				} else if(section != null) {
-					section.clear();
+				for(int i = 0; i < this.positions.length; i++) {
+					//Empty sections are dropped instead of being allocated
+					location.getGuard().setPackedSection(this.positions[i], this.data[i]);
 				}
 			}
 		}
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,62 @@
+package thebetweenlands.common.network.clientbound;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+import thebetweenlands.common.TheBetweenlands;
+import thebetweenlands.common.network.MessageBase;
+import thebetweenlands.common.network.serverbound.MessageRequestEnvironmentEventSync;
+import thebetweenlands.common.world.event.BLEnvironmentEventRegistry;
+import thebetweenlands.common.world.storage.BetweenlandsWorldStorage;
+
+/**
+ * Periodically sent to the clients so that they can verify their environment event states.
+ * If the client's states don't match it requests a full sync
+ */
+public class MessageEnvironmentEventHeartbeat extends MessageBase {
+	private int version;
+	private int checksum;
+
+	public MessageEnvironmentEventHeartbeat() {}
+
+	public MessageEnvironmentEventHeartbeat(BLEnvironmentEventRegistry registry) {
+		this.version = registry.getSyncVersion();
+		this.checksum = registry.getSyncChecksum();
+	}
+
+	@Override
+	public void serialize(PacketBuffer buffer) {
+		buffer.writeVarInt(this.version);
+		buffer.writeInt(this.checksum);
+	}
+
+	@Override
+	public void deserialize(PacketBuffer buffer) {
+		this.version = buffer.readVarInt();
+		this.checksum = buffer.readInt();
+	}
+
+	@Override
+	public IMessage process(MessageContext ctx) {
+		if(ctx.side == Side.CLIENT) {
+			this.handleMessage();
+		}
+		return null;
+	}
+
+	@SideOnly(Side.CLIENT)
+	private void handleMessage() {
+		World world = Minecraft.getMinecraft().world;
+		BetweenlandsWorldStorage storage = BetweenlandsWorldStorage.forWorld(world);
+		if(storage != null) {
+			BLEnvironmentEventRegistry eeRegistry = storage.getEnvironmentEventRegistry();
+			if(eeRegistry.getSyncVersion() != this.version || eeRegistry.getSyncChecksum() != this.checksum) {
+				TheBetweenlands.networkWrapper.sendToServer(new MessageRequestEnvironmentEventSync());
+			}
+		}
+	}
+}
@@ -1,8 +1,13 @@
 package thebetweenlands.common.network.clientbound;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
 import net.minecraft.entity.Entity;
+import net.minecraft.nbt.CompressedStreamTools;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.network.PacketBuffer;
 import net.minecraft.util.ResourceLocation;
@@ -15,33 +20,77 @@ import thebetweenlands.common.capability.base.EntityCapabilityHandler;
 import thebetweenlands.common.network.MessageEntity;
 
 public class MessageSyncEntityCapabilities extends MessageEntity {
-	private ResourceLocation capability;
-	private NBTTagCompound nbt;
+	private List<ResourceLocation> capabilities = new ArrayList<>();
+
+	//Encoded tracking data, only used when sending
+	private List<byte[]> data = new ArrayList<>();
+
+	//Decoded tracking data, only used when receiving
+	private List<NBTTagCompound> nbt = new ArrayList<>();
 
 	public MessageSyncEntityCapabilities() { }
 
-	public MessageSyncEntityCapabilities(EntityCapability<?, ?, ?> entityCapability) {
-		this.capability = entityCapability.getID();
-		this.addEntity(entityCapability.getEntity());
-		this.nbt = new NBTTagCompound();
-		entityCapability.writeTrackingDataToNBT(this.nbt);
+	/**
+	 * Creates a message without any capabilities, see {@link #addCapability(ResourceLocation, byte[])}
+	 * @param entity
+	 */
+	public MessageSyncEntityCapabilities(Entity entity) {
+		this.addEntity(entity);
+	}
+
+	/**
+	 * Adds the encoded tracking data of a capability to the message
+	 * @param capability
+	 * @param data Tracking data encoded by {@link #encodeTrackingData(EntityCapability)}
+	 */
+	public void addCapability(ResourceLocation capability, byte[] data) {
+		this.capabilities.add(capability);
+		this.data.add(data);
+	}
+
+	/**
+	 * Encodes the tracking data of a capability so that it can be added to any number of messages
+	 * @param entityCapability
+	 * @return
+	 */
+	public static byte[] encodeTrackingData(EntityCapability<?, ?, ?> entityCapability) {
+		NBTTagCompound nbt = new NBTTagCompound();
+		entityCapability.writeTrackingDataToNBT(nbt);
+		PacketBuffer buf = new PacketBuffer(Unpooled.buffer());
+		try {
+			CompressedStreamTools.write(nbt, new ByteBufOutputStream(buf));
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		byte[] data = new byte[buf.readableBytes()];
+		buf.readBytes(data);
+		return data;
 	}
 
 	@Override
 	public void serialize(PacketBuffer buf) {
 		super.serialize(buf);
-		buf.writeString(this.capability.toString());
-		buf.writeCompoundTag(this.nbt);
+		buf.writeVarInt(this.capabilities.size());
+		for(int i = 0; i < this.capabilities.size(); i++) {
+			buf.writeString(this.capabilities.get(i).toString());
+			//Same format as PacketBuffer#writeCompoundTag
+			buf.writeBytes(this.data.get(i));
+		}
 	}
 
 	@Override
 	public void deserialize(PacketBuffer buf) {
 		super.deserialize(buf);
-		this.capability = new ResourceLocation(buf.readString(128));
-		try {
-			this.nbt = buf.readCompoundTag();
-		} catch (IOException e) {
-			throw new RuntimeException(e);
+		this.capabilities.clear();
+		this.nbt.clear();
+		int count = buf.readVarInt();
+		for(int i = 0; i < count; i++) {
+			this.capabilities.add(new ResourceLocation(buf.readString(128)));
+			try {
+				this.nbt.add(buf.readCompoundTag());
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
 		}
 	}
 
@@ -60,9 +109,11 @@ public class MessageSyncEntityCapabilities extends MessageEntity {
 	private void handleMessage() {
 		Entity entity = this.getEntity(0);
 		if(entity != null) {
-			EntityCapability<?, ?, Entity> capability = EntityCapabilityHandler.getCapability(this.capability, entity);
-			if(capability != null) {
-				capability.readTrackingDataFromNBT(this.nbt);
+			for(int i = 0; i < this.capabilities.size(); i++) {
+				EntityCapability<?, ?, Entity> capability = EntityCapabilityHandler.getCapability(this.capabilities.get(i), entity);
+				if(capability != null) {
+					capability.readTrackingDataFromNBT(this.nbt.get(i));
+				}
 			}
 		}
 	}
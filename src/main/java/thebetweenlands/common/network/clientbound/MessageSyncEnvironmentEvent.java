@@ -1,8 +1,16 @@
 package thebetweenlands.common.network.clientbound;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
 
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
 import net.minecraft.client.Minecraft;
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTSizeTracker;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.network.PacketBuffer;
 import net.minecraft.util.ResourceLocation;
@@ -14,39 +22,116 @@ import net.minecraftforge.fml.relauncher.SideOnly;
 import thebetweenlands.api.environment.IEnvironmentEvent;
 import thebetweenlands.common.network.MessageBase;
 import thebetweenlands.common.world.event.BLEnvironmentEventRegistry;
+import thebetweenlands.common.world.event.BLEnvironmentEventRegistry.SyncedState;
 import thebetweenlands.common.world.storage.BetweenlandsWorldStorage;
 
 public class MessageSyncEnvironmentEvent extends MessageBase {
-	private IEnvironmentEvent event;
-	private ResourceLocation eventName;
-	private boolean active;
-	private NBTTagCompound nbt;
+	private int version;
+	private boolean fullSync;
+	private List<ResourceLocation> eventNames = new ArrayList<>();
+	private List<SyncedState> states = new ArrayList<>();
 
 	public MessageSyncEnvironmentEvent() {}
 
-	public MessageSyncEnvironmentEvent(IEnvironmentEvent eevent) {
-		this.event = eevent;
-		this.eventName = eevent.getEventName();
-		this.active = eevent.isActive();
-		this.nbt = new NBTTagCompound();
-		eevent.sendEventPacket(this.nbt);
+	/**
+	 * Creates a message without any events, see {@link #addEvent(ResourceLocation, SyncedState)}
+	 * @param version The sync version the client is at after receiving this message
+	 * @param fullSync Whether this message contains all events and replaces all previously synced states
+	 */
+	public MessageSyncEnvironmentEvent(int version, boolean fullSync) {
+		this.version = version;
+		this.fullSync = fullSync;
+	}
+
+	/**
+	 * Creates a message containing all synced states of the specified registry
+	 * @param registry
+	 * @return
+	 */
+	public static MessageSyncEnvironmentEvent createFullSync(BLEnvironmentEventRegistry registry) {
+		MessageSyncEnvironmentEvent message = new MessageSyncEnvironmentEvent(registry.getSyncVersion(), true);
+		for(Entry<ResourceLocation, SyncedState> entry : registry.getSyncedStates().entrySet()) {
+			message.addEvent(entry.getKey(), entry.getValue());
+		}
+		return message;
+	}
+
+	/**
+	 * Adds the state of an event to the message
+	 * @param eventName
+	 * @param state
+	 */
+	public void addEvent(ResourceLocation eventName, SyncedState state) {
+		this.eventNames.add(eventName);
+		this.states.add(state);
+	}
+
+	public boolean isEmpty() {
+		return this.eventNames.isEmpty();
+	}
+
+	/**
+	 * Encodes the current packet data and active state of an event
+	 * @param eevent
+	 * @return
+	 */
+	public static SyncedState encodeState(IEnvironmentEvent eevent) {
+		NBTTagCompound nbt = new NBTTagCompound();
+		eevent.sendEventPacket(nbt);
+		if(nbt.hasNoTags()) {
+			return new SyncedState(eevent.isActive(), new byte[0]);
+		}
+		PacketBuffer buf = new PacketBuffer(Unpooled.buffer());
+		try {
+			CompressedStreamTools.write(nbt, new ByteBufOutputStream(buf));
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		byte[] data = new byte[buf.readableBytes()];
+		buf.readBytes(data);
+		return new SyncedState(eevent.isActive(), data);
+	}
+
+	/**
+	 * Decodes the packet data of an event encoded by {@link #encodeState(IEnvironmentEvent)}
+	 * @param data
+	 * @return
+	 */
+	public static NBTTagCompound decodeData(byte[] data) {
+		if(data.length == 0) {
+			return new NBTTagCompound();
+		}
+		try {
+			return CompressedStreamTools.read(new ByteBufInputStream(Unpooled.wrappedBuffer(data)), new NBTSizeTracker(2097152L));
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
 	}
 
 	@Override
 	public void serialize(PacketBuffer buffer) {
-		buffer.writeString(this.eventName.toString());
-		buffer.writeBoolean(this.active);
-		buffer.writeCompoundTag(this.nbt);
+		buffer.writeVarInt(this.version);
+		buffer.writeBoolean(this.fullSync);
+		buffer.writeVarInt(this.eventNames.size());
+		for(int i = 0; i < this.eventNames.size(); i++) {
+			SyncedState state = this.states.get(i);
+			buffer.writeString(this.eventNames.get(i).toString());
+			buffer.writeBoolean(state.isActive());
+			buffer.writeByteArray(state.getData());
+		}
 	}
 
 	@Override
 	public void deserialize(PacketBuffer buffer) {
-		this.eventName = new ResourceLocation(buffer.readString(128));
-		this.active = buffer.readBoolean();
-		try {
-			this.nbt = buffer.readCompoundTag();
-		} catch (IOException e) {
-			throw new RuntimeException(e);
+		this.version = buffer.readVarInt();
+		this.fullSync = buffer.readBoolean();
+		int count = buffer.readVarInt();
+		this.eventNames = new ArrayList<>(count);
+		this.states = new ArrayList<>(count);
+		for(int i = 0; i < count; i++) {
+			this.eventNames.add(new ResourceLocation(buffer.readString(128)));
+			boolean active = buffer.readBoolean();
+			this.states.add(new SyncedState(active, buffer.readByteArray(2097152)));
 		}
 	}
 
@@ -60,18 +145,26 @@ public class MessageSyncEnvironmentEvent extends MessageBase {
 
 	@SideOnly(Side.CLIENT)
 	private void handleMessage() {
-		if(this.nbt != null) {
-			World world = Minecraft.getMinecraft().world;
-			BetweenlandsWorldStorage storage = BetweenlandsWorldStorage.forWorld(world);
-			if(storage != null) {
-				BLEnvironmentEventRegistry eeRegistry = storage.getEnvironmentEventRegistry();
-				IEnvironmentEvent eevent = eeRegistry.forName(this.eventName);
+		World world = Minecraft.getMinecraft().world;
+		BetweenlandsWorldStorage storage = BetweenlandsWorldStorage.forWorld(world);
+		if(storage != null) {
+			BLEnvironmentEventRegistry eeRegistry = storage.getEnvironmentEventRegistry();
+			if(this.fullSync) {
+				eeRegistry.clearSyncedStates();
+			}
+			for(int i = 0; i < this.eventNames.size(); i++) {
+				ResourceLocation eventName = this.eventNames.get(i);
+				SyncedState state = this.states.get(i);
+				IEnvironmentEvent eevent = eeRegistry.forName(eventName);
 				if(eevent != null) {
-					eevent.loadEventPacket(this.nbt);
-					eevent.setActive(this.active, false);
+					eevent.loadEventPacket(decodeData(state.getData()));
+					eevent.setActive(state.isActive(), false);
 					eevent.setLoaded();
 				}
+				//Also kept for unknown events so that the checksum matches the server
+				eeRegistry.setSyncedState(eventName, state);
 			}
+			eeRegistry.setSyncVersion(this.version);
 		}
 	}
 }
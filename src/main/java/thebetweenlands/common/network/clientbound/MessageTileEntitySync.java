@@ -0,0 +1,135 @@
+package thebetweenlands.common.network.clientbound;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.client.Minecraft;
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTSizeTracker;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+import thebetweenlands.common.network.MessageBase;
+
+/**
+ * Syncs the update tag of a tile entity. Either contains the full update tag
+ * or only the entries that have changed since the last sync
+ */
+public class MessageTileEntitySync extends MessageBase {
+	private BlockPos pos;
+	private boolean full;
+	private NBTTagCompound changed;
+	private List<String> removed = new ArrayList<>();
+
+	//Encoded changed entries, only used when sending
+	private byte[] data;
+
+	public MessageTileEntitySync() { }
+
+	/**
+	 * @param pos
+	 * @param full Whether the changed entries are the full update tag
+	 * @param changed The changed entries of the update tag
+	 * @param removed The keys that were removed from the update tag
+	 */
+	public MessageTileEntitySync(BlockPos pos, boolean full, NBTTagCompound changed, Collection<String> removed) {
+		this.pos = pos;
+		this.full = full;
+		this.removed.addAll(removed);
+
+		PacketBuffer buf = new PacketBuffer(Unpooled.buffer());
+		try {
+			CompressedStreamTools.write(changed, new ByteBufOutputStream(buf));
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		this.data = new byte[buf.readableBytes()];
+		buf.readBytes(this.data);
+	}
+
+	/**
+	 * Returns the approximate size of this message in bytes
+	 * @return
+	 */
+	public int getSize() {
+		int size = 8 + 1 + this.data.length;
+		for(String key : this.removed) {
+			size += key.length() + 1;
+		}
+		return size;
+	}
+
+	@Override
+	public void serialize(PacketBuffer buf) {
+		buf.writeLong(this.pos.toLong());
+		buf.writeBoolean(this.full);
+		buf.writeByteArray(this.data);
+		buf.writeVarInt(this.removed.size());
+		for(String key : this.removed) {
+			buf.writeString(key);
+		}
+	}
+
+	@Override
+	public void deserialize(PacketBuffer buf) {
+		this.pos = BlockPos.fromLong(buf.readLong());
+		this.full = buf.readBoolean();
+		byte[] data = buf.readByteArray(2097152);
+		try {
+			this.changed = CompressedStreamTools.read(new ByteBufInputStream(Unpooled.wrappedBuffer(data)), new NBTSizeTracker(2097152L));
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		int count = buf.readVarInt();
+		this.removed = new ArrayList<>(count);
+		for(int i = 0; i < count; i++) {
+			this.removed.add(buf.readString(32767));
+		}
+	}
+
+	@Override
+	public IMessage process(MessageContext ctx) {
+		if(ctx.side == Side.CLIENT) {
+			this.handleMessage();
+		}
+		return null;
+	}
+
+	@SideOnly(Side.CLIENT)
+	private void handleMessage() {
+		World world = Minecraft.getMinecraft().world;
+		if(world != null && world.isBlockLoaded(this.pos)) {
+			TileEntity tile = world.getTileEntity(this.pos);
+			if(tile != null) {
+				NBTTagCompound nbt;
+				if(this.full) {
+					nbt = this.changed;
+				} else {
+					//Apply the changes to the current state of the tile
+					nbt = tile.getUpdateTag();
+					for(String key : this.removed) {
+						nbt.removeTag(key);
+					}
+					for(String key : this.changed.getKeySet()) {
+						nbt.setTag(key, this.changed.getTag(key));
+					}
+				}
+				tile.handleUpdateTag(nbt);
+				IBlockState state = world.getBlockState(this.pos);
+				world.notifyBlockUpdate(this.pos, state, state, 3);
+			}
+		}
+	}
+}
@@ -0,0 +1,35 @@
+package thebetweenlands.common.network.serverbound;
+
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.network.PacketBuffer;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
+import thebetweenlands.common.TheBetweenlands;
+import thebetweenlands.common.network.MessageBase;
+import thebetweenlands.common.network.clientbound.MessageSyncEnvironmentEvent;
+import thebetweenlands.common.world.storage.BetweenlandsWorldStorage;
+
+/**
+ * Sent by the client if its environment event states don't match the server's
+ */
+public class MessageRequestEnvironmentEventSync extends MessageBase {
+	public MessageRequestEnvironmentEventSync() { }
+
+	@Override
+	public void serialize(PacketBuffer buffer) { }
+
+	@Override
+	public void deserialize(PacketBuffer buffer) { }
+
+	@Override
+	public IMessage process(MessageContext ctx) {
+		if(ctx.getServerHandler() != null) {
+			EntityPlayerMP player = ctx.getServerHandler().player;
+			BetweenlandsWorldStorage storage = BetweenlandsWorldStorage.forWorld(player.world);
+			if(storage != null) {
+				TheBetweenlands.networkWrapper.sendTo(MessageSyncEnvironmentEvent.createFullSync(storage.getEnvironmentEventRegistry()), player);
+			}
+		}
+		return null;
+	}
+}
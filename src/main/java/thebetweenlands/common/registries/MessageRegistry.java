@@ -15,6 +15,7 @@ import thebetweenlands.common.network.clientbound.MessageBlockGuardSectionChange
 import thebetweenlands.common.network.clientbound.MessageClearBlockGuard;
 import thebetweenlands.common.network.clientbound.MessageDruidAltarProgress;
 import thebetweenlands.common.network.clientbound.MessageDruidTeleportParticles;
+import thebetweenlands.common.network.clientbound.MessageEnvironmentEventHeartbeat;
 import thebetweenlands.common.network.clientbound.MessageGemProc;
 import thebetweenlands.common.network.clientbound.MessageMireSnailEggHatching;
 import thebetweenlands.common.network.clientbound.MessagePlayEntityIdle;
@@ -27,6 +28,7 @@ import thebetweenlands.common.network.clientbound.MessageSyncEnvironmentEvent;
 import thebetweenlands.common.network.clientbound.MessageSyncLocalStorage;
 import thebetweenlands.common.network.clientbound.MessageSyncLocalStorageReferences;
 import thebetweenlands.common.network.clientbound.MessageSyncStaticAspects;
+import thebetweenlands.common.network.clientbound.MessageTileEntitySync;
 import thebetweenlands.common.network.clientbound.MessageWeedwoodBushRustle;
 import thebetweenlands.common.network.clientbound.MessageWightVolatileParticles;
 import thebetweenlands.common.network.serverbound.MessageConnectCavingRope;
@@ -34,6 +36,7 @@ import thebetweenlands.common.network.serverbound.MessageEquipItem;
 import thebetweenlands.common.network.serverbound.MessageFlightState;
 import thebetweenlands.common.network.serverbound.MessageOpenPouch;
 import thebetweenlands.common.network.serverbound.MessagePouchNaming;
+import thebetweenlands.common.network.serverbound.MessageRequestEnvironmentEventSync;
 import thebetweenlands.common.network.serverbound.MessageRow;
 import thebetweenlands.common.network.serverbound.MessageUpdatePuppeteerState;
 import thebetweenlands.common.network.serverbound.MessageUpdateSummoningState;
@@ -63,6 +66,8 @@ public class MessageRegistry {
 		registerMessage(MessageSyncLocalStorage.class, Side.CLIENT);
 		registerMessage(MessageSyncLocalStorageReferences.class, Side.CLIENT);
 		registerMessage(MessageSummonPeatMummyParticles.class, Side.CLIENT);
+		registerMessage(MessageEnvironmentEventHeartbeat.class, Side.CLIENT);
+		registerMessage(MessageTileEntitySync.class, Side.CLIENT);
 		
 		registerMessage(MessageEquipItem.class, Side.SERVER);
 		registerMessage(MessageOpenPouch.class, Side.SERVER);
@@ -72,6 +77,7 @@ public class MessageRegistry {
 		registerMessage(MessageUpdateSummoningState.class, Side.SERVER);
 		registerMessage(MessageRow.class, Side.SERVER);
 		registerMessage(MessageConnectCavingRope.class, Side.SERVER);
+		registerMessage(MessageRequestEnvironmentEventSync.class, Side.SERVER);
 	}
 
 	private static void registerMessage(Class<? extends MessageBase> messageType, Side toSide) {
@@ -4,7 +4,6 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
-import net.minecraft.block.state.IBlockState;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.nbt.NBTTagList;
@@ -17,6 +16,7 @@ import net.minecraftforge.common.util.Constants;
 import thebetweenlands.api.aspect.Aspect;
 import thebetweenlands.api.aspect.IAspectType;
 import thebetweenlands.api.aspect.ItemAspectContainer;
+import thebetweenlands.common.handler.TileEntitySyncHandler;
 import thebetweenlands.common.herblore.Amounts;
 import thebetweenlands.common.herblore.aspect.AspectManager;
 import thebetweenlands.common.herblore.elixir.ElixirRecipe;
@@ -121,8 +121,7 @@ public class TileEntityAlembic extends TileEntity implements ITickable {
 
     @Override
     public void markDirty() {
-        IBlockState state = world.getBlockState(pos);
-        world.notifyBlockUpdate(getPos(), state, state, 3);
+        TileEntitySyncHandler.scheduleSync(this);
         world.markBlockRangeForRenderUpdate(getPos(), getPos());
         super.markDirty();
     }
@@ -351,7 +350,7 @@ public class TileEntityAlembic extends TileEntity implements ITickable {
         this.producableStrength = 0;
         this.producedAmount = 0;
         this.progress = 0;
-        world.notifyBlockUpdate(getPos(), world.getBlockState(pos), world.getBlockState(pos), 3);
+        TileEntitySyncHandler.scheduleSync(this);
     }
 
     private ItemStack createElixir(ElixirEffect elixir, int strength, int duration, int vialType) {
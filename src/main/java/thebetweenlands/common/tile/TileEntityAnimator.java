@@ -15,6 +15,7 @@ import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import thebetweenlands.api.recipes.IAnimatorRecipe;
 import thebetweenlands.client.audio.AnimatorSound;
+import thebetweenlands.common.handler.TileEntitySyncHandler;
 import thebetweenlands.common.inventory.container.ContainerAnimator;
 import thebetweenlands.common.item.misc.ItemMisc;
 import thebetweenlands.common.recipe.misc.AnimatorRecipe;
@@ -123,7 +124,7 @@ public class TileEntityAnimator extends TileEntityBasicInventory implements ITic
     @Override
     public void markDirty() {
         super.markDirty();
-        world.notifyBlockUpdate(getPos(), world.getBlockState(pos), world.getBlockState(pos), 3);
+        TileEntitySyncHandler.scheduleSync(this);
     }
 
     @Override
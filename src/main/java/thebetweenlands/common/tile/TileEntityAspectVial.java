@@ -1,11 +1,11 @@
 package thebetweenlands.common.tile;
 
-import net.minecraft.block.state.IBlockState;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.network.NetworkManager;
 import net.minecraft.network.play.server.SPacketUpdateTileEntity;
 import net.minecraft.tileentity.TileEntity;
 import thebetweenlands.api.aspect.Aspect;
+import thebetweenlands.common.handler.TileEntitySyncHandler;
 import thebetweenlands.common.herblore.Amounts;
 
 import javax.annotation.Nullable;
@@ -49,8 +49,7 @@ public class TileEntityAspectVial extends TileEntity {
 
     @Override
     public void markDirty() {
-        final IBlockState state = getWorld().getBlockState(getPos());
-        getWorld().notifyBlockUpdate(getPos(), state, state, 2);
+        TileEntitySyncHandler.scheduleSync(this);
         super.markDirty();
     }
 
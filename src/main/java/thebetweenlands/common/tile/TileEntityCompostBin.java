@@ -15,6 +15,7 @@ import net.minecraft.util.NonNullList;
 import net.minecraft.util.text.ITextComponent;
 import net.minecraftforge.common.util.Constants;
 import thebetweenlands.api.recipes.ICompostBinRecipe;
+import thebetweenlands.common.handler.TileEntitySyncHandler;
 import thebetweenlands.common.item.misc.ItemMisc.EnumItemMisc;
 import thebetweenlands.common.recipe.misc.CompostRecipe;
 
@@ -79,7 +80,7 @@ public class TileEntityCompostBin extends TileEntity implements ITickable, ISide
                             this.compostTimes[i] = 0;
                             this.compostAmounts[i] = 0;
 
-                            this.world.notifyBlockUpdate(this.pos, this.world.getBlockState(this.pos), this.world.getBlockState(this.pos), 2);
+                            TileEntitySyncHandler.scheduleSync(this);
                             this.markDirty();
                         } else {
                             this.processes[i]++;
@@ -119,7 +120,7 @@ public class TileEntityCompostBin extends TileEntity implements ITickable, ISide
                 this.compostedAmount = 0;
                 this.totalCompostAmount = 0;
             }
-            this.world.notifyBlockUpdate(this.pos, this.world.getBlockState(this.pos), this.world.getBlockState(this.pos), 2);
+            TileEntitySyncHandler.scheduleSync(this);
             this.markDirty();
             return true;
         }
@@ -148,7 +149,7 @@ public class TileEntityCompostBin extends TileEntity implements ITickable, ISide
                         this.processes[i] = 0;
                         this.totalCompostAmount += clampedAmount;
 
-                        this.world.notifyBlockUpdate(this.pos, this.world.getBlockState(this.pos), this.world.getBlockState(this.pos), 2);
+                        TileEntitySyncHandler.scheduleSync(this);
                         this.markDirty();
                     }
                     return 1;
@@ -1,15 +1,13 @@
 package thebetweenlands.common.tile;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.ITickable;
 import thebetweenlands.common.TheBetweenlands;
 
 public class TileEntityWisp extends TileEntity implements ITickable {
 	public long lastSpawn = 0;
-	public final List<Object> particleList = new ArrayList<Object>();
+	//Client side wisp particle system, see ClientProxy#updateWispParticles
+	public Object particleSystem;
 
 	@Override
 	public void update() {
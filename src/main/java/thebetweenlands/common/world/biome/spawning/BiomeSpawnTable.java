@@ -0,0 +1,192 @@
+package thebetweenlands.common.world.biome.spawning;
+
+import java.util.List;
+import java.util.Random;
+
+import javax.annotation.Nullable;
+
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import thebetweenlands.common.world.biome.BiomeBetweenlands;
+import thebetweenlands.common.world.biome.spawning.MobSpawnHandler.BLSpawnEntry;
+
+/**
+ * Precomputed weighted table of the spawn entries of a biome that can spawn with the given
+ * hostile/animal settings. Entries are sampled in constant time using Vose's alias method
+ * and the table is only rebuilt when the dynamic weight of one of its entries changes.
+ */
+public class BiomeSpawnTable {
+	private final BiomeBetweenlands biome;
+	private final boolean spawnHostiles, spawnAnimals;
+
+	private int biomeEntryCount = -1;
+
+	private BLSpawnEntry[] entries = new BLSpawnEntry[0];
+	private short[] weights = new short[0];
+
+	private int[] probabilities = new int[0];
+	private int[] aliases = new int[0];
+	private int[] scaledWeights = new int[0];
+	private int[] small = new int[0];
+	private int[] large = new int[0];
+
+	private int totalWeight = 0;
+	private int totalBaseWeight = 0;
+
+	private boolean dirty = true;
+
+	public BiomeSpawnTable(BiomeBetweenlands biome, boolean spawnHostiles, boolean spawnAnimals) {
+		this.biome = biome;
+		this.spawnHostiles = spawnHostiles;
+		this.spawnAnimals = spawnAnimals;
+	}
+
+	/**
+	 * Updates the weights of all entries based on the spawning position
+	 * and rebuilds the table if any weight has changed
+	 * @param world
+	 * @param pos
+	 */
+	public void update(World world, BlockPos pos) {
+		List<BLSpawnEntry> biomeSpawns = this.biome.getSpawnEntries();
+		if(biomeSpawns.size() != this.biomeEntryCount) {
+			this.collectEntries(biomeSpawns);
+		}
+
+		for(int i = 0; i < this.entries.length; i++) {
+			BLSpawnEntry spawnEntry = this.entries[i];
+			spawnEntry.update(world, pos);
+			short weight = (short) Math.max(spawnEntry.getWeight(), 0);
+			if(weight != this.weights[i]) {
+				this.weights[i] = weight;
+				this.dirty = true;
+			}
+		}
+
+		if(this.dirty) {
+			this.rebuild();
+			this.dirty = false;
+		}
+	}
+
+	private void collectEntries(List<BLSpawnEntry> biomeSpawns) {
+		int count = 0;
+		for(BLSpawnEntry spawnEntry : biomeSpawns) {
+			if(this.canSpawn(spawnEntry)) {
+				count++;
+			}
+		}
+
+		this.entries = new BLSpawnEntry[count];
+		this.weights = new short[count];
+		this.probabilities = new int[count];
+		this.aliases = new int[count];
+		this.scaledWeights = new int[count];
+		this.small = new int[count];
+		this.large = new int[count];
+		this.totalBaseWeight = 0;
+
+		int i = 0;
+		for(BLSpawnEntry spawnEntry : biomeSpawns) {
+			if(this.canSpawn(spawnEntry)) {
+				this.entries[i] = spawnEntry;
+				this.weights[i] = -1;
+				this.totalBaseWeight += spawnEntry.getBaseWeight();
+				i++;
+			}
+		}
+
+		this.biomeEntryCount = biomeSpawns.size();
+		this.dirty = true;
+	}
+
+	private boolean canSpawn(BLSpawnEntry spawnEntry) {
+		return !((spawnEntry.isHostile() && !this.spawnHostiles) || (!spawnEntry.isHostile() && !this.spawnAnimals));
+	}
+
+	private void rebuild() {
+		int n = this.entries.length;
+
+		this.totalWeight = 0;
+		for(int i = 0; i < n; i++) {
+			this.totalWeight += this.weights[i];
+		}
+
+		if(this.totalWeight == 0) {
+			return;
+		}
+
+		//Weights are scaled by n so that the average bucket is exactly totalWeight
+		int smallSize = 0, largeSize = 0;
+		for(int i = 0; i < n; i++) {
+			this.scaledWeights[i] = this.weights[i] * n;
+			if(this.scaledWeights[i] < this.totalWeight) {
+				this.small[smallSize++] = i;
+			} else {
+				this.large[largeSize++] = i;
+			}
+		}
+
+		while(smallSize > 0 && largeSize > 0) {
+			int s = this.small[--smallSize];
+			int l = this.large[--largeSize];
+
+			this.probabilities[s] = this.scaledWeights[s];
+			this.aliases[s] = l;
+
+			this.scaledWeights[l] -= this.totalWeight - this.scaledWeights[s];
+			if(this.scaledWeights[l] < this.totalWeight) {
+				this.small[smallSize++] = l;
+			} else {
+				this.large[largeSize++] = l;
+			}
+		}
+
+		while(largeSize > 0) {
+			int l = this.large[--largeSize];
+			this.probabilities[l] = this.totalWeight;
+			this.aliases[l] = l;
+		}
+
+		while(smallSize > 0) {
+			int s = this.small[--smallSize];
+			this.probabilities[s] = this.totalWeight;
+			this.aliases[s] = s;
+		}
+	}
+
+	public boolean isEmpty() {
+		return this.entries.length == 0;
+	}
+
+	/**
+	 * Returns the sum of the current dynamic weights
+	 * @return
+	 */
+	public int getTotalWeight() {
+		return this.totalWeight;
+	}
+
+	/**
+	 * Returns the sum of the base weights
+	 * @return
+	 */
+	public int getTotalBaseWeight() {
+		return this.totalBaseWeight;
+	}
+
+	/**
+	 * Returns a random entry according to the current dynamic weights,
+	 * or null if all weights are 0
+	 * @param rand
+	 * @return
+	 */
+	@Nullable
+	public BLSpawnEntry getRandomEntry(Random rand) {
+		if(this.totalWeight == 0) {
+			return null;
+		}
+		int i = rand.nextInt(this.entries.length);
+		return rand.nextInt(this.totalWeight) < this.probabilities[i] ? this.entries[i] : this.entries[this.aliases[i]];
+	}
+}
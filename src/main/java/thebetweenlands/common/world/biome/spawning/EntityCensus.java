@@ -0,0 +1,339 @@
+package thebetweenlands.common.world.biome.spawning;
+
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import gnu.trove.map.hash.TObjectIntHashMap;
+import gnu.trove.procedure.TObjectIntProcedure;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongList;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.util.ClassInheritanceMultiMap;
+import net.minecraft.util.SoundCategory;
+import net.minecraft.util.SoundEvent;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.IWorldEventListener;
+import net.minecraft.world.World;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.chunk.Chunk;
+
+/**
+ * Keeps track of the number of living entities per class in the world, per chunk and per sub chunk.
+ * The counts are updated incrementally when entities are added to or removed from the world and when
+ * they move to another chunk section, so that the spawning limits can be checked in constant time.
+ */
+public class EntityCensus implements IWorldEventListener {
+	private static final int SECTIONS = 16;
+
+	private final World world;
+
+	private final TObjectIntHashMap<Class<? extends Entity>> worldCounts = new TObjectIntHashMap<>();
+	private int totalCount = 0;
+
+	private final Long2ObjectMap<ChunkCounts> chunkCounts = new Long2ObjectOpenHashMap<>();
+
+	private final Int2ObjectMap<TrackedEntity> trackedEntities = new Int2ObjectOpenHashMap<>();
+
+	private static class TrackedEntity {
+		private final Class<? extends Entity> type;
+		private boolean inChunk;
+		private int chunkX, chunkY, chunkZ;
+
+		private TrackedEntity(Class<? extends Entity> type) {
+			this.type = type;
+		}
+	}
+
+	private static class ChunkCounts {
+		private final TObjectIntHashMap<Class<? extends Entity>> counts = new TObjectIntHashMap<>();
+		@SuppressWarnings("unchecked")
+		private final TObjectIntHashMap<Class<? extends Entity>>[] sectionCounts = new TObjectIntHashMap[SECTIONS];
+		private int size = 0;
+	}
+
+	public EntityCensus(World world) {
+		this.world = world;
+	}
+
+	public World getWorld() {
+		return this.world;
+	}
+
+	/**
+	 * Returns the total number of living entities in the world
+	 * @return
+	 */
+	public int getTotalCount() {
+		return this.totalCount;
+	}
+
+	/**
+	 * Returns the number of living entities of the specified class in the world
+	 * @param type
+	 * @return
+	 */
+	public int getWorldCount(Class<? extends Entity> type) {
+		return this.worldCounts.get(type);
+	}
+
+	/**
+	 * Returns the number of living entities of the specified class in the specified chunk
+	 * @param type
+	 * @param chunkX
+	 * @param chunkZ
+	 * @return
+	 */
+	public int getChunkCount(Class<? extends Entity> type, int chunkX, int chunkZ) {
+		ChunkCounts counts = this.chunkCounts.get(ChunkPos.asLong(chunkX, chunkZ));
+		return counts != null ? counts.counts.get(type) : 0;
+	}
+
+	/**
+	 * Returns the number of living entities of the specified class in the specified sub chunk
+	 * @param type
+	 * @param chunkX
+	 * @param chunkY
+	 * @param chunkZ
+	 * @return
+	 */
+	public int getSubChunkCount(Class<? extends Entity> type, int chunkX, int chunkY, int chunkZ) {
+		ChunkCounts counts = this.chunkCounts.get(ChunkPos.asLong(chunkX, chunkZ));
+		if(counts != null && chunkY >= 0 && chunkY < SECTIONS) {
+			TObjectIntHashMap<Class<? extends Entity>> sectionCounts = counts.sectionCounts[chunkY];
+			return sectionCounts != null ? sectionCounts.get(type) : 0;
+		}
+		return 0;
+	}
+
+	/**
+	 * Counts the living entities in the specified chunks
+	 * @param chunks Chunks keyed by ChunkPos#asLong
+	 * @param counts Map the counts per class are added to
+	 * @return Total number of living entities in the chunks
+	 */
+	public int countInChunks(LongList chunks, TObjectIntHashMap<Class<? extends Entity>> counts) {
+		TObjectIntProcedure<Class<? extends Entity>> adder = (type, count) -> {
+			counts.adjustOrPutValue(type, count, count);
+			return true;
+		};
+		int total = 0;
+		for(int i = 0; i < chunks.size(); i++) {
+			ChunkCounts chunkCounts = this.chunkCounts.get(chunks.getLong(i));
+			if(chunkCounts != null) {
+				total += chunkCounts.size;
+				chunkCounts.counts.forEachEntry(adder);
+			}
+		}
+		return total;
+	}
+
+	/**
+	 * Clears the census and recounts all entities currently loaded in the world
+	 */
+	public void rebuild() {
+		this.worldCounts.clear();
+		this.totalCount = 0;
+		this.chunkCounts.clear();
+		this.trackedEntities.clear();
+
+		for(Entity entity : this.world.loadedEntityList) {
+			this.onEntityAdded(entity);
+		}
+	}
+
+	/**
+	 * Recounts all living entities from the world's loaded entity list and the entity lists
+	 * of the loaded chunks and compares the result against the census
+	 * @param mismatches List the descriptions of all found differences are added to
+	 * @return Number of differences
+	 */
+	public int verify(List<String> mismatches) {
+		int found = 0;
+
+		TObjectIntHashMap<Class<? extends Entity>> recountedWorldCounts = new TObjectIntHashMap<>();
+		int recountedTotal = 0;
+		for(Entity entity : this.world.loadedEntityList) {
+			if(entity instanceof EntityLivingBase) {
+				recountedWorldCounts.adjustOrPutValue(entity.getClass(), 1, 1);
+				recountedTotal++;
+			}
+		}
+
+		if(recountedTotal != this.totalCount) {
+			mismatches.add(String.format("world total: census=%d, recount=%d", this.totalCount, recountedTotal));
+			found++;
+		}
+
+		found += compareCounts("world", this.worldCounts, recountedWorldCounts, mismatches);
+
+		if(this.world instanceof WorldServer) {
+			for(Chunk chunk : ((WorldServer) this.world).getChunkProvider().getLoadedChunks()) {
+				ClassInheritanceMultiMap<Entity>[] entityLists = chunk.getEntityLists();
+				TObjectIntHashMap<Class<? extends Entity>> recountedChunkCounts = new TObjectIntHashMap<>();
+				ChunkCounts chunkCounts = this.chunkCounts.get(ChunkPos.asLong(chunk.x, chunk.z));
+
+				for(int y = 0; y < entityLists.length && y < SECTIONS; y++) {
+					TObjectIntHashMap<Class<? extends Entity>> recountedSectionCounts = new TObjectIntHashMap<>();
+					for(EntityLivingBase entity : entityLists[y].getByClass(EntityLivingBase.class)) {
+						recountedSectionCounts.adjustOrPutValue(entity.getClass(), 1, 1);
+						recountedChunkCounts.adjustOrPutValue(entity.getClass(), 1, 1);
+					}
+
+					TObjectIntHashMap<Class<? extends Entity>> sectionCounts = chunkCounts != null ? chunkCounts.sectionCounts[y] : null;
+					found += compareCounts(String.format("sub chunk [x=%d, y=%d, z=%d]", chunk.x, y, chunk.z), sectionCounts, recountedSectionCounts, mismatches);
+				}
+
+				found += compareCounts(String.format("chunk [x=%d, z=%d]", chunk.x, chunk.z), chunkCounts != null ? chunkCounts.counts : null, recountedChunkCounts, mismatches);
+			}
+		}
+
+		return found;
+	}
+
+	private static int compareCounts(String scope, @Nullable TObjectIntHashMap<Class<? extends Entity>> counts, TObjectIntHashMap<Class<? extends Entity>> recounted, List<String> mismatches) {
+		final int[] found = new int[1];
+		final TObjectIntHashMap<Class<? extends Entity>> census = counts != null ? counts : new TObjectIntHashMap<>();
+		recounted.forEachEntry((type, count) -> {
+			if(census.get(type) != count) {
+				mismatches.add(String.format("%s %s: census=%d, recount=%d", scope, type.getSimpleName(), census.get(type), count));
+				found[0]++;
+			}
+			return true;
+		});
+		census.forEachEntry((type, count) -> {
+			if(count != 0 && !recounted.containsKey(type)) {
+				mismatches.add(String.format("%s %s: census=%d, recount=0", scope, type.getSimpleName(), count));
+				found[0]++;
+			}
+			return true;
+		});
+		return found[0];
+	}
+
+	/**
+	 * Called when a tracked entity is about to be added to the specified chunk
+	 * @param entity
+	 * @param chunkX
+	 * @param chunkZ
+	 */
+	public void onEnteringChunk(Entity entity, int chunkX, int chunkZ) {
+		TrackedEntity tracked = this.trackedEntities.get(entity.getEntityId());
+		if(tracked != null) {
+			//Same sub chunk index as calculated by Chunk#addEntity
+			int chunkY = MathHelper.clamp(MathHelper.floor(entity.posY / 16.0D), 0, SECTIONS - 1);
+
+			if(!tracked.inChunk || tracked.chunkX != chunkX || tracked.chunkY != chunkY || tracked.chunkZ != chunkZ) {
+				if(tracked.inChunk) {
+					this.adjustSection(tracked.type, tracked.chunkX, tracked.chunkY, tracked.chunkZ, -1);
+				}
+				tracked.inChunk = true;
+				tracked.chunkX = chunkX;
+				tracked.chunkY = chunkY;
+				tracked.chunkZ = chunkZ;
+				this.adjustSection(tracked.type, chunkX, chunkY, chunkZ, 1);
+			}
+		}
+	}
+
+	@Override
+	public void onEntityAdded(Entity entity) {
+		if(entity instanceof EntityLivingBase && !this.trackedEntities.containsKey(entity.getEntityId())) {
+			TrackedEntity tracked = new TrackedEntity(entity.getClass());
+			this.trackedEntities.put(entity.getEntityId(), tracked);
+
+			this.worldCounts.adjustOrPutValue(tracked.type, 1, 1);
+			this.totalCount++;
+
+			if(entity.addedToChunk) {
+				tracked.inChunk = true;
+				tracked.chunkX = entity.chunkCoordX;
+				tracked.chunkY = MathHelper.clamp(entity.chunkCoordY, 0, SECTIONS - 1);
+				tracked.chunkZ = entity.chunkCoordZ;
+				this.adjustSection(tracked.type, tracked.chunkX, tracked.chunkY, tracked.chunkZ, 1);
+			}
+		}
+	}
+
+	@Override
+	public void onEntityRemoved(Entity entity) {
+		TrackedEntity tracked = this.trackedEntities.remove(entity.getEntityId());
+		if(tracked != null) {
+			if(this.worldCounts.adjustOrPutValue(tracked.type, -1, 0) <= 0) {
+				this.worldCounts.remove(tracked.type);
+			}
+			this.totalCount--;
+
+			if(tracked.inChunk) {
+				this.adjustSection(tracked.type, tracked.chunkX, tracked.chunkY, tracked.chunkZ, -1);
+			}
+		}
+	}
+
+	private void adjustSection(Class<? extends Entity> type, int chunkX, int chunkY, int chunkZ, int amount) {
+		long key = ChunkPos.asLong(chunkX, chunkZ);
+		ChunkCounts counts = this.chunkCounts.get(key);
+
+		if(counts == null) {
+			if(amount <= 0) {
+				return;
+			}
+			this.chunkCounts.put(key, counts = new ChunkCounts());
+		}
+
+		TObjectIntHashMap<Class<? extends Entity>> sectionCounts = counts.sectionCounts[chunkY];
+		if(sectionCounts == null) {
+			counts.sectionCounts[chunkY] = sectionCounts = new TObjectIntHashMap<>();
+		}
+
+		if(sectionCounts.adjustOrPutValue(type, amount, amount) <= 0) {
+			sectionCounts.remove(type);
+		}
+		if(counts.counts.adjustOrPutValue(type, amount, amount) <= 0) {
+			counts.counts.remove(type);
+		}
+
+		counts.size += amount;
+		if(counts.size <= 0) {
+			this.chunkCounts.remove(key);
+		}
+	}
+
+	@Override
+	public void notifyBlockUpdate(World world, BlockPos pos, IBlockState oldState, IBlockState newState, int flags) { }
+
+	@Override
+	public void notifyLightSet(BlockPos pos) { }
+
+	@Override
+	public void markBlockRangeForRenderUpdate(int x1, int y1, int z1, int x2, int y2, int z2) { }
+
+	@Override
+	public void playSoundToAllNearExcept(EntityPlayer player, SoundEvent sound, SoundCategory category, double x, double y, double z, float volume, float pitch) { }
+
+	@Override
+	public void playRecord(SoundEvent sound, BlockPos pos) { }
+
+	@Override
+	public void spawnParticle(int particleID, boolean ignoreRange, double x, double y, double z, double xSpeed, double ySpeed, double zSpeed, int... parameters) { }
+
+	@Override
+	public void spawnParticle(int id, boolean ignoreRange, boolean minimiseParticleLevel, double x, double y, double z, double xSpeed, double ySpeed, double zSpeed, int... parameters) { }
+
+	@Override
+	public void broadcastSound(int soundID, BlockPos pos, int data) { }
+
+	@Override
+	public void playEvent(EntityPlayer player, int type, BlockPos pos, int data) { }
+
+	@Override
+	public void sendBlockBreakProgress(int breakerId, BlockPos pos, int progress) { }
+}
@@ -1,26 +1,24 @@
 package thebetweenlands.common.world.biome.spawning;
 
 import java.lang.reflect.Constructor;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.Iterator;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.Random;
+import java.util.WeakHashMap;
+
+import javax.annotation.Nullable;
 
 import gnu.trove.map.hash.TObjectIntHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityLiving;
 import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.entity.IEntityLivingData;
-import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.nbt.NBTTagCompound;
-import net.minecraft.server.management.PlayerChunkMapEntry;
-import net.minecraft.util.ClassInheritanceMultiMap;
 import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.util.math.ChunkPos;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.world.World;
 import net.minecraft.world.WorldServer;
@@ -28,6 +26,9 @@ import net.minecraft.world.biome.Biome;
 import net.minecraft.world.chunk.Chunk;
 import net.minecraftforge.common.DimensionManager;
 import net.minecraftforge.event.ForgeEventFactory;
+import net.minecraftforge.event.entity.EntityEvent;
+import net.minecraftforge.event.world.ChunkWatchEvent;
+import net.minecraftforge.event.world.WorldEvent;
 import net.minecraftforge.fml.common.eventhandler.Event.Result;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
@@ -37,7 +38,7 @@ import thebetweenlands.common.world.biome.BiomeBetweenlands;
 import thebetweenlands.common.world.storage.BetweenlandsWorldStorage;
 import thebetweenlands.common.world.storage.BetweenlandsWorldStorage.BiomeSpawnEntriesData;
 import thebetweenlands.util.IWeightProvider;
-import thebetweenlands.util.WeightedList;
+import thebetweenlands.util.TickProfiler;
 import thebetweenlands.util.config.ConfigHandler;
 
 public class MobSpawnHandler {
@@ -124,7 +125,8 @@ public class MobSpawnHandler {
 		}
 		
 		/**
-		 * Returns whether an entity can spawn based on the spawning position and the surface block below
+		 * Returns whether an entity can spawn based on the spawning position and the surface block below.
+		 * Player proximity checks should use {@link MobSpawnHandler#getPlayerGrid(World)}.
 		 * @param world
 		 * @param pos
 		 * @param blockState The block where the entity will spawn
@@ -300,6 +302,111 @@ public class MobSpawnHandler {
 		}
 	}
 
+	private final Map<World, EntityCensus> censuses = new WeakHashMap<>();
+
+	/**
+	 * Returns the entity census of the specified world. The census is created
+	 * on demand for Betweenlands server worlds.
+	 * @param world
+	 * @return
+	 */
+	@Nullable
+	public EntityCensus getCensus(World world) {
+		EntityCensus census = this.censuses.get(world);
+		if(census == null && !world.isRemote && world.provider instanceof WorldProviderBetweenlands) {
+			census = new EntityCensus(world);
+			world.addEventListener(census);
+			census.rebuild();
+			this.censuses.put(world, census);
+		}
+		return census;
+	}
+
+	private final Map<World, SpawnerChunkTracker> spawnerChunkTrackers = new WeakHashMap<>();
+
+	/**
+	 * Returns the spawner chunk tracker of the specified world
+	 * @param world
+	 * @return
+	 */
+	public SpawnerChunkTracker getSpawnerChunkTracker(WorldServer world) {
+		SpawnerChunkTracker tracker = this.spawnerChunkTrackers.get(world);
+		if(tracker == null) {
+			this.spawnerChunkTrackers.put(world, tracker = new SpawnerChunkTracker(world, SPAWN_CHUNK_RANGE));
+		}
+		return tracker;
+	}
+
+	private final Map<World, PlayerGrid> playerGrids = new WeakHashMap<>();
+
+	/**
+	 * Returns the player grid of the specified world. The grid is
+	 * up to date for the current tick.
+	 * @param world
+	 * @return
+	 */
+	public PlayerGrid getPlayerGrid(World world) {
+		PlayerGrid grid = this.playerGrids.get(world);
+		if(grid == null) {
+			this.playerGrids.put(world, grid = new PlayerGrid(world));
+		}
+		grid.update();
+		return grid;
+	}
+
+	private final Map<World, SpawningScheduler> spawningSchedulers = new WeakHashMap<>();
+
+	/**
+	 * Returns the spawning scheduler of the specified world
+	 * @param world
+	 * @return
+	 */
+	public SpawningScheduler getSpawningScheduler(World world) {
+		SpawningScheduler scheduler = this.spawningSchedulers.get(world);
+		if(scheduler == null) {
+			this.spawningSchedulers.put(world, scheduler = new SpawningScheduler());
+		}
+		return scheduler;
+	}
+
+	@SubscribeEvent
+	public void onWorldUnload(WorldEvent.Unload event) {
+		EntityCensus census = this.censuses.remove(event.getWorld());
+		if(census != null) {
+			event.getWorld().removeEventListener(census);
+		}
+		this.spawnerChunkTrackers.remove(event.getWorld());
+		this.playerGrids.remove(event.getWorld());
+		this.spawningSchedulers.remove(event.getWorld());
+	}
+
+	@SubscribeEvent
+	public void onWatchChunk(ChunkWatchEvent.Watch event) {
+		SpawnerChunkTracker tracker = this.spawnerChunkTrackers.get(event.getPlayer().world);
+		if(tracker != null) {
+			tracker.markForCheck(event.getChunk().x, event.getChunk().z);
+		}
+	}
+
+	@SubscribeEvent
+	public void onUnwatchChunk(ChunkWatchEvent.UnWatch event) {
+		SpawnerChunkTracker tracker = this.spawnerChunkTrackers.get(event.getPlayer().world);
+		if(tracker != null) {
+			tracker.markForCheck(event.getChunk().x, event.getChunk().z);
+		}
+	}
+
+	@SubscribeEvent
+	public void onEnteringChunk(EntityEvent.EnteringChunk event) {
+		if(event.getEntity().world.isRemote) {
+			return;
+		}
+		EntityCensus census = this.censuses.get(event.getEntity().world);
+		if(census != null) {
+			census.onEnteringChunk(event.getEntity(), event.getNewChunkX(), event.getNewChunkZ());
+		}
+	}
+
 	@SubscribeEvent
 	public void onServerTick(ServerTickEvent event) {
 		if(event.phase == Phase.END) {
@@ -307,10 +414,17 @@ public class MobSpawnHandler {
 			if(world == null || world.playerEntities.isEmpty())
 				return;
 
-			if(world.getGameRules().getBoolean("doMobSpawning") && world.getWorldTime() % 6 == 0) {
-				//long start = System.nanoTime();
-				this.populateWorld(world);
-				//System.out.println("Time: " + (System.nanoTime() - start) / 1000000.0F);
+			if(world.getGameRules().getBoolean("doMobSpawning")) {
+				TickProfiler.MOB_SPAWNING.start();
+				try {
+					SpawningScheduler scheduler = this.getSpawningScheduler(world);
+					if(!scheduler.hasBacklog() && world.getWorldTime() % 6 == 0) {
+						this.startSpawningPass(world, scheduler);
+					}
+					this.continueSpawningPass(world, scheduler);
+				} finally {
+					TickProfiler.MOB_SPAWNING.stop();
+				}
 			}
 		}
 	}
@@ -323,53 +437,51 @@ public class MobSpawnHandler {
 			boolean spawnHostiles = ((WorldProviderBetweenlands)world.provider).getCanSpawnHostiles();
 			boolean spawnAnimals = ((WorldProviderBetweenlands)world.provider).getCanSpawnAnimals();
 
-			//long start = System.nanoTime();
-			int spawnedEntities = 0;
-			spawnedEntities += this.populateChunk(world, new ChunkPos(chunkX, chunkZ), spawnHostiles, spawnAnimals, false, true,
-					SPAWNING_ATTEMPTS_PER_CHUNK * CHUNK_GEN_SPAWN_RUNS, 60, SPAWNING_ATTEMPTS_PER_GROUP, HARD_ENTITY_LIMIT, 1.0F);
-			//System.out.println("Spawned: " + spawnedEntities + " Time: " + (System.nanoTime() - start) / 1000000.0F);
+			TickProfiler.MOB_SPAWNING.start();
+			try {
+				this.populateChunk(world, chunkX, chunkZ, spawnHostiles, spawnAnimals, false, true,
+						SPAWNING_ATTEMPTS_PER_CHUNK * CHUNK_GEN_SPAWN_RUNS, 60, SPAWNING_ATTEMPTS_PER_GROUP, HARD_ENTITY_LIMIT, 1.0F, this.getSpawningScheduler(world).getEntityCounts());
+			} finally {
+				TickProfiler.MOB_SPAWNING.stop();
+			}
 		}
 	}
 
-	private void populateWorld(WorldServer world) {
+	/**
+	 * Prepares a new spawning pass over the shuffled spawner chunks. The chunks
+	 * are populated by {@link #continueSpawningPass(WorldServer, SpawningScheduler)}
+	 * @param world
+	 * @param scheduler
+	 */
+	private void startSpawningPass(WorldServer world, SpawningScheduler scheduler) {
 		if(world.provider instanceof WorldProviderBetweenlands == false) {
 			return;
 		}
 
-		int totalWorldEntityCount = 0;
-		for(Entity entity : (List<Entity>)world.loadedEntityList) {
-			if(entity instanceof EntityLivingBase) {
-				totalWorldEntityCount++;
-			}
-		}
+		EntityCensus census = this.getCensus(world);
+
+		int totalWorldEntityCount = census.getTotalCount();
 
 		if(totalWorldEntityCount >= HARD_ENTITY_LIMIT) {
 			//Hard limit reached, don't spawn any more entities
 			return;
 		}
 
-		this.updateSpawnerChunks(world);
+		SpawnerChunkTracker tracker = this.getSpawnerChunkTracker(world);
+		tracker.update();
 
-		if(this.eligibleChunksForSpawning.isEmpty()) {
+		if(tracker.getEligibleChunks().isEmpty()) {
 			//No spawning chunks
 			return;
 		}
 
-		List<ChunkPos> spawnerChunks = new ArrayList<ChunkPos>(this.eligibleChunksForSpawning.size());
-
 		//Add valid chunks
-		for(ChunkPos chunkPos : this.eligibleChunksForSpawning) {
-			//Don't load chunks
-			if(world.isBlockLoaded(new BlockPos(chunkPos.x * 16, 64, chunkPos.z * 16))) {
-				spawnerChunks.add(chunkPos);
-			}
-		}
+		LongArrayList spawnerChunks = tracker.getSpawnerChunks();
 
-		this.updateEntityCounts(world);
-		int totalEligibleEntityCount = 0;
-		for(int count : this.entityCounts.values()) {
-			totalEligibleEntityCount += count;
-		}
+		//The area limit and the per class limits only count the entities in the spawner chunks
+		TObjectIntHashMap<Class<? extends Entity>> entityCounts = scheduler.getEntityCounts();
+		entityCounts.clear();
+		int totalEligibleEntityCount = census.countInChunks(spawnerChunks, entityCounts);
 
 		int maxEntitiesForLoadedArea = Math.min(HARD_ENTITY_LIMIT, (int) (spawnerChunks.size() * getMaxEntitiesPerChunkMultiplier()));
 
@@ -378,7 +490,7 @@ public class MobSpawnHandler {
 			return;
 		}
 
-		Collections.shuffle(spawnerChunks);
+		shuffle(spawnerChunks, world.rand);
 
 		boolean spawnHostiles = ((WorldProviderBetweenlands)world.provider).getCanSpawnHostiles();
 		boolean spawnAnimals = ((WorldProviderBetweenlands)world.provider).getCanSpawnAnimals();
@@ -386,18 +498,91 @@ public class MobSpawnHandler {
 		//The approximate number of loaded areas (one area is the area loaded by one player)
 		float loadedAreas = (float)spawnerChunks.size() / (float)(SPAWN_CHUNK_RANGE * 2 * SPAWN_CHUNK_RANGE * 2 - 25);
 
-		for(ChunkPos chunkPos : spawnerChunks) {
-			this.populateChunk(world, chunkPos, spawnHostiles, spawnAnimals, true, false, 
-					SPAWNING_ATTEMPTS_PER_CHUNK, MAX_SPAWNS_PER_CHUNK, SPAWNING_ATTEMPTS_PER_GROUP, maxEntitiesForLoadedArea, loadedAreas);
+		scheduler.startPass(spawnerChunks, spawnHostiles, spawnAnimals, maxEntitiesForLoadedArea, totalEligibleEntityCount, loadedAreas, world.getTotalWorldTime());
+	}
+
+	/**
+	 * Populates the chunks of the current spawning pass until the
+	 * configured time budget of this tick is used up
+	 * @param world
+	 * @param scheduler
+	 */
+	private void continueSpawningPass(WorldServer world, SpawningScheduler scheduler) {
+		long start = System.nanoTime();
+		long budget = ConfigHandler.mobSpawningTickBudget * 1000L;
+		int processedChunks = 0;
+
+		while(scheduler.hasBacklog()) {
+			if(scheduler.getEntityCount() >= scheduler.getEntityLimit()) {
+				//Too many entities, don't spawn any more entities
+				scheduler.cancelPass();
+				break;
+			}
+
+			long chunkPos = scheduler.nextChunk();
+			int chunkX = (int) chunkPos;
+			int chunkZ = (int) (chunkPos >> 32);
+
+			//Chunk may have been unloaded since the pass has started
+			if(world.getChunkProvider().getLoadedChunk(chunkX, chunkZ) != null) {
+				scheduler.addSpawnedEntities(this.populateChunk(world, chunkX, chunkZ, scheduler.canSpawnHostiles(), scheduler.canSpawnAnimals(), true, false, 
+						SPAWNING_ATTEMPTS_PER_CHUNK, MAX_SPAWNS_PER_CHUNK, SPAWNING_ATTEMPTS_PER_GROUP, scheduler.getEntityLimit(), scheduler.getLoadedAreas(), scheduler.getEntityCounts()));
+			}
+
+			processedChunks++;
+
+			if(budget > 0 && System.nanoTime() - start >= budget) {
+				break;
+			}
+		}
+
+		scheduler.recordTick(System.nanoTime() - start, processedChunks, world.getTotalWorldTime());
+	}
+
+	private final Map<BiomeBetweenlands, BiomeSpawnTable[]> spawnTables = new IdentityHashMap<>();
+
+	/**
+	 * Returns the cached spawn table of the specified biome for the given hostile/animal settings
+	 * @param biome
+	 * @param spawnHostiles
+	 * @param spawnAnimals
+	 * @return
+	 */
+	private BiomeSpawnTable getSpawnTable(BiomeBetweenlands biome, boolean spawnHostiles, boolean spawnAnimals) {
+		BiomeSpawnTable[] tables = this.spawnTables.get(biome);
+		if(tables == null) {
+			this.spawnTables.put(biome, tables = new BiomeSpawnTable[4]);
+		}
+		int index = (spawnHostiles ? 2 : 0) | (spawnAnimals ? 1 : 0);
+		BiomeSpawnTable table = tables[index];
+		if(table == null) {
+			tables[index] = table = new BiomeSpawnTable(biome, spawnHostiles, spawnAnimals);
 		}
+		return table;
 	}
 
-	private int populateChunk(World world, ChunkPos chunkPos, boolean spawnHostiles, boolean spawnAnimals, boolean loadChunks, boolean ignoreRestrictions,
-			int attemptsPerChunk, int maxSpawnsPerChunk, int attemptsPerGroup, int entityLimit, float loadedAreas) {
+	private static void shuffle(LongArrayList list, Random rand) {
+		for(int i = list.size() - 1; i > 0; i--) {
+			int j = rand.nextInt(i + 1);
+			long tmp = list.getLong(i);
+			list.set(i, list.getLong(j));
+			list.set(j, tmp);
+		}
+	}
+
+	private int populateChunk(World world, int chunkX, int chunkZ, boolean spawnHostiles, boolean spawnAnimals, boolean loadChunks, boolean ignoreRestrictions,
+			int attemptsPerChunk, int maxSpawnsPerChunk, int attemptsPerGroup, int entityLimit, float loadedAreas, TObjectIntHashMap<Class<? extends Entity>> entityCounts) {
+		EntityCensus census = this.getCensus(world);
+		if(census == null) {
+			return 0;
+		}
+
+		PlayerGrid playerGrid = this.getPlayerGrid(world);
+
 		int attempts = 0, chunkSpawnedEntities = 0;
 		spawnLoop:
 			while(attempts++ < attemptsPerChunk && chunkSpawnedEntities < maxSpawnsPerChunk) {
-				BlockPos spawnPos = this.getRandomSpawnPosition(world, chunkPos);
+				BlockPos spawnPos = this.getRandomSpawnPosition(world, chunkX, chunkZ);
 				Biome biome = world.getBiome(spawnPos);
 
 				if(world.rand.nextFloat() > biome.getSpawningChance() || biome instanceof BiomeBetweenlands == false) 
@@ -408,37 +593,25 @@ public class MobSpawnHandler {
 				if(centerSpawnBlockState.isNormalCube()) 
 					continue;
 
-				int totalBaseWeight = 0;
-				int totalWeight = 0;
-
 				//Get possible spawn entries and update weights
-				List<BLSpawnEntry> biomeSpawns = ((BiomeBetweenlands)biome).getSpawnEntries();
-				List<BLSpawnEntry> possibleSpawns = new ArrayList<BLSpawnEntry>();
-				for(BLSpawnEntry spawnEntry : biomeSpawns) {
-					if(!((spawnEntry.isHostile() && !spawnHostiles) || (!spawnEntry.isHostile() && !spawnAnimals))) {
-						totalBaseWeight += spawnEntry.getBaseWeight();
-						possibleSpawns.add(spawnEntry);
-						spawnEntry.update(world, spawnPos);
-						totalWeight += spawnEntry.getWeight();
-					}
-				}
+				BiomeSpawnTable spawnTable = this.getSpawnTable((BiomeBetweenlands)biome, spawnHostiles, spawnAnimals);
+				spawnTable.update(world, spawnPos);
 
-				if(possibleSpawns.isEmpty())
+				if(spawnTable.isEmpty())
 					continue;
 
-				WeightedList<BLSpawnEntry> weightedPossibleSpawns = new WeightedList<BLSpawnEntry>();
-				weightedPossibleSpawns.addAll(possibleSpawns);
-				weightedPossibleSpawns.recalculateWeight();
-
-				BLSpawnEntry spawnEntry = weightedPossibleSpawns.getRandomItem(world.rand);
+				BLSpawnEntry spawnEntry = spawnTable.getRandomEntry(world.rand);
 				if(spawnEntry == null) {
 					continue;
 				}
 
+				int totalBaseWeight = spawnTable.getTotalBaseWeight();
+				int totalWeight = spawnTable.getTotalWeight();
+
 				int dynamicLimitBase = (int)((double)entityLimit / (double)totalBaseWeight * spawnEntry.getBaseWeight());
 				int dynamicLimit = (int)((double)entityLimit / (double)totalWeight * spawnEntry.getWeight());
 
-				int spawnEntityCount = this.entityCounts.get(spawnEntry.entityType);
+				int spawnEntityCount = entityCounts.get(spawnEntry.entityType);
 
 				if(spawnEntityCount >= Math.max(dynamicLimit, dynamicLimitBase) || (spawnEntry.getWorldLimit() >= 0 && spawnEntityCount >= spawnEntry.getWorldLimit())) {
 					//Entity reached world spawning limit
@@ -454,7 +627,7 @@ public class MobSpawnHandler {
 				int cez = MathHelper.floor(spawnPos.getZ() + groupCheckRadius) >> 4;
 				for (int cx = csx; cx <= cex; ++cx) {
 					for (int cz = csz; cz <= cez; ++cz) {
-						if(world.getChunkProvider().getLoadedChunk(cx, cz) == null && (cx != chunkPos.x || cz != chunkPos.z)) {
+						if(world.getChunkProvider().getLoadedChunk(cx, cz) == null && (cx != chunkX || cz != chunkZ)) {
 							continue spawnLoop;
 						}
 					}
@@ -504,12 +677,12 @@ public class MobSpawnHandler {
 					while(groupSpawnAttempts++ < maxGroupSpawnAttempts && groupSpawnedEntities < desiredGroupSize) {
 						BlockPos entitySpawnPos = this.getRandomSpawnPosition(world, spawnPos, MathHelper.floor(groupSpawnRadius));
 
-						boolean inChunk = (entitySpawnPos.getX() >> 4) == chunkPos.x && (entitySpawnPos.getZ() >> 4) == chunkPos.z;
+						boolean inChunk = (entitySpawnPos.getX() >> 4) == chunkX && (entitySpawnPos.getZ() >> 4) == chunkZ;
 
 						if(!loadChunks && !inChunk)
 							continue;
 
-						if(world.getClosestPlayer(entitySpawnPos.getX(), entitySpawnPos.getY(), entitySpawnPos.getZ(), 24D, false) != null)
+						if(playerGrid.isPlayerInRange(entitySpawnPos.getX(), entitySpawnPos.getY(), entitySpawnPos.getZ(), 24D))
 							continue;
 
 						IBlockState spawnBlockState = world.getBlockState(entitySpawnPos);
@@ -519,24 +692,12 @@ public class MobSpawnHandler {
 
 						int spawnSegmentY = entitySpawnPos.getY() / 16;
 						Chunk spawnChunk = world.getChunkFromBlockCoords(entitySpawnPos);
-						ClassInheritanceMultiMap<Entity>[] entityLists = spawnChunk.getEntityLists();
-						int chunkEntityCount = 0;
-						for(int l = 0; l < entityLists.length; l++) {
-							int subChunkEntityCount = 0;
-							for(Entity entity : entityLists[l]) {
-								if(entity.getClass() == spawnEntry.entityType) {
-									subChunkEntityCount++;
-									chunkEntityCount++;
-								}
-							}
-							if(l == spawnSegmentY) {
-								if(spawnEntry.getSubChunkLimit() >= 0 && subChunkEntityCount >= spawnEntry.getSubChunkLimit())
-									//Entity reached sub chunk limit
-									continue;
-							}
-						}
 
-						if(spawnEntry.getChunkLimit() >= 0 && chunkEntityCount >= spawnEntry.getChunkLimit())
+						if(spawnEntry.getSubChunkLimit() >= 0 && census.getSubChunkCount(spawnEntry.entityType, spawnChunk.x, spawnSegmentY, spawnChunk.z) >= spawnEntry.getSubChunkLimit())
+							//Entity reached sub chunk limit
+							continue;
+
+						if(spawnEntry.getChunkLimit() >= 0 && census.getChunkCount(spawnEntry.entityType, spawnChunk.x, spawnChunk.z) >= spawnEntry.getChunkLimit())
 							//Entity reached chunk limit
 							continue;
 
@@ -584,10 +745,10 @@ public class MobSpawnHandler {
 		return chunkSpawnedEntities;
 	}
 
-	private BlockPos getRandomSpawnPosition(World world, ChunkPos chunkPos) {
-		Chunk chunk = world.getChunkFromChunkCoords(chunkPos.x, chunkPos.z);
-		int x = chunkPos.x * 16 + world.rand.nextInt(16);
-		int z = chunkPos.z * 16 + world.rand.nextInt(16);
+	private BlockPos getRandomSpawnPosition(World world, int chunkX, int chunkZ) {
+		Chunk chunk = world.getChunkFromChunkCoords(chunkX, chunkZ);
+		int x = chunkX * 16 + world.rand.nextInt(16);
+		int z = chunkZ * 16 + world.rand.nextInt(16);
 		int y = Math.min(world.rand.nextInt(chunk == null ? world.getActualHeight() : chunk.getTopFilledSegment() + 16 - 1), 256);
 		return new BlockPos(x, y, z);
 	}
@@ -598,75 +759,4 @@ public class MobSpawnHandler {
 				MathHelper.clamp(centerPos.getY() + world.rand.nextInt(4) - 2, 1, world.getHeight()),
 				centerPos.getZ() + world.rand.nextInt(radius*2) - radius);
 	}
-
-	private Set<ChunkPos> eligibleChunksForSpawning = new HashSet<>();
-
-	/**
-	 * Clears eligibleChunksForSpawning, finds chunks entities can spawn in and adds them to eligibleChunksForSpawning
-	 * @param world
-	 */
-	private void updateSpawnerChunks(WorldServer world) {
-		/*for(EntityPlayer player : (List<EntityPlayer>) world.playerEntities) {
-			int pcx = player.chunkCoordX;
-			int pcz = player.chunkCoordZ;
-			for(int cox = -SPAWN_CHUNK_DISTANCE; cox <= SPAWN_CHUNK_DISTANCE; cox++) {
-				for(int coz = -SPAWN_CHUNK_DISTANCE; coz <= SPAWN_CHUNK_DISTANCE; coz++) {
-					int cx = pcx + cox;
-					int cz = pcz + coz;
-					ChunkPos chunkPos = new ChunkPos(cx, cz);
-					boolean isOuterChunk = (Math.abs(cox - SPAWN_CHUNK_DISTANCE) < SPAWN_CHUNK_RIM) || (Math.abs(coz - SPAWN_CHUNK_DISTANCE) < SPAWN_CHUNK_RIM);
-					if(isOuterChunk) {
-						if(!this.eligibleChunksForSpawning.containsKey(chunkPos))
-							this.eligibleChunksForSpawning.put(chunkPos, true);
-					} else {
-						this.eligibleChunksForSpawning.put(chunkPos, false);
-					}
-				}
-			}
-		}*/
-		this.eligibleChunksForSpawning.clear();
-
-		for (EntityPlayer entityplayer : world.playerEntities) {
-			if (!entityplayer.isSpectator()) {
-				int cx = MathHelper.floor(entityplayer.posX / 16.0D);
-				int cz = MathHelper.floor(entityplayer.posZ / 16.0D);
-
-				for (int xo = -SPAWN_CHUNK_RANGE; xo <= SPAWN_CHUNK_RANGE; ++xo) {
-					for (int zo = -SPAWN_CHUNK_RANGE; zo <= SPAWN_CHUNK_RANGE; ++zo) {
-						boolean isBorder = xo == -SPAWN_CHUNK_RANGE || xo == SPAWN_CHUNK_RANGE || zo == -SPAWN_CHUNK_RANGE || zo == SPAWN_CHUNK_RANGE;
-						ChunkPos chunkpos = new ChunkPos(xo + cx, zo + cz);
-
-						if (!this.eligibleChunksForSpawning.contains(chunkpos)) {
-							if (!isBorder && world.getWorldBorder().contains(chunkpos)) {
-								PlayerChunkMapEntry playerchunkmapentry = world.getPlayerChunkMap().getEntry(chunkpos.x, chunkpos.z);
-
-								if (playerchunkmapentry != null && playerchunkmapentry.isSentToPlayers()) {
-									this.eligibleChunksForSpawning.add(chunkpos);
-								}
-							}
-						}
-					}
-				}
-			}
-		}
-	}
-
-	private TObjectIntHashMap<Class<? extends Entity>> entityCounts = new TObjectIntHashMap<Class<? extends Entity>>();
-
-	private void updateEntityCounts(World world) {
-		this.entityCounts.clear();
-		for(ChunkPos chunkPos : this.eligibleChunksForSpawning) {
-			if(world.getChunkProvider().getLoadedChunk(chunkPos.x, chunkPos.z) != null) {
-				Chunk chunk = world.getChunkFromChunkCoords(chunkPos.x, chunkPos.z);
-				ClassInheritanceMultiMap<Entity>[] entityLists = chunk.getEntityLists();
-				for(ClassInheritanceMultiMap<Entity> entityList : entityLists) {
-					for(Entity entity : entityList) {
-						if(entity instanceof EntityLivingBase) {
-							this.entityCounts.adjustOrPutValue(entity.getClass(), 1, 1);
-						}
-					}
-				}
-			}
-		}
-	}
 }
@@ -0,0 +1,154 @@
+package thebetweenlands.common.world.biome.spawning;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.World;
+import thebetweenlands.util.TickProfiler;
+
+/**
+ * Non-spectating players of a world bucketed by the chunk they are in. The grid is rebuilt
+ * at most once per tick and allows player proximity checks without scanning all players.
+ * Queries behave like {@link World#getClosestPlayer(double, double, double, double, boolean)}
+ * with spectators excluded.
+ */
+public class PlayerGrid {
+	private final World world;
+
+	private long lastUpdate = Long.MIN_VALUE;
+
+	private final Long2ObjectMap<List<EntityPlayer>> buckets = new Long2ObjectOpenHashMap<>();
+	private final List<EntityPlayer> players = new ArrayList<>();
+	private final List<List<EntityPlayer>> bucketPool = new ArrayList<>();
+
+	public PlayerGrid(World world) {
+		this.world = world;
+	}
+
+	/**
+	 * Rebuilds the grid if it has not been built yet during this tick
+	 */
+	public void update() {
+		long time = this.world.getTotalWorldTime();
+		if(time != this.lastUpdate) {
+			this.lastUpdate = time;
+			this.rebuild();
+		}
+	}
+
+	private void rebuild() {
+		for(List<EntityPlayer> bucket : this.buckets.values()) {
+			bucket.clear();
+			this.bucketPool.add(bucket);
+		}
+		this.buckets.clear();
+		this.players.clear();
+
+		for(EntityPlayer player : this.world.playerEntities) {
+			if(!player.isSpectator()) {
+				long key = ChunkPos.asLong(MathHelper.floor(player.posX) >> 4, MathHelper.floor(player.posZ) >> 4);
+				List<EntityPlayer> bucket = this.buckets.get(key);
+				if(bucket == null) {
+					bucket = this.bucketPool.isEmpty() ? new ArrayList<>(2) : this.bucketPool.remove(this.bucketPool.size() - 1);
+					this.buckets.put(key, bucket);
+				}
+				bucket.add(player);
+				this.players.add(player);
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of non-spectating players in the grid
+	 * @return
+	 */
+	public int getPlayerCount() {
+		return this.players.size();
+	}
+
+	/**
+	 * Returns whether there is a non-spectating player closer than the specified range
+	 * @param x
+	 * @param y
+	 * @param z
+	 * @param range
+	 * @return
+	 */
+	public boolean isPlayerInRange(double x, double y, double z, double range) {
+		return this.getClosestPlayer(x, y, z, range) != null;
+	}
+
+	/**
+	 * Returns the closest non-spectating player closer than the specified range
+	 * @param x
+	 * @param y
+	 * @param z
+	 * @param range
+	 * @return
+	 */
+	@Nullable
+	public EntityPlayer getClosestPlayer(double x, double y, double z, double range) {
+		TickProfiler.PLAYER_PROXIMITY.start();
+		try {
+			return this.findClosestPlayer(x, y, z, range);
+		} finally {
+			TickProfiler.PLAYER_PROXIMITY.stop();
+		}
+	}
+
+	@Nullable
+	private EntityPlayer findClosestPlayer(double x, double y, double z, double range) {
+		this.update();
+
+		if(this.players.isEmpty()) {
+			return null;
+		}
+
+		int minX = MathHelper.floor(x - range) >> 4;
+		int maxX = MathHelper.floor(x + range) >> 4;
+		int minZ = MathHelper.floor(z - range) >> 4;
+		int maxZ = MathHelper.floor(z + range) >> 4;
+
+		double rangeSq = range * range;
+
+		//Scanning all players is cheaper than looking up more buckets than there are players
+		if((maxX - minX + 1) * (maxZ - minZ + 1) >= this.players.size()) {
+			return getClosestPlayer(this.players, x, y, z, rangeSq, null, Double.MAX_VALUE);
+		}
+
+		EntityPlayer closest = null;
+		double closestDistSq = Double.MAX_VALUE;
+		for(int cx = minX; cx <= maxX; cx++) {
+			for(int cz = minZ; cz <= maxZ; cz++) {
+				List<EntityPlayer> bucket = this.buckets.get(ChunkPos.asLong(cx, cz));
+				if(bucket != null) {
+					EntityPlayer player = getClosestPlayer(bucket, x, y, z, rangeSq, closest, closestDistSq);
+					if(player != closest) {
+						closest = player;
+						closestDistSq = player.getDistanceSq(x, y, z);
+					}
+				}
+			}
+		}
+		return closest;
+	}
+
+	private static EntityPlayer getClosestPlayer(List<EntityPlayer> players, double x, double y, double z, double rangeSq, @Nullable EntityPlayer closest, double closestDistSq) {
+		for(int i = 0; i < players.size(); i++) {
+			EntityPlayer player = players.get(i);
+			double distSq = player.getDistanceSq(x, y, z);
+			if(distSq < rangeSq && distSq < closestDistSq) {
+				closest = player;
+				closestDistSq = distSq;
+			}
+		}
+		return closest;
+	}
+}
@@ -0,0 +1,191 @@
+package thebetweenlands.common.world.biome.spawning;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.server.management.PlayerChunkMapEntry;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.border.WorldBorder;
+
+/**
+ * Keeps track of the chunks mobs can spawn in. Chunks are keyed by {@link ChunkPos#asLong(int, int)}.
+ * The set of eligible chunks is only updated when a player moves to another chunk,
+ * when a player joins or leaves the world or when a chunk is (un)watched by a player,
+ * instead of being rebuilt around every player on each spawning run.
+ */
+public class SpawnerChunkTracker {
+	private final WorldServer world;
+	private final int range;
+
+	//Number of players whose spawning area covers a chunk
+	private final Long2IntMap coverage = new Long2IntOpenHashMap();
+	private final LongSet eligibleChunks = new LongOpenHashSet();
+	private final LongSet pendingChecks = new LongOpenHashSet();
+
+	private final Map<EntityPlayer, TrackedPlayer> trackedPlayers = new HashMap<>();
+	private int updateCounter = 0;
+
+	private double borderMinX, borderMinZ, borderMaxX, borderMaxZ;
+
+	private final LongArrayList spawnerChunks = new LongArrayList();
+
+	private static class TrackedPlayer {
+		private boolean covering = false;
+		private int chunkX, chunkZ;
+		private int lastUpdate;
+	}
+
+	/**
+	 * @param world
+	 * @param range Chunk range around players, the outermost ring of chunks is not eligible
+	 */
+	public SpawnerChunkTracker(WorldServer world, int range) {
+		this.world = world;
+		this.range = range;
+	}
+
+	/**
+	 * Updates the tracked players and the eligible chunks that are affected by their changes
+	 */
+	public void update() {
+		this.updateCounter++;
+
+		WorldBorder border = this.world.getWorldBorder();
+		if(border.minX() != this.borderMinX || border.minZ() != this.borderMinZ || border.maxX() != this.borderMaxX || border.maxZ() != this.borderMaxZ) {
+			this.borderMinX = border.minX();
+			this.borderMinZ = border.minZ();
+			this.borderMaxX = border.maxX();
+			this.borderMaxZ = border.maxZ();
+			this.pendingChecks.addAll(this.coverage.keySet());
+		}
+
+		for(EntityPlayer player : this.world.playerEntities) {
+			TrackedPlayer tracked = this.trackedPlayers.get(player);
+			if(tracked == null) {
+				this.trackedPlayers.put(player, tracked = new TrackedPlayer());
+			}
+			tracked.lastUpdate = this.updateCounter;
+
+			boolean covering = !player.isSpectator();
+			int cx = MathHelper.floor(player.posX / 16.0D);
+			int cz = MathHelper.floor(player.posZ / 16.0D);
+
+			if(tracked.covering && (!covering || tracked.chunkX != cx || tracked.chunkZ != cz)) {
+				this.cover(tracked.chunkX, tracked.chunkZ, -1);
+				tracked.covering = false;
+			}
+
+			if(covering && !tracked.covering) {
+				this.cover(cx, cz, 1);
+				tracked.covering = true;
+				tracked.chunkX = cx;
+				tracked.chunkZ = cz;
+			}
+		}
+
+		Iterator<Entry<EntityPlayer, TrackedPlayer>> it = this.trackedPlayers.entrySet().iterator();
+		while(it.hasNext()) {
+			TrackedPlayer tracked = it.next().getValue();
+			if(tracked.lastUpdate != this.updateCounter) {
+				if(tracked.covering) {
+					this.cover(tracked.chunkX, tracked.chunkZ, -1);
+				}
+				it.remove();
+			}
+		}
+
+		if(!this.pendingChecks.isEmpty()) {
+			LongIterator pendingIT = this.pendingChecks.iterator();
+			while(pendingIT.hasNext()) {
+				long key = pendingIT.nextLong();
+				if(this.coverage.containsKey(key) && this.isEligible((int) key, (int) (key >> 32))) {
+					this.eligibleChunks.add(key);
+				} else {
+					this.eligibleChunks.remove(key);
+				}
+			}
+			this.pendingChecks.clear();
+		}
+	}
+
+	/**
+	 * Marks the specified chunk for an eligibility check during the next update, e.g. when
+	 * its {@link PlayerChunkMapEntry} was sent to or removed from a player
+	 * @param chunkX
+	 * @param chunkZ
+	 */
+	public void markForCheck(int chunkX, int chunkZ) {
+		long key = ChunkPos.asLong(chunkX, chunkZ);
+		if(this.coverage.containsKey(key)) {
+			this.pendingChecks.add(key);
+		}
+	}
+
+	private void cover(int centerX, int centerZ, int amount) {
+		//The outermost ring of chunks is excluded
+		int innerRange = this.range - 1;
+		for(int xo = -innerRange; xo <= innerRange; xo++) {
+			for(int zo = -innerRange; zo <= innerRange; zo++) {
+				long key = ChunkPos.asLong(centerX + xo, centerZ + zo);
+				int players = this.coverage.get(key) + amount;
+				if(players <= 0) {
+					this.coverage.remove(key);
+					this.pendingChecks.add(key);
+				} else {
+					this.coverage.put(key, players);
+					if(players == amount) {
+						this.pendingChecks.add(key);
+					}
+				}
+			}
+		}
+	}
+
+	private boolean isEligible(int chunkX, int chunkZ) {
+		//Same as WorldBorder#contains(ChunkPos)
+		int minX = chunkX << 4;
+		int minZ = chunkZ << 4;
+		if(minX + 15 > this.borderMinX && minX < this.borderMaxX && minZ + 15 > this.borderMinZ && minZ < this.borderMaxZ) {
+			PlayerChunkMapEntry entry = this.world.getPlayerChunkMap().getEntry(chunkX, chunkZ);
+			return entry != null && entry.isSentToPlayers();
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the chunks that are currently eligible for spawning
+	 * @return
+	 */
+	public LongSet getEligibleChunks() {
+		return this.eligibleChunks;
+	}
+
+	/**
+	 * Returns the eligible chunks that are loaded. The returned list is reused
+	 * and only valid until the next call.
+	 * @return
+	 */
+	public LongArrayList getSpawnerChunks() {
+		this.spawnerChunks.clear();
+		LongIterator it = this.eligibleChunks.iterator();
+		while(it.hasNext()) {
+			long key = it.nextLong();
+			//Don't load chunks
+			if(this.world.getChunkProvider().getLoadedChunk((int) key, (int) (key >> 32)) != null) {
+				this.spawnerChunks.add(key);
+			}
+		}
+		return this.spawnerChunks;
+	}
+}
@@ -0,0 +1,203 @@
+package thebetweenlands.common.world.biome.spawning;
+
+import gnu.trove.map.hash.TObjectIntHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.entity.Entity;
+
+/**
+ * Holds the state of a mob spawning pass that is spread over several ticks.
+ * The shuffled spawner chunks of a pass are processed in order and the cursor
+ * is carried over to the next tick once the tick's time budget is used up.
+ * Also records the per-tick spawning cost and backlog.
+ */
+public class SpawningScheduler {
+	//Weight of the latest tick in the moving average
+	private static final double AVERAGE_WEIGHT = 0.05D;
+
+	private final LongArrayList chunks = new LongArrayList();
+	private int cursor = 0;
+	private boolean passRunning = false;
+
+	private boolean spawnHostiles, spawnAnimals;
+	private int entityLimit;
+	private int entityCount;
+	private final TObjectIntHashMap<Class<? extends Entity>> entityCounts = new TObjectIntHashMap<>();
+	private float loadedAreas;
+	private long passStartTick;
+
+	private long lastTickNanos = 0;
+	private int lastTickChunks = 0;
+	private double averageTickNanos = 0;
+	private long maxTickNanos = 0;
+	private int completedPasses = 0;
+	private int cancelledPasses = 0;
+	private long lastPassTicks = 0;
+
+	/**
+	 * Starts a new spawning pass over the specified chunks. Any remaining backlog is discarded.
+	 * @param spawnerChunks Shuffled spawner chunks, keyed by ChunkPos#asLong. The list is copied
+	 * @param spawnHostiles
+	 * @param spawnAnimals
+	 * @param entityLimit
+	 * @param entityCount Number of living entities in the spawner chunks at the start of the pass
+	 * @param loadedAreas
+	 * @param tick
+	 */
+	public void startPass(LongArrayList spawnerChunks, boolean spawnHostiles, boolean spawnAnimals, int entityLimit, int entityCount, float loadedAreas, long tick) {
+		this.chunks.clear();
+		this.chunks.addAll(spawnerChunks);
+		this.cursor = 0;
+		this.passRunning = true;
+		this.spawnHostiles = spawnHostiles;
+		this.spawnAnimals = spawnAnimals;
+		this.entityLimit = entityLimit;
+		this.entityCount = entityCount;
+		this.loadedAreas = loadedAreas;
+		this.passStartTick = tick;
+	}
+
+	/**
+	 * Discards the remaining chunks of the current pass. The pass is recorded as cancelled
+	 */
+	public void cancelPass() {
+		if(this.passRunning) {
+			this.cancelledPasses++;
+		}
+		this.endPass();
+	}
+
+	private void endPass() {
+		this.chunks.clear();
+		this.cursor = 0;
+		this.passRunning = false;
+	}
+
+	/**
+	 * Returns whether the current pass still has chunks left to process
+	 * @return
+	 */
+	public boolean hasBacklog() {
+		return this.cursor < this.chunks.size();
+	}
+
+	/**
+	 * Returns the number of chunks left to process in the current pass
+	 * @return
+	 */
+	public int getBacklog() {
+		return this.chunks.size() - this.cursor;
+	}
+
+	/**
+	 * Returns the next chunk of the current pass and advances the cursor
+	 * @return
+	 */
+	public long nextChunk() {
+		return this.chunks.getLong(this.cursor++);
+	}
+
+	public boolean canSpawnHostiles() {
+		return this.spawnHostiles;
+	}
+
+	public boolean canSpawnAnimals() {
+		return this.spawnAnimals;
+	}
+
+	public int getEntityLimit() {
+		return this.entityLimit;
+	}
+
+	/**
+	 * Returns the number of living entities in the spawner chunks at the start
+	 * of the pass plus the entities spawned by the pass so far
+	 * @return
+	 */
+	public int getEntityCount() {
+		return this.entityCount;
+	}
+
+	/**
+	 * Adds entities spawned by the pass to the entity count
+	 * @param count
+	 */
+	public void addSpawnedEntities(int count) {
+		this.entityCount += count;
+	}
+
+	/**
+	 * Returns the number of living entities per class in the spawner chunks at the start of the
+	 * last pass. Filled by the spawn handler before the pass is started
+	 * @return
+	 */
+	public TObjectIntHashMap<Class<? extends Entity>> getEntityCounts() {
+		return this.entityCounts;
+	}
+
+	public float getLoadedAreas() {
+		return this.loadedAreas;
+	}
+
+	/**
+	 * Records the spawning cost of a tick
+	 * @param nanos
+	 * @param processedChunks
+	 * @param tick
+	 */
+	public void recordTick(long nanos, int processedChunks, long tick) {
+		this.lastTickNanos = nanos;
+		this.lastTickChunks = processedChunks;
+		this.averageTickNanos += (nanos - this.averageTickNanos) * AVERAGE_WEIGHT;
+		this.maxTickNanos = Math.max(this.maxTickNanos, nanos);
+		if(this.passRunning && !this.hasBacklog()) {
+			this.completedPasses++;
+			this.lastPassTicks = tick - this.passStartTick + 1;
+			this.endPass();
+		}
+	}
+
+	/**
+	 * Resets the recorded maximum tick cost and the pass counters
+	 */
+	public void resetStats() {
+		this.maxTickNanos = 0;
+		this.completedPasses = 0;
+		this.cancelledPasses = 0;
+	}
+
+	public long getLastTickNanos() {
+		return this.lastTickNanos;
+	}
+
+	public int getLastTickChunks() {
+		return this.lastTickChunks;
+	}
+
+	public double getAverageTickNanos() {
+		return this.averageTickNanos;
+	}
+
+	public long getMaxTickNanos() {
+		return this.maxTickNanos;
+	}
+
+	public int getCompletedPasses() {
+		return this.completedPasses;
+	}
+
+	/**
+	 * Returns how many passes were cancelled because the entity limit was reached
+	 * @return
+	 */
+	public int getCancelledPasses() {
+		return this.cancelledPasses;
+	}
+
+	/**
+	 * Returns how many ticks the last completed pass was spread over
+	 * @return
+	 */
+	public long getLastPassTicks() {
+		return this.lastPassTicks;
+	}
+}
@@ -1,16 +1,21 @@
 package thebetweenlands.common.world.event;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
+
+import javax.annotation.Nullable;
 
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.world.World;
 import net.minecraftforge.common.MinecraftForge;
 import thebetweenlands.api.environment.IEnvironmentEvent;
 import thebetweenlands.api.environment.IEnvironmentEventRegistry;
+import thebetweenlands.api.environment.ISurfaceUpdater;
 import thebetweenlands.api.event.InitializeEnvironmentEventsEvent;
 import thebetweenlands.common.world.WorldProviderBetweenlands;
 
@@ -26,6 +31,12 @@ public class BLEnvironmentEventRegistry implements IEnvironmentEventRegistry {
 
 	private World world;
 
+	private final SurfaceUpdateScheduler surfaceUpdateScheduler = new SurfaceUpdateScheduler();
+
+	//Last event states that were synced to the clients, or received from the server on the client side
+	private final Map<ResourceLocation, SyncedState> syncedStates = new HashMap<>();
+	private int syncVersion = 0;
+
 	public BLEnvironmentEventRegistry(World world) {
 		this.world = world;
 
@@ -44,6 +55,14 @@ public class BLEnvironmentEventRegistry implements IEnvironmentEventRegistry {
 		return this.world;
 	}
 
+	/**
+	 * Returns the scheduler that updates the chunk surfaces for events implementing {@link ISurfaceUpdater}
+	 * @return
+	 */
+	public SurfaceUpdateScheduler getSurfaceUpdateScheduler() {
+		return this.surfaceUpdateScheduler;
+	}
+
 	public void init() {
 		//Only add events to the dimension
 		if(this.world.provider instanceof WorldProviderBetweenlands) {
@@ -73,11 +92,18 @@ public class BLEnvironmentEventRegistry implements IEnvironmentEventRegistry {
 			throw new RuntimeException(String.format("Environment event %s is already registered in another registry: %s", event.getEventName(), this));
 		}
 		registeredEvents.put(event.getEventName(), event);
+		if(event instanceof ISurfaceUpdater) {
+			this.surfaceUpdateScheduler.addUpdater((ISurfaceUpdater) event);
+		}
 	}
 
 	@Override
 	public IEnvironmentEvent unregister(IEnvironmentEvent event) {
-		return registeredEvents.remove(event.getEventName());
+		IEnvironmentEvent removed = registeredEvents.remove(event.getEventName());
+		if(removed instanceof ISurfaceUpdater) {
+			this.surfaceUpdateScheduler.removeUpdater((ISurfaceUpdater) removed);
+		}
+		return removed;
 	}
 
 	@Override
@@ -175,6 +201,95 @@ public class BLEnvironmentEventRegistry implements IEnvironmentEventRegistry {
 		return this.disabled = !enabled;
 	}
 
+	/**
+	 * An event state that was synced to the clients
+	 */
+	public static final class SyncedState {
+		private final boolean active;
+		private final byte[] data;
+		private final int hash;
+
+		public SyncedState(boolean active, byte[] data) {
+			this.active = active;
+			this.data = data;
+			this.hash = Arrays.hashCode(data) * 31 + (active ? 1 : 0);
+		}
+
+		public boolean isActive() {
+			return this.active;
+		}
+
+		public byte[] getData() {
+			return this.data;
+		}
+
+		public int getHash() {
+			return this.hash;
+		}
+	}
+
+	/**
+	 * Sets the last synced state of an event
+	 * @param eventId
+	 * @param state
+	 * @return Whether the state differs from the previously synced state
+	 */
+	public boolean setSyncedState(ResourceLocation eventId, SyncedState state) {
+		SyncedState previous = this.syncedStates.put(eventId, state);
+		return previous == null || previous.getHash() != state.getHash() || !Arrays.equals(previous.getData(), state.getData());
+	}
+
+	/**
+	 * Returns the last synced state of an event
+	 * @param eventId
+	 * @return
+	 */
+	@Nullable
+	public SyncedState getSyncedState(ResourceLocation eventId) {
+		return this.syncedStates.get(eventId);
+	}
+
+	/**
+	 * Returns the last synced states of all events
+	 * @return
+	 */
+	public Map<ResourceLocation, SyncedState> getSyncedStates() {
+		return Collections.unmodifiableMap(this.syncedStates);
+	}
+
+	/**
+	 * Removes all synced states
+	 */
+	public void clearSyncedStates() {
+		this.syncedStates.clear();
+	}
+
+	/**
+	 * Returns a checksum over all synced states. Used by the client
+	 * to verify that it has received all changes
+	 * @return
+	 */
+	public int getSyncChecksum() {
+		int checksum = 0;
+		for(Entry<ResourceLocation, SyncedState> entry : this.syncedStates.entrySet()) {
+			//Order independent
+			checksum += entry.getKey().hashCode() * 31 + entry.getValue().getHash();
+		}
+		return checksum;
+	}
+
+	/**
+	 * Returns the version of the synced states. Increased every time changes are sent
+	 * @return
+	 */
+	public int getSyncVersion() {
+		return this.syncVersion;
+	}
+
+	public void setSyncVersion(int version) {
+		this.syncVersion = version;
+	}
+
 	@Override
 	public IEnvironmentEvent getEvent(ResourceLocation eventId) {
 		return this.registeredEvents.get(eventId);
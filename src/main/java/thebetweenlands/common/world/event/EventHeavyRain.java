@@ -1,6 +1,5 @@
 package thebetweenlands.common.world.event;
 
-import java.util.Iterator;
 import java.util.Random;
 
 import net.minecraft.util.ResourceLocation;
@@ -8,12 +7,13 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 import net.minecraft.world.WorldServer;
 import net.minecraft.world.chunk.Chunk;
+import thebetweenlands.api.environment.ISurfaceUpdater;
 import thebetweenlands.common.block.farming.BlockGenericCrop;
 import thebetweenlands.common.lib.ModInfo;
 import thebetweenlands.common.registries.BlockRegistry;
 import thebetweenlands.common.world.WorldProviderBetweenlands;
 
-public class EventHeavyRain extends TimedEnvironmentEvent {
+public class EventHeavyRain extends TimedEnvironmentEvent implements ISurfaceUpdater {
 	public static final ResourceLocation ID = new ResourceLocation(ModInfo.ID, "heavy_rain");
 
 	public EventHeavyRain(BLEnvironmentEventRegistry registry) {
@@ -48,21 +48,20 @@ public class EventHeavyRain extends TimedEnvironmentEvent {
 		if(!world.isRemote && this.getRegistry().winter.isActive()) {
 			this.setActive(false, true);
 		}
+	}
 
-		if(this.isActive() && world.provider instanceof WorldProviderBetweenlands && world.rand.nextInt(20) == 0) {
-			if(!world.isRemote && world instanceof WorldServer) {
-				WorldServer worldServer = (WorldServer)world;
-				for (Iterator<Chunk> iterator = worldServer.getPersistentChunkIterable(worldServer.getPlayerChunkMap().getChunkIterator()); iterator.hasNext(); ) {
-					Chunk chunk = iterator.next();
-					if(world.rand.nextInt(4) == 0) {
-						int cbx = world.rand.nextInt(16);
-						int cbz = world.rand.nextInt(16);
-						BlockPos pos = chunk.getPrecipitationHeight(new BlockPos(chunk.getPos().getXStart() + cbx, -999, chunk.getPos().getZStart() + cbz));
-						if(world.getBlockState(pos.add(0, -1, 0)).getBlock() != BlockRegistry.PUDDLE && (world.isAirBlock(pos) || world.getBlockState(pos).getBlock() instanceof BlockGenericCrop) && BlockRegistry.PUDDLE.canPlaceBlockAt(world, pos)) {
-							world.setBlockState(pos, BlockRegistry.PUDDLE.getDefaultState());
-						}
-					}
-				}
+	@Override
+	public boolean shouldUpdateSurface(WorldServer world) {
+		return this.isActive() && world.provider instanceof WorldProviderBetweenlands;
+	}
+
+	@Override
+	public void updateSurface(WorldServer world, Chunk chunk, int ticks, Random rand) {
+		int puddles = SurfaceUpdateScheduler.getOccurrences(rand, 1.0F / 20.0F / 4.0F, ticks);
+		for(int i = 0; i < puddles; i++) {
+			BlockPos pos = SurfaceUpdateScheduler.getRandomPrecipitationPos(chunk, rand);
+			if(world.getBlockState(pos.add(0, -1, 0)).getBlock() != BlockRegistry.PUDDLE && (world.isAirBlock(pos) || world.getBlockState(pos).getBlock() instanceof BlockGenericCrop) && BlockRegistry.PUDDLE.canPlaceBlockAt(world, pos)) {
+				world.setBlockState(pos, BlockRegistry.PUDDLE.getDefaultState());
 			}
 		}
 	}
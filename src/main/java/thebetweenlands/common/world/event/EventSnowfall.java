@@ -1,6 +1,5 @@
 package thebetweenlands.common.world.event;
 
-import java.util.Iterator;
 import java.util.Random;
 
 import net.minecraft.block.state.IBlockState;
@@ -15,13 +14,14 @@ import net.minecraft.world.WorldServer;
 import net.minecraft.world.chunk.Chunk;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
+import thebetweenlands.api.environment.ISurfaceUpdater;
 import thebetweenlands.client.render.sky.BLSnowRenderer;
 import thebetweenlands.common.block.terrain.BlockSnowBetweenlands;
 import thebetweenlands.common.lib.ModInfo;
 import thebetweenlands.common.registries.BlockRegistry;
 import thebetweenlands.common.world.WorldProviderBetweenlands;
 
-public class EventSnowfall extends TimedEnvironmentEvent {
+public class EventSnowfall extends TimedEnvironmentEvent implements ISurfaceUpdater {
 	public static final ResourceLocation ID = new ResourceLocation(ModInfo.ID, "snowfall");
 	
 	private float snowingStrength = 0.0F;
@@ -79,45 +79,6 @@ public class EventSnowfall extends TimedEnvironmentEvent {
 			if(this.isActive() && !this.getRegistry().winter.isActive()) {
 				this.setActive(false, true);
 			}
-
-			if (this.isActive() && world.provider instanceof WorldProviderBetweenlands && world instanceof WorldServer && world.rand.nextInt(5) == 0) {
-				WorldServer worldServer = (WorldServer) world;
-				for (Iterator<Chunk> iterator = worldServer.getPersistentChunkIterable(worldServer.getPlayerChunkMap().getChunkIterator()); iterator.hasNext();) {
-					Chunk chunk = iterator.next();
-					int cbx = world.rand.nextInt(16);
-					int cbz = world.rand.nextInt(16);
-					BlockPos pos = chunk.getPrecipitationHeight(new BlockPos(chunk.getPos().getXStart() + cbx, -999, chunk.getPos().getZStart() + cbz)).down();
-					if (world.rand.nextInt(Math.max(20 - (int) (this.getSnowingStrength() / 8.0F * 18.0F), 2)) == 0) {
-						IBlockState stateAbove = world.getBlockState(pos.up());
-						if (stateAbove.getBlock() == Blocks.AIR && BlockRegistry.SNOW.canPlaceBlockAt(world, pos.up())) {
-							world.setBlockState(pos.up(), BlockRegistry.SNOW.getDefaultState());
-						} else if (stateAbove.getBlock() instanceof BlockSnowBetweenlands) {
-							int layers = stateAbove.getValue(BlockSnowBetweenlands.LAYERS);
-							if (layers < 5) {
-								boolean hasEnoughSnowAround = true;
-								PooledMutableBlockPos checkPos = PooledMutableBlockPos.retain();
-								for (EnumFacing dir : EnumFacing.HORIZONTALS) {
-									checkPos.setPos(pos.getX() + dir.getFrontOffsetX(), pos.getY() + 1, pos.getZ() + dir.getFrontOffsetZ());
-									if (world.isBlockLoaded(checkPos)) {
-										IBlockState neighourState = world.getBlockState(checkPos);
-										if (BlockRegistry.SNOW.canPlaceBlockAt(world, checkPos)
-												&& (neighourState.getBlock() != BlockRegistry.SNOW || neighourState.getValue(BlockSnowBetweenlands.LAYERS) < layers)) {
-											hasEnoughSnowAround = false;
-										}
-									} else {
-										hasEnoughSnowAround = false;
-										break;
-									}
-								}
-								checkPos.release();
-								if (hasEnoughSnowAround) {
-									world.setBlockState(pos.up(), stateAbove.withProperty(BlockSnowBetweenlands.LAYERS, layers + 1));
-								}
-							}
-						}
-					}
-				}
-			}
 		} else {
 			this.updateSnowRenderer(world);
 		}
@@ -139,6 +100,47 @@ public class EventSnowfall extends TimedEnvironmentEvent {
 		}
 	}
 
+	@Override
+	public boolean shouldUpdateSurface(WorldServer world) {
+		return this.isActive() && world.provider instanceof WorldProviderBetweenlands;
+	}
+
+	@Override
+	public void updateSurface(WorldServer world, Chunk chunk, int ticks, Random rand) {
+		float chance = 1.0F / 5.0F / Math.max(20 - (int) (this.getSnowingStrength() / 8.0F * 18.0F), 2);
+		int snowfalls = SurfaceUpdateScheduler.getOccurrences(rand, chance, ticks);
+		for(int i = 0; i < snowfalls; i++) {
+			BlockPos pos = SurfaceUpdateScheduler.getRandomPrecipitationPos(chunk, rand).down();
+			IBlockState stateAbove = world.getBlockState(pos.up());
+			if (stateAbove.getBlock() == Blocks.AIR && BlockRegistry.SNOW.canPlaceBlockAt(world, pos.up())) {
+				world.setBlockState(pos.up(), BlockRegistry.SNOW.getDefaultState());
+			} else if (stateAbove.getBlock() instanceof BlockSnowBetweenlands) {
+				int layers = stateAbove.getValue(BlockSnowBetweenlands.LAYERS);
+				if (layers < 5) {
+					boolean hasEnoughSnowAround = true;
+					PooledMutableBlockPos checkPos = PooledMutableBlockPos.retain();
+					for (EnumFacing dir : EnumFacing.HORIZONTALS) {
+						checkPos.setPos(pos.getX() + dir.getFrontOffsetX(), pos.getY() + 1, pos.getZ() + dir.getFrontOffsetZ());
+						if (world.isBlockLoaded(checkPos)) {
+							IBlockState neighourState = world.getBlockState(checkPos);
+							if (BlockRegistry.SNOW.canPlaceBlockAt(world, checkPos)
+									&& (neighourState.getBlock() != BlockRegistry.SNOW || neighourState.getValue(BlockSnowBetweenlands.LAYERS) < layers)) {
+								hasEnoughSnowAround = false;
+							}
+						} else {
+							hasEnoughSnowAround = false;
+							break;
+						}
+					}
+					checkPos.release();
+					if (hasEnoughSnowAround) {
+						world.setBlockState(pos.up(), stateAbove.withProperty(BlockSnowBetweenlands.LAYERS, layers + 1));
+					}
+				}
+			}
+		}
+	}
+
 	@SideOnly(Side.CLIENT)
 	protected void updateSnowRenderer(World world) {
 		BLSnowRenderer.INSTANCE.update(world);
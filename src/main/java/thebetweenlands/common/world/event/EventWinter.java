@@ -2,7 +2,7 @@ package thebetweenlands.common.world.event;
 
 import java.util.Calendar;
 import java.util.GregorianCalendar;
-import java.util.Iterator;
+import java.util.Random;
 import java.util.concurrent.TimeUnit;
 
 import net.minecraft.block.state.IBlockState;
@@ -25,6 +25,7 @@ import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.common.gameevent.TickEvent.ClientTickEvent;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
+import thebetweenlands.api.environment.ISurfaceUpdater;
 import thebetweenlands.api.event.UpdateFogEvent;
 import thebetweenlands.api.misc.Fog;
 import thebetweenlands.api.misc.FogState;
@@ -39,7 +40,7 @@ import thebetweenlands.common.tile.TileEntityPresent;
 import thebetweenlands.common.world.WorldProviderBetweenlands;
 import thebetweenlands.util.config.ConfigHandler;
 
-public class EventWinter extends BLEnvironmentEvent {
+public class EventWinter extends BLEnvironmentEvent implements ISurfaceUpdater {
 	public static final ResourceLocation ID = new ResourceLocation(ModInfo.ID, "winter");
 
 	private static final long WINTER_DATE = new GregorianCalendar(Calendar.getInstance().get(Calendar.YEAR), 11, 1, 0, 0).getTime().getTime();
@@ -112,52 +113,55 @@ public class EventWinter extends BLEnvironmentEvent {
 					this.setActive(false, true);
 				}
 			}
+		}
+	}
 
-			if(this.isActive()) {
-				if(world.provider instanceof WorldProviderBetweenlands && world instanceof WorldServer && world.rand.nextInt(10) == 0) {
-					WorldServer worldServer = (WorldServer)world;
-					for (Iterator<Chunk> iterator = worldServer.getPersistentChunkIterable(worldServer.getPlayerChunkMap().getChunkIterator()); iterator.hasNext(); ) {
-						Chunk chunk = iterator.next();
-						int cbx = world.rand.nextInt(16);
-						int cbz = world.rand.nextInt(16);
-						BlockPos pos = chunk.getPrecipitationHeight(new BlockPos(chunk.getPos().getXStart() + cbx, -999, chunk.getPos().getZStart() + cbz)).down();
-						if(world.isAirBlock(pos.up()) && world.getBlockState(pos).getBlock() == BlockRegistry.SWAMP_WATER) {
-							if(world.rand.nextInt(3) == 0) {
-								boolean hasSuitableNeighbourBlock = false;
-								PooledMutableBlockPos checkPos = PooledMutableBlockPos.retain();
-								for(EnumFacing dir : EnumFacing.HORIZONTALS) {
-									checkPos.setPos(pos.getX() + dir.getFrontOffsetX(), pos.getY(), pos.getZ() + dir.getFrontOffsetZ());
-									if(world.isBlockLoaded(checkPos)) {
-										if(!hasSuitableNeighbourBlock) {
-											IBlockState neighourState = world.getBlockState(checkPos);
-											if(neighourState.getBlock() == BlockRegistry.BLACK_ICE || neighourState.isSideSolid(world, checkPos, dir.getOpposite())) {
-												hasSuitableNeighbourBlock = true;
-											}
-										}
-									} else {
-										hasSuitableNeighbourBlock = false;
-										break;
-									}
-								}
-								checkPos.release();
-								if(hasSuitableNeighbourBlock) {
-									world.setBlockState(pos, BlockRegistry.BLACK_ICE.getDefaultState());
-								}
+	@Override
+	public boolean shouldUpdateSurface(WorldServer world) {
+		return this.isActive() && world.provider instanceof WorldProviderBetweenlands;
+	}
+
+	@Override
+	public void updateSurface(WorldServer world, Chunk chunk, int ticks, Random rand) {
+		int freezes = SurfaceUpdateScheduler.getOccurrences(rand, 1.0F / 10.0F / 3.0F, ticks);
+		for(int i = 0; i < freezes; i++) {
+			BlockPos pos = SurfaceUpdateScheduler.getRandomPrecipitationPos(chunk, rand).down();
+			if(world.isAirBlock(pos.up()) && world.getBlockState(pos).getBlock() == BlockRegistry.SWAMP_WATER) {
+				boolean hasSuitableNeighbourBlock = false;
+				PooledMutableBlockPos checkPos = PooledMutableBlockPos.retain();
+				for(EnumFacing dir : EnumFacing.HORIZONTALS) {
+					checkPos.setPos(pos.getX() + dir.getFrontOffsetX(), pos.getY(), pos.getZ() + dir.getFrontOffsetZ());
+					if(world.isBlockLoaded(checkPos)) {
+						if(!hasSuitableNeighbourBlock) {
+							IBlockState neighourState = world.getBlockState(checkPos);
+							if(neighourState.getBlock() == BlockRegistry.BLACK_ICE || neighourState.isSideSolid(world, checkPos, dir.getOpposite())) {
+								hasSuitableNeighbourBlock = true;
 							}
 						}
+					} else {
+						hasSuitableNeighbourBlock = false;
+						break;
+					}
+				}
+				checkPos.release();
+				if(hasSuitableNeighbourBlock) {
+					world.setBlockState(pos, BlockRegistry.BLACK_ICE.getDefaultState());
+				}
+			}
+		}
 
-						if(world.rand.nextInt(3000) == 0 && world.getClosestPlayer(pos.getX(), pos.getY(), pos.getZ(), 64.0D, false) == null) {
-							if(world.isSideSolid(pos, EnumFacing.UP)) {
-								IBlockState stateAbove = world.getBlockState(pos.up());
-								if(stateAbove.getBlock() == Blocks.AIR || (stateAbove.getBlock() instanceof BlockSnowBetweenlands && stateAbove.getValue(BlockSnowBetweenlands.LAYERS) <= 5)) {
-									world.setBlockState(pos.up(), BlockRegistry.PRESENT.getDefaultState().withProperty(BlockPresent.COLOR, EnumDyeColor.values()[world.rand.nextInt(EnumDyeColor.values().length)]));
-									TileEntityPresent tile = BlockPresent.getTileEntity(world, pos.up());
-									if (tile != null) {
-										tile.setLootTable(LootTableRegistry.PRESENT, world.rand.nextLong());
-										tile.markDirty();
-									}
-								}
-							}
+		int presents = SurfaceUpdateScheduler.getOccurrences(rand, 1.0F / 10.0F / 3000.0F, ticks);
+		for(int i = 0; i < presents; i++) {
+			BlockPos pos = SurfaceUpdateScheduler.getRandomPrecipitationPos(chunk, rand).down();
+			if(world.getClosestPlayer(pos.getX(), pos.getY(), pos.getZ(), 64.0D, false) == null) {
+				if(world.isSideSolid(pos, EnumFacing.UP)) {
+					IBlockState stateAbove = world.getBlockState(pos.up());
+					if(stateAbove.getBlock() == Blocks.AIR || (stateAbove.getBlock() instanceof BlockSnowBetweenlands && stateAbove.getValue(BlockSnowBetweenlands.LAYERS) <= 5)) {
+						world.setBlockState(pos.up(), BlockRegistry.PRESENT.getDefaultState().withProperty(BlockPresent.COLOR, EnumDyeColor.values()[rand.nextInt(EnumDyeColor.values().length)]));
+						TileEntityPresent tile = BlockPresent.getTileEntity(world, pos.up());
+						if (tile != null) {
+							tile.setLootTable(LootTableRegistry.PRESENT, rand.nextLong());
+							tile.markDirty();
 						}
 					}
 				}
@@ -0,0 +1,163 @@
+package thebetweenlands.common.world.event;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.chunk.Chunk;
+import thebetweenlands.api.environment.ISurfaceUpdater;
+import thebetweenlands.util.config.ConfigHandler;
+
+/**
+ * Hands out the loaded chunks of a world to the registered {@link ISurfaceUpdater}s.
+ * Only a limited number of chunks is updated per tick, the chunks are rotated through
+ * so that every chunk is eventually updated
+ */
+public class SurfaceUpdateScheduler {
+	//Limits how many ticks of changes can be caught up on in one update
+	private static final int MAX_TICKS = 1200;
+
+	private final List<ISurfaceUpdater> updaters = new ArrayList<>();
+	private final List<ISurfaceUpdater> activeUpdaters = new ArrayList<>();
+
+	private final List<Chunk> chunks = new ArrayList<>();
+	private int cursor = 0;
+
+	private final Long2LongMap lastUpdates = new Long2LongOpenHashMap();
+	private long rotationStart = -1;
+	private int rotationTicks = 1;
+
+	public SurfaceUpdateScheduler() {
+		this.lastUpdates.defaultReturnValue(-1);
+	}
+
+	/**
+	 * Adds a surface updater
+	 * @param updater
+	 */
+	public void addUpdater(ISurfaceUpdater updater) {
+		if(!this.updaters.contains(updater)) {
+			this.updaters.add(updater);
+		}
+	}
+
+	/**
+	 * Removes a surface updater
+	 * @param updater
+	 */
+	public void removeUpdater(ISurfaceUpdater updater) {
+		this.updaters.remove(updater);
+	}
+
+	/**
+	 * Updates the next chunks in the rotation
+	 * @param world
+	 */
+	public void update(WorldServer world) {
+		this.activeUpdaters.clear();
+		for(ISurfaceUpdater updater : this.updaters) {
+			if(updater.shouldUpdateSurface(world)) {
+				this.activeUpdaters.add(updater);
+			}
+		}
+
+		if(this.activeUpdaters.isEmpty()) {
+			//Time without active updaters shouldn't be caught up on later
+			this.chunks.clear();
+			this.cursor = 0;
+			this.lastUpdates.clear();
+			this.rotationStart = -1;
+			return;
+		}
+
+		long now = world.getTotalWorldTime();
+
+		if(this.cursor >= this.chunks.size()) {
+			this.startRotation(world, now);
+		}
+
+		Random rand = world.rand;
+		int budget = ConfigHandler.surfaceUpdateChunkBudget;
+		int updated = 0;
+
+		while(updated < budget && this.cursor < this.chunks.size()) {
+			Chunk chunk = this.chunks.get(this.cursor);
+			this.chunks.set(this.cursor++, null);
+
+			if(!chunk.isLoaded()) {
+				continue;
+			}
+
+			long key = ChunkPos.asLong(chunk.x, chunk.z);
+			long lastUpdate = this.lastUpdates.put(key, now);
+			int ticks = lastUpdate < 0 ? this.rotationTicks : (int) Math.min(now - lastUpdate, MAX_TICKS);
+
+			if(ticks > 0) {
+				for(ISurfaceUpdater updater : this.activeUpdaters) {
+					updater.updateSurface(world, chunk, ticks, rand);
+				}
+			}
+
+			updated++;
+		}
+	}
+
+	/**
+	 * Collects the currently loaded chunks for the next rotation
+	 * @param world
+	 * @param now
+	 */
+	private void startRotation(WorldServer world, long now) {
+		this.chunks.clear();
+		this.cursor = 0;
+
+		LongSet loaded = new LongOpenHashSet();
+		for(Iterator<Chunk> iterator = world.getPersistentChunkIterable(world.getPlayerChunkMap().getChunkIterator()); iterator.hasNext(); ) {
+			Chunk chunk = iterator.next();
+			this.chunks.add(chunk);
+			loaded.add(ChunkPos.asLong(chunk.x, chunk.z));
+		}
+
+		//Forget chunks that are no longer loaded
+		this.lastUpdates.keySet().retainAll(loaded);
+
+		this.rotationTicks = this.rotationStart < 0 ? 1 : (int) Math.max(1, Math.min(now - this.rotationStart, MAX_TICKS));
+		this.rotationStart = now;
+	}
+
+	/**
+	 * Returns how many times an action with the specified chance per tick happens
+	 * over the specified number of ticks, on average
+	 * @param rand
+	 * @param chancePerTick
+	 * @param ticks
+	 * @return
+	 */
+	public static int getOccurrences(Random rand, float chancePerTick, int ticks) {
+		float expected = chancePerTick * ticks;
+		int occurrences = (int) expected;
+		if(rand.nextFloat() < expected - occurrences) {
+			occurrences++;
+		}
+		return occurrences;
+	}
+
+	/**
+	 * Returns the position above the highest block that blocks precipitation at a
+	 * random column of the chunk. Uses the precipitation height map cached by the chunk
+	 * @param chunk
+	 * @param rand
+	 * @return
+	 */
+	public static BlockPos getRandomPrecipitationPos(Chunk chunk, Random rand) {
+		return chunk.getPrecipitationHeight(new BlockPos(chunk.x * 16 + rand.nextInt(16), -999, chunk.z * 16 + rand.nextInt(16)));
+	}
+}
@@ -12,8 +12,15 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.annotation.Nullable;
 import javax.imageio.ImageIO;
@@ -28,6 +35,7 @@ import net.minecraft.block.state.IBlockState;
 import net.minecraft.client.Minecraft;
 import net.minecraft.entity.EnumCreatureType;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.world.World;
 import net.minecraft.world.WorldEntitySpawner;
@@ -73,22 +81,50 @@ public class ChunkGeneratorBetweenlands implements IChunkGenerator {
 	public NoiseGeneratorOctaves scaleNoise;
 	public NoiseGeneratorOctaves depthNoise;
 	private final World worldObj;
-	/**
-	 * Technically this isn't a heightmap, it's a 3D density map
-	 */
-	private final double[] heightMap;
 	private final float[] biomeWeights;
 	private double[] surfaceNoiseBuffer = new double[256];
 	private float[] terrainBiomeWeights = new float[25];
 	private float[] interpolatedTerrainBiomeWeights = new float[256];
+	private Biome[] terrainBiomes;
 	private Biome[] biomesForGeneration;
-	private double[] mainNoiseRegion;
-	private double[] minLimitRegion;
-	private double[] maxLimitRegion;
-	private double[] depthRegion;
 	private final long seed;
 	private final int layerHeight;
 
+	private final ThreadLocal<TerrainContext> terrainContexts = ThreadLocal.withInitial(TerrainContext::new);
+	private final Map<Long, Future<Terrain>> scheduledTerrain = new ConcurrentHashMap<>();
+
+	private static final AtomicInteger TERRAIN_THREAD_ID = new AtomicInteger(0);
+	private static ExecutorService terrainExecutor;
+
+	private long generatedChunks, generateNanos;
+	private long populatedChunks, populateNanos;
+	private long cascadingGenerations;
+	private int populateDepth;
+	//Time spent in generateChunk and populate calls nested in the current call, so that each call only counts its own time
+	private long nestedNanos;
+
+	/**
+	 * Scratch buffers of the base terrain generation. Each thread that generates base terrain has its own context
+	 */
+	private static class TerrainContext {
+		/**
+		 * Technically this isn't a heightmap, it's a 3D density map
+		 */
+		private final double[] heightMap = new double[825];
+		private double[] mainNoiseRegion;
+		private double[] minLimitRegion;
+		private double[] maxLimitRegion;
+		private double[] depthRegion;
+	}
+
+	/**
+	 * Base terrain of a chunk that was generated in advance on a worker thread
+	 */
+	private static class Terrain {
+		private final ChunkPrimer primer = new ChunkPrimer();
+		private final float[] terrainBiomeWeights = new float[25];
+	}
+
 	private MapGenCavesBetweenlands caveGenerator;
 	private MapGenBase ravineGenerator;
 	private MapGenBase giantRootGenerator;
@@ -105,7 +141,6 @@ public class ChunkGeneratorBetweenlands implements IChunkGenerator {
 		this.worldObj = world;
 		this.seed = seed;
 		this.rand = new Random(seed);
-		this.heightMap = new double[825];
 		this.biomeWeights = new float[25];
 		for (int i = -2; i <= 2; ++i) {
 			for (int j = -2; j <= 2; ++j) {
@@ -141,13 +176,28 @@ public class ChunkGeneratorBetweenlands implements IChunkGenerator {
 	//TODO Not sure at all about this
 	@Override
 	public Chunk generateChunk(int chunkX, int chunkZ) {
+		long startTime = System.nanoTime();
+		long startNestedNanos = this.nestedNanos;
+		if(this.populateDepth > 0) {
+			//Chunk is generated because a neighbour chunk populates beyond its bounds
+			this.cascadingGenerations++;
+		}
+
 		this.rand.setSeed((long)chunkX * 341873128712L + (long)chunkZ * 132897987541L);
 		debugProvideHandle(chunkX, chunkZ);
 
-		ChunkPrimer chunkprimer = new ChunkPrimer();
+		ChunkPrimer chunkprimer;
+		float[] terrainBiomeWeights;
 
-
-		this.setBlocksInChunk(chunkX, chunkZ, chunkprimer);
+		Terrain terrain = this.getScheduledTerrain(chunkX, chunkZ);
+		if(terrain != null) {
+			chunkprimer = terrain.primer;
+			terrainBiomeWeights = terrain.terrainBiomeWeights;
+		} else {
+			chunkprimer = new ChunkPrimer();
+			this.setBlocksInChunk(chunkX, chunkZ, chunkprimer);
+			terrainBiomeWeights = this.terrainBiomeWeights;
+		}
 
 		//Interpolate biome weights
 		for(int z = 0; z < 16; z++) {
@@ -157,10 +207,10 @@ public class ChunkGeneratorBetweenlands implements IChunkGenerator {
 				int biomeWeightZ = z / 4;
 				int biomeWeightX = x / 4;
 
-				float weightXCZC = this.terrainBiomeWeights[biomeWeightX + biomeWeightZ * 5];
-				float weightXNZC = this.terrainBiomeWeights[biomeWeightX+1 + biomeWeightZ * 5];
-				float weightXCZN = this.terrainBiomeWeights[biomeWeightX + (biomeWeightZ+1) * 5];
-				float weightXNZN = this.terrainBiomeWeights[biomeWeightX+1 + (biomeWeightZ+1) * 5];
+				float weightXCZC = terrainBiomeWeights[biomeWeightX + biomeWeightZ * 5];
+				float weightXNZC = terrainBiomeWeights[biomeWeightX+1 + biomeWeightZ * 5];
+				float weightXCZN = terrainBiomeWeights[biomeWeightX + (biomeWeightZ+1) * 5];
+				float weightXNZN = terrainBiomeWeights[biomeWeightX+1 + (biomeWeightZ+1) * 5];
 
 				float interpZAxisXC = weightXCZC + (weightXCZN - weightXCZC) * fractionZ;
 				float interpZAxisXN = weightXNZC + (weightXNZN - weightXNZC) * fractionZ;
@@ -172,7 +222,8 @@ public class ChunkGeneratorBetweenlands implements IChunkGenerator {
 
 		BiomeWeights biomeWeights = new BiomeWeights(this.interpolatedTerrainBiomeWeights);
 
-		this.biomesForGeneration = this.worldObj.getBiomeProvider().getBiomes(this.biomesForGeneration, chunkX * 16, chunkZ * 16, 16, 16);
+		//New array for each chunk, the biome generators keep a reference to it
+		this.biomesForGeneration = this.worldObj.getBiomeProvider().getBiomes(null, chunkX * 16, chunkZ * 16, 16, 16);
 
 		this.replaceBiomeBlocks(chunkX, chunkZ, chunkprimer, this.biomesForGeneration, biomeWeights);
 
@@ -206,9 +257,81 @@ public class ChunkGeneratorBetweenlands implements IChunkGenerator {
 		}
 
 		chunk.generateSkylightMap();
+
+		long elapsed = System.nanoTime() - startTime;
+		this.generatedChunks++;
+		this.generateNanos += elapsed - (this.nestedNanos - startNestedNanos);
+		this.nestedNanos = startNestedNanos + elapsed;
+
 		return chunk;
 	}
 
+	/**
+	 * Starts generating the base terrain of the specified chunk on a worker thread.
+	 * The result is used once the chunk is generated by {@link #generateChunk(int, int)}.
+	 * Must only be called from the thread that generates the chunks
+	 * @param chunkX
+	 * @param chunkZ
+	 */
+	public void scheduleTerrain(int chunkX, int chunkZ) {
+		long key = ChunkPos.asLong(chunkX, chunkZ);
+		if(!this.scheduledTerrain.containsKey(key)) {
+			//The biome provider is not thread safe so the biomes must be looked up here
+			Biome[] biomes = this.worldObj.getBiomeProvider().getBiomesForGeneration(null, chunkX * 4 - 5, chunkZ * 4 - 5, 15, 15);
+			this.scheduledTerrain.put(key, getTerrainExecutor().submit(() -> {
+				Terrain terrain = new Terrain();
+				this.setBlocksInChunk(this.terrainContexts.get(), chunkX, chunkZ, biomes, terrain.primer, terrain.terrainBiomeWeights);
+				return terrain;
+			}));
+		}
+	}
+
+	/**
+	 * Returns the number of chunks whose base terrain was scheduled but that weren't generated yet
+	 * @return
+	 */
+	public int getScheduledTerrainCount() {
+		return this.scheduledTerrain.size();
+	}
+
+	/**
+	 * Discards all scheduled base terrain
+	 */
+	public void cancelScheduledTerrain() {
+		for(Future<Terrain> terrain : this.scheduledTerrain.values()) {
+			terrain.cancel(false);
+		}
+		this.scheduledTerrain.clear();
+	}
+
+	@Nullable
+	private Terrain getScheduledTerrain(int chunkX, int chunkZ) {
+		Future<Terrain> terrain = this.scheduledTerrain.remove(ChunkPos.asLong(chunkX, chunkZ));
+		if(terrain != null) {
+			try {
+				return terrain.get();
+			} catch(InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			} catch(ExecutionException ex) {
+				throw new RuntimeException(ex);
+			}
+		}
+		return null;
+	}
+
+	private static synchronized ExecutorService getTerrainExecutor() {
+		if(terrainExecutor == null) {
+			//Leave one core for the server thread
+			terrainExecutor = Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1), runnable -> {
+				Thread thread = new Thread(runnable, "BL Terrain Generator #" + TERRAIN_THREAD_ID.getAndIncrement());
+				thread.setDaemon(true);
+				thread.setPriority(Thread.NORM_PRIORITY - 1);
+				return thread;
+			});
+		}
+		return terrainExecutor;
+	}
+
 	/**
 	 * Generates the base terrain
 	 * @param chunkX
@@ -216,9 +339,22 @@ public class ChunkGeneratorBetweenlands implements IChunkGenerator {
 	 * @param primer
 	 */
 	public void setBlocksInChunk(int chunkX, int chunkZ, ChunkPrimer primer) {
-		this.biomesForGeneration = this.worldObj.getBiomeProvider().getBiomesForGeneration(this.biomesForGeneration, chunkX * 4 - 5, chunkZ * 4 - 5, 15, 15);
+		this.terrainBiomes = this.worldObj.getBiomeProvider().getBiomesForGeneration(this.terrainBiomes, chunkX * 4 - 5, chunkZ * 4 - 5, 15, 15);
+		this.setBlocksInChunk(this.terrainContexts.get(), chunkX, chunkZ, this.terrainBiomes, primer, this.terrainBiomeWeights);
+	}
 
-		this.generateHeightmap(chunkX * 4, 0, chunkZ * 4);
+	/**
+	 * Generates the base terrain. Only depends on the arguments and the noise generators and
+	 * can therefore run on any thread
+	 * @param ctx
+	 * @param chunkX
+	 * @param chunkZ
+	 * @param terrainBiomes 15x15 biomes for generation around the chunk
+	 * @param primer
+	 * @param terrainBiomeWeights 5x5 biome terrain weights output
+	 */
+	private void setBlocksInChunk(TerrainContext ctx, int chunkX, int chunkZ, Biome[] terrainBiomes, ChunkPrimer primer, float[] terrainBiomeWeights) {
+		this.generateHeightmap(ctx, terrainBiomes, terrainBiomeWeights, chunkX * 4, 0, chunkZ * 4);
 
 		//X
 		for (int heightMapX = 0; heightMapX < 4; ++heightMapX) {
@@ -244,14 +380,14 @@ public class ChunkGeneratorBetweenlands implements IChunkGenerator {
 				//Y
 				for (int heightMapY = 0; heightMapY < 32; ++heightMapY) {
 					//Values
-					double valXCZCYC = this.heightMap[indexXCZC + heightMapY]; //1
-					double valXCZNYC = this.heightMap[indexXCZN + heightMapY]; //2
-					double valXNZCYC = this.heightMap[indexXNZC + heightMapY]; //3
-					double valXNZNYC = this.heightMap[indexXNZN + heightMapY]; //4
-					double valXCZCYN = this.heightMap[indexXCZC + heightMapY + 1]; //5
-					double valXCZNYN = this.heightMap[indexXCZN + heightMapY + 1]; //6
-					double valXNZCYN = this.heightMap[indexXNZC + heightMapY + 1]; //7
-					double valXNZNYN = this.heightMap[indexXNZN + heightMapY + 1]; //8
+					double valXCZCYC = ctx.heightMap[indexXCZC + heightMapY]; //1
+					double valXCZNYC = ctx.heightMap[indexXCZN + heightMapY]; //2
+					double valXNZCYC = ctx.heightMap[indexXNZC + heightMapY]; //3
+					double valXNZNYC = ctx.heightMap[indexXNZN + heightMapY]; //4
+					double valXCZCYN = ctx.heightMap[indexXCZC + heightMapY + 1]; //5
+					double valXCZNYN = ctx.heightMap[indexXCZN + heightMapY + 1]; //6
+					double valXNZCYN = ctx.heightMap[indexXNZC + heightMapY + 1]; //7
+					double valXNZNYN = ctx.heightMap[indexXNZN + heightMapY + 1]; //8
 
 					//Step along Y axis (1/8 of the difference)
 					double stepYAxisXCZC = (valXCZCYN - valXCZCYC) * 0.125D;
@@ -319,17 +455,20 @@ public class ChunkGeneratorBetweenlands implements IChunkGenerator {
 
 	/**
 	 * Generates a 33x5x5 (Y*X*Z) heightmap
+	 * @param ctx
+	 * @param terrainBiomes
+	 * @param terrainBiomeWeights
 	 * @param x
 	 * @param y
 	 * @param z
 	 */
-	private void generateHeightmap(int x, int y, int z) {
-		this.depthRegion = this.depthNoise.generateNoiseOctaves(this.depthRegion, x, z, 5, 5, 200.0D, 200.0D, 0.5D);
+	private void generateHeightmap(TerrainContext ctx, Biome[] terrainBiomes, float[] terrainBiomeWeights, int x, int y, int z) {
+		ctx.depthRegion = this.depthNoise.generateNoiseOctaves(ctx.depthRegion, x, z, 5, 5, 200.0D, 200.0D, 0.5D);
 		float scaleXZ = 684.412F * 8;
 		float scaleY = 684.412F * 8;
-		this.mainNoiseRegion = this.mainPerlinNoise.generateNoiseOctaves(this.mainNoiseRegion, x, y, z, 5, 33, 5, (double)(scaleXZ / 80.0F), (double)(scaleY / 160.0F), (double)(scaleXZ / 80.0F));
-		this.minLimitRegion = this.minLimitPerlinNoise.generateNoiseOctaves(this.minLimitRegion, x, y, z, 5, 33, 5, (double)scaleXZ, (double)scaleY, (double)scaleXZ);
-		this.maxLimitRegion = this.maxLimitPerlinNoise.generateNoiseOctaves(this.maxLimitRegion, x, y, z, 5, 33, 5, (double)scaleXZ, (double)scaleY, (double)scaleXZ);
+		ctx.mainNoiseRegion = this.mainPerlinNoise.generateNoiseOctaves(ctx.mainNoiseRegion, x, y, z, 5, 33, 5, (double)(scaleXZ / 80.0F), (double)(scaleY / 160.0F), (double)(scaleXZ / 80.0F));
+		ctx.minLimitRegion = this.minLimitPerlinNoise.generateNoiseOctaves(ctx.minLimitRegion, x, y, z, 5, 33, 5, (double)scaleXZ, (double)scaleY, (double)scaleXZ);
+		ctx.maxLimitRegion = this.maxLimitPerlinNoise.generateNoiseOctaves(ctx.maxLimitRegion, x, y, z, 5, 33, 5, (double)scaleXZ, (double)scaleY, (double)scaleXZ);
 
 		int noiseIndex = 0;
 		int heightMapIndex = 0;
@@ -339,14 +478,14 @@ public class ChunkGeneratorBetweenlands implements IChunkGenerator {
 				float biomeVariation = 0.0F;
 				float biomeDepth = 0.0F;
 				float totalBiomeWeight = 0.0F;
-				Biome centerBiome = this.biomesForGeneration[heightMapX + 5 + (heightMapZ + 5) * 15];
+				Biome centerBiome = terrainBiomes[heightMapX + 5 + (heightMapZ + 5) * 15];
 
 				float nearestOtherBiomeSq = 50;
 
 				//Averages biome height and variation in a 5x5 area and calculates the biome terrain weight from an 11x11 area
 				for (int offsetX = -5; offsetX <= 5; ++offsetX) {
 					for (int offsetZ = -5; offsetZ <= 5; ++offsetZ) {
-						Biome nearbyBiome = this.biomesForGeneration[heightMapX + 5 + offsetX + (heightMapZ + 5 + offsetZ) * 15];
+						Biome nearbyBiome = terrainBiomes[heightMapX + 5 + offsetX + (heightMapZ + 5 + offsetZ) * 15];
 						float nearbyBiomeDepth = nearbyBiome.getBaseHeight();
 						float nearbyBiomeVariation = nearbyBiome.getHeightVariation();
 
@@ -377,13 +516,13 @@ public class ChunkGeneratorBetweenlands implements IChunkGenerator {
 				}
 
 				//The 0 point is offset by some blocks so that the lerp doesn't cause problems later on
-				this.terrainBiomeWeights[heightMapIndex] = MathHelper.clamp(Math.max((nearestOtherBiomeSq - 2) / 46.0F, 0.0F), 0.0F, 1.0F);
+				terrainBiomeWeights[heightMapIndex] = MathHelper.clamp(Math.max((nearestOtherBiomeSq - 2) / 46.0F, 0.0F), 0.0F, 1.0F);
 
 				biomeVariation = biomeVariation / totalBiomeWeight;
 				biomeDepth = biomeDepth / totalBiomeWeight;
 
 				//Small offset for biome depth?
-				double depthPerturbation = this.depthRegion[heightMapIndex] / 8000.0D;
+				double depthPerturbation = ctx.depthRegion[heightMapIndex] / 8000.0D;
 
 				//depthPerturbation = 0.0D;
 
@@ -432,12 +571,12 @@ public class ChunkGeneratorBetweenlands implements IChunkGenerator {
 					}
 					maxGenDensity8 /= 2.0D;*/
 
-					double minDensity = (this.minLimitRegion[noiseIndex] / maxGenDensity16) * biomeVariation / 256.0D;
-					double maxDensity = (this.maxLimitRegion[noiseIndex] / maxGenDensity16) * biomeVariation / 256.0D;
-					double mainDensity = (this.mainNoiseRegion[noiseIndex] / maxGenDensity8);
+					double minDensity = (ctx.minLimitRegion[noiseIndex] / maxGenDensity16) * biomeVariation / 256.0D;
+					double maxDensity = (ctx.maxLimitRegion[noiseIndex] / maxGenDensity16) * biomeVariation / 256.0D;
+					double mainDensity = (ctx.mainNoiseRegion[noiseIndex] / maxGenDensity8);
 
 					//TODO Not sure if clampedlerp is the right thing to use
-					this.heightMap[noiseIndex] = MathHelper.clampedLerp(minDensity, maxDensity, mainDensity) - densityOffset;
+					ctx.heightMap[noiseIndex] = MathHelper.clampedLerp(minDensity, maxDensity, mainDensity) - densityOffset;
 
 					++noiseIndex;
 				}
@@ -491,39 +630,95 @@ public class ChunkGeneratorBetweenlands implements IChunkGenerator {
 
 	@Override
 	public void populate(int x, int z) {
-		BlockFalling.fallInstantly = true;
-		int bx = x * 16;
-		int bz = z * 16;
-		BlockPos blockPos = new BlockPos(bx, 0, bz);
-		Biome biome = this.worldObj.getBiome(blockPos.add(16, 0, 16));
-		this.rand.setSeed(this.worldObj.getSeed());
-		long seedX = this.rand.nextLong() / 2L * 2L + 1L;
-		long seedZ = this.rand.nextLong() / 2L * 2L + 1L;
-		this.rand.setSeed((long)x * seedX + (long)z * seedZ ^ this.worldObj.getSeed());
-
-		ForgeEventFactory.onChunkPopulate(true, this, this.worldObj, this.rand, x, z, false);
-
-		if(biome instanceof BiomeBetweenlands) {
-			BiomeDecoratorBetweenlands decorator = ((BiomeBetweenlands)biome).getBiomeGenerator().getDecorator();
-			if(decorator != null) {
-				decorator.decorate(this.worldObj, this, this.rand, bx, bz);
-			}
-			if(this.worldObj instanceof WorldServer) {
-				MobSpawnHandler.INSTANCE.populateChunk((WorldServer) this.worldObj, x, z);
-				MobSpawnHandler.INSTANCE.populateChunk((WorldServer) this.worldObj, x+1, z);
-				MobSpawnHandler.INSTANCE.populateChunk((WorldServer) this.worldObj, x+1, z+1);
-				MobSpawnHandler.INSTANCE.populateChunk((WorldServer) this.worldObj, x, z+1);
-			}
-		} else {
-			biome.decorate(this.worldObj, this.rand, new BlockPos(bx, 0, bz));
-			if(net.minecraftforge.event.terraingen.TerrainGen.populate(this, this.worldObj, this.rand, x, z, false, net.minecraftforge.event.terraingen.PopulateChunkEvent.Populate.EventType.ANIMALS)) {
-				WorldEntitySpawner.performWorldGenSpawning(this.worldObj, biome, bx + 8, bz + 8, 16, 16, this.rand);
+		long startTime = System.nanoTime();
+		long startNestedNanos = this.nestedNanos;
+		this.populateDepth++;
+
+		try {
+			BlockFalling.fallInstantly = true;
+			int bx = x * 16;
+			int bz = z * 16;
+			BlockPos blockPos = new BlockPos(bx, 0, bz);
+			Biome biome = this.worldObj.getBiome(blockPos.add(16, 0, 16));
+			this.rand.setSeed(this.worldObj.getSeed());
+			long seedX = this.rand.nextLong() / 2L * 2L + 1L;
+			long seedZ = this.rand.nextLong() / 2L * 2L + 1L;
+			this.rand.setSeed((long)x * seedX + (long)z * seedZ ^ this.worldObj.getSeed());
+
+			ForgeEventFactory.onChunkPopulate(true, this, this.worldObj, this.rand, x, z, false);
+
+			if(biome instanceof BiomeBetweenlands) {
+				BiomeDecoratorBetweenlands decorator = ((BiomeBetweenlands)biome).getBiomeGenerator().getDecorator();
+				if(decorator != null) {
+					decorator.decorate(this.worldObj, this, this.rand, bx, bz);
+				}
+				if(this.worldObj instanceof WorldServer) {
+					MobSpawnHandler.INSTANCE.populateChunk((WorldServer) this.worldObj, x, z);
+					MobSpawnHandler.INSTANCE.populateChunk((WorldServer) this.worldObj, x+1, z);
+					MobSpawnHandler.INSTANCE.populateChunk((WorldServer) this.worldObj, x+1, z+1);
+					MobSpawnHandler.INSTANCE.populateChunk((WorldServer) this.worldObj, x, z+1);
+				}
+			} else {
+				biome.decorate(this.worldObj, this.rand, new BlockPos(bx, 0, bz));
+				if(net.minecraftforge.event.terraingen.TerrainGen.populate(this, this.worldObj, this.rand, x, z, false, net.minecraftforge.event.terraingen.PopulateChunkEvent.Populate.EventType.ANIMALS)) {
+					WorldEntitySpawner.performWorldGenSpawning(this.worldObj, biome, bx + 8, bz + 8, 16, 16, this.rand);
+				}
 			}
+
+			ForgeEventFactory.onChunkPopulate(false, this, this.worldObj, this.rand, x, z, false);
+
+			BlockFalling.fallInstantly = false;
+		} finally {
+			this.populateDepth--;
+
+			//Cascaded generation and population is already counted by the nested calls
+			long elapsed = System.nanoTime() - startTime;
+			this.populatedChunks++;
+			this.populateNanos += elapsed - (this.nestedNanos - startNestedNanos);
+			this.nestedNanos = startNestedNanos + elapsed;
 		}
+	}
+
+	/**
+	 * Returns how many chunks were generated by this generator
+	 * @return
+	 */
+	public long getGeneratedChunks() {
+		return this.generatedChunks;
+	}
+
+	/**
+	 * Returns the total time spent generating chunks in nanoseconds
+	 * @return
+	 */
+	public long getGenerateNanos() {
+		return this.generateNanos;
+	}
+
+	/**
+	 * Returns how many chunks were populated by this generator
+	 * @return
+	 */
+	public long getPopulatedChunks() {
+		return this.populatedChunks;
+	}
 
-		ForgeEventFactory.onChunkPopulate(false, this, this.worldObj, this.rand, x, z, false);
+	/**
+	 * Returns the total time spent populating chunks in nanoseconds, excluding
+	 * the generation of chunks that were cascaded by the population
+	 * @return
+	 */
+	public long getPopulateNanos() {
+		return this.populateNanos;
+	}
 
-		BlockFalling.fallInstantly = false;
+	/**
+	 * Returns how many chunks were generated while another chunk was being populated,
+	 * i.e. how often population caused cascading chunk generation
+	 * @return
+	 */
+	public long getCascadingGenerations() {
+		return this.cascadingGenerations;
 	}
 
 	@Override
@@ -0,0 +1,244 @@
+package thebetweenlands.common.world.gen;
+
+import javax.annotation.Nullable;
+
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.gen.ChunkProviderServer;
+import thebetweenlands.util.config.ConfigHandler;
+
+/**
+ * Generates and populates a square area of chunks in the background. Chunks are processed
+ * column by column under a time budget per tick, and the progress is saved with the world so that
+ * pre-generation resumes after a restart. The base terrain of upcoming chunks is generated ahead
+ * on worker threads, see {@link ChunkGeneratorBetweenlands#scheduleTerrain(int, int)}.
+ */
+public class WorldPregenerator {
+	//Number of chunks ahead of the current chunk whose base terrain is scheduled
+	private static final int TERRAIN_LOOKAHEAD = 32;
+
+	private final WorldServer world;
+	private final int centerX, centerZ, radius;
+
+	//Chunks are populated once their +X, +Z and +XZ neighbours exist, so one more row and column is generated
+	private final int minX, minZ, size;
+	private final long totalChunks;
+
+	private long index = 0;
+	private long scheduledIndex = 0;
+
+	//Metrics since the pregenerator was started or loaded
+	private final long sessionStart = System.nanoTime();
+	private final long sessionStartIndex;
+	private long startGeneratedChunks = -1, startGenerateNanos, startPopulatedChunks, startPopulateNanos, startCascadingGenerations;
+
+	/**
+	 * @param world
+	 * @param centerX Center chunk X
+	 * @param centerZ Center chunk Z
+	 * @param radius Radius in chunks
+	 */
+	public WorldPregenerator(WorldServer world, int centerX, int centerZ, int radius) {
+		this(world, centerX, centerZ, radius, 0);
+	}
+
+	private WorldPregenerator(WorldServer world, int centerX, int centerZ, int radius, long index) {
+		this.world = world;
+		this.centerX = centerX;
+		this.centerZ = centerZ;
+		this.radius = radius;
+		this.minX = centerX - radius;
+		this.minZ = centerZ - radius;
+		this.size = radius * 2 + 2;
+		this.totalChunks = (long) this.size * this.size;
+		this.index = this.scheduledIndex = this.sessionStartIndex = Math.min(index, this.totalChunks);
+	}
+
+	/**
+	 * Returns the generator of the world if it is a Betweenlands generator
+	 * @param world
+	 * @return
+	 */
+	@Nullable
+	public static ChunkGeneratorBetweenlands getGenerator(WorldServer world) {
+		if(world.getChunkProvider().chunkGenerator instanceof ChunkGeneratorBetweenlands) {
+			return (ChunkGeneratorBetweenlands) world.getChunkProvider().chunkGenerator;
+		}
+		return null;
+	}
+
+	/**
+	 * Processes chunks until the time budget of this tick is used up
+	 * @return True if all chunks have been processed
+	 */
+	public boolean update() {
+		ChunkGeneratorBetweenlands generator = getGenerator(this.world);
+		if(generator == null) {
+			return true;
+		}
+
+		if(this.startGeneratedChunks < 0) {
+			this.startGeneratedChunks = generator.getGeneratedChunks();
+			this.startGenerateNanos = generator.getGenerateNanos();
+			this.startPopulatedChunks = generator.getPopulatedChunks();
+			this.startPopulateNanos = generator.getPopulateNanos();
+			this.startCascadingGenerations = generator.getCascadingGenerations();
+		}
+
+		ChunkProviderServer provider = this.world.getChunkProvider();
+
+		long startTime = System.nanoTime();
+		long budget = ConfigHandler.pregenTickBudget * 1000L;
+
+		while(this.index < this.totalChunks && System.nanoTime() - startTime < budget) {
+			//Keep the worker threads busy with the upcoming chunks
+			while(this.scheduledIndex < this.totalChunks && this.scheduledIndex < this.index + TERRAIN_LOOKAHEAD) {
+				int x = this.getChunkX(this.scheduledIndex);
+				int z = this.getChunkZ(this.scheduledIndex);
+				if(!provider.isChunkGeneratedAt(x, z)) {
+					generator.scheduleTerrain(x, z);
+				}
+				this.scheduledIndex++;
+			}
+
+			int x = this.getChunkX(this.index);
+			int z = this.getChunkZ(this.index);
+
+			//Generates, loads and populates the chunk as necessary
+			provider.provideChunk(x, z);
+
+			this.index++;
+
+			if(z == this.minZ + this.size - 1) {
+				//Chunks two columns behind can no longer be touched by population
+				this.unloadColumn(provider, x - 2);
+			}
+		}
+
+		if(this.index >= this.totalChunks) {
+			this.finish();
+			return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Stops the pregeneration and discards the scheduled terrain
+	 */
+	public void finish() {
+		ChunkGeneratorBetweenlands generator = getGenerator(this.world);
+		if(generator != null) {
+			generator.cancelScheduledTerrain();
+		}
+		ChunkProviderServer provider = this.world.getChunkProvider();
+		int lastColumn = this.getChunkX(Math.max(this.index - 1, 0));
+		this.unloadColumn(provider, lastColumn - 1);
+		this.unloadColumn(provider, lastColumn);
+	}
+
+	private void unloadColumn(ChunkProviderServer provider, int x) {
+		for(int z = this.minZ; z < this.minZ + this.size; z++) {
+			Chunk chunk = provider.getLoadedChunk(x, z);
+			if(chunk != null && !this.world.getPlayerChunkMap().contains(x, z)) {
+				provider.queueUnload(chunk);
+			}
+		}
+	}
+
+	private int getChunkX(long index) {
+		return this.minX + (int) (index / this.size);
+	}
+
+	private int getChunkZ(long index) {
+		return this.minZ + (int) (index % this.size);
+	}
+
+	public int getCenterX() {
+		return this.centerX;
+	}
+
+	public int getCenterZ() {
+		return this.centerZ;
+	}
+
+	public int getRadius() {
+		return this.radius;
+	}
+
+	/**
+	 * Returns the number of processed chunks
+	 * @return
+	 */
+	public long getProcessedChunks() {
+		return this.index;
+	}
+
+	/**
+	 * Returns the total number of chunks to process
+	 * @return
+	 */
+	public long getTotalChunks() {
+		return this.totalChunks;
+	}
+
+	/**
+	 * Returns the number of processed chunks per second since the pregenerator was started or loaded
+	 * @return
+	 */
+	public double getChunksPerSecond() {
+		double seconds = (System.nanoTime() - this.sessionStart) / 1000000000.0D;
+		return seconds > 0 ? (this.index - this.sessionStartIndex) / seconds : 0;
+	}
+
+	/**
+	 * Returns the average time in milliseconds it took to generate a chunk
+	 * @return
+	 */
+	public double getAverageGenerateMillis() {
+		ChunkGeneratorBetweenlands generator = getGenerator(this.world);
+		if(generator == null || this.startGeneratedChunks < 0) {
+			return 0;
+		}
+		long chunks = generator.getGeneratedChunks() - this.startGeneratedChunks;
+		return chunks > 0 ? (generator.getGenerateNanos() - this.startGenerateNanos) / 1000000.0D / chunks : 0;
+	}
+
+	/**
+	 * Returns the average time in milliseconds it took to populate a chunk
+	 * @return
+	 */
+	public double getAveragePopulateMillis() {
+		ChunkGeneratorBetweenlands generator = getGenerator(this.world);
+		if(generator == null || this.startGeneratedChunks < 0) {
+			return 0;
+		}
+		long chunks = generator.getPopulatedChunks() - this.startPopulatedChunks;
+		return chunks > 0 ? (generator.getPopulateNanos() - this.startPopulateNanos) / 1000000.0D / chunks : 0;
+	}
+
+	/**
+	 * Returns how many chunks were generated by cascading population
+	 * @return
+	 */
+	public long getCascadingGenerations() {
+		ChunkGeneratorBetweenlands generator = getGenerator(this.world);
+		if(generator == null || this.startGeneratedChunks < 0) {
+			return 0;
+		}
+		return generator.getCascadingGenerations() - this.startCascadingGenerations;
+	}
+
+	public NBTTagCompound writeToNBT(NBTTagCompound nbt) {
+		nbt.setInteger("centerX", this.centerX);
+		nbt.setInteger("centerZ", this.centerZ);
+		nbt.setInteger("radius", this.radius);
+		nbt.setLong("index", this.index);
+		return nbt;
+	}
+
+	public static WorldPregenerator readFromNBT(WorldServer world, NBTTagCompound nbt) {
+		return new WorldPregenerator(world, nbt.getInteger("centerX"), nbt.getInteger("centerZ"), nbt.getInteger("radius"), nbt.getLong("index"));
+	}
+}
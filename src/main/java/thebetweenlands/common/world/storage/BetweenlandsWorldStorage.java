@@ -3,10 +3,14 @@ package thebetweenlands.common.world.storage;
 import java.util.HashMap;
 import java.util.Map;
 
+import javax.annotation.Nullable;
+
 import gnu.trove.map.TIntLongMap;
 import gnu.trove.map.hash.TIntLongHashMap;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.world.World;
+import net.minecraft.world.WorldServer;
+import net.minecraftforge.common.DimensionManager;
 import net.minecraftforge.common.util.Constants;
 import thebetweenlands.api.environment.IEnvironmentEvent;
 import thebetweenlands.api.storage.IWorldStorage;
@@ -15,6 +19,7 @@ import thebetweenlands.common.registries.BiomeRegistry;
 import thebetweenlands.common.world.biome.BiomeBetweenlands;
 import thebetweenlands.common.world.biome.spawning.MobSpawnHandler.BLSpawnEntry;
 import thebetweenlands.common.world.event.BLEnvironmentEventRegistry;
+import thebetweenlands.common.world.gen.WorldPregenerator;
 
 public class BetweenlandsWorldStorage extends WorldStorageImpl {
 	private BLEnvironmentEventRegistry environmentEventRegistry;
@@ -23,6 +28,9 @@ public class BetweenlandsWorldStorage extends WorldStorageImpl {
 	private Map<BiomeBetweenlands, BiomeSpawnEntriesData> biomeSpawnEntriesData = new HashMap<>();
 
 	private int environmentEventSyncTicks;
+
+	@Nullable
+	private WorldPregenerator pregenerator;
 	
 	public BLEnvironmentEventRegistry getEnvironmentEventRegistry() {
 		return this.environmentEventRegistry;
@@ -40,6 +48,36 @@ public class BetweenlandsWorldStorage extends WorldStorageImpl {
 		return data;
 	}
 
+	/**
+	 * Returns the currently running pregenerator
+	 * @return
+	 */
+	@Nullable
+	public WorldPregenerator getPregenerator() {
+		return this.pregenerator;
+	}
+
+	/**
+	 * Sets the pregenerator that is updated every tick until it is done.
+	 * The dimension is kept loaded while a pregenerator is running
+	 * @param pregenerator
+	 */
+	public void setPregenerator(@Nullable WorldPregenerator pregenerator) {
+		this.pregenerator = pregenerator;
+		if(!this.getWorld().isRemote) {
+			DimensionManager.keepDimensionLoaded(this.getWorld().provider.getDimension(), pregenerator != null);
+		}
+	}
+
+	@Override
+	public void tick() {
+		super.tick();
+
+		if(this.pregenerator != null && this.pregenerator.update()) {
+			this.setPregenerator(null);
+		}
+	}
+
 	@Override
 	protected void init() {
 		this.environmentEventRegistry = new BLEnvironmentEventRegistry(this.getWorld());
@@ -80,6 +118,12 @@ public class BetweenlandsWorldStorage extends WorldStorageImpl {
 					}
 				}
 			}
+
+			WorldPregenerator pregenerator = null;
+			if(nbt.hasKey("pregenerator", Constants.NBT.TAG_COMPOUND)) {
+				pregenerator = WorldPregenerator.readFromNBT((WorldServer) this.getWorld(), nbt.getCompoundTag("pregenerator"));
+			}
+			this.setPregenerator(pregenerator);
 		}
 	}
 
@@ -107,6 +151,10 @@ public class BetweenlandsWorldStorage extends WorldStorageImpl {
 				biomesNbt.setTag(biome.getRegistryName().toString(), biomeSpawnEntriesNbt);
 			}
 			nbt.setTag("biomeData", biomesNbt);
+
+			if(this.pregenerator != null) {
+				nbt.setTag("pregenerator", this.pregenerator.writeToNBT(new NBTTagCompound()));
+			}
 		}
 	}
 
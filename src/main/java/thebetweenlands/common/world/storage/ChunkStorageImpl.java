@@ -260,6 +260,7 @@ public abstract class ChunkStorageImpl implements IChunkStorage, ITickable {
 			}
 			this.markDirty();
 			this.syncStorageLinks = true;
+			this.scheduleUpdate();
 			return true;
 		}
 		return false;
@@ -276,6 +277,7 @@ public abstract class ChunkStorageImpl implements IChunkStorage, ITickable {
 		if(this.localStorageReferences.add(ref)) {
 			this.markDirty();
 			this.syncStorageLinks = true;
+			this.scheduleUpdate();
 			return true;
 		}
 		return false;
@@ -286,6 +288,16 @@ public abstract class ChunkStorageImpl implements IChunkStorage, ITickable {
 		return Collections.unmodifiableCollection(this.localStorageReferences);
 	}
 
+	/**
+	 * Schedules this chunk storage to be updated during the next world storage tick.
+	 * Chunk storages are only updated when scheduled
+	 */
+	protected void scheduleUpdate() {
+		if(this.worldStorage instanceof WorldStorageImpl) {
+			((WorldStorageImpl) this.worldStorage).scheduleChunkStorageUpdate(this);
+		}
+	}
+
 	@Override
 	public void update() {
 		if(this.syncStorageLinks) {
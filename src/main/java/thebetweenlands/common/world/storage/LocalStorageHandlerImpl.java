@@ -14,8 +14,8 @@ import javax.annotation.Nullable;
 
 import com.google.common.base.Predicate;
 
+import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
-import net.minecraft.nbt.CompressedStreamTools;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.ITickable;
 import net.minecraft.util.ResourceLocation;
@@ -23,6 +23,7 @@ import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.ChunkPos;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.world.World;
+import net.minecraft.world.WorldServer;
 import net.minecraft.world.chunk.Chunk;
 import thebetweenlands.api.storage.IChunkStorage;
 import thebetweenlands.api.storage.ILocalStorage;
@@ -34,6 +35,8 @@ import thebetweenlands.api.storage.LocalRegionData;
 import thebetweenlands.api.storage.LocalStorageReference;
 import thebetweenlands.api.storage.StorageID;
 import thebetweenlands.common.registries.StorageRegistry;
+import thebetweenlands.util.TickProfiler;
+import thebetweenlands.util.config.ConfigHandler;
 
 public class LocalStorageHandlerImpl implements ILocalStorageHandler {
 	private final IWorldStorage worldStorage;
@@ -42,15 +45,20 @@ public class LocalStorageHandlerImpl implements ILocalStorageHandler {
 
 	private final Map<StorageID, ILocalStorage> localStorage = new HashMap<StorageID, ILocalStorage>();
 	private final List<ILocalStorage> tickableLocalStorage = new ArrayList<>();
+	private final LocalStorageIndex index = new LocalStorageIndex();
 
 	private final LocalRegionCache regionCache;
 
+	//Ticks between region read-aheads and additional chunk range around the view distance
+	private static final int PREFETCH_INTERVAL = 10;
+	private static final int PREFETCH_MARGIN = 2;
+
 	public LocalStorageHandlerImpl(IWorldStorage worldStorage) {
 		this.worldStorage = worldStorage;
 		this.world = worldStorage.getWorld();
 		String dimFolder = this.world.provider.getSaveFolder();
 		this.localStorageDir = new File(this.world.getSaveHandler().getWorldDirectory(), (dimFolder != null && dimFolder.length() > 0 ? dimFolder + File.separator : "") + "data" + File.separator + "local_storage" + File.separator);
-		this.regionCache = new LocalRegionCache(new File(this.localStorageDir, "region"));
+		this.regionCache = new LocalRegionCache(new File(this.localStorageDir, "region"), ConfigHandler.maxCachedStorageRegions, ConfigHandler.maxStorageRegionCacheSize * 1024L);
 	}
 
 	@Override
@@ -62,6 +70,7 @@ public class LocalStorageHandlerImpl implements ILocalStorageHandler {
 	public boolean addLocalStorage(ILocalStorage storage) {
 		if(!this.localStorage.containsKey(storage.getID()) && !storage.getLinkedChunks().isEmpty()) {
 			this.localStorage.put(storage.getID(), storage);
+			this.index.add(storage);
 
 			if(storage instanceof ITickable) {
 				this.tickableLocalStorage.add(storage);
@@ -102,6 +111,7 @@ public class LocalStorageHandlerImpl implements ILocalStorageHandler {
 			}
 
 			this.localStorage.remove(storage.getID());
+			this.index.remove(storage);
 
 			Iterator<ILocalStorage> it = this.tickableLocalStorage.iterator();
 			ILocalStorage tickableStorage = null;
@@ -130,63 +140,30 @@ public class LocalStorageHandlerImpl implements ILocalStorageHandler {
 		return this.localStorage.get(id);
 	}
 
-	@SuppressWarnings("unchecked")
 	@Override
 	public <T extends ILocalStorage> List<T> getLocalStorages(Class<T> type, double x, double z, @Nullable Predicate<T> filter) {
-		List<T> storages = new ArrayList<>();
-		int cx = MathHelper.floor(x) >> 4;
-		int cz = MathHelper.floor(z) >> 4;
-		Chunk chunk = this.world.getChunkFromChunkCoords(cx, cz);
-		IChunkStorage chunkStorage = this.getWorldStorage().getChunkStorage(chunk);
-		if(chunkStorage != null) {
-			for(LocalStorageReference ref : chunkStorage.getLocalStorageReferences()) {
-				ILocalStorage localStorage = this.getLocalStorage(ref.getID());
-				if(localStorage != null && localStorage.getBoundingBox() != null && type.isAssignableFrom(localStorage.getClass())
-						&& (filter == null || filter.apply((T) localStorage))) {
-					if(!storages.contains(localStorage)) {
-						storages.add((T) localStorage);
-					}
-				}
-			}
+		TickProfiler.LOCAL_STORAGE_QUERIES.start();
+		try {
+			return this.index.query(type, x, z, filter);
+		} finally {
+			TickProfiler.LOCAL_STORAGE_QUERIES.stop();
 		}
-		return storages;
 	}
 
-	@SuppressWarnings("unchecked")
 	@Override
 	public <T extends ILocalStorage> List<T> getLocalStorages(Class<T> type, AxisAlignedBB aabb, @Nullable Predicate<T> filter) {
-		List<T> storages = new ArrayList<>();
-		int sx = MathHelper.floor(aabb.minX) >> 4;
-		int sz = MathHelper.floor(aabb.minZ) >> 4;
-		int ex = MathHelper.floor(aabb.maxX) >> 4;
-		int ez = MathHelper.floor(aabb.maxZ) >> 4;
-		for(int cx = sx; cx <= ex; cx++) {
-			for(int cz = sz; cz <= ez; cz++) {
-				Chunk chunk = this.world.getChunkFromChunkCoords(cx, cz);
-				IChunkStorage chunkStorage = this.getWorldStorage().getChunkStorage(chunk);
-				if(chunkStorage != null) {
-					for(LocalStorageReference ref : chunkStorage.getLocalStorageReferences()) {
-						ILocalStorage localStorage = this.getLocalStorage(ref.getID());
-						if(localStorage != null && localStorage.getBoundingBox() != null && type.isAssignableFrom(localStorage.getClass()) && localStorage.getBoundingBox().intersects(aabb)
-								&& (filter == null || filter.apply((T) localStorage))) {
-							if(!storages.contains(localStorage)) {
-								storages.add((T) localStorage);
-							}
-						}
-					}
-				}
-			}
+		TickProfiler.LOCAL_STORAGE_QUERIES.start();
+		try {
+			return this.index.query(type, aabb, filter);
+		} finally {
+			TickProfiler.LOCAL_STORAGE_QUERIES.stop();
 		}
-		return storages;
 	}
 
 	@Override
 	public void deleteLocalStorageFile(ILocalStorage storage) {
 		if(storage.getRegion() == null) {
-			File file = new File(this.getLocalStorageDirectory(), storage.getID().getStringID() + ".dat");
-			if(file.exists()) {
-				file.delete();
-			}
+			LocalStorageIO.INSTANCE.delete(new File(this.getLocalStorageDirectory(), storage.getID().getStringID() + ".dat"));
 		} else {
 			LocalRegionData regionData = this.regionCache.getOrCreateRegion(storage.getRegion());
 			if(regionData != null) {
@@ -199,14 +176,7 @@ public class LocalStorageHandlerImpl implements ILocalStorageHandler {
 	public void saveLocalStorageFile(ILocalStorage storage) {
 		NBTTagCompound nbt = this.saveLocalStorageToNBT(new NBTTagCompound(), storage, false);
 		if(storage.getRegion() == null) {
-			try {
-				File savePath = this.getLocalStorageDirectory();
-				savePath.mkdirs();
-				File file = new File(savePath, storage.getID().getStringID() + ".dat");
-				CompressedStreamTools.safeWrite(nbt, file);
-			} catch(Exception ex) {
-				throw new RuntimeException(ex);
-			}
+			LocalStorageIO.INSTANCE.write(new File(this.getLocalStorageDirectory(), storage.getID().getStringID() + ".dat"), nbt);
 		} else {
 			LocalRegionData region = this.regionCache.getOrCreateRegion(storage.getRegion());
 			region.setLocalStorageNBT(storage.getID(), nbt);
@@ -238,14 +208,14 @@ public class LocalStorageHandlerImpl implements ILocalStorageHandler {
 	@Nullable
 	private ILocalStorage createLocalStorageFromFile(LocalStorageReference reference) {
 		if(!reference.hasRegion()) {
-			File file = new File(this.getLocalStorageDirectory(), reference.getID().getStringID() + ".dat");
-			if(file.exists()) {
-				try {
-					NBTTagCompound nbt = CompressedStreamTools.read(file);
-					return this.createLocalStorageFromNBT(nbt, null, false);
-				} catch(Exception ex) {
-					throw new RuntimeException(ex);
-				}
+			NBTTagCompound nbt;
+			try {
+				nbt = LocalStorageIO.INSTANCE.read(new File(this.getLocalStorageDirectory(), reference.getID().getStringID() + ".dat"));
+			} catch(Exception ex) {
+				throw new RuntimeException(ex);
+			}
+			if(nbt != null) {
+				return this.createLocalStorageFromNBT(nbt, null, false);
 			}
 		} else {
 			LocalRegionData region = this.regionCache.getOrCreateRegion(reference.getRegion());
@@ -267,6 +237,7 @@ public class LocalStorageHandlerImpl implements ILocalStorageHandler {
 			}
 
 			this.localStorage.remove(storage.getID());
+			this.index.remove(storage);
 
 			Iterator<ILocalStorage> it = this.tickableLocalStorage.iterator();
 			ILocalStorage tickableStorage = null;
@@ -283,11 +254,9 @@ public class LocalStorageHandlerImpl implements ILocalStorageHandler {
 				LocalRegionData data = this.regionCache.getOrCreateRegion(storage.getRegion());
 				data.decrRefCounter();
 
-				if(!data.hasReferences()) {
-					if(data.isDirty()) {
-						data.saveRegion(this.regionCache.getDir());
-					}
-					this.regionCache.removeRegion(storage.getRegion());
+				//Unreferenced regions stay cached until they are evicted by the cache
+				if(!data.hasReferences() && data.isDirty()) {
+					data.saveRegion(this.regionCache.getDir());
 				}
 			}
 
@@ -312,6 +281,34 @@ public class LocalStorageHandlerImpl implements ILocalStorageHandler {
 			ILocalStorage localStorage = this.tickableLocalStorage.get(i);
 			((ITickable)localStorage).update();
 		}
+
+		//Bounding boxes may have changed since the storages were added
+		this.index.update();
+
+		if(!this.world.isRemote) {
+			if(this.world.getTotalWorldTime() % PREFETCH_INTERVAL == 0) {
+				this.prefetchRegions();
+			}
+			this.regionCache.tick();
+		}
+	}
+
+	/**
+	 * Starts reading the regions around players in the background so that
+	 * the regions are already available once the chunks referencing them are loaded
+	 */
+	private void prefetchRegions() {
+		int range = ((WorldServer) this.world).getMinecraftServer().getPlayerList().getViewDistance() + PREFETCH_MARGIN;
+		for(EntityPlayer player : this.world.playerEntities) {
+			int cx = MathHelper.floor(player.posX) >> 4;
+			int cz = MathHelper.floor(player.posZ) >> 4;
+			//Regions span 32x32 chunks
+			for(int rx = (cx - range) >> 5; rx <= (cx + range) >> 5; rx++) {
+				for(int rz = (cz - range) >> 5; rz <= (cz + range) >> 5; rz++) {
+					this.regionCache.prefetchRegion(LocalRegion.getFromBlockPos(rx << 9, rz << 9));
+				}
+			}
+		}
 	}
 
 	@Override
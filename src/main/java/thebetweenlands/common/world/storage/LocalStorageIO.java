@@ -0,0 +1,281 @@
+package thebetweenlands.common.world.storage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongConsumer;
+
+import javax.annotation.Nullable;
+
+import com.google.common.io.CountingInputStream;
+import com.google.common.io.CountingOutputStream;
+
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTSizeTracker;
+import net.minecraft.nbt.NBTTagCompound;
+import thebetweenlands.common.TheBetweenlands;
+
+/**
+ * Performs the file I/O of the local storage system on a dedicated thread.
+ * Writes are coalesced per file, i.e. if a file is written several times before the
+ * I/O thread gets to it only the latest data is written. Reads always see the data of
+ * pending writes. NBT that is passed to this class must not be modified afterwards.
+ */
+public final class LocalStorageIO {
+	public static final LocalStorageIO INSTANCE = new LocalStorageIO();
+
+	private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "BL Local Storage I/O");
+		thread.setDaemon(true);
+		thread.setPriority(Thread.NORM_PRIORITY - 1);
+		return thread;
+	});
+
+	//Latest data per file that has not been written yet. Entries are only removed once written
+	private final Map<File, PendingWrite> pendingWrites = new ConcurrentHashMap<>();
+
+	private static class PendingWrite {
+		//Null if the file is to be deleted
+		@Nullable
+		private final NBTTagCompound nbt;
+
+		//Called with the size of the written NBT
+		@Nullable
+		private final LongConsumer onWritten;
+
+		//Readers of the pending data that want to know its size once it is written. Guarded by this
+		private List<LongConsumer> sizeListeners;
+		private long size = -1;
+
+		private PendingWrite(@Nullable NBTTagCompound nbt, @Nullable LongConsumer onWritten) {
+			this.nbt = nbt;
+			this.onWritten = onWritten;
+		}
+
+		private synchronized void addSizeListener(LongConsumer listener) {
+			if(this.size >= 0) {
+				listener.accept(this.size);
+			} else {
+				if(this.sizeListeners == null) {
+					this.sizeListeners = new ArrayList<>();
+				}
+				this.sizeListeners.add(listener);
+			}
+		}
+
+		private synchronized void setSize(long size) {
+			this.size = size;
+			if(this.onWritten != null) {
+				this.onWritten.accept(size);
+			}
+			if(this.sizeListeners != null) {
+				for(LongConsumer listener : this.sizeListeners) {
+					listener.accept(size);
+				}
+				this.sizeListeners = null;
+			}
+		}
+	}
+
+	private LocalStorageIO() { }
+
+	/**
+	 * Schedules the specified NBT to be written to the file
+	 * @param file
+	 * @param nbt Data to write, must not be modified afterwards
+	 */
+	public void write(File file, NBTTagCompound nbt) {
+		this.write(file, nbt, null);
+	}
+
+	/**
+	 * Schedules the specified NBT to be written to the file
+	 * @param file
+	 * @param nbt Data to write, must not be modified afterwards
+	 * @param onWritten Called on the I/O thread with the uncompressed size of the written NBT in bytes.
+	 * Not called if the write was superseded by a newer write or failed
+	 */
+	public void write(File file, NBTTagCompound nbt, @Nullable LongConsumer onWritten) {
+		this.schedule(file, new PendingWrite(nbt, onWritten));
+	}
+
+	/**
+	 * Schedules the file to be deleted
+	 * @param file
+	 */
+	public void delete(File file) {
+		this.schedule(file, new PendingWrite(null, null));
+	}
+
+	private void schedule(File file, PendingWrite write) {
+		//If there already is a pending write the queued task will pick up the latest data
+		if(this.pendingWrites.put(file, write) == null) {
+			this.executor.execute(() -> this.processWrites(file));
+		}
+	}
+
+	private void processWrites(File file) {
+		while(true) {
+			PendingWrite write = this.pendingWrites.get(file);
+			if(write == null) {
+				return;
+			}
+
+			try {
+				if(write.nbt != null) {
+					file.getParentFile().mkdirs();
+					write.setSize(writeFile(write.nbt, file));
+				} else if(file.exists()) {
+					file.delete();
+				}
+			} catch(Exception ex) {
+				TheBetweenlands.logger.error("Failed writing local storage file " + file, ex);
+			}
+
+			//Write again if newer data was scheduled in the meantime
+			if(this.pendingWrites.remove(file, write)) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Writes the NBT uncompressed to a temporary file and then replaces the file, same as
+	 * {@link CompressedStreamTools#safeWrite(NBTTagCompound, File)}
+	 * @param nbt
+	 * @param file
+	 * @return The size of the written NBT in bytes
+	 * @throws IOException
+	 */
+	private static long writeFile(NBTTagCompound nbt, File file) throws IOException {
+		File tmpFile = new File(file.getAbsolutePath() + "_tmp");
+		if(tmpFile.exists()) {
+			tmpFile.delete();
+		}
+		CountingOutputStream counter = new CountingOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)));
+		try(DataOutputStream out = new DataOutputStream(counter)) {
+			CompressedStreamTools.write(nbt, out);
+		}
+		if(file.exists()) {
+			file.delete();
+		}
+		if(file.exists()) {
+			throw new IOException("Failed to delete " + file);
+		}
+		tmpFile.renameTo(file);
+		return counter.getCount();
+	}
+
+	@Nullable
+	private static NBTTagCompound readFile(File file, @Nullable LongConsumer onSize) throws IOException {
+		if(!file.exists()) {
+			return null;
+		}
+		CountingInputStream counter = new CountingInputStream(new BufferedInputStream(new FileInputStream(file)));
+		NBTTagCompound nbt;
+		try(DataInputStream in = new DataInputStream(counter)) {
+			nbt = CompressedStreamTools.read(in, NBTSizeTracker.INFINITE);
+		}
+		if(onSize != null) {
+			onSize.accept(counter.getCount());
+		}
+		return nbt;
+	}
+
+	/**
+	 * Reads the file on the calling thread, taking pending writes into account
+	 * @param file
+	 * @return The read NBT or null if the file doesn't exist
+	 * @throws IOException
+	 */
+	@Nullable
+	public NBTTagCompound read(File file) throws IOException {
+		return this.read(file, null);
+	}
+
+	/**
+	 * Reads the file on the calling thread, taking pending writes into account
+	 * @param file
+	 * @param onSize Called with the uncompressed size of the read NBT in bytes. If the data
+	 * comes from a pending write it is called on the I/O thread once that write is done
+	 * @return The read NBT or null if the file doesn't exist
+	 * @throws IOException
+	 */
+	@Nullable
+	public NBTTagCompound read(File file, @Nullable LongConsumer onSize) throws IOException {
+		PendingWrite write = this.pendingWrites.get(file);
+		if(write != null) {
+			return this.readPending(write, onSize);
+		}
+		return readFile(file, onSize);
+	}
+
+	/**
+	 * Reads the file on the I/O thread, taking pending writes into account
+	 * @param file
+	 * @return
+	 */
+	public Future<NBTTagCompound> readAsync(File file) {
+		return this.readAsync(file, null);
+	}
+
+	/**
+	 * Reads the file on the I/O thread, taking pending writes into account
+	 * @param file
+	 * @param onSize Called with the uncompressed size of the read NBT in bytes, see {@link #read(File, LongConsumer)}
+	 * @return
+	 */
+	public Future<NBTTagCompound> readAsync(File file, @Nullable LongConsumer onSize) {
+		PendingWrite write = this.pendingWrites.get(file);
+		if(write != null) {
+			return CompletableFuture.completedFuture(this.readPending(write, onSize));
+		}
+		return this.executor.submit(() -> this.read(file, onSize));
+	}
+
+	@Nullable
+	private NBTTagCompound readPending(PendingWrite write, @Nullable LongConsumer onSize) {
+		if(write.nbt == null) {
+			return null;
+		}
+		if(onSize != null) {
+			write.addSizeListener(onSize);
+		}
+		return write.nbt.copy();
+	}
+
+	/**
+	 * Blocks until all reads and writes that were scheduled before this call are done
+	 */
+	public void flush() {
+		try {
+			this.executor.submit(() -> { }).get();
+		} catch(InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		} catch(ExecutionException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	/**
+	 * Returns the number of files that have not been written yet
+	 * @return
+	 */
+	public int getPendingWrites() {
+		return this.pendingWrites.size();
+	}
+}
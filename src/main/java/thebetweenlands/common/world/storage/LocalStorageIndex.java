@@ -0,0 +1,184 @@
+package thebetweenlands.common.world.storage;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import com.google.common.base.Predicate;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.MathHelper;
+import thebetweenlands.api.storage.ILocalStorage;
+
+/**
+ * Grid index of the bounding boxes of the loaded local storages. Each storage is
+ * added to every chunk sized cell its bounding box overlaps, so that queries only
+ * have to look at the cells they cover and never have to access any chunks.
+ */
+public class LocalStorageIndex {
+	private final Map<ILocalStorage, Entry> entries = new IdentityHashMap<>();
+	private final Long2ObjectMap<List<Entry>> cells = new Long2ObjectOpenHashMap<>();
+
+	private static class Entry {
+		private final ILocalStorage storage;
+		private AxisAlignedBB indexedBox;
+		private int minCellX, minCellZ;
+
+		private Entry(ILocalStorage storage) {
+			this.storage = storage;
+		}
+	}
+
+	/**
+	 * Adds a storage to the index
+	 * @param storage
+	 */
+	public void add(ILocalStorage storage) {
+		if(!this.entries.containsKey(storage)) {
+			Entry entry = new Entry(storage);
+			this.entries.put(storage, entry);
+			this.insert(entry, storage.getBoundingBox());
+		}
+	}
+
+	/**
+	 * Removes a storage from the index
+	 * @param storage
+	 */
+	public void remove(ILocalStorage storage) {
+		Entry entry = this.entries.remove(storage);
+		if(entry != null) {
+			this.erase(entry);
+		}
+	}
+
+	/**
+	 * Re-indexes all storages whose bounding box has changed since they were indexed
+	 */
+	public void update() {
+		for(Entry entry : this.entries.values()) {
+			AxisAlignedBB box = entry.storage.getBoundingBox();
+			if(box != entry.indexedBox) {
+				this.erase(entry);
+				this.insert(entry, box);
+			}
+		}
+	}
+
+	/**
+	 * Clears the index
+	 */
+	public void clear() {
+		this.entries.clear();
+		this.cells.clear();
+	}
+
+	private void insert(Entry entry, @Nullable AxisAlignedBB box) {
+		entry.indexedBox = box;
+		if(box != null) {
+			int sx = MathHelper.floor(box.minX) >> 4;
+			int sz = MathHelper.floor(box.minZ) >> 4;
+			int ex = MathHelper.floor(box.maxX) >> 4;
+			int ez = MathHelper.floor(box.maxZ) >> 4;
+			entry.minCellX = sx;
+			entry.minCellZ = sz;
+			for(int cx = sx; cx <= ex; cx++) {
+				for(int cz = sz; cz <= ez; cz++) {
+					long key = ChunkPos.asLong(cx, cz);
+					List<Entry> cell = this.cells.get(key);
+					if(cell == null) {
+						this.cells.put(key, cell = new ArrayList<>(2));
+					}
+					cell.add(entry);
+				}
+			}
+		}
+	}
+
+	private void erase(Entry entry) {
+		AxisAlignedBB box = entry.indexedBox;
+		if(box != null) {
+			int sx = MathHelper.floor(box.minX) >> 4;
+			int sz = MathHelper.floor(box.minZ) >> 4;
+			int ex = MathHelper.floor(box.maxX) >> 4;
+			int ez = MathHelper.floor(box.maxZ) >> 4;
+			for(int cx = sx; cx <= ex; cx++) {
+				for(int cz = sz; cz <= ez; cz++) {
+					long key = ChunkPos.asLong(cx, cz);
+					List<Entry> cell = this.cells.get(key);
+					if(cell != null) {
+						cell.remove(entry);
+						if(cell.isEmpty()) {
+							this.cells.remove(key);
+						}
+					}
+				}
+			}
+		}
+		entry.indexedBox = null;
+	}
+
+	/**
+	 * Returns all storages of the specified type whose bounding box overlaps the chunk at the specified position
+	 * @param type
+	 * @param x
+	 * @param z
+	 * @param filter
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends ILocalStorage> List<T> query(Class<T> type, double x, double z, @Nullable Predicate<T> filter) {
+		List<T> storages = new ArrayList<>();
+		List<Entry> cell = this.cells.get(ChunkPos.asLong(MathHelper.floor(x) >> 4, MathHelper.floor(z) >> 4));
+		if(cell != null) {
+			for(int i = 0; i < cell.size(); i++) {
+				ILocalStorage storage = cell.get(i).storage;
+				if(type.isInstance(storage) && storage.getBoundingBox() != null && (filter == null || filter.apply((T) storage))) {
+					storages.add((T) storage);
+				}
+			}
+		}
+		return storages;
+	}
+
+	/**
+	 * Returns all storages of the specified type whose bounding box intersects the specified AABB
+	 * @param type
+	 * @param aabb
+	 * @param filter
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends ILocalStorage> List<T> query(Class<T> type, AxisAlignedBB aabb, @Nullable Predicate<T> filter) {
+		List<T> storages = new ArrayList<>();
+		int sx = MathHelper.floor(aabb.minX) >> 4;
+		int sz = MathHelper.floor(aabb.minZ) >> 4;
+		int ex = MathHelper.floor(aabb.maxX) >> 4;
+		int ez = MathHelper.floor(aabb.maxZ) >> 4;
+		for(int cx = sx; cx <= ex; cx++) {
+			for(int cz = sz; cz <= ez; cz++) {
+				List<Entry> cell = this.cells.get(ChunkPos.asLong(cx, cz));
+				if(cell != null) {
+					for(int i = 0; i < cell.size(); i++) {
+						Entry entry = cell.get(i);
+						//Entries spanning several cells are only checked in the first cell they share with the query
+						if(cx == Math.max(sx, entry.minCellX) && cz == Math.max(sz, entry.minCellZ)) {
+							ILocalStorage storage = entry.storage;
+							AxisAlignedBB box = storage.getBoundingBox();
+							if(type.isInstance(storage) && box != null && box.intersects(aabb) && (filter == null || filter.apply((T) storage))) {
+								storages.add((T) storage);
+							}
+						}
+					}
+				}
+			}
+		}
+		return storages;
+	}
+}
@@ -1,18 +1,17 @@
 package thebetweenlands.common.world.storage;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Callable;
 
 import javax.annotation.Nullable;
 
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
 import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.nbt.NBTBase;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.EnumFacing;
-import net.minecraft.util.ITickable;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.math.ChunkPos;
 import net.minecraft.world.World;
@@ -29,6 +28,7 @@ import thebetweenlands.api.storage.ILocalStorageHandler;
 import thebetweenlands.api.storage.IWorldStorage;
 import thebetweenlands.common.TheBetweenlands;
 import thebetweenlands.common.lib.ModInfo;
+import thebetweenlands.util.TickProfiler;
 import thebetweenlands.util.config.ConfigHandler;
 
 public abstract class WorldStorageImpl implements IWorldStorage {
@@ -129,8 +129,10 @@ public abstract class WorldStorageImpl implements IWorldStorage {
 	@CapabilityInject(IWorldStorage.class)
 	public static final Capability<IWorldStorage> CAPABILITY_INSTANCE = null;
 
-	private Map<ChunkPos, ChunkStorageImpl> storageMap = new HashMap<>();
-	private List<ITickable> tickableStorages = new ArrayList<>();
+	private Long2ObjectMap<ChunkStorageImpl> storageMap = new Long2ObjectOpenHashMap<>();
+
+	//Only chunk storages that have pending work are ticked
+	private Set<ChunkStorageImpl> scheduledStorages = new ReferenceOpenHashSet<>();
 
 	private World world;
 
@@ -160,17 +162,24 @@ public abstract class WorldStorageImpl implements IWorldStorage {
 
 	}
 
+	/**
+	 * Schedules the chunk storage to be updated during the next tick
+	 * @param storage
+	 */
+	public void scheduleChunkStorageUpdate(ChunkStorageImpl storage) {
+		if(this.storageMap.get(ChunkPos.asLong(storage.getChunk().x, storage.getChunk().z)) == storage) {
+			this.scheduledStorages.add(storage);
+		}
+	}
+
 	@Override
 	public void loadChunk(Chunk chunk) {
-		if(!this.storageMap.containsKey(chunk.getPos())) {
+		long key = ChunkPos.asLong(chunk.x, chunk.z);
+		if(!this.storageMap.containsKey(key)) {
 			ChunkStorageImpl storage = new BetweenlandsChunkStorage(this, chunk);
 			storage.init();
 			storage.setDefaults();
-			this.storageMap.put(chunk.getPos(), storage);
-			
-			if(storage instanceof ITickable) {
-				this.tickableStorages.add((ITickable) storage);
-			}
+			this.storageMap.put(key, storage);
 
 			//Makes sure that the default values are saved
 			chunk.setModified(true);
@@ -179,40 +188,40 @@ public abstract class WorldStorageImpl implements IWorldStorage {
 
 	@Override
 	public void readAndLoadChunk(Chunk chunk, NBTTagCompound nbt) {
-		if(this.storageMap.containsKey(chunk.getPos())) {
+		long key = ChunkPos.asLong(chunk.x, chunk.z);
+		if(this.storageMap.containsKey(key)) {
 			if(ConfigHandler.debug) TheBetweenlands.logger.warn(String.format("Reading chunk storage at %s, but chunk storage is already loaded!", "[x=" + chunk.x + ", z=" + chunk.z + "]"));
 		} else {
 			ChunkStorageImpl storage = new BetweenlandsChunkStorage(this, chunk);
 			storage.init();
+			this.storageMap.put(key, storage);
 			storage.readFromNBT(nbt);
-			this.storageMap.put(chunk.getPos(), storage);
-			
-			if(storage instanceof ITickable) {
-				this.tickableStorages.add((ITickable) storage);
-			}
 		}
 	}
 
 	@Override
 	public void unloadChunk(Chunk chunk) {
-		if(!this.storageMap.containsKey(chunk.getPos())) {
-			if(ConfigHandler.debug) TheBetweenlands.logger.warn(String.format("Unloading chunk storage at %s, but chunk storage is not loaded!", "[x=" + chunk.x + ", z=" + chunk.z + "]"));
-		} else {
-			ChunkStorageImpl storage = this.storageMap.remove(chunk.getPos());
-			if(storage instanceof ITickable) {
-				this.tickableStorages.remove((ITickable) storage);
+		TickProfiler.CHUNK_STORAGES.start();
+		try {
+			ChunkStorageImpl storage = this.storageMap.remove(ChunkPos.asLong(chunk.x, chunk.z));
+			if(storage == null) {
+				if(ConfigHandler.debug) TheBetweenlands.logger.warn(String.format("Unloading chunk storage at %s, but chunk storage is not loaded!", "[x=" + chunk.x + ", z=" + chunk.z + "]"));
+			} else {
+				this.scheduledStorages.remove(storage);
+				storage.onUnload();
 			}
-			storage.onUnload();
+		} finally {
+			TickProfiler.CHUNK_STORAGES.stop();
 		}
 	}
 
 	@Override
 	public NBTTagCompound saveChunk(Chunk chunk) {
-		if(!this.storageMap.containsKey(chunk.getPos())) {
+		ChunkStorageImpl storage = this.storageMap.get(ChunkPos.asLong(chunk.x, chunk.z));
+		if(storage == null) {
 			if(ConfigHandler.debug) TheBetweenlands.logger.warn(String.format("Saving chunk storage at %s, but chunk storage is not loaded!", "[x=" + chunk.x + ", z=" + chunk.z + "]"));
 			return null;
 		} else {
-			ChunkStorageImpl storage = this.storageMap.get(chunk.getPos());
 			NBTTagCompound nbt = storage.writeToNBT(new NBTTagCompound());
 			storage.setDirty(false);
 			return nbt;
@@ -221,7 +230,7 @@ public abstract class WorldStorageImpl implements IWorldStorage {
 
 	@Override
 	public void watchChunk(ChunkPos pos, EntityPlayerMP player) {
-		ChunkStorageImpl storage = this.storageMap.get(pos);
+		ChunkStorageImpl storage = this.storageMap.get(ChunkPos.asLong(pos.x, pos.z));
 		if(storage != null) {
 			storage.addWatcher(player);
 		}
@@ -229,7 +238,7 @@ public abstract class WorldStorageImpl implements IWorldStorage {
 
 	@Override
 	public void unwatchChunk(ChunkPos pos, EntityPlayerMP player) {
-		ChunkStorageImpl storage = this.storageMap.get(pos);
+		ChunkStorageImpl storage = this.storageMap.get(ChunkPos.asLong(pos.x, pos.z));
 		if(storage != null) {
 			storage.removeWatcher(player);
 		}
@@ -237,7 +246,7 @@ public abstract class WorldStorageImpl implements IWorldStorage {
 
 	@Override
 	public ChunkStorageImpl getChunkStorage(Chunk chunk) {
-		return this.storageMap.get(chunk.getPos());
+		return this.storageMap.get(ChunkPos.asLong(chunk.x, chunk.z));
 	}
 
 	@Override
@@ -247,10 +256,25 @@ public abstract class WorldStorageImpl implements IWorldStorage {
 
 	@Override
 	public void tick() {
-		this.localStorageHandler.tick();
-		
-		for(ITickable tickable : this.tickableStorages) {
-			tickable.update();
+		TickProfiler.WORLD_STORAGE.start();
+		try {
+			this.localStorageHandler.tick();
+
+			if(!this.scheduledStorages.isEmpty()) {
+				TickProfiler.CHUNK_STORAGES.start();
+				try {
+					//Storages may schedule themselves again during their update
+					ChunkStorageImpl[] storages = this.scheduledStorages.toArray(new ChunkStorageImpl[this.scheduledStorages.size()]);
+					this.scheduledStorages.clear();
+					for(ChunkStorageImpl storage : storages) {
+						storage.update();
+					}
+				} finally {
+					TickProfiler.CHUNK_STORAGES.stop();
+				}
+			}
+		} finally {
+			TickProfiler.WORLD_STORAGE.stop();
 		}
 	}
 }
@@ -1,7 +1,8 @@
 package thebetweenlands.common.world.storage.location;
 
+import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 
 import javax.annotation.Nullable;
@@ -17,9 +18,12 @@ import thebetweenlands.common.network.clientbound.MessageBlockGuardData;
 import thebetweenlands.common.network.clientbound.MessageBlockGuardSectionChange;
 import thebetweenlands.common.network.clientbound.MessageClearBlockGuard;
 import thebetweenlands.common.world.storage.location.guard.BlockLocationGuard;
-import thebetweenlands.common.world.storage.location.guard.BlockLocationGuard.GuardChunkSection;
 
 public class LocationGuarded extends LocationStorage {
+	//Bytes and packets of block guard data sent to players since the last reset
+	private static long syncedGuardBytes = 0;
+	private static long syncedGuardPackets = 0;
+
 	private BlockLocationGuard guard = new BlockLocationGuard() {
 		@Override
 		public void setGuarded(World world, BlockPos pos, boolean guarded) {
@@ -93,6 +97,8 @@ public class LocationGuarded extends LocationStorage {
 		super.onWatched(player);
 		MessageBlockGuardData message = new MessageBlockGuardData(this);
 		this.sendDataToPlayer(message, player);
+		syncedGuardBytes += message.getSize();
+		syncedGuardPackets++;
 	}
 
 	@Override
@@ -109,18 +115,43 @@ public class LocationGuarded extends LocationStorage {
 			if(this.getWatchers().isEmpty()) {
 				this.queuedChanges.clear();
 			} else {
-				Iterator<BlockPos> it = this.queuedChanges.iterator();
-				while(it.hasNext()) {
-					BlockPos pos = it.next();
-					BlockPos worldPos = new BlockPos(pos.getX() * 16, pos.getY() * 16, pos.getZ() * 16);
-					GuardChunkSection section = this.guard.getSection(worldPos);
-					MessageBlockGuardSectionChange message = new MessageBlockGuardSectionChange(this, worldPos, section); 
-					for(EntityPlayerMP watcher : this.getWatchers()) {
-						this.sendDataToPlayer(message, watcher);
-					}
-					it.remove();
+				//All changed sections are sent in one message
+				List<BlockPos> sections = new ArrayList<>(this.queuedChanges.size());
+				for(BlockPos pos : this.queuedChanges) {
+					sections.add(new BlockPos(pos.getX() * 16, pos.getY() * 16, pos.getZ() * 16));
+				}
+				this.queuedChanges.clear();
+				MessageBlockGuardSectionChange message = new MessageBlockGuardSectionChange(this, sections); 
+				for(EntityPlayerMP watcher : this.getWatchers()) {
+					this.sendDataToPlayer(message, watcher);
 				}
+				syncedGuardBytes += (long) message.getSize() * this.getWatchers().size();
+				syncedGuardPackets += this.getWatchers().size();
 			}
 		}
 	}
+
+	/**
+	 * Returns how many bytes of block guard data have been sent to players
+	 * @return
+	 */
+	public static long getSyncedGuardBytes() {
+		return syncedGuardBytes;
+	}
+
+	/**
+	 * Returns how many block guard data packets have been sent to players
+	 * @return
+	 */
+	public static long getSyncedGuardPackets() {
+		return syncedGuardPackets;
+	}
+
+	/**
+	 * Clears the synced bytes and packets of the block guards
+	 */
+	public static void resetSyncStatistics() {
+		syncedGuardBytes = 0;
+		syncedGuardPackets = 0;
+	}
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package thebetweenlands.common.world.storage.location.guard;
 
+import java.util.Arrays;
+
 import javax.annotation.Nullable;
 
 import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
@@ -7,6 +9,7 @@ import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import net.minecraft.entity.Entity;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.nbt.NBTTagList;
+import net.minecraft.network.PacketBuffer;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.ChunkPos;
 import net.minecraft.world.Explosion;
@@ -43,6 +46,39 @@ public class BlockLocationGuard implements ILocationGuard {
 		return null;
 	}
 
+	/**
+	 * Replaces the chunk section at the specified position with the packed section data.
+	 * The section is removed if the data does not contain any guarded blocks
+	 * @param pos
+	 * @param packed
+	 * @see GuardChunkSection#writePacked()
+	 */
+	public void setPackedSection(BlockPos pos, byte[] packed) {
+		int x = pos.getX();
+		int y = pos.getY();
+		int z = pos.getZ();
+		if(y < 0 || y >= 256) {
+			return;
+		}
+		long id = ChunkPos.asLong(x / 16, z / 16);
+		GuardChunk chunk = this.chunkMap.get(id);
+		GuardChunkSection section = chunk != null ? chunk.getSection(y) : null;
+		if(section == null) {
+			section = new GuardChunkSection();
+		}
+		section.readPacked(packed);
+		if(section.isEmpty()) {
+			if(chunk != null) {
+				chunk.sections[y >> 4] = null;
+			}
+		} else {
+			if(chunk == null) {
+				this.chunkMap.put(id, chunk = new GuardChunk(x / 16, z / 16));
+			}
+			chunk.sections[y >> 4] = section;
+		}
+	}
+
 	@Override
 	public void setGuarded(World world, BlockPos pos, boolean guarded) {
 		int x = pos.getX();
@@ -122,7 +158,42 @@ public class BlockLocationGuard implements ILocationGuard {
 		}
 	}
 
+	/**
+	 * Writes the packed guard data to the buffer
+	 * @param buf
+	 */
+	public void writeToBuffer(PacketBuffer buf) {
+		buf.writeVarInt(this.chunkMap.size());
+		for(GuardChunk chunk : this.chunkMap.values()) {
+			buf.writeInt(chunk.x);
+			buf.writeInt(chunk.z);
+			chunk.writeToBuffer(buf);
+		}
+	}
+
+	/**
+	 * Reads the packed guard data from the buffer
+	 * @param buf
+	 */
+	public void readFromBuffer(PacketBuffer buf) {
+		this.chunkMap.clear();
+		int chunks = buf.readVarInt();
+		for(int i = 0; i < chunks; i++) {
+			int x = buf.readInt();
+			int z = buf.readInt();
+			GuardChunk chunk = new GuardChunk(x, z);
+			chunk.readFromBuffer(buf);
+			this.chunkMap.put(ChunkPos.asLong(x, z), chunk);
+		}
+	}
+
 	public static class GuardChunkSection {
+		//Formats of the packed section data
+		private static final byte PACKED_EMPTY = 0;
+		private static final byte PACKED_FULL = 1;
+		private static final byte PACKED_RAW = 2;
+		private static final byte PACKED_RUNS = 3;
+
 		private final byte[] data; //8 blocks per byte, 2 bytes per row, 2*16*16 bytes in total
 		private int blockRefCount = 0;
 
@@ -180,6 +251,7 @@ public class BlockLocationGuard implements ILocationGuard {
 			for(int i = 0; i < this.data.length; i++) {
 				this.data[i] = 0;
 			}
+			this.blockRefCount = 0;
 		}
 
 		public void loadData(byte[] arr) {
@@ -190,6 +262,94 @@ public class BlockLocationGuard implements ILocationGuard {
 		public void writeData(byte[] arr) {
 			System.arraycopy(this.data, 0, arr, 0, 512);
 		}
+
+		/**
+		 * Returns the packed section data. Empty and full sections are packed into a single byte,
+		 * other sections are packed as alternating runs of unguarded and guarded blocks
+		 * unless the raw data is smaller
+		 * @return
+		 */
+		public byte[] writePacked() {
+			if(this.blockRefCount == 0) {
+				return new byte[] { PACKED_EMPTY };
+			} else if(this.blockRefCount == 4096) {
+				return new byte[] { PACKED_FULL };
+			}
+
+			byte[] packed = new byte[513];
+			packed[0] = PACKED_RUNS;
+			int length = 1;
+			boolean guarded = false;
+			int run = 0;
+			for(int i = 0; i < 4096; i++) {
+				if(((this.data[i >> 3] & (1 << (i & 7))) != 0) != guarded) {
+					//Each run takes at most two bytes
+					if(length + 2 > packed.length) {
+						packed[0] = PACKED_RAW;
+						System.arraycopy(this.data, 0, packed, 1, 512);
+						return packed;
+					}
+					packed[length++] = (byte) ((run & 0x7F) | (run > 0x7F ? 0x80 : 0));
+					if(run > 0x7F) {
+						packed[length++] = (byte) (run >> 7);
+					}
+					guarded = !guarded;
+					run = 0;
+				}
+				run++;
+			}
+			//The last run is implied by the section size
+
+			return Arrays.copyOf(packed, length);
+		}
+
+		/**
+		 * Loads the section data from packed data
+		 * @param packed
+		 * @see #writePacked()
+		 */
+		public void readPacked(byte[] packed) {
+			this.clear();
+			if(packed.length == 0) {
+				return;
+			}
+			switch(packed[0]) {
+			case PACKED_FULL:
+				Arrays.fill(this.data, (byte) 0xFF);
+				break;
+			case PACKED_RAW:
+				System.arraycopy(packed, 1, this.data, 0, Math.min(packed.length - 1, 512));
+				break;
+			case PACKED_RUNS:
+				int index = 1;
+				int pos = 0;
+				boolean guarded = false;
+				while(index < packed.length && pos < 4096) {
+					int run = packed[index] & 0x7F;
+					if((packed[index++] & 0x80) != 0 && index < packed.length) {
+						run |= (packed[index++] & 0xFF) << 7;
+					}
+					if(guarded) {
+						this.setRun(pos, Math.min(pos + run, 4096));
+					}
+					pos += run;
+					guarded = !guarded;
+				}
+				if(guarded && pos < 4096) {
+					this.setRun(pos, 4096);
+				}
+				break;
+			default:
+				break;
+			}
+			this.updateBlockRefCount();
+		}
+
+		private void setRun(int start, int end) {
+			for(int i = start; i < end; i++) {
+				this.data[i >> 3] |= 1 << (i & 7);
+			}
+		}
 	}
 
 	public static class GuardChunk {
@@ -244,11 +404,9 @@ public class BlockLocationGuard implements ILocationGuard {
 			for(int i = 0; i < this.sections.length; i++) {
 				GuardChunkSection section = this.sections[i];
 				if(section != null) {
-					byte[] data = new byte[512];
-					section.writeData(data);
 					NBTTagCompound sectionNbt = new NBTTagCompound();
 					sectionNbt.setByte("Y", (byte)i);
-					sectionNbt.setByteArray("Data", data);
+					sectionNbt.setByteArray("Packed", section.writePacked());
 					sectionsNbt.appendTag(sectionNbt);
 				}
 			}
@@ -263,8 +421,45 @@ public class BlockLocationGuard implements ILocationGuard {
 				for(int i = 0; i < sectionsNbt.tagCount(); i++) {
 					NBTTagCompound sectionNbt = sectionsNbt.getCompoundTagAt(i);
 					int y = sectionNbt.getByte("Y");
-					byte[] data = sectionNbt.getByteArray("Data");
-					this.sections[y] = new GuardChunkSection(data);
+					if(sectionNbt.hasKey("Data", Constants.NBT.TAG_BYTE_ARRAY)) {
+						//Unpacked data of older saves
+						this.sections[y] = new GuardChunkSection(sectionNbt.getByteArray("Data"));
+					} else {
+						GuardChunkSection section = new GuardChunkSection();
+						section.readPacked(sectionNbt.getByteArray("Packed"));
+						if(!section.isEmpty()) {
+							this.sections[y] = section;
+						}
+					}
+				}
+			}
+		}
+
+		public void writeToBuffer(PacketBuffer buf) {
+			int sectionMask = 0;
+			for(int i = 0; i < this.sections.length; i++) {
+				if(this.sections[i] != null) {
+					sectionMask |= 1 << i;
+				}
+			}
+			buf.writeShort(sectionMask);
+			for(int i = 0; i < this.sections.length; i++) {
+				if(this.sections[i] != null) {
+					buf.writeByteArray(this.sections[i].writePacked());
+				}
+			}
+		}
+
+		public void readFromBuffer(PacketBuffer buf) {
+			this.clear();
+			int sectionMask = buf.readUnsignedShort();
+			for(int i = 0; i < this.sections.length; i++) {
+				if((sectionMask & (1 << i)) != 0) {
+					GuardChunkSection section = new GuardChunkSection();
+					section.readPacked(buf.readByteArray(513));
+					if(!section.isEmpty()) {
+						this.sections[i] = section;
+					}
 				}
 			}
 		}
@@ -0,0 +1,313 @@
+package thebetweenlands.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import net.minecraftforge.fml.common.eventhandler.EventPriority;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
+import net.minecraftforge.fml.common.gameevent.TickEvent.ServerTickEvent;
+
+/**
+ * Measures how much time per server tick is spent in the sections of the Betweenlands server handlers.
+ * Disabled by default, while disabled starting and stopping a section only checks a flag.
+ * Only the server thread is measured, so sections can also be used in code that runs on the client
+ */
+public class TickProfiler {
+	//Number of ticks the statistics are calculated over
+	public static final int WINDOW = 200;
+
+	private static final List<Section> SECTIONS = new ArrayList<>();
+
+	public static final Section MOB_SPAWNING = new Section("mob_spawning");
+	public static final Section ENVIRONMENT_EVENTS = new Section("environment_events");
+	public static final Section WORLD_STORAGE = new Section("world_storage");
+	public static final Section ENTITY_CAPABILITIES = new Section("entity_capabilities");
+	public static final Section PUPPETS = new Section("puppets");
+	public static final Section LOCATIONS = new Section("locations");
+	public static final Section LEAF_DECAY = new Section("leaf_decay");
+
+	//Detail sections can run inside the sections above and are not included in the total
+	public static final Section PLAYER_PROXIMITY = new Section("player_proximity", true);
+	public static final Section LOCAL_STORAGE_QUERIES = new Section("local_storage_queries", true);
+	public static final Section CHUNK_STORAGES = new Section("chunk_storages", true);
+	public static final Section ASPECT_LOOKUPS = new Section("aspect_lookups", true);
+	public static final Section ASPECT_CONTAINERS = new Section("aspect_containers", true);
+
+	private static boolean enabled = false;
+	private static boolean trackAllocations = false;
+	private static Boolean allocationTrackingSupported;
+	private static Thread serverThread;
+
+	//Position in the rolling window where the next tick is stored
+	private static int cursor = 0;
+	private static int recordedTicks = 0;
+
+	public static final class Section {
+		private final String name;
+		private final boolean detail;
+
+		private boolean running;
+		private long startNanos;
+		private long startAllocated;
+
+		//Totals of the current tick
+		private long tickNanos;
+		private long tickAllocated;
+		private int tickCalls;
+
+		private final long[] nanos = new long[WINDOW];
+		private final long[] allocated = new long[WINDOW];
+		private final int[] calls = new int[WINDOW];
+
+		private Section(String name) {
+			this(name, false);
+		}
+
+		private Section(String name, boolean detail) {
+			this.name = name;
+			this.detail = detail;
+			SECTIONS.add(this);
+		}
+
+		public String getName() {
+			return this.name;
+		}
+
+		/**
+		 * Returns whether this section measures a part of another section
+		 * and should therefore not be added to the total
+		 * @return
+		 */
+		public boolean isDetail() {
+			return this.detail;
+		}
+
+		/**
+		 * Starts measuring this section
+		 */
+		public void start() {
+			if(enabled && Thread.currentThread() == serverThread) {
+				this.running = true;
+				if(trackAllocations) {
+					this.startAllocated = AllocationCounter.getAllocatedBytes();
+				}
+				this.startNanos = System.nanoTime();
+			}
+		}
+
+		/**
+		 * Stops measuring this section and adds the measured time to the current tick.
+		 * Should be called in a finally block so that the section can't keep running into the next tick
+		 */
+		public void stop() {
+			if(this.running && Thread.currentThread() == serverThread) {
+				this.tickNanos += System.nanoTime() - this.startNanos;
+				if(trackAllocations) {
+					this.tickAllocated += AllocationCounter.getAllocatedBytes() - this.startAllocated;
+				}
+				this.tickCalls++;
+				this.running = false;
+			}
+		}
+
+		private void finishTick() {
+			this.nanos[cursor] = this.tickNanos;
+			this.allocated[cursor] = this.tickAllocated;
+			this.calls[cursor] = this.tickCalls;
+			this.tickNanos = 0;
+			this.tickAllocated = 0;
+			this.tickCalls = 0;
+		}
+
+		private void reset() {
+			this.running = false;
+			this.tickNanos = 0;
+			this.tickAllocated = 0;
+			this.tickCalls = 0;
+			Arrays.fill(this.nanos, 0);
+			Arrays.fill(this.allocated, 0);
+			Arrays.fill(this.calls, 0);
+		}
+
+		/**
+		 * Returns the time per tick in nanoseconds below which the specified fraction of the recorded ticks lie
+		 * @param percentile Between 0 and 1
+		 * @return
+		 */
+		public long getPercentileNanos(double percentile) {
+			if(recordedTicks == 0) {
+				return 0;
+			}
+			long[] sorted = Arrays.copyOf(this.nanos, recordedTicks);
+			Arrays.sort(sorted);
+			return sorted[Math.min((int) (percentile * recordedTicks), recordedTicks - 1)];
+		}
+
+		/**
+		 * Returns the average time per tick in nanoseconds
+		 * @return
+		 */
+		public double getAverageNanos() {
+			return getAverage(this.nanos);
+		}
+
+		/**
+		 * Returns the average allocated bytes per tick, only available if allocations are tracked
+		 * @return
+		 */
+		public double getAverageAllocatedBytes() {
+			return getAverage(this.allocated);
+		}
+
+		/**
+		 * Returns the average number of times this section was measured per tick
+		 * @return
+		 */
+		public double getAverageCalls() {
+			if(recordedTicks == 0) {
+				return 0;
+			}
+			long sum = 0;
+			for(int i = 0; i < recordedTicks; i++) {
+				sum += this.calls[i];
+			}
+			return sum / (double) recordedTicks;
+		}
+
+		private static double getAverage(long[] values) {
+			if(recordedTicks == 0) {
+				return 0;
+			}
+			long sum = 0;
+			for(int i = 0; i < recordedTicks; i++) {
+				sum += values[i];
+			}
+			return sum / (double) recordedTicks;
+		}
+	}
+
+	/**
+	 * Only loaded if the JVM supports measuring the allocated memory of a thread
+	 */
+	private static final class AllocationCounter {
+		private static final com.sun.management.ThreadMXBean BEAN = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+		private static boolean isSupported() {
+			return BEAN.isThreadAllocatedMemorySupported() && BEAN.isThreadAllocatedMemoryEnabled();
+		}
+
+		private static long getAllocatedBytes() {
+			return BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+	}
+
+	/**
+	 * Returns whether the JVM supports counting allocated bytes
+	 * @return
+	 */
+	public static boolean isAllocationTrackingSupported() {
+		try {
+			return ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean && AllocationCounter.isSupported();
+		} catch(Throwable ex) {
+			return false;
+		}
+	}
+
+	/**
+	 * Returns how many bytes the current thread has allocated so far, or -1 if the JVM doesn't support counting allocated bytes.
+	 * Can be used on any thread to measure code outside of the server handlers
+	 * @return
+	 */
+	public static long getAllocatedBytes() {
+		if(allocationTrackingSupported == null) {
+			allocationTrackingSupported = isAllocationTrackingSupported();
+		}
+		return allocationTrackingSupported ? AllocationCounter.getAllocatedBytes() : -1;
+	}
+
+	/**
+	 * Clears all recorded ticks and starts profiling
+	 * @param allocations Whether allocated bytes should be counted. Ignored if not supported by the JVM
+	 */
+	public static void enable(boolean allocations) {
+		reset();
+		trackAllocations = allocations && isAllocationTrackingSupported();
+		enabled = true;
+	}
+
+	/**
+	 * Stops profiling. The recorded ticks are kept until the profiler is enabled again or reset
+	 */
+	public static void disable() {
+		enabled = false;
+		for(Section section : SECTIONS) {
+			section.running = false;
+		}
+	}
+
+	/**
+	 * Clears all recorded ticks
+	 */
+	public static void reset() {
+		for(Section section : SECTIONS) {
+			section.reset();
+		}
+		cursor = 0;
+		recordedTicks = 0;
+	}
+
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	public static boolean isTrackingAllocations() {
+		return trackAllocations;
+	}
+
+	/**
+	 * Returns how many ticks the statistics are currently calculated over
+	 * @return
+	 */
+	public static int getRecordedTicks() {
+		return recordedTicks;
+	}
+
+	public static List<Section> getSections() {
+		return Collections.unmodifiableList(SECTIONS);
+	}
+
+	/**
+	 * Returns the recorded ticks as CSV, oldest tick first
+	 * @return
+	 */
+	public static List<String> toCsv() {
+		List<String> lines = new ArrayList<>();
+		lines.add("tick,section,nanos,calls,allocated_bytes");
+		for(int i = 0; i < recordedTicks; i++) {
+			int index = recordedTicks < WINDOW ? i : (cursor + i) % WINDOW;
+			for(Section section : SECTIONS) {
+				lines.add(i + "," + section.name + "," + section.nanos[index] + "," + section.calls[index] + "," + (trackAllocations ? String.valueOf(section.allocated[index]) : ""));
+			}
+		}
+		return lines;
+	}
+
+	//Runs first so that the previous tick includes all handlers of the previous tick
+	@SubscribeEvent(priority = EventPriority.HIGHEST)
+	public static void onServerTick(ServerTickEvent event) {
+		if(event.phase == Phase.START) {
+			serverThread = Thread.currentThread();
+			if(enabled) {
+				for(Section section : SECTIONS) {
+					section.finishTick();
+				}
+				cursor = (cursor + 1) % WINDOW;
+				recordedTicks = Math.min(recordedTicks + 1, WINDOW);
+			}
+		}
+	}
+}
@@ -26,11 +26,18 @@ public class ConfigHandler {
 	public static int dimensionBrightness;
 	public static boolean enableSeasonalEvents;
 	public static boolean onlineEnvironmentEventOverrides;
+	public static int maxCachedStorageRegions;
+	public static int maxStorageRegionCacheSize;
+	public static int pregenTickBudget;
+	public static int surfaceUpdateChunkBudget;
+	public static int plantSpreadBudget;
 
 	public static int wispQuality;
 	public static boolean useShader;
 	public static int skyResolution;
 	public static boolean fullbrightBlocks;
+	public static int particleBudget;
+	public static int particleLodDistance;
 
 	public static boolean debug;
 	public static boolean debugModelLoader;
@@ -41,9 +48,11 @@ public class ConfigHandler {
 	private static Multimap<String, String> rottenFoodWhitelist;
 	public static boolean cavingRopeIndicator;
 	public static boolean showNonBLFuids;
+	public static int tileSyncInterval;
 
 	public static int maxEntitiesPerLoadedArea;
 	public static int hardEntityLimit;
+	public static int mobSpawningTickBudget;
 
 	public static boolean jeiGemRecipesNonBL;
 	
@@ -63,11 +72,18 @@ public class ConfigHandler {
 		dimensionBrightness = config.get(CATEGORIES[0], "Dimension brightness (0-100)", 75).setMinValue(0).setMaxValue(100).getInt(75);
 		enableSeasonalEvents = config.getBoolean("Enable Seasonal Events", CATEGORIES[0], true, "If true seasonal events will occur during special periods during a year");
 		onlineEnvironmentEventOverrides = config.getBoolean("Enable Online Environment Event Overrides", CATEGORIES[0], true, "If true this allows the developers to remotely enable certain environment events (such as the seasonal events for example) over a file hosted on our repository (https://raw.githubusercontent.com/Angry-Pixel/The-Betweenlands/environment_event_overrides/overrides.json). If you do not wish to use this feature it can be fully disabled by setting this to false");
+		maxCachedStorageRegions = config.get(CATEGORIES[0], "Max. cached local storage regions", 64, "The maximum amount of local storage regions (e.g. of locations) that are kept in memory per world while none of their storages are loaded").setMinValue(0).getInt(64);
+		maxStorageRegionCacheSize = config.get(CATEGORIES[0], "Max. local storage region cache size", 16384, "The maximum approximate uncompressed NBT size in kilobytes of the local storage regions that are kept in memory per world. Regions whose storages are loaded are never removed and may exceed this limit").setMinValue(0).getInt(16384);
+		pregenTickBudget = config.get(CATEGORIES[0], "Pre-generation time budget per tick", 25000, "The maximum time in microseconds that can be spent on pre-generating chunks with /blpregen per tick. Higher values generate faster but lower the tick rate while pre-generation is running").setMinValue(1000).getInt(25000);
+		surfaceUpdateChunkBudget = config.get(CATEGORIES[0], "Environment event chunk updates per tick", 128, "The maximum amount of chunks per tick whose surface can be updated by environment events, e.g. to place snow or puddles. The loaded chunks are updated in rotation, so lower values spread the work over more ticks without changing how much snow or puddles are placed overall").setMinValue(1).getInt(128);
+		plantSpreadBudget = config.get(CATEGORIES[0], "Plant spread budget", 512, "The maximum amount of spreading blocks (e.g. moss, vines, hangers and puddles) that can spread per tick in each world. Spreading blocks beyond this amount skip their growth until the next random tick. Set to 0 to disable the limit").setMinValue(0).getInt(512);
 		
 		wispQuality = config.get(CATEGORIES[1], "Wisp Rendering Quality (0-100)", 50).setMinValue(0).setMaxValue(100).getInt(100);
 		useShader = config.getBoolean("Use shaders for rendering", CATEGORIES[1], true, "Some features in the Betweenlands use shaders for special effects. If you don't have a dedicated graphics card or want to use other mods with shaders you should set this to false. May have an impact on performance depending on your computer. Forces FBOs to be enabled");
 		skyResolution = config.get(CATEGORIES[1], "Sky texture resolution", 1024, "Only works when shaders are enabled. Determines the resolution of the shader sky texture. Bigger resolutions may have a bad impact on performance").getInt(1024);
 		fullbrightBlocks = config.getBoolean("Full brightness blocks", CATEGORIES[1], true, "Some blocks glow in the dark (eg Life Crystal Ore) which doesn't work in some cases. If you run into problems like broken textures for such blocks then set this to false");
+		particleBudget = config.get(CATEGORIES[1], "Max. Betweenlands particles", 2000, "The maximum amount of Betweenlands particles that can exist at the same time. Once more than half of this amount is used up fewer particles are spawned. Set to 0 to disable the limit").setMinValue(0).getInt(2000);
+		particleLodDistance = config.get(CATEGORIES[1], "Particle LOD distance", 24, "The distance in blocks after which fewer Betweenlands particles are spawned the further away they are from the player. Only used if the particle limit is enabled").setMinValue(1).getInt(24);
 		
 		// Replaced with false by gradle for release version
 		debug = config.getBoolean("Debug mode", CATEGORIES[4], /*!*/true/*!*/, "If ture, enables debug mode with additional features for testing or development");
@@ -80,9 +96,11 @@ public class ConfigHandler {
 		parseFoodWhitelist(rottenFoodWhitelistUnparsed);
 		cavingRopeIndicator = config.getBoolean("Caving Rope Indicator", CATEGORIES[2], true, "Adds an indicator next to the crosshair that shows whether the player is connected to the caving rope and how much rope is left");
 		showNonBLFuids = config.getBoolean("Show Non BL Buckets", CATEGORIES[2], true, "If fluids from other mods should show in BL buckets in the creative tab");
+		tileSyncInterval = config.get(CATEGORIES[2], "Tile entity sync interval", 4, "The minimum time in ticks between two syncs of the same tile entity (e.g. Alembic or Animator) to the clients. Changes within this time are combined into one sync. Higher values reduce network traffic but make the tile entities update less smoothly").setMinValue(1).getInt(4);
 
 		maxEntitiesPerLoadedArea = config.get(CATEGORIES[3], "Max. entities per loaded area", 250, "The maximum amount of naturally spawned entities per loaded area (in most cases this means per player)").setMinValue(0).getInt(100);
 		hardEntityLimit = config.get(CATEGORIES[3], "Max. entities per world", 600, "The maximum amount of naturally spawned entities in the Betweenlands per world").setMinValue(0).getInt(600);
+		mobSpawningTickBudget = config.get(CATEGORIES[3], "Mob spawning time budget per tick", 2500, "The maximum time in microseconds that can be spent on natural mob spawning per tick. Spawning runs that take longer are continued during the next ticks. 0 means no limit").setMinValue(0).getInt(2500);
 
 		jeiGemRecipesNonBL = config.getBoolean("JEI - Show Non BL Gem Recipes", CATEGORIES[5], true, "If true, non BL items will show in the JEI recipe for middle gems");
 